@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.logging.Log;
@@ -51,6 +52,8 @@ import org.springframework.aop.framework.autoproxy.ProxyCreationContext;
 import org.springframework.aop.interceptor.ExposeInvocationInterceptor;
 import org.springframework.aop.support.AbstractExpressionPointcut;
 import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.IndexCondition;
+import org.springframework.aop.support.IndexablePointcut;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.BeanFactoryUtils;
@@ -60,6 +63,7 @@ import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
@@ -83,7 +87,7 @@ import org.springframework.util.StringUtils;
  */
 @SuppressWarnings("serial")
 public class AspectJExpressionPointcut extends AbstractExpressionPointcut
-		implements ClassFilter, IntroductionAwareMethodMatcher, BeanFactoryAware {
+		implements ClassFilter, IntroductionAwareMethodMatcher, IndexablePointcut, BeanFactoryAware {
 
 	private static final Set<PointcutPrimitive> SUPPORTED_PRIMITIVES = new HashSet<>();
 
@@ -103,6 +107,15 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 
 	private static final Log logger = LogFactory.getLog(AspectJExpressionPointcut.class);
 
+	/**
+	 * Shadow matches shared across pointcuts with identical expressions,
+	 * keyed by {@link SharedShadowMatchKey}.
+	 */
+	private static final Map<Object, Map<Method, ShadowMatch>> sharedShadowMatchCaches =
+			new ConcurrentReferenceHashMap<>(64);
+
+	private static final Pattern BEAN_DESIGNATOR_PATTERN = Pattern.compile("\\bbean\\s*\\(");
+
 	@Nullable
 	private Class<?> pointcutDeclarationScope;
 
@@ -196,10 +209,25 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		if (this.pointcutExpression == null) {
 			this.pointcutClassLoader = determinePointcutClassLoader();
 			this.pointcutExpression = buildPointcutExpression(this.pointcutClassLoader);
+			this.shadowMatchCache = obtainShadowMatchCache();
 		}
 		return this.pointcutExpression;
 	}
 
+	/**
+	 * Obtain the cache of shadow matches for this pointcut, sharing the cache
+	 * of other pointcuts with the same expression and parameters if possible.
+	 * <p>Expressions with {@code bean()} designators are not shared since
+	 * they match against the bean factory of the pointcut.
+	 */
+	private Map<Method, ShadowMatch> obtainShadowMatchCache() {
+		if (BEAN_DESIGNATOR_PATTERN.matcher(resolveExpression()).find()) {
+			return this.shadowMatchCache;
+		}
+		return sharedShadowMatchCaches.computeIfAbsent(new SharedShadowMatchKey(this),
+				key -> new ConcurrentHashMap<>(32));
+	}
+
 	/**
 	 * Determine the ClassLoader to use for pointcut evaluation.
 	 */
@@ -267,6 +295,23 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		return obtainPointcutExpression();
 	}
 
+	/**
+	 * Derive the index condition from the declaring types and annotations
+	 * referred to by the {@code execution}, {@code within}, {@code @annotation},
+	 * {@code @within} and {@code @target} primitives of the expression.
+	 */
+	@Override
+	@Nullable
+	public IndexCondition getIndexCondition() {
+		try {
+			return AspectJIndexConditions.forExpression(obtainPointcutExpression());
+		}
+		catch (Throwable ex) {
+			logger.debug("Failed to derive index condition from PointcutExpression", ex);
+			return null;
+		}
+	}
+
 	@Override
 	public boolean matches(Class<?> targetClass) {
 		PointcutExpression pointcutExpression = obtainPointcutExpression();
@@ -581,6 +626,59 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 	}
 
 
+	/**
+	 * Key of the shadow matches shared across pointcuts: the expression, its
+	 * declaration scope and parameters, and the ClassLoader it is resolved with.
+	 */
+	private static final class SharedShadowMatchKey {
+
+		private final String expression;
+
+		@Nullable
+		private final Class<?> pointcutDeclarationScope;
+
+		private final String[] pointcutParameterNames;
+
+		private final Class<?>[] pointcutParameterTypes;
+
+		@Nullable
+		private final ClassLoader pointcutClassLoader;
+
+		public SharedShadowMatchKey(AspectJExpressionPointcut pointcut) {
+			this.expression = pointcut.resolveExpression();
+			this.pointcutDeclarationScope = pointcut.pointcutDeclarationScope;
+			this.pointcutParameterNames = pointcut.pointcutParameterNames;
+			this.pointcutParameterTypes = pointcut.pointcutParameterTypes;
+			this.pointcutClassLoader = pointcut.pointcutClassLoader;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof SharedShadowMatchKey)) {
+				return false;
+			}
+			SharedShadowMatchKey otherKey = (SharedShadowMatchKey) other;
+			return (this.expression.equals(otherKey.expression) &&
+					this.pointcutDeclarationScope == otherKey.pointcutDeclarationScope &&
+					Arrays.equals(this.pointcutParameterNames, otherKey.pointcutParameterNames) &&
+					Arrays.equals(this.pointcutParameterTypes, otherKey.pointcutParameterTypes) &&
+					this.pointcutClassLoader == otherKey.pointcutClassLoader);
+		}
+
+		@Override
+		public int hashCode() {
+			int hashCode = this.expression.hashCode();
+			hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode(this.pointcutDeclarationScope);
+			hashCode = 31 * hashCode + Arrays.hashCode(this.pointcutParameterNames);
+			hashCode = 31 * hashCode + Arrays.hashCode(this.pointcutParameterTypes);
+			return hashCode;
+		}
+	}
+
+
 	/**
 	 * Handler for the Spring-specific {@code bean()} pointcut designator
 	 * extension to AspectJ.
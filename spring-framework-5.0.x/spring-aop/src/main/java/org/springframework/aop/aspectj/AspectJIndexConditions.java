@@ -0,0 +1,157 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.aspectj;
+
+import org.aspectj.weaver.UnresolvedType;
+import org.aspectj.weaver.internal.tools.PointcutExpressionImpl;
+import org.aspectj.weaver.patterns.AndPointcut;
+import org.aspectj.weaver.patterns.AnnotationPointcut;
+import org.aspectj.weaver.patterns.AnnotationTypePattern;
+import org.aspectj.weaver.patterns.AnyWithAnnotationTypePattern;
+import org.aspectj.weaver.patterns.ExactAnnotationTypePattern;
+import org.aspectj.weaver.patterns.ExactTypePattern;
+import org.aspectj.weaver.patterns.KindedPointcut;
+import org.aspectj.weaver.patterns.NamePattern;
+import org.aspectj.weaver.patterns.OrPointcut;
+import org.aspectj.weaver.patterns.Pointcut;
+import org.aspectj.weaver.patterns.ThisOrTargetAnnotationPointcut;
+import org.aspectj.weaver.patterns.TypePattern;
+import org.aspectj.weaver.patterns.WildTypePattern;
+import org.aspectj.weaver.patterns.WithinAnnotationPointcut;
+import org.aspectj.weaver.patterns.WithinPointcut;
+import org.aspectj.weaver.tools.PointcutExpression;
+
+import org.springframework.aop.support.IndexCondition;
+import org.springframework.lang.Nullable;
+
+/**
+ * Derives the {@link IndexCondition} of an AspectJ pointcut expression from
+ * its parsed form, based on the declaring type and annotation patterns of
+ * {@code execution}, {@code within}, {@code @annotation}, {@code @within}
+ * and {@code @target} primitives.
+ *
+ * <p>Any other primitive, such as {@code this}, {@code target}, {@code args}
+ * or {@code bean}, as well as negations, may match any class.
+ *
+ * @since 5.0.17
+ * @see AspectJExpressionPointcut#getIndexCondition()
+ */
+abstract class AspectJIndexConditions {
+
+	/**
+	 * Return the condition for the given pointcut expression.
+	 * @param expression the parsed pointcut expression
+	 * @return the condition, or {@code null} for any class
+	 */
+	@Nullable
+	public static IndexCondition forExpression(PointcutExpression expression) {
+		if (!(expression instanceof PointcutExpressionImpl)) {
+			return null;
+		}
+		return forPointcut(((PointcutExpressionImpl) expression).getUnderlyingPointcut());
+	}
+
+	@Nullable
+	private static IndexCondition forPointcut(Pointcut pointcut) {
+		if (pointcut instanceof AndPointcut) {
+			AndPointcut and = (AndPointcut) pointcut;
+			return IndexCondition.and(forPointcut(and.getLeft()), forPointcut(and.getRight()));
+		}
+		if (pointcut instanceof OrPointcut) {
+			OrPointcut or = (OrPointcut) pointcut;
+			return IndexCondition.or(forPointcut(or.getLeft()), forPointcut(or.getRight()));
+		}
+		if (pointcut instanceof KindedPointcut) {
+			// execution: the method or its declaring type have to match
+			KindedPointcut kinded = (KindedPointcut) pointcut;
+			return IndexCondition.and(forAnnotationPattern(kinded.getSignature().getAnnotationPattern()),
+					forTypePattern(kinded.getSignature().getDeclaringType()));
+		}
+		if (pointcut instanceof WithinPointcut) {
+			return forTypePattern(((WithinPointcut) pointcut).getTypePattern());
+		}
+		if (pointcut instanceof AnnotationPointcut) {
+			return forAnnotationPattern(((AnnotationPointcut) pointcut).getAnnotationTypePattern());
+		}
+		if (pointcut instanceof WithinAnnotationPointcut) {
+			return forAnnotationPattern(((WithinAnnotationPointcut) pointcut).getAnnotationTypePattern());
+		}
+		if (pointcut instanceof ThisOrTargetAnnotationPointcut && !((ThisOrTargetAnnotationPointcut) pointcut).isThis()) {
+			return forAnnotationPattern(((ThisOrTargetAnnotationPointcut) pointcut).getAnnotationTypePattern());
+		}
+		return null;
+	}
+
+	@Nullable
+	private static IndexCondition forAnnotationPattern(@Nullable AnnotationTypePattern pattern) {
+		if (pattern instanceof ExactAnnotationTypePattern) {
+			UnresolvedType annotationType = ((ExactAnnotationTypePattern) pattern).getAnnotationType();
+			if (annotationType != null) {
+				return IndexCondition.annotatedWith(annotationType.getRawType().getName());
+			}
+		}
+		return null;
+	}
+
+	@Nullable
+	private static IndexCondition forTypePattern(TypePattern pattern) {
+		if (pattern instanceof AnyWithAnnotationTypePattern) {
+			return forAnnotationPattern(pattern.getAnnotationPattern());
+		}
+		if (pattern.isArray()) {
+			return null;
+		}
+		IndexCondition annotationCondition = forAnnotationPattern(pattern.getAnnotationPattern());
+		if (pattern instanceof ExactTypePattern) {
+			UnresolvedType type = ((ExactTypePattern) pattern).getType();
+			if (type.isPrimitiveType()) {
+				return annotationCondition;
+			}
+			return IndexCondition.and(annotationCondition, IndexCondition.assignableTo(type.getRawType().getName()));
+		}
+		if (pattern instanceof WildTypePattern) {
+			String packageName = getPackagePrefix(((WildTypePattern) pattern).getNamePatterns());
+			return IndexCondition.and(annotationCondition,
+					(packageName != null ? IndexCondition.inPackage(packageName) : null));
+		}
+		return annotationCondition;
+	}
+
+	/**
+	 * Return the literal package prefix of the given type name pattern,
+	 * e.g. {@code com.example} for {@code com.example..*Service}. The prefix
+	 * may end with the name of an enclosing class, as in {@code com.example.Outer.*}.
+	 */
+	@Nullable
+	private static String getPackagePrefix(NamePattern[] namePatterns) {
+		StringBuilder prefix = new StringBuilder();
+		// The last segment refers to the type itself, not to its package
+		for (int i = 0; i < namePatterns.length - 1; i++) {
+			NamePattern namePattern = namePatterns[i];
+			String name = (!NamePattern.ELLIPSIS.equals(namePattern) ? namePattern.maybeGetSimpleName() : null);
+			if (name == null) {
+				break;
+			}
+			if (prefix.length() > 0) {
+				prefix.append('.');
+			}
+			prefix.append(name);
+		}
+		return (prefix.length() > 0 ? prefix.toString() : null);
+	}
+
+}
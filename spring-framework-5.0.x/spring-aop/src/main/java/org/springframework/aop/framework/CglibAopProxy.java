@@ -20,12 +20,17 @@ import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.aopalliance.aop.Advice;
 import org.aopalliance.intercept.MethodInvocation;
@@ -40,6 +45,8 @@ import org.springframework.aop.TargetSource;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.cglib.core.ClassGenerator;
 import org.springframework.cglib.core.CodeGenerationException;
+import org.springframework.cglib.core.GeneratedClassCache;
+import org.springframework.cglib.core.GeneratorStrategy;
 import org.springframework.cglib.core.SpringNamingPolicy;
 import org.springframework.cglib.proxy.Callback;
 import org.springframework.cglib.proxy.CallbackFilter;
@@ -55,6 +62,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
 
 /**
  * CGLIB-based {@link AopProxy} implementation for the Spring AOP framework.
@@ -186,10 +194,12 @@ class CglibAopProxy implements AopProxy, Serializable {
 					enhancer.setUseCache(false);
 				}
 			}
+			Class<?>[] proxiedInterfaces = AopProxyUtils.completeProxiedInterfaces(this.advised);
 			enhancer.setSuperclass(proxySuperClass);
-			enhancer.setInterfaces(AopProxyUtils.completeProxiedInterfaces(this.advised));
+			enhancer.setInterfaces(proxiedInterfaces);
 			enhancer.setNamingPolicy(SpringNamingPolicy.INSTANCE);
-			enhancer.setStrategy(new ClassLoaderAwareUndeclaredThrowableStrategy(classLoader));
+			GeneratorStrategy strategy = new ClassLoaderAwareUndeclaredThrowableStrategy(classLoader);
+			enhancer.setStrategy(strategy);
 
 			Callback[] callbacks = getCallbacks(rootClass);
 			Class<?>[] types = new Class<?>[callbacks.length];
@@ -197,10 +207,22 @@ class CglibAopProxy implements AopProxy, Serializable {
 				types[x] = callbacks[x].getClass();
 			}
 			// fixedInterceptorMap only populated at this point, after getCallbacks call above
-			enhancer.setCallbackFilter(new ProxyCallbackFilter(
-					this.advised.getConfigurationOnlyCopy(), this.fixedInterceptorMap, this.fixedInterceptorOffset));
+			CallbackFilter callbackFilter = new ProxyCallbackFilter(
+					this.advised.getConfigurationOnlyCopy(), this.fixedInterceptorMap, this.fixedInterceptorOffset);
+			enhancer.setCallbackFilter(callbackFilter);
 			enhancer.setCallbackTypes(types);
 
+			// Reuse the bytecode of a proxy class generated before, if possible.
+			GeneratedClassCache classCache = GeneratedClassCache.getSharedInstance();
+			if (classCache != null && enhancer.getUseCache()) {
+				String cacheKey = buildClassCacheKey(
+						classCache, enhancer, proxySuperClass, proxiedInterfaces, types, callbackFilter);
+				if (cacheKey != null) {
+					enhancer.setNamingPolicy(classCache.getNamingPolicy(cacheKey));
+					enhancer.setStrategy(classCache.getStrategy(strategy, classLoader));
+				}
+			}
+
 			// Generate the proxy class and create a proxy instance.
 			return createProxyClassAndInstance(enhancer, callbacks);
 		}
@@ -231,6 +253,42 @@ class CglibAopProxy implements AopProxy, Serializable {
 		return new Enhancer();
 	}
 
+	/**
+	 * Build the key of the proxy class in the given cache of generated classes,
+	 * reflecting the bytecode of the superclass and interfaces as well as the
+	 * callback assigned to each method.
+	 * @return the key, or {@code null} if the proxy class cannot be cached
+	 */
+	@Nullable
+	private String buildClassCacheKey(GeneratedClassCache classCache, Enhancer enhancer, Class<?> proxySuperClass,
+			Class<?>[] proxiedInterfaces, Class<?>[] callbackTypes, CallbackFilter callbackFilter) {
+
+		GeneratedClassCache.Key key = classCache.newKey(getClass()).add(enhancer.getClass().getName());
+		key.addClass(proxySuperClass);
+		Set<Method> methods = new LinkedHashSet<>();
+		for (Method method : ReflectionUtils.getAllDeclaredMethods(proxySuperClass)) {
+			if (!Modifier.isPrivate(method.getModifiers()) && !Modifier.isStatic(method.getModifiers())) {
+				methods.add(method);
+			}
+		}
+		for (Class<?> proxiedInterface : proxiedInterfaces) {
+			key.addClass(proxiedInterface);
+			methods.addAll(Arrays.asList(proxiedInterface.getMethods()));
+		}
+		for (Class<?> callbackType : callbackTypes) {
+			key.add(callbackType.getName());
+		}
+		List<String> assignments = new ArrayList<>(methods.size());
+		for (Method method : methods) {
+			assignments.add(method + "=" + callbackFilter.accept(method));
+		}
+		Collections.sort(assignments);
+		for (String assignment : assignments) {
+			key.add(assignment);
+		}
+		return key.build();
+	}
+
 	/**
 	 * Checks to see whether the supplied {@code Class} has already been validated and
 	 * validates it if not.
@@ -322,23 +380,28 @@ class CglibAopProxy implements AopProxy, Serializable {
 		// direct to the target using the fixed chain for that method.
 		if (isStatic && isFrozen) {
 			Method[] methods = rootClass.getMethods();
-			Callback[] fixedCallbacks = new Callback[methods.length];
+			List<Callback> fixedCallbacks = new ArrayList<>(methods.length);
 			this.fixedInterceptorMap = new HashMap<>(methods.length);
 
-			// TODO: small memory optimization here (can skip creation for methods with no advice)
-			for (int x = 0; x < methods.length; x++) {
-				Method method = methods[x];
+			// Each advised method gets a dedicated callback index holding its chain, so that
+			// invocations do not need to look up the chain at all. Unadvised methods are
+			// dispatched through the main callbacks.
+			for (Method method : methods) {
 				List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, rootClass);
-				fixedCallbacks[x] = new FixedChainStaticTargetInterceptor(
-						chain, this.advised.getTargetSource().getTarget(), this.advised.getTargetClass());
-				this.fixedInterceptorMap.put(methods.toString(), x);
+				if (!chain.isEmpty()) {
+					this.fixedInterceptorMap.put(method.toString(), fixedCallbacks.size());
+					fixedCallbacks.add(new FixedChainStaticTargetInterceptor(
+							chain, this.advised.getTargetSource().getTarget(), this.advised.getTargetClass()));
+				}
 			}
 
 			// Now copy both the callbacks from mainCallbacks
 			// and fixedCallbacks into the callbacks array.
-			callbacks = new Callback[mainCallbacks.length + fixedCallbacks.length];
+			callbacks = new Callback[mainCallbacks.length + fixedCallbacks.size()];
 			System.arraycopy(mainCallbacks, 0, callbacks, 0, mainCallbacks.length);
-			System.arraycopy(fixedCallbacks, 0, callbacks, mainCallbacks.length, fixedCallbacks.length);
+			for (int x = 0; x < fixedCallbacks.size(); x++) {
+				callbacks[mainCallbacks.length + x] = fixedCallbacks.get(x);
+			}
 			this.fixedInterceptorOffset = mainCallbacks.length;
 		}
 		else {
@@ -652,6 +715,9 @@ class CglibAopProxy implements AopProxy, Serializable {
 
 		private final AdvisedSupport advised;
 
+		@Nullable
+		private transient volatile ConcurrentMap<Method, CompiledInterceptorChain> compiledChains;
+
 		public DynamicAdvisedInterceptor(AdvisedSupport advised) {
 			this.advised = advised;
 		}
@@ -674,9 +740,22 @@ class CglibAopProxy implements AopProxy, Serializable {
 				Class<?> targetClass = (target != null ? target.getClass() : null);
 				List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
 				Object retVal;
+				if (this.advised.isPrecompileInvokers()) {
+					// Proceed through the precompiled chain, invoking the target through the method proxy.
+					CompiledInterceptorChain compiledChain = CompiledInterceptorChain.forMethod(
+							getCompiledChains(), method, targetClass, chain, methodProxy);
+					if (compiledChain.isEmpty()) {
+						retVal = compiledChain.invokeJoinpoint(
+								target, AopProxyUtils.adaptArgumentsIfNecessary(method, args));
+					}
+					else {
+						retVal = new CompiledMethodInvocation(
+								proxy, target, method, args, targetClass, compiledChain).proceed();
+					}
+				}
 				// Check whether we only have one InvokerInterceptor: that is,
 				// no real advice, but just reflective invocation of the target.
-				if (chain.isEmpty() && Modifier.isPublic(method.getModifiers())) {
+				else if (chain.isEmpty() && Modifier.isPublic(method.getModifiers())) {
 					// We can skip creating a MethodInvocation: just invoke the target directly.
 					// Note that the final invoker must be an InvokerInterceptor, so we know
 					// it does nothing but a reflective operation on the target, and no hot
@@ -702,6 +781,15 @@ class CglibAopProxy implements AopProxy, Serializable {
 			}
 		}
 
+		private ConcurrentMap<Method, CompiledInterceptorChain> getCompiledChains() {
+			ConcurrentMap<Method, CompiledInterceptorChain> compiledChains = this.compiledChains;
+			if (compiledChains == null) {
+				compiledChains = new ConcurrentHashMap<>(32);
+				this.compiledChains = compiledChains;
+			}
+			return compiledChains;
+		}
+
 		@Override
 		public boolean equals(Object other) {
 			return (this == other ||
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.cglib.proxy.MethodProxy;
+import org.springframework.cglib.reflect.FastClass;
+import org.springframework.core.BridgeMethodResolver;
+import org.springframework.lang.Nullable;
+
+/**
+ * Interceptor chain of an advised method, precompiled by AOP proxies in
+ * {@link ProxyConfig#isPrecompileInvokers() precompiled} mode.
+ *
+ * <p>Interceptors and dynamic method matchers are resolved into arrays once,
+ * so that a {@link CompiledMethodInvocation} proceeds through the chain without
+ * any type checks. The target method is invoked through the CGLIB
+ * {@link MethodProxy} of the proxy, if any, or through a {@link FastClass}
+ * generated for the target class, falling back to reflection if no such
+ * invoker can be generated, e.g. for a target class that is not visible.
+ *
+ * @since 5.0.17
+ * @see CompiledMethodInvocation
+ */
+final class CompiledInterceptorChain {
+
+	private static final Log logger = LogFactory.getLog(CompiledInterceptorChain.class);
+
+
+	private final List<Object> source;
+
+	@Nullable
+	private final Class<?> targetClass;
+
+	private final Method method;
+
+	final MethodInterceptor[] interceptors;
+
+	@Nullable
+	final MethodMatcher[] dynamicMethodMatchers;
+
+	@Nullable
+	private final MethodProxy methodProxy;
+
+	@Nullable
+	private final FastClass fastClass;
+
+	private final int fastClassIndex;
+
+
+	private CompiledInterceptorChain(List<Object> source, @Nullable Class<?> targetClass, Method method,
+			@Nullable MethodProxy methodProxy) {
+
+		this.source = source;
+		this.targetClass = targetClass;
+		this.method = BridgeMethodResolver.findBridgedMethod(method);
+
+		this.interceptors = new MethodInterceptor[source.size()];
+		MethodMatcher[] dynamicMethodMatchers = null;
+		for (int i = 0; i < this.interceptors.length; i++) {
+			Object interceptorOrInterceptionAdvice = source.get(i);
+			if (interceptorOrInterceptionAdvice instanceof InterceptorAndDynamicMethodMatcher) {
+				InterceptorAndDynamicMethodMatcher dm =
+						(InterceptorAndDynamicMethodMatcher) interceptorOrInterceptionAdvice;
+				if (dynamicMethodMatchers == null) {
+					dynamicMethodMatchers = new MethodMatcher[this.interceptors.length];
+				}
+				dynamicMethodMatchers[i] = dm.methodMatcher;
+				this.interceptors[i] = dm.interceptor;
+			}
+			else {
+				this.interceptors[i] = (MethodInterceptor) interceptorOrInterceptionAdvice;
+			}
+		}
+		this.dynamicMethodMatchers = dynamicMethodMatchers;
+
+		boolean publicMethod = Modifier.isPublic(this.method.getModifiers());
+		this.methodProxy = (publicMethod ? methodProxy : null);
+		FastClass fastClass = null;
+		int fastClassIndex = -1;
+		if (publicMethod && methodProxy == null && targetClass != null) {
+			Method targetMethod = AopUtils.getMostSpecificMethod(this.method, targetClass);
+			try {
+				fastClass = FastClass.create(targetClass);
+				fastClassIndex = fastClass.getIndex(targetMethod.getName(), targetMethod.getParameterTypes());
+			}
+			catch (Throwable ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Could not generate invoker for " + targetMethod +
+							" - falling back to reflection: " + ex);
+				}
+			}
+		}
+		this.fastClass = (fastClassIndex >= 0 ? fastClass : null);
+		this.fastClassIndex = fastClassIndex;
+	}
+
+
+	/**
+	 * Return the raw chain this chain has been compiled from.
+	 */
+	List<Object> getSource() {
+		return this.source;
+	}
+
+	/**
+	 * Return whether this chain is empty, i.e. whether the target method
+	 * can be invoked without creating a {@link CompiledMethodInvocation}.
+	 */
+	boolean isEmpty() {
+		return (this.interceptors.length == 0);
+	}
+
+	/**
+	 * Invoke the target method, using the precompiled invoker if possible.
+	 * @param target the target object
+	 * @param args the arguments for the method
+	 * @return the return value, if any
+	 * @throws Throwable if thrown by the target method
+	 */
+	@Nullable
+	Object invokeJoinpoint(@Nullable Object target, Object[] args) throws Throwable {
+		if (this.methodProxy != null) {
+			return this.methodProxy.invoke(target, args);
+		}
+		if (this.fastClass != null) {
+			try {
+				return this.fastClass.invoke(this.fastClassIndex, target, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+		return AopUtils.invokeJoinpointUsingReflection(target, this.method, args);
+	}
+
+
+	/**
+	 * Return the compiled chain for the given method from the given cache,
+	 * compiling it if there is none or if the chain of the method changed.
+	 * @param cache the cache of compiled chains per method
+	 * @param method the proxied method
+	 * @param targetClass the target class, if any
+	 * @param chain the current interceptor chain of the method, as determined
+	 * by the {@link AdvisorChainFactory}
+	 * @param methodProxy the CGLIB method proxy to invoke the target with, if any
+	 * @return the compiled chain
+	 */
+	static CompiledInterceptorChain forMethod(ConcurrentMap<Method, CompiledInterceptorChain> cache,
+			Method method, @Nullable Class<?> targetClass, List<Object> chain, @Nullable MethodProxy methodProxy) {
+
+		CompiledInterceptorChain compiledChain = cache.get(method);
+		if (compiledChain == null || compiledChain.source != chain || compiledChain.targetClass != targetClass) {
+			compiledChain = new CompiledInterceptorChain(chain, targetClass, method, methodProxy);
+			cache.put(method, compiledChain);
+		}
+		return compiledChain;
+	}
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.lang.reflect.Method;
+
+import org.springframework.aop.MethodMatcher;
+import org.springframework.lang.Nullable;
+
+/**
+ * Variant of {@link ReflectiveMethodInvocation} that proceeds through a
+ * {@link CompiledInterceptorChain}: interceptors are invoked from a plain
+ * array, dynamic method matchers are only checked where present, and the
+ * joinpoint is invoked through the precompiled invoker of the chain.
+ *
+ * @since 5.0.17
+ * @see ProxyConfig#setPrecompileInvokers
+ */
+class CompiledMethodInvocation extends ReflectiveMethodInvocation {
+
+	private final CompiledInterceptorChain chain;
+
+	@Nullable
+	private final Class<?> targetClass;
+
+	private int currentIndex = -1;
+
+
+	public CompiledMethodInvocation(Object proxy, @Nullable Object target, Method method,
+			@Nullable Object[] arguments, @Nullable Class<?> targetClass, CompiledInterceptorChain chain) {
+
+		super(proxy, target, method, arguments, targetClass, chain.getSource());
+		this.chain = chain;
+		this.targetClass = targetClass;
+	}
+
+
+	@Override
+	@Nullable
+	public Object proceed() throws Throwable {
+		int index = ++this.currentIndex;
+		if (index == this.chain.interceptors.length) {
+			return invokeJoinpoint();
+		}
+		MethodMatcher[] dynamicMethodMatchers = this.chain.dynamicMethodMatchers;
+		if (dynamicMethodMatchers != null && dynamicMethodMatchers[index] != null &&
+				!dynamicMethodMatchers[index].matches(this.method, this.targetClass, this.arguments)) {
+			// Dynamic matching failed: skip this interceptor.
+			return proceed();
+		}
+		return this.chain.interceptors[index].invoke(this);
+	}
+
+	@Override
+	@Nullable
+	protected Object invokeJoinpoint() throws Throwable {
+		return this.chain.invokeJoinpoint(this.target, this.arguments);
+	}
+
+}
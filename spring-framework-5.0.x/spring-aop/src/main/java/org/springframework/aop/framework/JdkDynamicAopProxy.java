@@ -21,6 +21,8 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.logging.Log;
@@ -92,6 +94,10 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	 */
 	private boolean hashCodeDefined;
 
+	/** Compiled interceptor chains per method, if precompiling invokers */
+	@Nullable
+	private transient volatile ConcurrentMap<Method, CompiledInterceptorChain> compiledChains;
+
 
 	/**
 	 * Construct a new JdkDynamicAopProxy for the given AOP configuration.
@@ -195,9 +201,22 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 			// Get the interception chain for this method.
 			List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
 
+			if (this.advised.isPrecompileInvokers()) {
+				// Proceed through the precompiled chain, invoking the target without reflection.
+				CompiledInterceptorChain compiledChain = CompiledInterceptorChain.forMethod(
+						getCompiledChains(), method, targetClass, chain, null);
+				if (compiledChain.isEmpty()) {
+					retVal = compiledChain.invokeJoinpoint(
+							target, AopProxyUtils.adaptArgumentsIfNecessary(method, args));
+				}
+				else {
+					retVal = new CompiledMethodInvocation(
+							proxy, target, method, args, targetClass, compiledChain).proceed();
+				}
+			}
 			// Check whether we have any advice. If we don't, we can fallback on direct
 			// reflective invocation of the target, and avoid creating a MethodInvocation.
-			if (chain.isEmpty()) {
+			else if (chain.isEmpty()) {
 				// We can skip creating a MethodInvocation: just invoke the target directly
 				// Note that the final invoker must be an InvokerInterceptor so we know it does
 				// nothing but a reflective operation on the target, and no hot swapping or fancy proxying.
@@ -241,6 +260,20 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	}
 
 
+	/**
+	 * Return the compiled interceptor chains, lazily initialized since
+	 * they are not serialized along with this proxy.
+	 */
+	private ConcurrentMap<Method, CompiledInterceptorChain> getCompiledChains() {
+		ConcurrentMap<Method, CompiledInterceptorChain> compiledChains = this.compiledChains;
+		if (compiledChains == null) {
+			compiledChains = new ConcurrentHashMap<>(32);
+			this.compiledChains = compiledChains;
+		}
+		return compiledChains;
+	}
+
+
 	/**
 	 * Equality means interfaces, advisors and TargetSource are equal.
 	 * <p>The compared object may be a JdkDynamicAopProxy instance itself
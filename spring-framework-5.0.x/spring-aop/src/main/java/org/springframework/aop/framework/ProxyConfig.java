@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -44,6 +44,8 @@ public class ProxyConfig implements Serializable {
 
 	private boolean frozen = false;
 
+	private boolean precompileInvokers = false;
+
 
 	/**
 	 * Set whether to proxy the target class directly, instead of just proxying
@@ -90,6 +92,27 @@ public class ProxyConfig implements Serializable {
 		return this.optimize;
 	}
 
+	/**
+	 * Set whether proxies should precompile the interceptor chain of each
+	 * advised method on first invocation, invoking the target method through
+	 * an invoker generated for the target class instead of through reflection.
+	 * <p>Default is "false". Precompiled chains are rebuilt whenever the advice
+	 * of a method changes, at the expense of some memory per proxied method.
+	 * @since 5.0.17
+	 */
+	public void setPrecompileInvokers(boolean precompileInvokers) {
+		this.precompileInvokers = precompileInvokers;
+	}
+
+	/**
+	 * Return whether proxies should precompile the interceptor chains of
+	 * advised methods.
+	 * @since 5.0.17
+	 */
+	public boolean isPrecompileInvokers() {
+		return this.precompileInvokers;
+	}
+
 	/**
 	 * Set whether proxies created by this configuration should be prevented
 	 * from being cast to {@link Advised} to query proxy status.
@@ -158,6 +181,7 @@ public class ProxyConfig implements Serializable {
 		this.exposeProxy = other.exposeProxy;
 		this.frozen = other.frozen;
 		this.opaque = other.opaque;
+		this.precompileInvokers = other.precompileInvokers;
 	}
 
 	@Override
@@ -167,7 +191,8 @@ public class ProxyConfig implements Serializable {
 		sb.append("optimize=").append(this.optimize).append("; ");
 		sb.append("opaque=").append(this.opaque).append("; ");
 		sb.append("exposeProxy=").append(this.exposeProxy).append("; ");
-		sb.append("frozen=").append(this.frozen);
+		sb.append("frozen=").append(this.frozen).append("; ");
+		sb.append("precompileInvokers=").append(this.precompileInvokers);
 		return sb.toString();
 	}
 
@@ -20,6 +20,7 @@ import java.util.List;
 
 import org.springframework.aop.Advisor;
 import org.springframework.aop.TargetSource;
+import org.springframework.aop.support.AdvisorIndex;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
@@ -52,6 +53,32 @@ public abstract class AbstractAdvisorAutoProxyCreator extends AbstractAutoProxyC
 	@Nullable
 	private BeanFactoryAdvisorRetrievalHelper advisorRetrievalHelper;
 
+	private boolean usePointcutIndex = true;
+
+	@Nullable
+	private transient volatile AdvisorIndex advisorIndex;
+
+
+	/**
+	 * Set whether to only match each bean against the candidate Advisors
+	 * whose pointcut may apply to the bean class according to an
+	 * {@link AdvisorIndex}, rather than against all candidate Advisors.
+	 * <p>Default is "true". Switch this off to match every bean
+	 * against every candidate Advisor.
+	 * @since 5.0.17
+	 * @see org.springframework.aop.support.IndexablePointcut
+	 */
+	public void setUsePointcutIndex(boolean usePointcutIndex) {
+		this.usePointcutIndex = usePointcutIndex;
+	}
+
+	/**
+	 * Return whether to match beans against an index of the candidate Advisors.
+	 * @since 5.0.17
+	 */
+	public boolean isUsePointcutIndex() {
+		return this.usePointcutIndex;
+	}
 
 	@Override
 	public void setBeanFactory(BeanFactory beanFactory) {
@@ -123,6 +150,9 @@ public abstract class AbstractAdvisorAutoProxyCreator extends AbstractAutoProxyC
 
 		ProxyCreationContext.setCurrentProxiedBeanName(beanName);
 		try {
+			if (this.usePointcutIndex && !candidateAdvisors.isEmpty()) {
+				candidateAdvisors = obtainAdvisorIndex(candidateAdvisors).getCandidateAdvisors(beanClass);
+			}
 			return AopUtils.findAdvisorsThatCanApply(candidateAdvisors, beanClass);
 		}
 		finally {
@@ -130,6 +160,19 @@ public abstract class AbstractAdvisorAutoProxyCreator extends AbstractAutoProxyC
 		}
 	}
 
+	/**
+	 * Obtain an index of the given candidate Advisors, reusing the index
+	 * built for the previous bean if the candidates did not change.
+	 */
+	private AdvisorIndex obtainAdvisorIndex(List<Advisor> candidateAdvisors) {
+		AdvisorIndex advisorIndex = this.advisorIndex;
+		if (advisorIndex == null || !advisorIndex.isIndexOf(candidateAdvisors)) {
+			advisorIndex = new AdvisorIndex(candidateAdvisors);
+			this.advisorIndex = advisorIndex;
+		}
+		return advisorIndex;
+	}
+
 	/**
 	 * Return whether the Advisor bean with the given name is eligible
 	 * for proxying in the first place.
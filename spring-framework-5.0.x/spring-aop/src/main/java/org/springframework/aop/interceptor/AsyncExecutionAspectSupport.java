@@ -17,7 +17,9 @@
 package org.springframework.aop.interceptor;
 
 import java.lang.reflect.Method;
+import java.util.ArrayDeque;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -38,6 +40,7 @@ import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.core.task.support.TaskExecutorAdapter;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.util.concurrent.ListenableFuture;
@@ -52,6 +55,11 @@ import org.springframework.util.concurrent.ListenableFuture;
  * Executor}, but each individual method may further qualify a specific {@code Executor}
  * bean to be used when executing it, e.g. through an annotation attribute.
  *
+ * <p>Methods may also declare a <i>sharding key</i>: invocations with a non-null key
+ * are routed to one of a fixed number of serial lanes on top of the chosen executor,
+ * so that invocations sharing a key run one at a time in submission order while
+ * invocations for different lanes still run in parallel.
+ *
  * @author Chris Beams
  * @author Juergen Hoeller
  * @author Stephane Nicoll
@@ -67,11 +75,22 @@ public abstract class AsyncExecutionAspectSupport implements BeanFactoryAware {
 	 */
 	public static final String DEFAULT_TASK_EXECUTOR_BEAN_NAME = "taskExecutor";
 
+	/**
+	 * The default number of serial lanes per executor for sharded invocations: 16.
+	 * @since 5.0.17
+	 * @see #setShardCount(int)
+	 */
+	public static final int DEFAULT_SHARD_COUNT = 16;
+
 
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private final Map<Method, AsyncTaskExecutor> executors = new ConcurrentHashMap<>(16);
 
+	private final Map<AsyncTaskExecutor, AsyncTaskExecutor[]> shards = new ConcurrentHashMap<>(16);
+
+	private volatile int shardCount = DEFAULT_SHARD_COUNT;
+
 	@Nullable
 	private volatile Executor defaultExecutor;
 
@@ -128,6 +147,28 @@ public abstract class AsyncExecutionAspectSupport implements BeanFactoryAware {
 		this.exceptionHandler = exceptionHandler;
 	}
 
+	/**
+	 * Set the number of serial lanes per executor that sharded invocations are
+	 * distributed across. Invocations with equal sharding keys always end up
+	 * in the same lane; a higher count allows more keys to proceed in parallel.
+	 * <p>Default is {@link #DEFAULT_SHARD_COUNT}. Changes only affect executors
+	 * that have not been used for sharded invocations yet.
+	 * @since 5.0.17
+	 * @see #getShardingKey(Method, Object, Object[])
+	 */
+	public void setShardCount(int shardCount) {
+		Assert.isTrue(shardCount > 0, "'shardCount' must be greater than 0");
+		this.shardCount = shardCount;
+	}
+
+	/**
+	 * Return the number of serial lanes per executor for sharded invocations.
+	 * @since 5.0.17
+	 */
+	public int getShardCount() {
+		return this.shardCount;
+	}
+
 	/**
 	 * Set the {@link BeanFactory} to be used when looking up executors by qualifier
 	 * or when relying on the default executor lookup algorithm.
@@ -175,6 +216,47 @@ public abstract class AsyncExecutionAspectSupport implements BeanFactoryAware {
 		return executor;
 	}
 
+	/**
+	 * Determine the serial lane of the given executor that an invocation with the
+	 * given sharding key is to be submitted to. The lanes of an executor are created
+	 * lazily and kept for subsequent invocations; each of them runs at most one task
+	 * at a time on the given executor, in submission order.
+	 * @param executor the executor determined for the method
+	 * @param shardingKey the sharding key of the invocation
+	 * @return the lane to submit the invocation to
+	 * @since 5.0.17
+	 * @see #getShardingKey(Method, Object, Object[])
+	 */
+	protected AsyncTaskExecutor determineShardExecutor(AsyncTaskExecutor executor, Object shardingKey) {
+		AsyncTaskExecutor[] lanes = this.shards.computeIfAbsent(executor, key -> {
+			AsyncTaskExecutor[] result = new AsyncTaskExecutor[this.shardCount];
+			for (int i = 0; i < result.length; i++) {
+				result[i] = new TaskExecutorAdapter(new SerialExecutor(key));
+			}
+			return result;
+		});
+		int hash = shardingKey.hashCode();
+		return lanes[Math.floorMod(hash ^ (hash >>> 16), lanes.length)];
+	}
+
+	/**
+	 * Return the sharding key for the given invocation, typically derived from
+	 * the invocation arguments as specified through an annotation attribute.
+	 * Invocations with equal keys are executed sequentially in submission order.
+	 * <p>The default implementation returns {@code null}, indicating that the
+	 * invocation may run concurrently with any other invocation.
+	 * @param method the method being invoked
+	 * @param target the target instance (may be {@code null})
+	 * @param args the invocation arguments
+	 * @return the sharding key, or {@code null} if none
+	 * @since 5.0.17
+	 * @see #determineShardExecutor(AsyncTaskExecutor, Object)
+	 */
+	@Nullable
+	protected Object getShardingKey(Method method, @Nullable Object target, Object[] args) {
+		return null;
+	}
+
 	/**
 	 * Return the qualifier or bean name of the executor to be used when executing the
 	 * given async method, typically specified in the form of an annotation attribute.
@@ -314,4 +396,99 @@ public abstract class AsyncExecutionAspectSupport implements BeanFactoryAware {
 		}
 	}
 
+
+	/**
+	 * Executor that runs the submitted tasks one at a time, in submission order,
+	 * on a target executor.
+	 */
+	private static class SerialExecutor implements Executor {
+
+		private final Executor target;
+
+		private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+		private boolean active;
+
+		public SerialExecutor(Executor target) {
+			this.target = target;
+		}
+
+		@Override
+		public void execute(Runnable task) {
+			synchronized (this.tasks) {
+				this.tasks.add(task);
+				if (this.active) {
+					return;
+				}
+				this.active = true;
+			}
+			try {
+				this.target.execute(this::runNext);
+			}
+			catch (RuntimeException ex) {
+				boolean pending;
+				synchronized (this.tasks) {
+					this.tasks.remove(task);
+					pending = !this.tasks.isEmpty();
+					if (!pending) {
+						this.active = false;
+					}
+				}
+				if (pending) {
+					// Tasks accepted in the meantime must not get lost: run them here
+					runRemaining();
+				}
+				throw ex;
+			}
+		}
+
+		private void runNext() {
+			Runnable task;
+			synchronized (this.tasks) {
+				task = this.tasks.poll();
+			}
+			try {
+				if (task != null) {
+					task.run();
+				}
+			}
+			finally {
+				boolean pending;
+				synchronized (this.tasks) {
+					pending = !this.tasks.isEmpty();
+					if (!pending) {
+						this.active = false;
+					}
+				}
+				if (pending) {
+					try {
+						this.target.execute(this::runNext);
+					}
+					catch (RuntimeException ex) {
+						// Target executor does not accept tasks anymore: run the accepted ones here
+						runRemaining();
+					}
+				}
+			}
+		}
+
+		private void runRemaining() {
+			Runnable task;
+			while ((task = pollOrDeactivate()) != null) {
+				task.run();
+			}
+		}
+
+		@Nullable
+		private Runnable pollOrDeactivate() {
+			synchronized (this.tasks) {
+				Runnable task = this.tasks.poll();
+				if (task == null) {
+					this.active = false;
+				}
+				return task;
+			}
+		}
+	}
+
 }
@@ -109,6 +109,10 @@ public class AsyncExecutionInterceptor extends AsyncExecutionAspectSupport imple
 			throw new IllegalStateException(
 					"No executor specified and no default executor set on AsyncExecutionInterceptor either");
 		}
+		Object shardingKey = getShardingKey(userDeclaredMethod, invocation.getThis(), invocation.getArguments());
+		if (shardingKey != null) {
+			executor = determineShardExecutor(executor, shardingKey);
+		}
 
 		Callable<Object> task = () -> {
 			try {
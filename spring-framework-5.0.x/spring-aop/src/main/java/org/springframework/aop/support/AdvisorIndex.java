@@ -0,0 +1,237 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.support;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.IntroductionAdvisor;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Index over a list of advisors, classifying them by the {@link IndexCondition}
+ * of their pointcut, so that only the advisors that may apply to a given class
+ * need to be matched against its methods.
+ *
+ * <p>Advisors whose pointcut does not implement {@link IndexablePointcut}, or does
+ * not expose a condition, as well as introduction advisors, are candidates for
+ * any class. Candidates keep the order of the original list.
+ *
+ * @since 5.0.17
+ * @see AopUtils#findAdvisorsThatCanApply
+ * @see org.springframework.aop.framework.autoproxy.AbstractAdvisorAutoProxyCreator#setUsePointcutIndex
+ */
+public class AdvisorIndex {
+
+	private static final Log logger = LogFactory.getLog(AdvisorIndex.class);
+
+
+	private final List<Advisor> advisors;
+
+	private final BitSet unconditional = new BitSet();
+
+	private final Map<String, BitSet> byAnnotation = new HashMap<>();
+
+	private final Map<String, BitSet> byType = new HashMap<>();
+
+	private final Map<String, BitSet> byPackage = new HashMap<>();
+
+
+	/**
+	 * Create a new index over the given advisors.
+	 * @param advisors the advisors to index
+	 */
+	public AdvisorIndex(List<Advisor> advisors) {
+		this.advisors = new ArrayList<>(advisors);
+		for (int i = 0; i < this.advisors.size(); i++) {
+			IndexCondition condition = getIndexCondition(this.advisors.get(i));
+			if (condition == null) {
+				this.unconditional.set(i);
+			}
+			else {
+				for (IndexCondition.Predicate predicate : condition.getPredicates()) {
+					getPredicateMap(predicate.kind).computeIfAbsent(predicate.value, key -> new BitSet()).set(i);
+				}
+			}
+		}
+	}
+
+	@Nullable
+	private static IndexCondition getIndexCondition(Advisor advisor) {
+		if (advisor instanceof PointcutAdvisor && !(advisor instanceof IntroductionAdvisor)) {
+			Pointcut pointcut = ((PointcutAdvisor) advisor).getPointcut();
+			if (pointcut instanceof IndexablePointcut) {
+				return ((IndexablePointcut) pointcut).getIndexCondition();
+			}
+		}
+		return null;
+	}
+
+	private Map<String, BitSet> getPredicateMap(IndexCondition.Kind kind) {
+		switch (kind) {
+			case ANNOTATION: return this.byAnnotation;
+			case TYPE: return this.byType;
+			default: return this.byPackage;
+		}
+	}
+
+
+	/**
+	 * Return the indexed advisors.
+	 */
+	public List<Advisor> getAdvisors() {
+		return this.advisors;
+	}
+
+	/**
+	 * Return whether this index covers the given advisors,
+	 * i.e. the same advisor instances in the same order.
+	 * @param advisors the advisors to check
+	 */
+	public boolean isIndexOf(List<Advisor> advisors) {
+		if (advisors.size() != this.advisors.size()) {
+			return false;
+		}
+		for (int i = 0; i < advisors.size(); i++) {
+			if (advisors.get(i) != this.advisors.get(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Return the advisors that may apply to the given class, i.e. whose
+	 * pointcut condition is satisfied by the class or who have none.
+	 * @param clazz the class to find candidate advisors for
+	 * @return the candidate advisors, in their original order
+	 */
+	public List<Advisor> getCandidateAdvisors(Class<?> clazz) {
+		if (this.unconditional.cardinality() == this.advisors.size()) {
+			return this.advisors;
+		}
+
+		BitSet candidates = (BitSet) this.unconditional.clone();
+		try {
+			Set<Class<?>> types = getTypeHierarchy(clazz);
+			for (Class<?> type : types) {
+				String typeName = type.getName();
+				addCandidates(this.byType, typeName, candidates);
+				if (!this.byPackage.isEmpty()) {
+					// Type name patterns refer to nested classes with '.' rather than '$'
+					String qualifiedName = typeName.replace('$', '.');
+					int index = qualifiedName.indexOf('.');
+					while (index != -1) {
+						addCandidates(this.byPackage, qualifiedName.substring(0, index + 1), candidates);
+						index = qualifiedName.indexOf('.', index + 1);
+					}
+				}
+			}
+			if (!this.byAnnotation.isEmpty()) {
+				for (String annotationTypeName : getAnnotationTypeNames(types)) {
+					addCandidates(this.byAnnotation, annotationTypeName, candidates);
+				}
+			}
+		}
+		catch (Throwable ex) {
+			// Class not fully introspectable: leave it to regular matching.
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to introspect class [" + clazz.getName() + "] - considering all advisors", ex);
+			}
+			return this.advisors;
+		}
+
+		if (candidates.cardinality() == this.advisors.size()) {
+			return this.advisors;
+		}
+		List<Advisor> result = new ArrayList<>(candidates.cardinality());
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			result.add(this.advisors.get(i));
+		}
+		return result;
+	}
+
+	private static void addCandidates(Map<String, BitSet> predicateMap, String value, BitSet candidates) {
+		BitSet indexes = predicateMap.get(value);
+		if (indexes != null) {
+			candidates.or(indexes);
+		}
+	}
+
+	/**
+	 * Return the given class along with all of its superclasses and interfaces.
+	 */
+	private static Set<Class<?>> getTypeHierarchy(Class<?> clazz) {
+		Set<Class<?>> types = new LinkedHashSet<>();
+		Class<?> current = clazz;
+		while (current != null) {
+			types.add(current);
+			for (Class<?> ifc : current.getInterfaces()) {
+				addInterface(ifc, types);
+			}
+			current = current.getSuperclass();
+		}
+		return types;
+	}
+
+	private static void addInterface(Class<?> ifc, Set<Class<?>> types) {
+		if (types.add(ifc)) {
+			for (Class<?> superIfc : ifc.getInterfaces()) {
+				addInterface(superIfc, types);
+			}
+		}
+	}
+
+	/**
+	 * Return the names of all annotation types present on the given types and
+	 * on their declared methods, including meta-annotations.
+	 */
+	private static Set<String> getAnnotationTypeNames(Set<Class<?>> types) {
+		Set<String> annotationTypeNames = new HashSet<>();
+		for (Class<?> type : types) {
+			addAnnotationTypeNames(type.getDeclaredAnnotations(), annotationTypeNames);
+			ReflectionUtils.doWithLocalMethods(type,
+					method -> addAnnotationTypeNames(method.getDeclaredAnnotations(), annotationTypeNames));
+		}
+		return annotationTypeNames;
+	}
+
+	private static void addAnnotationTypeNames(Annotation[] annotations, Set<String> annotationTypeNames) {
+		for (Annotation annotation : annotations) {
+			Class<? extends Annotation> annotationType = annotation.annotationType();
+			if (annotationTypeNames.add(annotationType.getName()) &&
+					!annotationType.getName().startsWith("java.lang.annotation")) {
+				addAnnotationTypeNames(annotationType.getDeclaredAnnotations(), annotationTypeNames);
+			}
+		}
+	}
+
+}
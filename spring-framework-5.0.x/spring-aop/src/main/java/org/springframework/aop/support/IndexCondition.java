@@ -0,0 +1,221 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Necessary condition for a pointcut to match any method of a class, as exposed
+ * by an {@link IndexablePointcut} and used by an {@link AdvisorIndex} to only
+ * test the advisors of a pointcut against classes that satisfy the condition.
+ *
+ * <p>A condition is a disjunction of predicates on the type hierarchy of a
+ * class: one of its superclasses or interfaces has a given name or is located
+ * in a given package, or an annotation of a given type is present on one of
+ * these types or on one of their methods. Types are referred to by name, so
+ * that conditions are independent of the ClassLoader of a class.
+ *
+ * <p>A {@code null} condition stands for a pointcut that may match any class.
+ *
+ * @since 5.0.17
+ * @see IndexablePointcut#getIndexCondition()
+ */
+public final class IndexCondition {
+
+	private final List<Predicate> predicates;
+
+
+	private IndexCondition(List<Predicate> predicates) {
+		this.predicates = predicates;
+	}
+
+
+	List<Predicate> getPredicates() {
+		return this.predicates;
+	}
+
+	/**
+	 * Return the kind of the least selective predicate of this condition.
+	 */
+	private Kind getWeakestKind() {
+		Kind weakest = Kind.ANNOTATION;
+		for (Predicate predicate : this.predicates) {
+			if (predicate.kind.compareTo(weakest) > 0) {
+				weakest = predicate.kind;
+			}
+		}
+		return weakest;
+	}
+
+
+	@Override
+	public boolean equals(Object other) {
+		return (this == other || (other instanceof IndexCondition &&
+				this.predicates.equals(((IndexCondition) other).predicates)));
+	}
+
+	@Override
+	public int hashCode() {
+		return this.predicates.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (Predicate predicate : this.predicates) {
+			if (sb.length() > 0) {
+				sb.append(" || ");
+			}
+			sb.append(predicate);
+		}
+		return sb.toString();
+	}
+
+
+	/**
+	 * Condition that an annotation of the given type is present on the class,
+	 * one of its superclasses or interfaces, or one of their methods, either
+	 * directly or as a meta-annotation.
+	 * @param annotationTypeName the name of the annotation type
+	 */
+	public static IndexCondition annotatedWith(String annotationTypeName) {
+		return of(Kind.ANNOTATION, annotationTypeName);
+	}
+
+	/**
+	 * Condition that the class is assignable to the type with the given name.
+	 * @param typeName the name of the class or interface
+	 */
+	public static IndexCondition assignableTo(String typeName) {
+		return of(Kind.TYPE, typeName);
+	}
+
+	/**
+	 * Condition that the class, one of its superclasses or one of its interfaces
+	 * is located in the given package or in one of its subpackages. The name of
+	 * an enclosing class may be given as well, in order to match its nested classes.
+	 * @param packageName the name of the package or enclosing class
+	 */
+	public static IndexCondition inPackage(String packageName) {
+		Assert.hasText(packageName, "Package name must not be empty");
+		return of(Kind.PACKAGE, packageName + '.');
+	}
+
+	private static IndexCondition of(Kind kind, String value) {
+		return new IndexCondition(Collections.singletonList(new Predicate(kind, value)));
+	}
+
+	/**
+	 * Combine the conditions of two pointcuts that both have to match,
+	 * keeping the most selective condition.
+	 * @param condition1 the first condition, or {@code null} for any class
+	 * @param condition2 the second condition, or {@code null} for any class
+	 * @return the combined condition, or {@code null} for any class
+	 */
+	@Nullable
+	public static IndexCondition and(@Nullable IndexCondition condition1, @Nullable IndexCondition condition2) {
+		if (condition1 == null) {
+			return condition2;
+		}
+		if (condition2 == null) {
+			return condition1;
+		}
+		int comparison = condition1.getWeakestKind().compareTo(condition2.getWeakestKind());
+		if (comparison == 0) {
+			comparison = condition1.predicates.size() - condition2.predicates.size();
+		}
+		return (comparison <= 0 ? condition1 : condition2);
+	}
+
+	/**
+	 * Combine the conditions of two pointcuts either of which has to match.
+	 * @param condition1 the first condition, or {@code null} for any class
+	 * @param condition2 the second condition, or {@code null} for any class
+	 * @return the combined condition, or {@code null} for any class
+	 */
+	@Nullable
+	public static IndexCondition or(@Nullable IndexCondition condition1, @Nullable IndexCondition condition2) {
+		if (condition1 == null || condition2 == null) {
+			return null;
+		}
+		List<Predicate> predicates = new ArrayList<>(condition1.predicates);
+		for (Predicate predicate : condition2.predicates) {
+			if (!predicates.contains(predicate)) {
+				predicates.add(predicate);
+			}
+		}
+		return new IndexCondition(predicates);
+	}
+
+
+	/**
+	 * Kinds of predicates, from the most to the least selective one.
+	 */
+	enum Kind {
+
+		ANNOTATION, TYPE, PACKAGE
+	}
+
+
+	/**
+	 * A single predicate of a condition.
+	 */
+	static final class Predicate {
+
+		final Kind kind;
+
+		final String value;
+
+		Predicate(Kind kind, String value) {
+			Assert.hasText(value, "Predicate value must not be empty");
+			this.kind = kind;
+			this.value = value;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof Predicate)) {
+				return false;
+			}
+			Predicate otherPredicate = (Predicate) other;
+			return (this.kind == otherPredicate.kind && this.value.equals(otherPredicate.value));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.kind.hashCode() * 31 + this.value.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			switch (this.kind) {
+				case ANNOTATION: return "@" + this.value;
+				case TYPE: return this.value + "+";
+				default: return this.value + "*";
+			}
+		}
+	}
+
+}
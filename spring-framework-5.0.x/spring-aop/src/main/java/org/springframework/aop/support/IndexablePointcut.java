@@ -0,0 +1,41 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.support;
+
+import org.springframework.aop.Pointcut;
+import org.springframework.lang.Nullable;
+
+/**
+ * Pointcut that exposes a necessary condition for matching any method of a
+ * class, allowing an {@link AdvisorIndex} to skip classes that do not satisfy it.
+ *
+ * @since 5.0.17
+ * @see AdvisorIndex
+ */
+public interface IndexablePointcut extends Pointcut {
+
+	/**
+	 * Return a condition that every class containing a method matched by this
+	 * pointcut satisfies. Conditions are allowed to be weaker than the pointcut
+	 * itself, but never stronger.
+	 * @return the condition, or {@code null} if this pointcut may match
+	 * methods of any class
+	 */
+	@Nullable
+	IndexCondition getIndexCondition();
+
+}
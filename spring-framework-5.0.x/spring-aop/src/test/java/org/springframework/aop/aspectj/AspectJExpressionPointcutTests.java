@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,6 +31,8 @@ import org.springframework.aop.MethodMatcher;
 import org.springframework.aop.Pointcut;
 import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.IndexCondition;
+import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.tests.sample.beans.IOther;
 import org.springframework.tests.sample.beans.ITestBean;
 import org.springframework.tests.sample.beans.TestBean;
@@ -306,6 +308,52 @@ public class AspectJExpressionPointcutTests {
 		assertEquals("execution(* *(..)) && args(String) && this(Object)",expr.getPointcutExpression());
 	}
 
+	@Test
+	public void testIndexCondition() {
+		assertIndexCondition("org.springframework.tests.sample.beans.TestBean+",
+				"execution(int org.springframework.tests.sample.beans.TestBean.getAge())");
+		assertIndexCondition("org.springframework.tests.*",
+				"execution(* org.springframework.tests..*.*(..))");
+		assertIndexCondition("@java.lang.Deprecated",
+				"@annotation(java.lang.Deprecated) && within(org.springframework..*)");
+		assertIndexCondition("@java.lang.Deprecated",
+				"execution(@java.lang.Deprecated * org.springframework..*.*(..))");
+		assertIndexCondition("org.springframework.tests.* || @java.lang.Deprecated",
+				"within(org.springframework.tests..*) || @within(java.lang.Deprecated)");
+		assertIndexCondition(null, MATCH_ALL_METHODS);
+		assertIndexCondition(null, "execution(* *..TestBean.*Age(..))");
+		assertIndexCondition(null, "this(org.springframework.tests.sample.beans.TestBean)");
+		assertIndexCondition(null, "!within(org.springframework.tests..*)");
+		assertIndexCondition(null, "within(org.springframework.tests..*) || args(String)");
+	}
+
+	private void assertIndexCondition(String expectedCondition, String expression) {
+		IndexCondition condition = ((AspectJExpressionPointcut) getPointcut(expression)).getIndexCondition();
+		assertEquals(expression, expectedCondition, (condition != null ? condition.toString() : null));
+	}
+
+	@Test
+	public void testShadowMatchesSharedAcrossIdenticalExpressions() {
+		String expression = "execution(int org.springframework.tests.sample.beans.TestBean.getAge())";
+		Pointcut pointcut1 = getPointcut(expression);
+		Pointcut pointcut2 = getPointcut(expression);
+		assertMatchesGetAge(pointcut1.getMethodMatcher());
+		assertMatchesGetAge(pointcut2.getMethodMatcher());
+		assertSame(getShadowMatchCache(pointcut1), getShadowMatchCache(pointcut2));
+		assertNotSame(getShadowMatchCache(pointcut1), getShadowMatchCache(getPointcut(MATCH_ALL_METHODS)));
+
+		String beanExpression = "bean(tb) && " + expression;
+		Pointcut beanPointcut1 = getPointcut(beanExpression);
+		Pointcut beanPointcut2 = getPointcut(beanExpression);
+		beanPointcut1.getMethodMatcher();
+		beanPointcut2.getMethodMatcher();
+		assertNotSame(getShadowMatchCache(beanPointcut1), getShadowMatchCache(beanPointcut2));
+	}
+
+	private Object getShadowMatchCache(Pointcut pointcut) {
+		return new DirectFieldAccessor(pointcut).getPropertyValue("shadowMatchCache");
+	}
+
 	private Pointcut getPointcut(String expression) {
 		AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
 		pointcut.setExpression(expression);
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.tests.aop.interceptor.NopInterceptor;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link AdvisorIndex}.
+ *
+ * @since 5.0.17
+ */
+public class AdvisorIndexTests {
+
+	private final Advisor typeAdvisor =
+			advisor("execution(* org.springframework.tests.sample.beans.ITestBean.*(..))");
+
+	private final Advisor packageAdvisor = advisor("within(java.util..*)");
+
+	private final Advisor annotationAdvisor = advisor("@annotation(java.lang.Deprecated)");
+
+	private final Advisor unconditionalAdvisor = new DefaultPointcutAdvisor(new NopInterceptor());
+
+	private final List<Advisor> advisors =
+			Arrays.asList(this.typeAdvisor, this.packageAdvisor, this.annotationAdvisor, this.unconditionalAdvisor);
+
+	private final AdvisorIndex index = new AdvisorIndex(this.advisors);
+
+
+	@Test
+	public void candidatesByType() {
+		assertCandidates(TestBean.class, this.typeAdvisor, this.unconditionalAdvisor);
+	}
+
+	@Test
+	public void candidatesByPackageOfSuperclass() {
+		assertCandidates(ArrayList.class, this.packageAdvisor, this.unconditionalAdvisor);
+		assertCandidates(CustomList.class, this.packageAdvisor, this.unconditionalAdvisor);
+	}
+
+	@Test
+	public void candidatesByMethodAnnotation() {
+		assertCandidates(AnnotatedBean.class, this.annotationAdvisor, this.unconditionalAdvisor);
+		assertCandidates(SubBean.class, this.annotationAdvisor, this.unconditionalAdvisor);
+	}
+
+	@Test
+	public void noCandidatesButUnconditionalAdvisor() {
+		assertCandidates(Object.class, this.unconditionalAdvisor);
+	}
+
+	@Test
+	public void candidatesForNestedClass() {
+		Advisor outerPackageAdvisor = advisor("within(org.springframework.aop.support..*)");
+		Advisor outerTypeAdvisor = advisor("within(org.springframework.aop.support.AdvisorIndexTests.*)");
+		Advisor executionAdvisor = advisor("execution(* org.springframework.aop.support.AdvisorIndexTests.*.*(..))");
+		List<Advisor> advisors = Arrays.asList(outerPackageAdvisor, outerTypeAdvisor, executionAdvisor);
+
+		List<Advisor> candidates = new AdvisorIndex(advisors).getCandidateAdvisors(AnnotatedBean.class);
+		assertEquals(advisors, candidates);
+		assertEquals(advisors, AopUtils.findAdvisorsThatCanApply(candidates, AnnotatedBean.class));
+	}
+
+	@Test
+	public void isIndexOf() {
+		assertTrue(this.index.isIndexOf(new ArrayList<>(this.advisors)));
+		assertFalse(this.index.isIndexOf(this.advisors.subList(1, 4)));
+		List<Advisor> otherAdvisors = new ArrayList<>(this.advisors);
+		otherAdvisors.set(0, advisor("execution(* org.springframework.tests.sample.beans.ITestBean.*(..))"));
+		assertFalse(this.index.isIndexOf(otherAdvisors));
+	}
+
+	private void assertCandidates(Class<?> clazz, Advisor... expected) {
+		List<Advisor> candidates = this.index.getCandidateAdvisors(clazz);
+		assertEquals(Arrays.asList(expected), candidates);
+		assertEquals(AopUtils.findAdvisorsThatCanApply(this.advisors, clazz),
+				AopUtils.findAdvisorsThatCanApply(candidates, clazz));
+	}
+
+	private static Advisor advisor(String expression) {
+		AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+		pointcut.setExpression(expression);
+		return new DefaultPointcutAdvisor(pointcut, new NopInterceptor());
+	}
+
+
+	@SuppressWarnings("serial")
+	public static class CustomList extends ArrayList<String> {
+	}
+
+
+	public static class AnnotatedBean {
+
+		@Deprecated
+		public void oldMethod() {
+		}
+	}
+
+
+	public static class SubBean extends AnnotatedBean {
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -53,6 +53,9 @@ public class AspectJCachingConfiguration extends AbstractCachingConfiguration {
 		if (this.errorHandler != null) {
 			cacheAspect.setErrorHandler(this.errorHandler);
 		}
+		if (this.refreshExecutor != null) {
+			cacheAspect.setRefreshExecutor(this.refreshExecutor);
+		}
 		return cacheAspect;
 	}
 
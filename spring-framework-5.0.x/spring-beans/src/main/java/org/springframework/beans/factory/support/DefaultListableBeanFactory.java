@@ -179,6 +179,9 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	/** Whether bean definition metadata may be cached for all beans */
 	private volatile boolean configurationFrozen = false;
 
+	/** Number of threads for pre-instantiating singletons */
+	private int preInstantiationParallelism = 1;
+
 
 	/**
 	 * Create a new DefaultListableBeanFactory.
@@ -310,6 +313,33 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return this.autowireCandidateResolver;
 	}
 
+	/**
+	 * Set the number of threads to use for pre-instantiating singletons.
+	 * <p>Default is 1, creating all non-lazy singletons one at a time on the
+	 * calling thread. A higher value instantiates groups of beans that do not
+	 * declare dependencies on each other (through depends-on, factory beans or
+	 * bean references) in parallel on a dedicated {@code ForkJoinPool}, logging
+	 * the parallelism actually achieved. {@link SmartInitializingSingleton}
+	 * callbacks are still invoked on the calling thread, in registration order.
+	 * <p>Only switch this on if all beans tolerate being created concurrently
+	 * with unrelated beans: for example, a bean whose creation fails in
+	 * parallel is created once more on the calling thread.
+	 * @since 5.0.17
+	 * @see #preInstantiateSingletons()
+	 */
+	public void setPreInstantiationParallelism(int preInstantiationParallelism) {
+		Assert.isTrue(preInstantiationParallelism > 0, "Pre-instantiation parallelism must be greater than 0");
+		this.preInstantiationParallelism = preInstantiationParallelism;
+	}
+
+	/**
+	 * Return the number of threads to use for pre-instantiating singletons.
+	 * @since 5.0.17
+	 */
+	public int getPreInstantiationParallelism() {
+		return this.preInstantiationParallelism;
+	}
+
 
 	@Override
 	public void copyConfigurationFrom(ConfigurableBeanFactory otherFactory) {
@@ -319,6 +349,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			this.allowBeanDefinitionOverriding = otherListableFactory.allowBeanDefinitionOverriding;
 			this.allowEagerClassLoading = otherListableFactory.allowEagerClassLoading;
 			this.dependencyComparator = otherListableFactory.dependencyComparator;
+			this.preInstantiationParallelism = otherListableFactory.preInstantiationParallelism;
 			// A clone of the AutowireCandidateResolver since it is potentially BeanFactoryAware...
 			setAutowireCandidateResolver(
 					BeanUtils.instantiateClass(otherListableFactory.getAutowireCandidateResolver().getClass()));
@@ -745,63 +776,13 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
 		// Trigger initialization of all non-lazy singleton beans...
 		// 2. 触发所有非延迟加载单列 beans 的初始化，主要步骤为调用 getBean
-		for (String beanName : beanNames) {
-			//合并父类 BeanDefinition
-			/**
-			 * public class OrderService {
-			 *	public String name;
-			 *
-			 * 	public String getName() {
-			 * 		return name;
-			 *        }
-			 *
-			 * 	public void setName(String name) {
-			 * 		this.name = name;
-			 *    }
-			 *
-			 * 	public void query(){
-			 * 		System.out.println("order");
-			 *    }
-			 * }
-			 * <bean id="order" class="com.muqie.service.OrderService" >
-			 * 		<property name="name" value="parent"></property>
-			 * 	</bean>
-			 * 	<bean id="orderChil" parent="order">
-			 * 		<property name="name" value="children"></property>
-			 * 	</bean>
-			 *	结果：
-			 * 	parent
-			 * 	childer
-			 */
-			// 2.1 合并父类BeanDefinition
-			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
-			// 2.3 判断 bd 是否为非静态的、单例以及懒加载， bd 不可能是静态的
-			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
-				// 2.4 判断是否是 FactoryBean，若该 bd 实现了FactoryBean，该 bd 则是 FactoryBean 类型
-				if (isFactoryBean(beanName)) {
-					//如果是 FactoryBean 则加 &
-					Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
-					if (bean instanceof FactoryBean) {
-						final FactoryBean<?> factory = (FactoryBean<?>) bean;
-						boolean isEagerInit;
-						if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
-							isEagerInit = AccessController.doPrivileged((PrivilegedAction<Boolean>)
-											((SmartFactoryBean<?>) factory)::isEagerInit,
-									getAccessControlContext());
-						}
-						else {
-							isEagerInit = (factory instanceof SmartFactoryBean &&
-									((SmartFactoryBean<?>) factory).isEagerInit());
-						}
-						if (isEagerInit) {
-							getBean(beanName);
-						}
-					}
-				}
-				else {
-					// 2.5 调用 getBean 方法
-					getBean(beanName);
-				}
+		if (this.preInstantiationParallelism > 1 && beanNames.size() > 1) {
+			new ParallelSingletonPreInstantiator(this, this.preInstantiationParallelism)
+					.preInstantiate(beanNames, this::preInstantiateSingleton);
+		}
+		else {
+			for (String beanName : beanNames) {
+				preInstantiateSingleton(beanName);
 			}
 		}
 
@@ -823,6 +804,71 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		}
 	}
 
+	/**
+	 * Pre-instantiate the specified bean if it is a non-lazy singleton.
+	 * @param beanName the name of the bean
+	 * @see #preInstantiateSingletons()
+	 */
+	private void preInstantiateSingleton(String beanName) {
+		//合并父类 BeanDefinition
+		/**
+		 * public class OrderService {
+		 *	public String name;
+		 *
+		 * 	public String getName() {
+		 * 		return name;
+		 *        }
+		 *
+		 * 	public void setName(String name) {
+		 * 		this.name = name;
+		 *    }
+		 *
+		 * 	public void query(){
+		 * 		System.out.println("order");
+		 *    }
+		 * }
+		 * <bean id="order" class="com.muqie.service.OrderService" >
+		 * 		<property name="name" value="parent"></property>
+		 * 	</bean>
+		 * 	<bean id="orderChil" parent="order">
+		 * 		<property name="name" value="children"></property>
+		 * 	</bean>
+		 *	结果：
+		 * 	parent
+		 * 	childer
+		 */
+		// 2.1 合并父类BeanDefinition
+		RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+		// 2.3 判断 bd 是否为非静态的、单例以及懒加载， bd 不可能是静态的
+		if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+			// 2.4 判断是否是 FactoryBean，若该 bd 实现了FactoryBean，该 bd 则是 FactoryBean 类型
+			if (isFactoryBean(beanName)) {
+				//如果是 FactoryBean 则加 &
+				Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
+				if (bean instanceof FactoryBean) {
+					final FactoryBean<?> factory = (FactoryBean<?>) bean;
+					boolean isEagerInit;
+					if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
+						isEagerInit = AccessController.doPrivileged((PrivilegedAction<Boolean>)
+										((SmartFactoryBean<?>) factory)::isEagerInit,
+								getAccessControlContext());
+					}
+					else {
+						isEagerInit = (factory instanceof SmartFactoryBean &&
+								((SmartFactoryBean<?>) factory).isEagerInit());
+					}
+					if (isEagerInit) {
+						getBean(beanName);
+					}
+				}
+			}
+			else {
+				// 2.5 调用 getBean 方法
+				getBean(beanName);
+			}
+		}
+	}
+
 
 	//---------------------------------------------------------------------
 	// Implementation of BeanDefinitionRegistry interface
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,8 @@ import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanCreationNotAllowedException;
@@ -32,6 +34,7 @@ import org.springframework.beans.factory.BeanCurrentlyInCreationException;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.SimpleAliasRegistry;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -61,6 +64,11 @@ import org.springframework.util.StringUtils;
  * (which inherit from it). Can alternatively also be used as a nested
  * helper to delegate to.
  *
+ * <p>Fully initialized singletons are looked up without any locking. The
+ * creation of a singleton is guarded by a lock for its bean name, so that
+ * unrelated lazy-init singletons may be created by different threads in
+ * parallel; see {@link #lockSingletonCreation}.
+ *
  * @author Juergen Hoeller
  * @since 2.0
  * @see #registerSingleton
@@ -70,6 +78,10 @@ import org.springframework.util.StringUtils;
  */
 public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements SingletonBeanRegistry {
 
+	/** Interval (in milliseconds) for re-checking a contended singleton creation lock */
+	private static final long CREATION_LOCK_WAIT_INTERVAL = 10;
+
+
 	/** Cache of singleton objects: bean name --> bean instance */
 	/** 缓存单例 bean beanName----  singletonObject  **/
 	private final Map<String, Object> singletonObjects = new ConcurrentHashMap<>(256);
@@ -93,12 +105,22 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private final Set<String> inCreationCheckExclusions =
 			Collections.newSetFromMap(new ConcurrentHashMap<>(16));
 
+	/** Creation locks for singletons: bean name --> lock */
+	private final Map<String, SingletonCreationLock> singletonCreationLocks = new ConcurrentHashMap<>(256);
+
+	/** Creation locks that threads are currently waiting for: thread --> lock */
+	private final Map<Thread, SingletonCreationLock> singletonCreationWaits = new ConcurrentHashMap<>(16);
+
+	/** Number of singleton creation locks held by the current thread */
+	private final ThreadLocal<Integer> singletonCreationLocksHeld =
+			new NamedThreadLocal<>("Singleton creation locks held");
+
 	/** List of suppressed Exceptions, available for associating related causes */
-	@Nullable
-	private Set<Exception> suppressedExceptions;
+	private final ThreadLocal<Set<Exception>> suppressedExceptions =
+			new NamedThreadLocal<>("Suppressed exceptions during singleton creation");
 
 	/** Flag that indicates whether we're currently within destroySingletons */
-	private boolean singletonsCurrentlyInDestruction = false;
+	private volatile boolean singletonsCurrentlyInDestruction = false;
 
 	/** Disposable bean instances: bean name --> disposable instance */
 	private final Map<String, Object> disposableBeans = new LinkedHashMap<>();
@@ -200,20 +222,28 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		Object singletonObject = this.singletonObjects.get(beanName);
 		// 判断 bd 是否为单例以及 bd 是否在创建中， isSingletonCurrentlyInCreation(beanName) 这个条件在第一次调用时不成立
 		// 所有会直接返回 null
-		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName)) {
+		// Early references are only exposed to the thread that creates the singleton:
+		// other threads must not see a partially initialized instance and will wait
+		// for the creation lock in getSingleton(String, ObjectFactory) instead.
+		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName) &&
+				isSingletonCreationLockedByCurrentThread(beanName)) {
+			ObjectFactory<?> singletonFactory = null;
 			synchronized (this.singletonObjects) {
 				// earlySingletonObjects 中保存所有提前曝光的单例，尝试从 earlySingletonObjects 中找
 				// 在 this.earlySingletonObjects.get(beanName) 之前，肯定会有一个 put 操作，若调试代码，可以搜索 "this.earlySingletonObjects.put"
 				singletonObject = this.earlySingletonObjects.get(beanName);
 				if (singletonObject == null && allowEarlyReference) {
 					// 如果允许早起依赖，可以尝试从 singletonFactories 中找到对用的单例工厂
-					ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
-					if (singletonFactory != null) {
-						// 创建 bean，并提前曝光的 bean，就是还未进行属性注入的 bean，用于解决循环依赖
-						singletonObject = singletonFactory.getObject();
-						this.earlySingletonObjects.put(beanName, singletonObject);
-						this.singletonFactories.remove(beanName);
-					}
+					singletonFactory = this.singletonFactories.get(beanName);
+				}
+			}
+			if (singletonFactory != null) {
+				// 创建 bean，并提前曝光的 bean，就是还未进行属性注入的 bean，用于解决循环依赖
+				// Invoked outside of the mutex: guarded by the creation lock for this bean
+				singletonObject = singletonFactory.getObject();
+				synchronized (this.singletonObjects) {
+					this.earlySingletonObjects.put(beanName, singletonObject);
+					this.singletonFactories.remove(beanName);
 				}
 			}
 		}
@@ -223,6 +253,10 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	/**
 	 * Return the (raw) singleton object registered under the given name,
 	 * creating and registering a new one if none registered yet.
+	 * <p>Creation happens under the {@link #lockSingletonCreation creation lock}
+	 * for the given bean name. If the outermost creation on the current thread
+	 * had to be abandoned because of a lock cycle with another thread creating
+	 * a mutually dependent singleton, it is retried once that thread has finished.
 	 * @param beanName the name of the bean
 	 * @param singletonFactory the ObjectFactory to lazily create the singleton
 	 * with, if necessary
@@ -230,7 +264,35 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		Assert.notNull(beanName, "Bean name must not be null");
-		synchronized (this.singletonObjects) {
+		Object singletonObject = this.singletonObjects.get(beanName);
+		if (singletonObject != null) {
+			return singletonObject;
+		}
+		boolean outermost = (getSingletonCreationLocksHeld() == 0);
+		while (true) {
+			try {
+				return doGetSingleton(beanName, singletonFactory);
+			}
+			catch (RuntimeException ex) {
+				SingletonCreationDeadlockException deadlockEx = (outermost ? findSingletonCreationDeadlock(ex) : null);
+				if (deadlockEx == null) {
+					throw ex;
+				}
+				if (logger.isDebugEnabled()) {
+					logger.debug("Retrying creation of singleton bean '" + beanName +
+							"' after backing off from a concurrent creation: " + ex.getMessage());
+				}
+				// Let the other thread complete its creation before competing for its locks again
+				SingletonCreationLock lock = deadlockEx.getLock();
+				lock.lock();
+				lock.unlock();
+			}
+		}
+	}
+
+	private Object doGetSingleton(String beanName, ObjectFactory<?> singletonFactory) {
+		lockSingletonCreation(beanName);
+		try {
 			// singletonObject 为空
 			Object singletonObject = this.singletonObjects.get(beanName);
 			if (singletonObject == null) {
@@ -248,9 +310,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 				 */
 				beforeSingletonCreation(beanName);
 				boolean newSingleton = false;
-				boolean recordSuppressedExceptions = (this.suppressedExceptions == null);
+				boolean recordSuppressedExceptions = (this.suppressedExceptions.get() == null);
 				if (recordSuppressedExceptions) {
-					this.suppressedExceptions = new LinkedHashSet<>();
+					this.suppressedExceptions.set(new LinkedHashSet<>());
 				}
 				try {
 
@@ -268,15 +330,18 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 				}
 				catch (BeanCreationException ex) {
 					if (recordSuppressedExceptions) {
-						for (Exception suppressedException : this.suppressedExceptions) {
-							ex.addRelatedCause(suppressedException);
+						Set<Exception> suppressed = this.suppressedExceptions.get();
+						if (suppressed != null) {
+							for (Exception suppressedException : suppressed) {
+								ex.addRelatedCause(suppressedException);
+							}
 						}
 					}
 					throw ex;
 				}
 				finally {
 					if (recordSuppressedExceptions) {
-						this.suppressedExceptions = null;
+						this.suppressedExceptions.remove();
 					}
 					// 把标识为正在创建的标识去掉
 					afterSingletonCreation(beanName);
@@ -287,6 +352,173 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 			}
 			return singletonObject;
 		}
+		finally {
+			unlockSingletonCreation(beanName);
+		}
+	}
+
+	/**
+	 * Acquire the creation lock for the specified singleton, waiting for a
+	 * concurrent creation of the same singleton by another thread to complete.
+	 * <p>Creation locks are reentrant and held per bean name, allowing unrelated
+	 * singletons to be created by different threads in parallel. A thread that
+	 * holds the {@link #getSingletonMutex() singleton mutex} releases it while
+	 * waiting. A wait that would close a cycle between threads creating each
+	 * other's dependencies is given up by one of the threads involved, with a
+	 * {@link BeanCreationException} that is not to be suppressed: see
+	 * {@link #isSingletonCreationBackOff}.
+	 * @param beanName the name of the singleton
+	 * @since 5.0.17
+	 * @see #tryLockSingletonCreation
+	 * @see #unlockSingletonCreation
+	 */
+	protected void lockSingletonCreation(String beanName) {
+		SingletonCreationLock lock =
+				this.singletonCreationLocks.computeIfAbsent(beanName, SingletonCreationLock::new);
+		if (!lock.tryLock()) {
+			awaitSingletonCreationLock(lock);
+		}
+		this.singletonCreationLocksHeld.set(getSingletonCreationLocksHeld() + 1);
+	}
+
+	/**
+	 * Acquire the creation lock for the specified singleton only if it is not
+	 * held by another thread at the time of invocation.
+	 * @param beanName the name of the singleton
+	 * @return {@code true} if the lock was acquired, {@code false} otherwise
+	 * @since 5.0.17
+	 * @see #unlockSingletonCreation
+	 */
+	protected boolean tryLockSingletonCreation(String beanName) {
+		SingletonCreationLock lock =
+				this.singletonCreationLocks.computeIfAbsent(beanName, SingletonCreationLock::new);
+		if (!lock.tryLock()) {
+			return false;
+		}
+		this.singletonCreationLocksHeld.set(getSingletonCreationLocksHeld() + 1);
+		return true;
+	}
+
+	/**
+	 * Release the creation lock for the specified singleton.
+	 * @param beanName the name of the singleton
+	 * @since 5.0.17
+	 * @see #lockSingletonCreation
+	 */
+	protected void unlockSingletonCreation(String beanName) {
+		SingletonCreationLock lock = this.singletonCreationLocks.get(beanName);
+		if (lock == null || !lock.isHeldByCurrentThread()) {
+			throw new IllegalStateException("Creation lock for singleton '" + beanName +
+					"' isn't held by the current thread");
+		}
+		lock.unlock();
+		int held = getSingletonCreationLocksHeld() - 1;
+		if (held > 0) {
+			this.singletonCreationLocksHeld.set(held);
+		}
+		else {
+			this.singletonCreationLocksHeld.remove();
+		}
+	}
+
+	/**
+	 * Return whether the creation lock for the specified singleton is held
+	 * by the current thread.
+	 * @param beanName the name of the singleton
+	 * @since 5.0.17
+	 */
+	protected boolean isSingletonCreationLockedByCurrentThread(String beanName) {
+		SingletonCreationLock lock = this.singletonCreationLocks.get(beanName);
+		return (lock != null && lock.isHeldByCurrentThread());
+	}
+
+	private int getSingletonCreationLocksHeld() {
+		Integer held = this.singletonCreationLocksHeld.get();
+		return (held != null ? held : 0);
+	}
+
+	private void awaitSingletonCreationLock(SingletonCreationLock lock) {
+		Thread currentThread = Thread.currentThread();
+		Object mutex = getSingletonMutex();
+		boolean holdsMutex = Thread.holdsLock(mutex);
+		this.singletonCreationWaits.put(currentThread, lock);
+		try {
+			while (true) {
+				if (holdsMutex) {
+					// Let the owner of the creation lock proceed with registry operations
+					mutex.wait(CREATION_LOCK_WAIT_INTERVAL);
+					if (lock.tryLock()) {
+						return;
+					}
+				}
+				else if (lock.tryLock(CREATION_LOCK_WAIT_INTERVAL, TimeUnit.MILLISECONDS)) {
+					return;
+				}
+				if (shouldBackOff(currentThread, lock)) {
+					throw new SingletonCreationDeadlockException(lock);
+				}
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new BeanCreationException(lock.getBeanName(),
+					"Interrupted while waiting for concurrent creation of singleton bean", ex);
+		}
+		finally {
+			this.singletonCreationWaits.remove(currentThread);
+		}
+	}
+
+	/**
+	 * Determine whether waiting for the given lock closes a cycle of threads
+	 * waiting for each other's creation locks, in which case the youngest
+	 * thread involved backs off.
+	 */
+	private boolean shouldBackOff(Thread currentThread, SingletonCreationLock lock) {
+		long youngest = currentThread.getId();
+		SingletonCreationLock next = lock;
+		for (int i = 0; i <= this.singletonCreationWaits.size(); i++) {
+			Thread owner = next.getOwner();
+			if (owner == null) {
+				return false;
+			}
+			if (owner == currentThread) {
+				return (youngest == currentThread.getId());
+			}
+			youngest = Math.max(youngest, owner.getId());
+			next = this.singletonCreationWaits.get(owner);
+			if (next == null) {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Determine whether the given exception indicates that the current thread
+	 * backed off from waiting for a singleton creation lock, in order to resolve
+	 * a lock cycle with another thread. Such an exception must be propagated
+	 * rather than suppressed, so that the creation is retried by the outermost
+	 * {@link #getSingleton(String, ObjectFactory)} call on the current thread.
+	 * @param ex the exception to check
+	 * @since 5.0.17
+	 */
+	protected static boolean isSingletonCreationBackOff(@Nullable Throwable ex) {
+		return (findSingletonCreationDeadlock(ex) != null);
+	}
+
+	@Nullable
+	private static SingletonCreationDeadlockException findSingletonCreationDeadlock(@Nullable Throwable ex) {
+		while (ex != null) {
+			if (ex instanceof SingletonCreationDeadlockException) {
+				return (SingletonCreationDeadlockException) ex;
+			}
+			if (ex.getCause() == ex) {
+				break;
+			}
+			ex = ex.getCause();
+		}
+		return null;
 	}
 
 	/**
@@ -295,10 +527,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * @param ex the Exception to register
 	 */
 	protected void onSuppressedException(Exception ex) {
-		synchronized (this.singletonObjects) {
-			if (this.suppressedExceptions != null) {
-				this.suppressedExceptions.add(ex);
-			}
+		Set<Exception> suppressed = this.suppressedExceptions.get();
+		if (suppressed != null) {
+			suppressed.add(ex);
 		}
 	}
 
@@ -529,9 +760,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		if (logger.isDebugEnabled()) {
 			logger.debug("Destroying singletons in " + this);
 		}
-		synchronized (this.singletonObjects) {
-			this.singletonsCurrentlyInDestruction = true;
-		}
+		this.singletonsCurrentlyInDestruction = true;
 
 		String[] disposableBeanNames;
 		synchronized (this.disposableBeans) {
@@ -559,6 +788,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 			this.earlySingletonObjects.clear();
 			this.registeredSingletons.clear();
 			this.singletonsCurrentlyInDestruction = false;
+			this.singletonCreationLocks.values().removeIf(lock -> !lock.isLocked());
 		}
 	}
 
@@ -646,10 +876,62 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * any sort of extended singleton creation phase. In particular, subclasses
 	 * should <i>not</i> have their own mutexes involved in singleton creation,
 	 * to avoid the potential for deadlocks in lazy-init situations.
+	 * <p>Note that the creation of individual singletons is guarded by
+	 * {@link #lockSingletonCreation per-bean creation locks} rather than by
+	 * this mutex; a thread holding the mutex releases it while waiting for
+	 * a singleton that is being created by another thread.
 	 */
 	@Override
 	public final Object getSingletonMutex() {
 		return this.singletonObjects;
 	}
 
+
+	/**
+	 * Reentrant creation lock for a singleton, exposing its owner for the
+	 * purpose of detecting lock cycles between creating threads.
+	 */
+	@SuppressWarnings("serial")
+	private static class SingletonCreationLock extends ReentrantLock {
+
+		private final String beanName;
+
+		public SingletonCreationLock(String beanName) {
+			this.beanName = beanName;
+		}
+
+		public String getBeanName() {
+			return this.beanName;
+		}
+
+		@Override
+		@Nullable
+		public Thread getOwner() {
+			return super.getOwner();
+		}
+	}
+
+
+	/**
+	 * Exception indicating that the current thread backed off from waiting for
+	 * a singleton creation lock in order to resolve a lock cycle.
+	 * <p>Deliberately not a {@link BeanCurrentlyInCreationException}, which
+	 * some callers tolerate as a sign of a circular reference.
+	 */
+	@SuppressWarnings("serial")
+	private static class SingletonCreationDeadlockException extends BeanCreationException {
+
+		private final transient SingletonCreationLock lock;
+
+		public SingletonCreationDeadlockException(SingletonCreationLock lock) {
+			super(lock.getBeanName(), "Singleton bean is currently in creation by another thread " +
+					"which in turn waits for a singleton held by the current thread");
+			this.lock = lock;
+		}
+
+		public SingletonCreationLock getLock() {
+			return this.lock;
+		}
+	}
+
 }
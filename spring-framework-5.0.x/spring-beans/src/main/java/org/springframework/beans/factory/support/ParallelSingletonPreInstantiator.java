@@ -0,0 +1,253 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.lang.Nullable;
+
+/**
+ * Helper class for {@link DefaultListableBeanFactory#preInstantiateSingletons()},
+ * instantiating independent groups of singletons in parallel.
+ *
+ * <p>Bean definitions are grouped by the dependencies that they declare:
+ * {@link BeanDefinition#getDependsOn() depends-on} relationships, factory beans
+ * and bean references in property values and constructor arguments. Each group
+ * is instantiated on a {@link ForkJoinPool} worker, in registration order.
+ * Dependencies that are only discovered at creation time (e.g. through
+ * autowiring) are resolved by the per-bean creation locks of the factory.
+ *
+ * <p>A group that fails in parallel is retried on the calling thread, so that
+ * any exception is raised exactly as in serial pre-instantiation.
+ *
+ * @since 5.0.17
+ * @see DefaultListableBeanFactory#setPreInstantiationParallelism
+ */
+class ParallelSingletonPreInstantiator {
+
+	private static final Log logger = LogFactory.getLog(ParallelSingletonPreInstantiator.class);
+
+	private final DefaultListableBeanFactory beanFactory;
+
+	private final int parallelism;
+
+	private final AtomicInteger activeGroups = new AtomicInteger();
+
+	private final AtomicInteger maxActiveGroups = new AtomicInteger();
+
+	private final AtomicLong busyTime = new AtomicLong();
+
+
+	public ParallelSingletonPreInstantiator(DefaultListableBeanFactory beanFactory, int parallelism) {
+		this.beanFactory = beanFactory;
+		this.parallelism = parallelism;
+	}
+
+
+	/**
+	 * Pre-instantiate the given beans, using the given callback for each bean.
+	 * @param beanNames the names of the beans, in registration order
+	 * @param instantiator the callback for pre-instantiating a single bean
+	 */
+	public void preInstantiate(List<String> beanNames, Consumer<String> instantiator) {
+		List<List<String>> groups = determineIndependentGroups(beanNames);
+		long startTime = System.nanoTime();
+		List<List<String>> failedGroups = new ArrayList<>();
+
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		ForkJoinPool pool = new ForkJoinPool(this.parallelism, p -> {
+			ForkJoinWorkerThread thread = new ForkJoinWorkerThread(p) {};
+			thread.setName("singleton-preinstantiation-" + thread.getPoolIndex());
+			thread.setContextClassLoader(classLoader);
+			return thread;
+		}, null, false);
+		try {
+			Map<List<String>, ForkJoinTask<?>> tasks = new LinkedHashMap<>(groups.size());
+			for (List<String> group : groups) {
+				tasks.put(group, pool.submit(() -> instantiateGroup(group, instantiator)));
+			}
+			for (Map.Entry<List<String>, ForkJoinTask<?>> entry : tasks.entrySet()) {
+				try {
+					entry.getValue().get();
+				}
+				catch (ExecutionException ex) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Parallel pre-instantiation failed for beans " + entry.getKey() +
+								" - retrying on the calling thread: " + ex.getCause());
+					}
+					failedGroups.add(entry.getKey());
+				}
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new BeanCreationException("Interrupted during parallel pre-instantiation of singletons", ex);
+		}
+		finally {
+			pool.shutdown();
+		}
+
+		long elapsedTime = System.nanoTime() - startTime;
+		if (logger.isInfoEnabled()) {
+			logger.info(String.format("Pre-instantiated %d beans in %d independent groups in %d ms " +
+					"(parallelism %d, up to %d groups at once, achieved parallelism %.2f)",
+					beanNames.size(), groups.size(), TimeUnit.NANOSECONDS.toMillis(elapsedTime),
+					this.parallelism, this.maxActiveGroups.get(),
+					(elapsedTime > 0 ? (double) this.busyTime.get() / elapsedTime : 1.0)));
+		}
+
+		for (List<String> group : failedGroups) {
+			group.forEach(instantiator);
+		}
+	}
+
+	private void instantiateGroup(List<String> group, Consumer<String> instantiator) {
+		long startTime = System.nanoTime();
+		int active = this.activeGroups.incrementAndGet();
+		this.maxActiveGroups.accumulateAndGet(active, Math::max);
+		try {
+			group.forEach(instantiator);
+		}
+		finally {
+			this.activeGroups.decrementAndGet();
+			this.busyTime.addAndGet(System.nanoTime() - startTime);
+		}
+	}
+
+	/**
+	 * Partition the given beans into groups that do not declare dependencies
+	 * on each other, preserving registration order within and across groups.
+	 */
+	List<List<String>> determineIndependentGroups(List<String> beanNames) {
+		Map<String, Integer> indexes = new HashMap<>(beanNames.size() * 2);
+		for (int i = 0; i < beanNames.size(); i++) {
+			indexes.put(beanNames.get(i), i);
+		}
+		int[] parents = new int[beanNames.size()];
+		for (int i = 0; i < parents.length; i++) {
+			parents[i] = i;
+		}
+
+		for (int i = 0; i < beanNames.size(); i++) {
+			List<String> dependencies = new ArrayList<>();
+			collectDependencies(this.beanFactory.getMergedLocalBeanDefinition(beanNames.get(i)), dependencies);
+			for (String dependency : dependencies) {
+				Integer index = indexes.get(this.beanFactory.transformedBeanName(dependency));
+				if (index != null) {
+					union(parents, i, index);
+				}
+			}
+		}
+
+		Map<Integer, List<String>> groups = new LinkedHashMap<>();
+		for (int i = 0; i < beanNames.size(); i++) {
+			groups.computeIfAbsent(find(parents, i), root -> new ArrayList<>()).add(beanNames.get(i));
+		}
+		return new ArrayList<>(groups.values());
+	}
+
+	private void collectDependencies(BeanDefinition bd, List<String> dependencies) {
+		String[] dependsOn = bd.getDependsOn();
+		if (dependsOn != null) {
+			for (String dependency : dependsOn) {
+				dependencies.add(dependency);
+			}
+		}
+		if (bd.getFactoryBeanName() != null) {
+			dependencies.add(bd.getFactoryBeanName());
+		}
+		for (PropertyValue pv : bd.getPropertyValues().getPropertyValueList()) {
+			collectReferences(pv.getValue(), dependencies);
+		}
+		ConstructorArgumentValues cav = bd.getConstructorArgumentValues();
+		for (ConstructorArgumentValues.ValueHolder valueHolder : cav.getIndexedArgumentValues().values()) {
+			collectReferences(valueHolder.getValue(), dependencies);
+		}
+		for (ConstructorArgumentValues.ValueHolder valueHolder : cav.getGenericArgumentValues()) {
+			collectReferences(valueHolder.getValue(), dependencies);
+		}
+	}
+
+	private void collectReferences(@Nullable Object value, List<String> dependencies) {
+		if (value instanceof RuntimeBeanReference) {
+			RuntimeBeanReference ref = (RuntimeBeanReference) value;
+			if (!ref.isToParent()) {
+				dependencies.add(ref.getBeanName());
+			}
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			collectDependencies(((BeanDefinitionHolder) value).getBeanDefinition(), dependencies);
+		}
+		else if (value instanceof BeanDefinition) {
+			collectDependencies((BeanDefinition) value, dependencies);
+		}
+		else if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				collectReferences(element, dependencies);
+			}
+		}
+		else if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				collectReferences(entry.getKey(), dependencies);
+				collectReferences(entry.getValue(), dependencies);
+			}
+		}
+	}
+
+	private static int find(int[] parents, int index) {
+		while (parents[index] != index) {
+			parents[index] = parents[parents[index]];
+			index = parents[index];
+		}
+		return index;
+	}
+
+	private static void union(int[] parents, int first, int second) {
+		int firstRoot = find(parents, first);
+		int secondRoot = find(parents, second);
+		// Keep the earliest registered bean as root, for a stable group order
+		if (firstRoot < secondRoot) {
+			parents[secondRoot] = firstRoot;
+		}
+		else if (secondRoot < firstRoot) {
+			parents[firstRoot] = secondRoot;
+		}
+	}
+
+}
@@ -26,6 +26,7 @@ import java.security.Principal;
 import java.security.PrivilegedAction;
 import java.text.NumberFormat;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
@@ -35,6 +36,12 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import javax.annotation.Priority;
 import javax.security.auth.Subject;
 
@@ -2122,6 +2129,181 @@ public class DefaultListableBeanFactoryTests {
 		}
 	}
 
+	@Test
+	public void testCircularReferenceAcrossThreads() throws Exception {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		AtomicInteger constructions = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(2);
+		Supplier<TestBean> supplier = () -> {
+			// Make sure both threads are past instantiation before any references get resolved
+			if (constructions.incrementAndGet() <= 2) {
+				latch.countDown();
+				try {
+					latch.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException ex) {
+					throw new IllegalStateException(ex);
+				}
+			}
+			return new TestBean();
+		};
+		RootBeanDefinition bd1 = new RootBeanDefinition(TestBean.class, supplier);
+		bd1.getPropertyValues().add("spouse", new RuntimeBeanReference("b"));
+		lbf.registerBeanDefinition("a", bd1);
+		RootBeanDefinition bd2 = new RootBeanDefinition(TestBean.class, supplier);
+		bd2.getPropertyValues().add("spouse", new RuntimeBeanReference("a"));
+		lbf.registerBeanDefinition("b", bd2);
+
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		Thread thread = new Thread(() -> {
+			try {
+				lbf.getBean("b");
+			}
+			catch (Throwable ex) {
+				failure.set(ex);
+			}
+		});
+		thread.start();
+		TestBean a = (TestBean) lbf.getBean("a");
+		thread.join(10000);
+
+		assertNull(failure.get());
+		TestBean b = (TestBean) lbf.getBean("b");
+		assertSame(b, a.getSpouse());
+		assertSame(a, b.getSpouse());
+	}
+
+	@Test
+	public void testParallelPreInstantiation() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.setPreInstantiationParallelism(2);
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		Supplier<TestBean> supplier = () -> {
+			// Only completes if both beans are created at the same time
+			try {
+				barrier.await(5, TimeUnit.SECONDS);
+			}
+			catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+			return new TestBean();
+		};
+		lbf.registerBeanDefinition("a", new RootBeanDefinition(TestBean.class, supplier));
+		lbf.registerBeanDefinition("b", new RootBeanDefinition(TestBean.class, supplier));
+		RootBeanDefinition lazy = new RootBeanDefinition(TestBean.class);
+		lazy.setLazyInit(true);
+		lbf.registerBeanDefinition("lazy", lazy);
+
+		lbf.preInstantiateSingletons();
+		assertTrue(lbf.containsSingleton("a"));
+		assertTrue(lbf.containsSingleton("b"));
+		assertFalse(lbf.containsSingleton("lazy"));
+	}
+
+	@Test
+	public void testParallelPreInstantiationWithCircularReferences() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.setPreInstantiationParallelism(4);
+		for (int i = 0; i < 10; i++) {
+			RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+			bd.getPropertyValues().add("spouse", new RuntimeBeanReference("bean" + ((i + 1) % 10)));
+			if (i % 2 == 0) {
+				bd.setDependsOn("other" + i);
+			}
+			lbf.registerBeanDefinition("bean" + i, bd);
+			lbf.registerBeanDefinition("other" + i, new RootBeanDefinition(DerivedTestBean.class));
+		}
+
+		lbf.preInstantiateSingletons();
+		for (int i = 0; i < 10; i++) {
+			TestBean bean = (TestBean) lbf.getBean("bean" + i);
+			assertSame(lbf.getBean("bean" + ((i + 1) % 10)), bean.getSpouse());
+			assertTrue(lbf.containsSingleton("other" + i));
+		}
+	}
+
+	@Test
+	public void testParallelPreInstantiationWithSmartInitializingSingletons() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.setPreInstantiationParallelism(4);
+		List<String> callbacks = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			String beanName = "bean" + i;
+			lbf.registerBeanDefinition(beanName, new RootBeanDefinition(SmartInitializingSingleton.class,
+					() -> () -> callbacks.add(beanName + ":" + Thread.currentThread().getName())));
+		}
+
+		lbf.preInstantiateSingletons();
+		assertEquals(10, callbacks.size());
+		for (int i = 0; i < 10; i++) {
+			assertEquals("bean" + i + ":" + Thread.currentThread().getName(), callbacks.get(i));
+		}
+	}
+
+	@Test
+	public void testParallelPreInstantiationFailure() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.setPreInstantiationParallelism(2);
+		lbf.registerBeanDefinition("a", new RootBeanDefinition(TestBean.class));
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.setInitMethodName("noSuchMethod");
+		lbf.registerBeanDefinition("b", bd);
+		try {
+			lbf.preInstantiateSingletons();
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			assertEquals("b", ex.getBeanName());
+		}
+	}
+
+	@Test
+	public void testBeansOfTypeWithCircularReferenceAcrossThreads() throws Exception {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		AtomicInteger constructions = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(2);
+		Runnable awaitOtherThread = () -> {
+			// Make sure both threads are past instantiation before any references get resolved
+			if (constructions.incrementAndGet() <= 2) {
+				latch.countDown();
+				try {
+					latch.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException ex) {
+					throw new IllegalStateException(ex);
+				}
+			}
+		};
+		RootBeanDefinition bd1 = new RootBeanDefinition(TestBean.class, () -> {
+			awaitOtherThread.run();
+			return new TestBean();
+		});
+		bd1.getPropertyValues().add("spouse", new RuntimeBeanReference("b"));
+		lbf.registerBeanDefinition("a", bd1);
+		lbf.registerBeanDefinition("b", new RootBeanDefinition(TestBean.class, () -> {
+			awaitOtherThread.run();
+			return new TestBean(lbf.getBeansOfType(TestBean.class));
+		}));
+
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		Thread thread = new Thread(() -> {
+			try {
+				lbf.getBean("b");
+			}
+			catch (Throwable ex) {
+				failure.set(ex);
+			}
+		});
+		thread.start();
+		TestBean a = (TestBean) lbf.getBean("a");
+		thread.join(10000);
+
+		assertNull(failure.get());
+		TestBean b = (TestBean) lbf.getBean("b");
+		assertSame(b, a.getSpouse());
+		assertSame(a, b.getSomeMap().get("a"));
+	}
+
 	@Test
 	public void testAvoidCircularReferenceThroughAutowiring() {
 		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
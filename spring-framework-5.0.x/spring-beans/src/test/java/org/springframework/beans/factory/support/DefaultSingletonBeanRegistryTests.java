@@ -16,6 +16,12 @@
 
 package org.springframework.beans.factory.support;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.junit.Test;
 
 import org.springframework.beans.BeansException;
@@ -101,4 +107,97 @@ public class DefaultSingletonBeanRegistryTests {
 		assertTrue(beanRegistry.isDependent("c", "c"));
 	}
 
+	@Test
+	public void testConcurrentCreationOfUnrelatedSingletons() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		AtomicReference<Object> result = new AtomicReference<>();
+
+		// Both factories only complete once the other one is running as well
+		Thread thread = new Thread(() -> result.set(beanRegistry.getSingleton("tb2", () -> {
+			await(barrier);
+			return new TestBean("tb2");
+		})));
+		thread.start();
+		TestBean tb1 = (TestBean) beanRegistry.getSingleton("tb1", () -> {
+			await(barrier);
+			return new TestBean("tb1");
+		});
+		thread.join(5000);
+
+		assertEquals("tb1", tb1.getName());
+		assertEquals("tb2", ((TestBean) result.get()).getName());
+		assertEquals(2, beanRegistry.getSingletonCount());
+	}
+
+	@Test
+	public void testSingletonLookupNotBlockedByCreation() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		TestBean tb = new TestBean();
+		beanRegistry.registerSingleton("tb", tb);
+		CountDownLatch inCreation = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		Thread thread = new Thread(() -> beanRegistry.getSingleton("tb2", () -> {
+			inCreation.countDown();
+			await(release);
+			return new TestBean();
+		}));
+		thread.start();
+		assertTrue(inCreation.await(5, TimeUnit.SECONDS));
+
+		assertSame(tb, beanRegistry.getSingleton("tb"));
+		assertTrue(beanRegistry.isSingletonCurrentlyInCreation("tb2"));
+		assertNull(beanRegistry.getSingleton("tb2"));
+
+		release.countDown();
+		thread.join(5000);
+		assertNotNull(beanRegistry.getSingleton("tb2"));
+	}
+
+	@Test
+	public void testConcurrentCreationOfSameSingleton() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		AtomicInteger invocations = new AtomicInteger();
+		CountDownLatch inCreation = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ObjectFactory<Object> factory = () -> {
+			invocations.incrementAndGet();
+			inCreation.countDown();
+			await(release);
+			return new TestBean();
+		};
+		AtomicReference<Object> result = new AtomicReference<>();
+
+		Thread thread = new Thread(() -> beanRegistry.getSingleton("tb", factory));
+		thread.start();
+		assertTrue(inCreation.await(5, TimeUnit.SECONDS));
+		Thread waiter = new Thread(() -> result.set(beanRegistry.getSingleton("tb", factory)));
+		waiter.start();
+		release.countDown();
+		thread.join(5000);
+		waiter.join(5000);
+
+		assertEquals(1, invocations.get());
+		assertSame(beanRegistry.getSingleton("tb"), result.get());
+	}
+
+	private static void await(CyclicBarrier barrier) {
+		try {
+			barrier.await(5, TimeUnit.SECONDS);
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
 }
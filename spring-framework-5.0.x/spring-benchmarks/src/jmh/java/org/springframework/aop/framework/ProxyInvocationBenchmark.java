@@ -0,0 +1,117 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+
+/**
+ * Benchmarks for invocations through JDK and CGLIB proxies of a service with
+ * five advisors, with a regular, a frozen and a precompiled configuration.
+ *
+ * @since 5.0.17
+ */
+@BenchmarkMode(Mode.Throughput)
+public class ProxyInvocationBenchmark {
+
+	@Benchmark
+	public int advisedMethod(ProxyState state) {
+		return state.service.add(state.left, state.right);
+	}
+
+	@Benchmark
+	public int unadvisedMethod(ProxyState state) {
+		return state.service.negate(state.left);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class ProxyState {
+
+		private static final int ADVISORS = 5;
+
+		@Param({"jdk", "cglib"})
+		public String proxyType;
+
+		@Param({"default", "frozen", "precompiled"})
+		public String mode;
+
+		public Service service;
+
+		public int left = 3;
+
+		public int right = 4;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			ProxyFactory proxyFactory = new ProxyFactory(new ServiceImpl());
+			proxyFactory.setInterfaces(Service.class);
+			proxyFactory.setProxyTargetClass("cglib".equals(this.proxyType));
+			NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+			pointcut.setMappedName("add");
+			for (int i = 0; i < ADVISORS; i++) {
+				proxyFactory.addAdvisor(new DefaultPointcutAdvisor(pointcut, new PassThroughInterceptor()));
+			}
+			proxyFactory.setFrozen("frozen".equals(this.mode));
+			proxyFactory.setPrecompileInvokers("precompiled".equals(this.mode));
+			this.service = (Service) proxyFactory.getProxy();
+		}
+	}
+
+
+	public interface Service {
+
+		int add(int left, int right);
+
+		int negate(int value);
+	}
+
+
+	public static class ServiceImpl implements Service {
+
+		@Override
+		public int add(int left, int right) {
+			return left + right;
+		}
+
+		@Override
+		public int negate(int value) {
+			return -value;
+		}
+	}
+
+
+	private static class PassThroughInterceptor implements MethodInterceptor {
+
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+			return invocation.proceed();
+		}
+	}
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.context.support.SimpleThreadScope;
+
+/**
+ * Benchmarks for {@link DefaultListableBeanFactory#getBean} against singleton,
+ * prototype and custom-scoped bean definitions.
+ *
+ * @since 5.0.17
+ */
+@BenchmarkMode(Mode.Throughput)
+public class DefaultListableBeanFactoryBenchmark {
+
+	@Benchmark
+	public Object singletonByName(BeanFactoryState state) {
+		return state.beanFactory.getBean("repository");
+	}
+
+	@Benchmark
+	public Object singletonByType(BeanFactoryState state) {
+		return state.beanFactory.getBean(Repository.class);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public Object singletonByNameContended(BeanFactoryState state) {
+		return state.beanFactory.getBean("repository");
+	}
+
+	@Benchmark
+	public Object prototypeWithConstructorDependencies(BeanFactoryState state) {
+		return state.beanFactory.getBean("service");
+	}
+
+	@Benchmark
+	public Object prototypeWithPropertyDependencies(BeanFactoryState state) {
+		return state.beanFactory.getBean("handler");
+	}
+
+	@Benchmark
+	public Object scoped(BeanFactoryState state) {
+		return state.beanFactory.getBean("scopedRepository");
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BeanFactoryState {
+
+		public DefaultListableBeanFactory beanFactory;
+
+		@Setup
+		public void setup() {
+			this.beanFactory = new DefaultListableBeanFactory();
+			this.beanFactory.registerScope("thread", new SimpleThreadScope());
+
+			this.beanFactory.registerBeanDefinition("repository", new RootBeanDefinition(Repository.class));
+			this.beanFactory.registerBeanDefinition("auditor", new RootBeanDefinition(Auditor.class));
+			this.beanFactory.registerBeanDefinition("clock", new RootBeanDefinition(Clock.class));
+
+			RootBeanDefinition service = new RootBeanDefinition(Service.class);
+			service.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+			service.setAutowireMode(RootBeanDefinition.AUTOWIRE_CONSTRUCTOR);
+			this.beanFactory.registerBeanDefinition("service", service);
+
+			RootBeanDefinition handler = new RootBeanDefinition(Handler.class);
+			handler.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+			handler.getPropertyValues().add("repository", new RuntimeBeanReference("repository"));
+			handler.getPropertyValues().add("auditor", new RuntimeBeanReference("auditor"));
+			handler.getPropertyValues().add("name", "handler");
+			this.beanFactory.registerBeanDefinition("handler", handler);
+
+			RootBeanDefinition scopedRepository = new RootBeanDefinition(Repository.class);
+			scopedRepository.setScope("thread");
+			scopedRepository.setAutowireCandidate(false);
+			this.beanFactory.registerBeanDefinition("scopedRepository", scopedRepository);
+
+			this.beanFactory.preInstantiateSingletons();
+		}
+	}
+
+
+	public static class Repository {
+	}
+
+
+	public static class Auditor {
+	}
+
+
+	public static class Clock {
+	}
+
+
+	public static class Service {
+
+		private final Repository repository;
+
+		private final Auditor auditor;
+
+		private final Clock clock;
+
+		public Service(Repository repository, Auditor auditor, Clock clock) {
+			this.repository = repository;
+			this.auditor = auditor;
+			this.clock = clock;
+		}
+	}
+
+
+	public static class Handler {
+
+		private Repository repository;
+
+		private Auditor auditor;
+
+		private String name;
+
+		public void setRepository(Repository repository) {
+			this.repository = repository;
+		}
+
+		public void setAuditor(Auditor auditor) {
+			this.auditor = auditor;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.local;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+/**
+ * Benchmarks for concurrent reads and writes against a bounded {@link LocalCache},
+ * compared to an unbounded {@link ConcurrentMapCache}.
+ *
+ * @since 5.0.17
+ */
+@BenchmarkMode(Mode.Throughput)
+@Threads(8)
+public class LocalCacheBenchmark {
+
+	@Benchmark
+	public Object read(CacheState state) {
+		return state.cache.get(state.nextKey());
+	}
+
+	@Benchmark
+	public void readWrite(CacheState state) {
+		Integer key = state.nextKey();
+		if ((key & 7) == 0) {
+			state.cache.put(key, key);
+		}
+		else {
+			state.cache.get(key);
+		}
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class CacheState {
+
+		private static final int KEYS = 1 << 16;
+
+		@Param({"local", "concurrentMap"})
+		public String type;
+
+		public Cache cache;
+
+		private Integer[] keys;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			if ("local".equals(this.type)) {
+				this.cache = new LocalCache("benchmark", LocalCacheStore.builder().maximumSize(KEYS / 2).build());
+			}
+			else {
+				this.cache = new ConcurrentMapCache("benchmark");
+			}
+			this.keys = new Integer[KEYS];
+			for (int i = 0; i < KEYS; i++) {
+				this.keys[i] = i;
+				this.cache.put(this.keys[i], this.keys[i]);
+			}
+		}
+
+		Integer nextKey() {
+			// Skewed distribution: lower keys are accessed far more frequently
+			int index = (int) (KEYS * Math.pow(ThreadLocalRandom.current().nextDouble(), 3));
+			return this.keys[index];
+		}
+	}
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import com.muqie.app.AppConfig;
+import com.muqie.dao.IndexDao1;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for bootstrapping and querying an {@link AnnotationConfigApplicationContext},
+ * using the {@code muqieIOC} sample configuration as a fixture.
+ *
+ * @since 5.0.17
+ */
+@BenchmarkMode(Mode.Throughput)
+public class AnnotationConfigApplicationContextBenchmark {
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@Warmup(iterations = 10)
+	@Measurement(iterations = 20)
+	public AnnotationConfigApplicationContext startup() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(AppConfig.class);
+		context.close();
+		return context;
+	}
+
+	@Benchmark
+	public Object getBeanByName(ContextState state) {
+		return state.context.getBean("indexDao1");
+	}
+
+	@Benchmark
+	public Object getBeanByType(ContextState state) {
+		return state.context.getBean(IndexDao1.class);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class ContextState {
+
+		public AnnotationConfigApplicationContext context;
+
+		@Setup
+		public void setup() {
+			this.context = new AnnotationConfigApplicationContext(AppConfig.class);
+		}
+
+		@TearDown
+		public void tearDown() {
+			this.context.close();
+		}
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Benchmarks for publishing events to {@link EventListener} methods and
+ * {@link org.springframework.context.ApplicationListener} beans.
+ *
+ * @since 5.0.17
+ */
+@BenchmarkMode(Mode.Throughput)
+public class ApplicationEventPublicationBenchmark {
+
+	@Benchmark
+	public void publishApplicationEvent(ContextState state) {
+		state.context.publishEvent(state.event);
+	}
+
+	@Benchmark
+	public void publishPayload(ContextState state) {
+		state.context.publishEvent("payload");
+	}
+
+	@Benchmark
+	public void publishUnhandledPayload(ContextState state) {
+		state.context.publishEvent(42L);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class ContextState {
+
+		public AnnotationConfigApplicationContext context;
+
+		public ApplicationEvent event;
+
+		@Setup
+		public void setup() {
+			this.context = new AnnotationConfigApplicationContext(ListenerConfig.class);
+			this.event = new DomainEvent(this);
+		}
+
+		@TearDown
+		public void tearDown() {
+			this.context.close();
+		}
+	}
+
+
+	@Configuration
+	static class ListenerConfig {
+
+		@Bean
+		public Listeners listeners() {
+			return new Listeners();
+		}
+	}
+
+
+	static class Listeners {
+
+		public int count;
+
+		@EventListener
+		public void onDomainEvent(DomainEvent event) {
+			this.count++;
+		}
+
+		@EventListener
+		public void onPayload(String payload) {
+			this.count++;
+		}
+
+		@EventListener
+		public void onAnyEvent(ApplicationEvent event) {
+			this.count++;
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	static class DomainEvent extends ApplicationEvent {
+
+		DomainEvent(Object source) {
+			super(source);
+		}
+	}
+
+}
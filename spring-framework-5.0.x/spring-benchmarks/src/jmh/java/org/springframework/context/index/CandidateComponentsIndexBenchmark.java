@@ -0,0 +1,81 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import com.muqie.app.AppConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+
+/**
+ * Benchmarks for the startup of the {@code muqieIOC} sample with and without the
+ * {@link CandidateComponentsIndex}, which the sample generates at compile time.
+ * The {@code regex} variants use an include filter that only a complete index
+ * can serve.
+ *
+ * @since 5.0.17
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+public class CandidateComponentsIndexBenchmark {
+
+	@Benchmark
+	public AnnotationConfigApplicationContext indexed() {
+		return startup(AppConfig.class);
+	}
+
+	@Benchmark
+	@Fork(jvmArgsAppend = "-Dspring.index.ignore=true")
+	public AnnotationConfigApplicationContext scanned() {
+		return startup(AppConfig.class);
+	}
+
+	@Benchmark
+	public AnnotationConfigApplicationContext regexIndexed() {
+		return startup(RegexScanConfig.class);
+	}
+
+	@Benchmark
+	@Fork(jvmArgsAppend = "-Dspring.index.ignore=true")
+	public AnnotationConfigApplicationContext regexScanned() {
+		return startup(RegexScanConfig.class);
+	}
+
+
+	private static AnnotationConfigApplicationContext startup(Class<?> configClass) {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(configClass);
+		context.close();
+		return context;
+	}
+
+
+	@Configuration
+	@ComponentScan(basePackages = "com.muqie.dao", useDefaultFilters = false,
+			includeFilters = @ComponentScan.Filter(type = FilterType.REGEX, pattern = "com\\.muqie\\.dao\\.IndexDao.*"))
+	static class RegexScanConfig {
+	}
+
+}
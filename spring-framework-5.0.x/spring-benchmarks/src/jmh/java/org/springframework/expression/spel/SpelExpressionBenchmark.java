@@ -0,0 +1,194 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+/**
+ * Benchmarks for {@link org.springframework.expression.spel.standard.SpelExpression}
+ * evaluation in interpreted mode versus compiled mode, including selection,
+ * projection and inline collections.
+ *
+ * @since 5.0.17
+ */
+@BenchmarkMode(Mode.Throughput)
+public class SpelExpressionBenchmark {
+
+	@Benchmark
+	public Object propertyNavigation(ExpressionState state) {
+		return state.propertyNavigation.getValue(state.context);
+	}
+
+	@Benchmark
+	public Object methodInvocation(ExpressionState state) {
+		return state.methodInvocation.getValue(state.context);
+	}
+
+	@Benchmark
+	public Object booleanLogic(ExpressionState state) {
+		return state.booleanLogic.getValue(state.context);
+	}
+
+	@Benchmark
+	public Object listIndexer(ExpressionState state) {
+		return state.listIndexer.getValue(state.context);
+	}
+
+	@Benchmark
+	public Object selection(ExpressionState state) {
+		return state.selection.getValue(state.context);
+	}
+
+	@Benchmark
+	public Object projection(ExpressionState state) {
+		return state.projection.getValue(state.context);
+	}
+
+	@Benchmark
+	public Object inlineCollections(ExpressionState state) {
+		return state.inlineCollections.getValue(state.context);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class ExpressionState {
+
+		@Param({"OFF", "IMMEDIATE", "MIXED"})
+		public SpelCompilerMode compilerMode;
+
+		public StandardEvaluationContext context;
+
+		public Expression propertyNavigation;
+
+		public Expression methodInvocation;
+
+		public Expression booleanLogic;
+
+		public Expression listIndexer;
+
+		public Expression selection;
+
+		public Expression projection;
+
+		public Expression inlineCollections;
+
+		@Setup
+		public void setup() {
+			SpelExpressionParser parser = new SpelExpressionParser(
+					new SpelParserConfiguration(this.compilerMode, getClass().getClassLoader()));
+			this.context = new StandardEvaluationContext(new Customer("Juergen", 42, "Linz"));
+			this.propertyNavigation = parser.parseExpression("address.city");
+			this.methodInvocation = parser.parseExpression("name.toUpperCase().length()");
+			this.booleanLogic = parser.parseExpression("age > 18 and age < 65 or name == 'admin'");
+			this.listIndexer = parser.parseExpression("orders[1].total");
+			this.selection = parser.parseExpression("orders.?[total > 40 and #this.total < 80].size()");
+			this.projection = parser.parseExpression("orders.![total * 2].^[#this > 100]");
+			this.inlineCollections = parser.parseExpression("{name: name, city: address.city, tags: {'a', 'b'}}");
+
+			// Trigger compilation in IMMEDIATE mode before measuring,
+			// MIXED mode compiles after a number of interpreted evaluations
+			for (int i = 0; i < 150; i++) {
+				this.propertyNavigation.getValue(this.context);
+				this.methodInvocation.getValue(this.context);
+				this.booleanLogic.getValue(this.context);
+				this.listIndexer.getValue(this.context);
+				this.selection.getValue(this.context);
+				this.projection.getValue(this.context);
+				this.inlineCollections.getValue(this.context);
+			}
+		}
+	}
+
+
+	public static class Customer {
+
+		private final String name;
+
+		private final int age;
+
+		private final Address address;
+
+		private final List<Order> orders = new ArrayList<>();
+
+		public Customer(String name, int age, String city) {
+			this.name = name;
+			this.age = age;
+			this.address = new Address(city);
+			for (int i = 0; i < 10; i++) {
+				this.orders.add(new Order(i * 10));
+			}
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public Address getAddress() {
+			return this.address;
+		}
+
+		public List<Order> getOrders() {
+			return this.orders;
+		}
+	}
+
+
+	public static class Address {
+
+		private final String city;
+
+		public Address(String city) {
+			this.city = city;
+		}
+
+		public String getCity() {
+			return this.city;
+		}
+	}
+
+
+	public static class Order {
+
+		private final int total;
+
+		public Order(int total) {
+			this.total = total;
+		}
+
+		public int getTotal() {
+			return this.total;
+		}
+	}
+
+}
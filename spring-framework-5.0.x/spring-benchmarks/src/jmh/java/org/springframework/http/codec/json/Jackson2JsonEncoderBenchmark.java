@@ -0,0 +1,134 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+
+/**
+ * Benchmarks for {@link Jackson2JsonEncoder}, encoding a single value as well as
+ * a JSON array and a stream of values.
+ *
+ * @since 5.0.17
+ */
+@BenchmarkMode(Mode.Throughput)
+public class Jackson2JsonEncoderBenchmark {
+
+	private static final ResolvableType ELEMENT_TYPE = ResolvableType.forClass(Item.class);
+
+
+	@Benchmark
+	public DataBuffer single(EncoderState state) {
+		return encode(state, Mono.just(state.items.get(0)), MediaType.APPLICATION_JSON);
+	}
+
+	@Benchmark
+	public DataBuffer array(EncoderState state) {
+		return encode(state, Flux.fromIterable(state.items), MediaType.APPLICATION_JSON);
+	}
+
+	@Benchmark
+	public DataBuffer stream(EncoderState state) {
+		return encode(state, Flux.fromIterable(state.items), MediaType.APPLICATION_STREAM_JSON);
+	}
+
+	private DataBuffer encode(EncoderState state, Flux<?> input, MediaType mediaType) {
+		return state.encoder.encode(input, state.bufferFactory, ELEMENT_TYPE, mediaType, Collections.emptyMap())
+				.doOnNext(DataBufferUtils::release)
+				.blockLast();
+	}
+
+	private DataBuffer encode(EncoderState state, Mono<?> input, MediaType mediaType) {
+		return encode(state, Flux.from(input), mediaType);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class EncoderState {
+
+		@Param({"1", "100"})
+		public int elements;
+
+		public final Jackson2JsonEncoder encoder = new Jackson2JsonEncoder();
+
+		public final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+		public List<Item> items;
+
+		@Setup
+		public void setup() {
+			this.items = new ArrayList<>(this.elements);
+			for (int i = 0; i < this.elements; i++) {
+				this.items.add(new Item(i, "item" + i, i * 1.5d, Collections.singletonList("tag" + i)));
+			}
+		}
+	}
+
+
+	public static class Item {
+
+		private final long id;
+
+		private final String name;
+
+		private final double price;
+
+		private final List<String> tags;
+
+		public Item(long id, String name, double price, List<String> tags) {
+			this.id = id;
+			this.name = name;
+			this.price = price;
+			this.tags = tags;
+		}
+
+		public long getId() {
+			return this.id;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public double getPrice() {
+			return this.price;
+		}
+
+		public List<String> getTags() {
+			return this.tags;
+		}
+	}
+
+}
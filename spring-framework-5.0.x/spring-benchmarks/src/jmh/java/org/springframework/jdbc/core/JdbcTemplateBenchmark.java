@@ -0,0 +1,151 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * Benchmarks for row mapping through {@link JdbcTemplate} against an embedded
+ * HSQL database, comparing a hand-written {@link RowMapper}, a
+ * {@link BeanPropertyRowMapper} and column maps.
+ *
+ * @since 5.0.17
+ */
+@BenchmarkMode(Mode.Throughput)
+public class JdbcTemplateBenchmark {
+
+	private static final String SELECT = "SELECT id, name, email, age FROM customer";
+
+
+	@Benchmark
+	public List<Customer> rowMapper(DatabaseState state) {
+		return state.jdbcTemplate.query(SELECT, (rs, rowNum) ->
+				new Customer(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getInt(4)));
+	}
+
+	@Benchmark
+	public List<Customer> beanPropertyRowMapper(DatabaseState state) {
+		return state.jdbcTemplate.query(SELECT, state.beanPropertyRowMapper);
+	}
+
+	@Benchmark
+	public List<Map<String, Object>> queryForList(DatabaseState state) {
+		return state.jdbcTemplate.queryForList(SELECT);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class DatabaseState {
+
+		@Param({"10", "1000"})
+		public int rows;
+
+		public EmbeddedDatabase database;
+
+		public JdbcTemplate jdbcTemplate;
+
+		public BeanPropertyRowMapper<Customer> beanPropertyRowMapper;
+
+		@Setup
+		public void setup() {
+			this.database = new EmbeddedDatabaseBuilder()
+					.generateUniqueName(true).setType(EmbeddedDatabaseType.HSQL).build();
+			this.jdbcTemplate = new JdbcTemplate(this.database);
+			this.jdbcTemplate.execute("CREATE TABLE customer " +
+					"(id BIGINT PRIMARY KEY, name VARCHAR(50), email VARCHAR(100), age INTEGER)");
+			for (int i = 0; i < this.rows; i++) {
+				this.jdbcTemplate.update("INSERT INTO customer VALUES (?, ?, ?, ?)",
+						i, "customer" + i, "customer" + i + "@example.org", 20 + (i % 50));
+			}
+			this.beanPropertyRowMapper = new BeanPropertyRowMapper<>(Customer.class);
+		}
+
+		@TearDown
+		public void tearDown() {
+			this.database.shutdown();
+		}
+	}
+
+
+	public static class Customer {
+
+		private long id;
+
+		private String name;
+
+		private String email;
+
+		private int age;
+
+		public Customer() {
+		}
+
+		public Customer(long id, String name, String email, int age) {
+			this.id = id;
+			this.name = name;
+			this.email = email;
+			this.age = age;
+		}
+
+		public long getId() {
+			return this.id;
+		}
+
+		public void setId(long id) {
+			this.id = id;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public String getEmail() {
+			return this.email;
+		}
+
+		public void setEmail(String email) {
+			this.email = email;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+	}
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.mvc.method.annotation;
+
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+
+/**
+ * Benchmarks for handler lookup in {@link RequestMappingHandlerMapping}, i.e.
+ * {@code AbstractHandlerMethodMapping#lookupHandlerMethod} for literal and
+ * patterned request paths against a large number of registered endpoints.
+ *
+ * @since 5.0.17
+ */
+@BenchmarkMode(Mode.Throughput)
+public class RequestMappingHandlerMappingBenchmark {
+
+	@Benchmark
+	public HandlerExecutionChain literalPath(MappingState state) throws Exception {
+		return state.handlerMapping.getHandler(state.literalRequest);
+	}
+
+	@Benchmark
+	public HandlerExecutionChain patternPath(MappingState state) throws Exception {
+		return state.handlerMapping.getHandler(state.patternRequest);
+	}
+
+	@Benchmark
+	public HandlerExecutionChain noMatch(MappingState state) throws Exception {
+		return state.handlerMapping.getHandler(state.unmappedRequest);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class MappingState {
+
+		@Param({"100", "2500"})
+		public int endpoints;
+
+		public RequestMappingHandlerMapping handlerMapping;
+
+		public MockHttpServletRequest literalRequest;
+
+		public MockHttpServletRequest patternRequest;
+
+		public MockHttpServletRequest unmappedRequest;
+
+		@Setup
+		public void setup() {
+			this.handlerMapping = new RequestMappingHandlerMapping();
+			this.handlerMapping.setApplicationContext(new StaticWebApplicationContext());
+			this.handlerMapping.afterPropertiesSet();
+
+			RequestMappingInfo.BuilderConfiguration config = new RequestMappingInfo.BuilderConfiguration();
+			config.setUrlPathHelper(this.handlerMapping.getUrlPathHelper());
+			config.setPathMatcher(this.handlerMapping.getPathMatcher());
+			config.setContentNegotiationManager(this.handlerMapping.getContentNegotiationManager());
+
+			SampleController controller = new SampleController();
+			Method list = ClassUtils.getMethod(SampleController.class, "list");
+			Method get = ClassUtils.getMethod(SampleController.class, "get", String.class, Long.class);
+			Method update = ClassUtils.getMethod(SampleController.class, "update", String.class, Long.class);
+			for (int i = 0; i < this.endpoints / 2; i++) {
+				this.handlerMapping.registerMapping(RequestMappingInfo.paths("/api/resource" + i)
+						.methods(RequestMethod.GET).options(config).build(), controller, list);
+				this.handlerMapping.registerMapping(RequestMappingInfo.paths("/api/{tenant}/resource" + i + "/{id}")
+						.methods(RequestMethod.GET).options(config).build(), controller, get);
+				this.handlerMapping.registerMapping(RequestMappingInfo.paths("/api/{tenant}/resource" + i + "/{id}")
+						.methods(RequestMethod.PUT).consumes("application/json").options(config).build(), controller, update);
+			}
+
+			int target = this.endpoints / 4;
+			this.literalRequest = new MockHttpServletRequest("GET", "/api/resource" + target);
+			this.patternRequest = new MockHttpServletRequest("GET", "/api/acme/resource" + target + "/42");
+			this.unmappedRequest = new MockHttpServletRequest("GET", "/api/acme/unknown/42");
+		}
+	}
+
+
+	public static class SampleController {
+
+		public Object list() {
+			return null;
+		}
+
+		public Object get(String tenant, Long id) {
+			return null;
+		}
+
+		public Object update(String tenant, Long id) {
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * Benchmarks comparing {@link AntPathMatcher} with pre-parsed {@link PathPattern}
+ * instances when matching a set of request paths against a set of route patterns.
+ *
+ * @since 5.0.17
+ */
+@BenchmarkMode(Mode.Throughput)
+public class PathMatchingBenchmark {
+
+	@Benchmark
+	public void antPathMatcher(PatternsState state, Blackhole bh) {
+		for (String path : state.paths) {
+			for (String pattern : state.patterns) {
+				bh.consume(state.pathMatcher.match(pattern, path));
+			}
+		}
+	}
+
+	@Benchmark
+	public void antPathMatcherExtractVariables(PatternsState state, Blackhole bh) {
+		for (String path : state.paths) {
+			for (String pattern : state.patterns) {
+				if (state.pathMatcher.match(pattern, path)) {
+					bh.consume(state.pathMatcher.extractUriTemplateVariables(pattern, path));
+				}
+			}
+		}
+	}
+
+	@Benchmark
+	public void pathPattern(PatternsState state, Blackhole bh) {
+		for (String path : state.paths) {
+			PathContainer pathContainer = PathContainer.parsePath(path);
+			for (PathPattern pattern : state.pathPatterns) {
+				bh.consume(pattern.matches(pathContainer));
+			}
+		}
+	}
+
+	@Benchmark
+	public void pathPatternExtractVariables(PatternsState state, Blackhole bh) {
+		for (String path : state.paths) {
+			PathContainer pathContainer = PathContainer.parsePath(path);
+			for (PathPattern pattern : state.pathPatterns) {
+				bh.consume(pattern.matchAndExtract(pathContainer));
+			}
+		}
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class PatternsState {
+
+		public final String[] patterns = {
+				"/", "/index", "/static/**", "/resources/*.css", "/api/orders",
+				"/api/{tenant}/orders", "/api/{tenant}/orders/{id}", "/api/{tenant}/orders/{id}/items/{item}",
+				"/api/{tenant}/customers/{id:\\d+}", "/api/*/reports/**", "/admin/users/{user}/roles",
+				"/files/{name}.{ext}"};
+
+		public final String[] paths = {
+				"/", "/index", "/static/js/app.js", "/resources/main.css", "/api/orders",
+				"/api/acme/orders", "/api/acme/orders/42", "/api/acme/orders/42/items/7",
+				"/api/acme/customers/1234", "/api/acme/reports/2019/q1", "/admin/users/joe/roles",
+				"/files/report.pdf", "/unmapped/path/segments"};
+
+		public final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+		public List<PathPattern> pathPatterns;
+
+		@Setup
+		public void setup() {
+			PathPatternParser parser = new PathPatternParser();
+			this.pathPatterns = new ArrayList<>(this.patterns.length);
+			for (String pattern : this.patterns) {
+				this.pathPatterns.add(parser.parse(pattern));
+			}
+		}
+	}
+
+}
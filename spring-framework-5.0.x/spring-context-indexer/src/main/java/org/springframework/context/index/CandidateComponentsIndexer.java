@@ -39,6 +39,10 @@ import javax.lang.model.element.TypeElement;
  * Annotation {@link Processor} that writes {@link CandidateComponentsMetadata}
  * file for spring components.
  *
+ * <p>As of 5.0.17, the {@link TypeDetails} of all types are written to a separate
+ * {@code META-INF/spring.components.details} file, which allows the index to
+ * serve any include filter rather than falling back to classpath scanning.
+ *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
  * @since 5.0
@@ -54,6 +58,8 @@ public class CandidateComponentsIndexer implements Processor {
 
 	private TypeHelper typeHelper;
 
+	private TypeDetailsProvider typeDetailsProvider;
+
 	private List<StereotypesProvider> stereotypesProviders;
 
 
@@ -76,6 +82,7 @@ public class CandidateComponentsIndexer implements Processor {
 	public synchronized void init(ProcessingEnvironment env) {
 		this.stereotypesProviders = getStereotypesProviders(env);
 		this.typeHelper = new TypeHelper(env);
+		this.typeDetailsProvider = new TypeDetailsProvider(env, this.typeHelper);
 		this.metadataStore = new MetadataStore(env);
 		this.metadataCollector = new MetadataCollector(env, this.metadataStore.readMetadata());
 	}
@@ -118,11 +125,14 @@ public class CandidateComponentsIndexer implements Processor {
 		if (!stereotypes.isEmpty()) {
 			this.metadataCollector.add(new ItemMetadata(this.typeHelper.getType(element), stereotypes));
 		}
+		if (element instanceof TypeElement) {
+			this.metadataCollector.addDetails(this.typeDetailsProvider.getTypeDetails(element));
+		}
 	}
 
 	private void writeMetaData() {
 		CandidateComponentsMetadata metadata = this.metadataCollector.getMetadata();
-		if (!metadata.getItems().isEmpty()) {
+		if (!metadata.getItems().isEmpty() || !metadata.getDetails().isEmpty()) {
 			try {
 				this.metadataStore.writeMetadata(metadata);
 			}
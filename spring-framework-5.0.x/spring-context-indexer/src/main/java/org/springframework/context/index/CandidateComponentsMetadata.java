@@ -30,6 +30,8 @@ class CandidateComponentsMetadata {
 
 	private final List<ItemMetadata> items;
 
+	private final List<TypeDetails> details = new ArrayList<>();
+
 
 	public CandidateComponentsMetadata() {
 		this.items = new ArrayList<>();
@@ -44,9 +46,17 @@ class CandidateComponentsMetadata {
 		return Collections.unmodifiableList(this.items);
 	}
 
+	public void addDetails(TypeDetails details) {
+		this.details.add(details);
+	}
+
+	public List<TypeDetails> getDetails() {
+		return Collections.unmodifiableList(this.details);
+	}
+
 	@Override
 	public String toString() {
-		return "CandidateComponentsMetadata{" + "items=" + this.items + '}';
+		return "CandidateComponentsMetadata{" + "items=" + this.items + ", details=" + this.details + '}';
 	}
 
 }
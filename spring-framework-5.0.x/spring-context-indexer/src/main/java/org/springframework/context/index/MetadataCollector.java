@@ -35,6 +35,8 @@ class MetadataCollector {
 
 	private final List<ItemMetadata> metadataItems = new ArrayList<>();
 
+	private final List<TypeDetails> typeDetails = new ArrayList<>();
+
 	private final ProcessingEnvironment processingEnvironment;
 
 	private final CandidateComponentsMetadata previousMetadata;
@@ -74,24 +76,35 @@ class MetadataCollector {
 		this.metadataItems.add(metadata);
 	}
 
+	public void addDetails(TypeDetails details) {
+		this.typeDetails.add(details);
+	}
+
 	public CandidateComponentsMetadata getMetadata() {
 		CandidateComponentsMetadata metadata = new CandidateComponentsMetadata();
 		for (ItemMetadata item : this.metadataItems) {
 			metadata.add(item);
 		}
+		for (TypeDetails details : this.typeDetails) {
+			metadata.addDetails(details);
+		}
 		if (this.previousMetadata != null) {
 			List<ItemMetadata> items = this.previousMetadata.getItems();
 			for (ItemMetadata item : items) {
-				if (shouldBeMerged(item)) {
+				if (shouldBeMerged(item.getType())) {
 					metadata.add(item);
 				}
 			}
+			for (TypeDetails details : this.previousMetadata.getDetails()) {
+				if (shouldBeMerged(details.getType())) {
+					metadata.addDetails(details);
+				}
+			}
 		}
 		return metadata;
 	}
 
-	private boolean shouldBeMerged(ItemMetadata itemMetadata) {
-		String sourceType = itemMetadata.getType();
+	private boolean shouldBeMerged(String sourceType) {
 		return (sourceType != null && !deletedInCurrentBuild(sourceType)
 				&& !processedInCurrentBuild(sourceType));
 	}
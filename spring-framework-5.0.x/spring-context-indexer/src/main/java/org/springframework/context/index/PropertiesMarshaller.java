@@ -19,8 +19,12 @@ package org.springframework.context.index;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 
@@ -49,4 +53,41 @@ abstract class PropertiesMarshaller {
 		return result;
 	}
 
+	/**
+	 * Write the given type details, using one "type#attribute" key
+	 * per recorded attribute.
+	 * @since 5.0.17
+	 */
+	public static void writeDetails(List<TypeDetails> details, OutputStream out) throws IOException {
+		Properties props = new Properties();
+		details.forEach(d -> d.getAttributes().forEach((attribute, values) ->
+				props.put(d.getType() + '#' + attribute, String.join(",", values))));
+		props.store(out, "");
+	}
+
+	/**
+	 * Read type details written by {@link #writeDetails}.
+	 * @since 5.0.17
+	 */
+	public static List<TypeDetails> readDetails(InputStream in) throws IOException {
+		Map<String, TypeDetails> result = new LinkedHashMap<>();
+		Properties props = new Properties();
+		props.load(in);
+		props.forEach((key, value) -> {
+			String property = (String) key;
+			int separator = property.lastIndexOf('#');
+			if (separator != -1) {
+				String type = property.substring(0, separator);
+				String attribute = property.substring(separator + 1);
+				TypeDetails details = result.computeIfAbsent(type, TypeDetails::new);
+				for (String element : ((String) value).split(",")) {
+					if (!element.isEmpty()) {
+						details.add(attribute, element);
+					}
+				}
+			}
+		});
+		return new ArrayList<>(result.values());
+	}
+
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Represents the details recorded for any type of the indexed module, whether
+ * or not it declares a stereotype: its annotations (including meta-annotations
+ * and annotations on supertypes), its supertypes, the conditions and profiles
+ * it is subject to, its {@code @Bean} factory methods and its imports.
+ *
+ * @since 5.0.17
+ */
+class TypeDetails {
+
+	static final String ANNOTATIONS = "annotations";
+
+	static final String SUPERTYPES = "supertypes";
+
+	static final String CONDITIONS = "conditions";
+
+	static final String PROFILES = "profiles";
+
+	static final String BEAN_METHODS = "beans";
+
+	static final String IMPORTS = "imports";
+
+
+	private final String type;
+
+	private final Map<String, Set<String>> attributes = new LinkedHashMap<>();
+
+
+	public TypeDetails(String type) {
+		this.type = type;
+		this.attributes.put(ANNOTATIONS, new LinkedHashSet<>());
+		this.attributes.put(SUPERTYPES, new LinkedHashSet<>());
+	}
+
+
+	public String getType() {
+		return this.type;
+	}
+
+	public void add(String attribute, String value) {
+		this.attributes.computeIfAbsent(attribute, key -> new LinkedHashSet<>()).add(value);
+	}
+
+	public Set<String> get(String attribute) {
+		Set<String> values = this.attributes.get(attribute);
+		return (values != null ? values : Collections.emptySet());
+	}
+
+	public Map<String, Set<String>> getAttributes() {
+		return this.attributes;
+	}
+
+	@Override
+	public String toString() {
+		return "TypeDetails{" + "type=" + this.type + ", attributes=" + this.attributes + '}';
+	}
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+
+/**
+ * Extracts the {@link TypeDetails} of a class or interface.
+ *
+ * <p>Conditions, profiles and imports are taken from the annotations declared
+ * on the type itself, including meta-annotations, as they are evaluated when
+ * the type gets registered. The recorded annotations additionally cover the
+ * supertypes, so that they form a superset of the types that any annotation
+ * based filter may match.
+ *
+ * @since 5.0.17
+ */
+class TypeDetailsProvider {
+
+	private static final String BEAN_ANNOTATION = "org.springframework.context.annotation.Bean";
+
+	private static final String CONDITIONAL_ANNOTATION = "org.springframework.context.annotation.Conditional";
+
+	private static final String PROFILE_ANNOTATION = "org.springframework.context.annotation.Profile";
+
+	private static final String IMPORT_ANNOTATION = "org.springframework.context.annotation.Import";
+
+	private final TypeHelper typeHelper;
+
+	private final Types types;
+
+
+	public TypeDetailsProvider(ProcessingEnvironment env, TypeHelper typeHelper) {
+		this.typeHelper = typeHelper;
+		this.types = env.getTypeUtils();
+	}
+
+
+	public TypeDetails getTypeDetails(Element element) {
+		TypeDetails details = new TypeDetails(this.typeHelper.getType(element));
+		collectAnnotations(details, element, true, new HashSet<>());
+		collectSupertypes(details, element, new HashSet<>());
+		for (Element enclosed : element.getEnclosedElements()) {
+			if (enclosed.getKind() == ElementKind.METHOD &&
+					isAnnotated(enclosed, BEAN_ANNOTATION, new HashSet<>())) {
+				TypeMirror returnType = this.types.erasure(((ExecutableElement) enclosed).getReturnType());
+				details.add(TypeDetails.BEAN_METHODS,
+						enclosed.getSimpleName() + ":" + this.typeHelper.getType(returnType));
+			}
+		}
+		return details;
+	}
+
+	private void collectAnnotations(TypeDetails details, Element element, boolean declared, Set<Element> seen) {
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			String annotationType = this.typeHelper.getType(annotation);
+			if (annotationType.startsWith("java.lang.annotation.")) {
+				continue;
+			}
+			details.add(TypeDetails.ANNOTATIONS, annotationType);
+			if (declared) {
+				if (CONDITIONAL_ANNOTATION.equals(annotationType)) {
+					getValues(annotation).forEach(value -> details.add(TypeDetails.CONDITIONS, value));
+				}
+				else if (PROFILE_ANNOTATION.equals(annotationType)) {
+					getValues(annotation).forEach(value -> details.add(TypeDetails.PROFILES, value));
+				}
+				else if (IMPORT_ANNOTATION.equals(annotationType)) {
+					getValues(annotation).forEach(value -> details.add(TypeDetails.IMPORTS, value));
+				}
+			}
+			Element annotationElement = annotation.getAnnotationType().asElement();
+			if (seen.add(annotationElement)) {
+				collectAnnotations(details, annotationElement, declared, seen);
+			}
+		}
+	}
+
+	private void collectSupertypes(TypeDetails details, Element element, Set<Element> seen) {
+		for (TypeMirror supertype : this.types.directSupertypes(element.asType())) {
+			Element supertypeElement = this.types.asElement(supertype);
+			String supertypeName = this.typeHelper.getType(supertypeElement);
+			if (supertypeElement != null && !Object.class.getName().equals(supertypeName) &&
+					seen.add(supertypeElement)) {
+				details.add(TypeDetails.SUPERTYPES, supertypeName);
+				collectAnnotations(details, supertypeElement, false, new HashSet<>());
+				collectSupertypes(details, supertypeElement, seen);
+			}
+		}
+	}
+
+	private boolean isAnnotated(Element element, String annotationType, Set<Element> seen) {
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			if (annotationType.equals(this.typeHelper.getType(annotation))) {
+				return true;
+			}
+			Element annotationElement = annotation.getAnnotationType().asElement();
+			if (seen.add(annotationElement) && isAnnotated(annotationElement, annotationType, seen)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private List<String> getValues(AnnotationMirror annotation) {
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+				annotation.getElementValues().entrySet()) {
+			if (entry.getKey().getSimpleName().contentEquals("value")) {
+				Object value = entry.getValue().getValue();
+				if (value instanceof List) {
+					List<String> values = new ArrayList<>();
+					for (Object element : (List<?>) value) {
+						values.add(toString(((AnnotationValue) element).getValue()));
+					}
+					return values;
+				}
+				return Collections.singletonList(toString(value));
+			}
+		}
+		return Collections.emptyList();
+	}
+
+	private String toString(Object value) {
+		return (value instanceof TypeMirror ? this.typeHelper.getType((TypeMirror) value) : value.toString());
+	}
+
+}
@@ -19,6 +19,7 @@ package org.springframework.context.index;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.List;
 import javax.annotation.ManagedBean;
 import javax.inject.Named;
 import javax.persistence.Converter;
@@ -35,6 +36,7 @@ import org.junit.rules.TemporaryFolder;
 import org.springframework.context.index.sample.AbstractController;
 import org.springframework.context.index.sample.MetaControllerIndexed;
 import org.springframework.context.index.sample.SampleComponent;
+import org.springframework.context.index.sample.SampleConfiguration;
 import org.springframework.context.index.sample.SampleController;
 import org.springframework.context.index.sample.SampleMetaController;
 import org.springframework.context.index.sample.SampleMetaIndexedController;
@@ -56,6 +58,10 @@ import org.springframework.context.index.sample.type.SampleSpecializedRepo;
 import org.springframework.context.index.sample.type.SmartRepo;
 import org.springframework.context.index.sample.type.SpecializedRepo;
 import org.springframework.context.index.test.TestCompiler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ClassUtils;
 
@@ -222,6 +228,31 @@ public class CandidateComponentsIndexerTests {
 		assertThat(metadata.getItems(), hasSize(0));
 	}
 
+	@Test
+	public void typeDetailsAreRecorded() throws IOException {
+		compile(SampleConfiguration.class);
+		TypeDetails details = readGeneratedDetails(SampleConfiguration.class);
+		assertThat(details.get(TypeDetails.ANNOTATIONS), hasItems(Configuration.class.getName(),
+				Component.class.getName(), Import.class.getName(), Profile.class.getName()));
+		assertThat(details.get(TypeDetails.SUPERTYPES), contains(AbstractController.class.getName()));
+		assertThat(details.get(TypeDetails.IMPORTS), contains(SampleComponent.class.getName()));
+		assertThat(details.get(TypeDetails.PROFILES), contains("dev"));
+		assertThat(details.get(TypeDetails.CONDITIONS),
+				contains("org.springframework.context.annotation.ProfileCondition"));
+		assertThat(details.get(TypeDetails.BEAN_METHODS),
+				contains("sampleService:" + SampleService.class.getName(), "sampleService:java.lang.Object"));
+		assertThat(details.get(TypeDetails.ANNOTATIONS), not(hasItem(Bean.class.getName())));
+	}
+
+	@Test
+	public void typeDetailsAreRecordedForNonCandidate() throws IOException {
+		CandidateComponentsMetadata metadata = compile(SampleNone.class);
+		assertThat(metadata.getItems(), hasSize(0));
+		TypeDetails details = readGeneratedDetails(SampleNone.class);
+		assertThat(details.get(TypeDetails.ANNOTATIONS), hasItem("org.springframework.core.type.Scope"));
+		assertThat(details.get(TypeDetails.SUPERTYPES), hasSize(0));
+	}
+
 	private void testComponent(Class<?>... classes) throws IOException {
 		CandidateComponentsMetadata metadata = compile(classes);
 		for (Class<?> c : classes) {
@@ -264,4 +295,13 @@ public class CandidateComponentsIndexerTests {
 		}
 	}
 
+	private TypeDetails readGeneratedDetails(Class<?> type) throws IOException {
+		File detailsFile = new File(this.compiler.getOutputLocation(), MetadataStore.DETAILS_PATH);
+		try (FileInputStream in = new FileInputStream(detailsFile)) {
+			List<TypeDetails> details = PropertiesMarshaller.readDetails(in);
+			return details.stream().filter(d -> d.getType().equals(type.getName())).findFirst()
+					.orElseThrow(() -> new AssertionError("No details for " + type.getName()));
+		}
+	}
+
 }
@@ -20,7 +20,9 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 
 import org.junit.Test;
 
@@ -50,6 +52,26 @@ public class PropertiesMarshallerTests {
 		assertThat(readMetadata.getItems(), hasSize(2));
 	}
 
+	@Test
+	public void readWriteDetails() throws IOException {
+		TypeDetails first = new TypeDetails("com.foo");
+		first.add(TypeDetails.ANNOTATIONS, "first");
+		first.add(TypeDetails.ANNOTATIONS, "second");
+		first.add(TypeDetails.BEAN_METHODS, "bar:com.bar");
+		TypeDetails second = new TypeDetails("com.bar");
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		PropertiesMarshaller.writeDetails(Arrays.asList(first, second), outputStream);
+		List<TypeDetails> readDetails = PropertiesMarshaller.readDetails(
+				new ByteArrayInputStream(outputStream.toByteArray()));
+		assertThat(readDetails, hasSize(2));
+		TypeDetails readFirst = readDetails.stream().filter(d -> d.getType().equals("com.foo")).findFirst().get();
+		assertThat(readFirst.get(TypeDetails.ANNOTATIONS), containsInAnyOrder("first", "second"));
+		assertThat(readFirst.get(TypeDetails.BEAN_METHODS), contains("bar:com.bar"));
+		TypeDetails readSecond = readDetails.stream().filter(d -> d.getType().equals("com.bar")).findFirst().get();
+		assertEquals(Collections.emptySet(), readSecond.get(TypeDetails.SUPERTYPES));
+	}
+
 	private static ItemMetadata createItem(String type, String... stereotypes) {
 		return new ItemMetadata(type, new HashSet<>(Arrays.asList(stereotypes)));
 	}
@@ -16,6 +16,9 @@
 
 package org.springframework.cache.caffeine;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.function.Function;
 
@@ -123,6 +126,34 @@ public class CaffeineCache extends AbstractValueAdaptingCache {
 		this.cache.invalidate(key);
 	}
 
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, Object> storeValues = (this.cache instanceof LoadingCache ?
+				((LoadingCache<Object, Object>) this.cache).getAll(keys) : this.cache.getAllPresent(keys));
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(storeValues.size());
+		for (Map.Entry<Object, Object> entry : storeValues.entrySet()) {
+			ValueWrapper wrapper = toValueWrapper(entry.getValue());
+			if (wrapper != null) {
+				result.put(entry.getKey(), wrapper);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		Map<Object, Object> storeValues = new LinkedHashMap<>(entries.size());
+		for (Map.Entry<?, ?> entry : entries.entrySet()) {
+			storeValues.put(entry.getKey(), toStoreValue(entry.getValue()));
+		}
+		this.cache.putAll(storeValues);
+	}
+
+	@Override
+	public void evictAll(Collection<?> keys) {
+		this.cache.invalidateAll(keys);
+	}
+
 	@Override
 	public void clear() {
 		this.cache.invalidateAll();
@@ -16,6 +16,10 @@
 
 package org.springframework.cache.jcache;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import javax.cache.Cache;
 import javax.cache.processor.EntryProcessor;
@@ -105,6 +109,33 @@ public class JCacheCache extends AbstractValueAdaptingCache {
 		this.cache.remove(key);
 	}
 
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, Object> storeValues = this.cache.getAll(new LinkedHashSet<>(keys));
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(storeValues.size());
+		for (Map.Entry<Object, Object> entry : storeValues.entrySet()) {
+			ValueWrapper wrapper = toValueWrapper(entry.getValue());
+			if (wrapper != null) {
+				result.put(entry.getKey(), wrapper);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		Map<Object, Object> storeValues = new LinkedHashMap<>(entries.size());
+		for (Map.Entry<?, ?> entry : entries.entrySet()) {
+			storeValues.put(entry.getKey(), toStoreValue(entry.getValue()));
+		}
+		this.cache.putAll(storeValues);
+	}
+
+	@Override
+	public void evictAll(Collection<?> keys) {
+		this.cache.removeAll(new LinkedHashSet<>(keys));
+	}
+
 	@Override
 	public void clear() {
 		this.cache.removeAll();
@@ -0,0 +1,342 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.cache.Cache;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Two-level {@link Cache} implementation, layering a local (near) cache in
+ * front of a shared remote (far) cache.
+ *
+ * <p>Reads check the local cache first and fall back to the remote cache,
+ * populating the local cache with the values found there. Writes and evictions
+ * are applied to the remote cache first, then to the local cache, and are
+ * finally reported to the {@link InvalidationListener}, if any, so that the
+ * local caches of other nodes can be kept coherent through
+ * {@link #evictLocal} and {@link #clearLocal}.
+ *
+ * <p>Values read from the remote cache are only kept in the local cache if their
+ * keys have not been invalidated in the meantime, so that a concurrent
+ * invalidation cannot be overridden by a value read before it happened.
+ *
+ * <p>Note: Both caches need to accept {@code null} values if {@code null}s
+ * are to be cached.
+ *
+ * @since 5.0.17
+ * @see TieredCacheManager
+ */
+public class TieredCache implements Cache {
+
+	private static final int VERSION_STRIPES = 64;
+
+
+	private final String name;
+
+	private final Cache localCache;
+
+	private final Cache remoteCache;
+
+	@Nullable
+	private final InvalidationListener invalidationListener;
+
+	/** Versions of the local entries, striped by key and bumped on every invalidation */
+	private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+
+	/**
+	 * Create a new TieredCache without propagation of invalidations.
+	 * @param localCache the local (near) cache
+	 * @param remoteCache the remote (far) cache, whose name is used
+	 */
+	public TieredCache(Cache localCache, Cache remoteCache) {
+		this(localCache, remoteCache, null);
+	}
+
+	/**
+	 * Create a new TieredCache.
+	 * @param localCache the local (near) cache
+	 * @param remoteCache the remote (far) cache, whose name is used
+	 * @param invalidationListener the listener to notify of changed keys, if any
+	 */
+	public TieredCache(Cache localCache, Cache remoteCache, @Nullable InvalidationListener invalidationListener) {
+		Assert.notNull(localCache, "Local Cache must not be null");
+		Assert.notNull(remoteCache, "Remote Cache must not be null");
+		this.name = remoteCache.getName();
+		this.localCache = localCache;
+		this.remoteCache = remoteCache;
+		this.invalidationListener = invalidationListener;
+	}
+
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * This implementation returns the native cache of the remote cache.
+	 */
+	@Override
+	public Object getNativeCache() {
+		return this.remoteCache.getNativeCache();
+	}
+
+	/**
+	 * Return the local (near) cache.
+	 */
+	public Cache getLocalCache() {
+		return this.localCache;
+	}
+
+	/**
+	 * Return the remote (far) cache.
+	 */
+	public Cache getRemoteCache() {
+		return this.remoteCache;
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper get(Object key) {
+		ValueWrapper wrapper = this.localCache.get(key);
+		if (wrapper == null) {
+			long version = version(key);
+			wrapper = this.remoteCache.get(key);
+			if (wrapper != null) {
+				putLocal(key, wrapper.get(), version);
+			}
+		}
+		return wrapper;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, @Nullable Class<T> type) {
+		ValueWrapper wrapper = get(key);
+		Object value = (wrapper != null ? wrapper.get() : null);
+		if (value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException(
+					"Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		return (T) value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		ValueWrapper wrapper = this.localCache.get(key);
+		if (wrapper != null) {
+			return (T) wrapper.get();
+		}
+		long version = version(key);
+		T value = this.remoteCache.get(key, valueLoader);
+		putLocal(key, value, version);
+		return value;
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		this.remoteCache.put(key, value);
+		bumpVersion(key);
+		this.localCache.put(key, value);
+		invalidated(Collections.singleton(key));
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		long version = version(key);
+		ValueWrapper existing = this.remoteCache.putIfAbsent(key, value);
+		if (existing != null) {
+			putLocal(key, existing.get(), version);
+		}
+		else {
+			bumpVersion(key);
+			this.localCache.put(key, value);
+			invalidated(Collections.singleton(key));
+		}
+		return existing;
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.remoteCache.evict(key);
+		bumpVersion(key);
+		this.localCache.evict(key);
+		invalidated(Collections.singleton(key));
+	}
+
+	@Override
+	public void clear() {
+		this.remoteCache.clear();
+		bumpVersions(null);
+		this.localCache.clear();
+		invalidated(null);
+	}
+
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(this.localCache.getAll(keys));
+		if (result.size() < keys.size()) {
+			List<Object> missingKeys = new ArrayList<>(keys.size() - result.size());
+			List<Long> versions = new ArrayList<>(keys.size() - result.size());
+			for (Object key : keys) {
+				if (!result.containsKey(key)) {
+					missingKeys.add(key);
+					versions.add(version(key));
+				}
+			}
+			Map<Object, ValueWrapper> remoteEntries = this.remoteCache.getAll(missingKeys);
+			if (!remoteEntries.isEmpty()) {
+				Map<Object, Object> localEntries = new LinkedHashMap<>(remoteEntries.size());
+				for (int i = 0; i < missingKeys.size(); i++) {
+					Object key = missingKeys.get(i);
+					ValueWrapper wrapper = remoteEntries.get(key);
+					if (wrapper != null && version(key) == versions.get(i)) {
+						localEntries.put(key, wrapper.get());
+					}
+				}
+				this.localCache.putAll(localEntries);
+				List<Object> staleKeys = new ArrayList<>();
+				for (int i = 0; i < missingKeys.size(); i++) {
+					Object key = missingKeys.get(i);
+					if (localEntries.containsKey(key) && version(key) != versions.get(i)) {
+						staleKeys.add(key);
+					}
+				}
+				if (!staleKeys.isEmpty()) {
+					this.localCache.evictAll(staleKeys);
+				}
+				result.putAll(remoteEntries);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		this.remoteCache.putAll(entries);
+		bumpVersions(entries.keySet());
+		this.localCache.putAll(entries);
+		invalidated(entries.keySet());
+	}
+
+	@Override
+	public void evictAll(Collection<?> keys) {
+		this.remoteCache.evictAll(keys);
+		bumpVersions(keys);
+		this.localCache.evictAll(keys);
+		invalidated(keys);
+	}
+
+	/**
+	 * Evict the given keys from the local cache only, typically as a result
+	 * of their change on another node.
+	 * @param keys the keys to evict
+	 */
+	public void evictLocal(Collection<?> keys) {
+		bumpVersions(keys);
+		this.localCache.evictAll(keys);
+	}
+
+	/**
+	 * Clear the local cache only, typically as a result of the remote cache
+	 * having been cleared from another node.
+	 */
+	public void clearLocal() {
+		bumpVersions(null);
+		this.localCache.clear();
+	}
+
+	/**
+	 * Put the given value read from the remote cache into the local cache,
+	 * unless the key has been invalidated since the given version was read.
+	 */
+	private void putLocal(Object key, @Nullable Object value, long version) {
+		if (version(key) == version) {
+			this.localCache.put(key, value);
+			if (version(key) != version) {
+				// Invalidated while putting: the value may be stale already
+				this.localCache.evict(key);
+			}
+		}
+	}
+
+	private long version(Object key) {
+		return this.versions.get(stripe(key));
+	}
+
+	private void bumpVersion(Object key) {
+		this.versions.incrementAndGet(stripe(key));
+	}
+
+	private void bumpVersions(@Nullable Collection<?> keys) {
+		if (keys != null) {
+			for (Object key : keys) {
+				bumpVersion(key);
+			}
+		}
+		else {
+			for (int i = 0; i < VERSION_STRIPES; i++) {
+				this.versions.incrementAndGet(i);
+			}
+		}
+	}
+
+	private static int stripe(Object key) {
+		int hash = key.hashCode();
+		return (hash ^ (hash >>> 16)) & (VERSION_STRIPES - 1);
+	}
+
+	private void invalidated(@Nullable Collection<?> keys) {
+		if (this.invalidationListener != null) {
+			this.invalidationListener.onInvalidation(this, keys);
+		}
+	}
+
+
+	/**
+	 * Callback interface for changes of a {@link TieredCache}, which stale
+	 * local caches of other nodes need to be invalidated for.
+	 */
+	@FunctionalInterface
+	public interface InvalidationListener {
+
+		/**
+		 * Invoked once the given keys have been written to or evicted from
+		 * both levels of the given cache.
+		 * @param cache the cache that changed
+		 * @param keys the keys that changed, or {@code null} if the cache
+		 * has been cleared
+		 */
+		void onInvalidation(TieredCache cache, @Nullable Collection<?> keys);
+	}
+
+}
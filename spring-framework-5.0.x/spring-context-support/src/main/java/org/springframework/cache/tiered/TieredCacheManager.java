@@ -0,0 +1,233 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.Assert;
+
+/**
+ * {@link CacheManager} implementation that layers the caches of a local
+ * (near) cache manager in front of the caches of a remote (far) one, in the
+ * form of {@link TieredCache} instances.
+ *
+ * <p>The caches of the remote cache manager determine the available cache
+ * names. If the local cache manager does not provide a cache of the same name,
+ * the remote cache is used as is.
+ *
+ * <p>Local caches of other nodes are kept coherent through an invalidation
+ * {@link #setInvalidationChannel channel}: each write or eviction is sent as a
+ * message holding the list of changed keys as payload, and messages received
+ * from other nodes on a {@link SubscribableChannel} evict these keys from the
+ * local caches. The channel may be bridged to a message broker, in which case
+ * keys need to be serializable; a
+ * {@link org.springframework.messaging.support.ExecutorSubscribableChannel}
+ * serves as an in-memory channel, e.g. for tests.
+ *
+ * <p>A typical local cache manager is a bounded
+ * {@link org.springframework.cache.local.LocalCacheManager}, possibly with a
+ * short expiration as a safety net against lost invalidation messages.
+ *
+ * @since 5.0.17
+ * @see TieredCache
+ */
+public class TieredCacheManager implements CacheManager, InitializingBean, DisposableBean {
+
+	/**
+	 * The name of the message header holding the name of the invalidated cache.
+	 */
+	public static final String CACHE_NAME_HEADER = "cacheName";
+
+	/**
+	 * The name of the message header identifying the node an invalidation originates from.
+	 */
+	public static final String ORIGIN_HEADER = "cacheOrigin";
+
+	/**
+	 * The name of the message header flagging the invalidation of an entire cache.
+	 */
+	public static final String CLEAR_HEADER = "cacheClear";
+
+
+	private static final Log logger = LogFactory.getLog(TieredCacheManager.class);
+
+	private final CacheManager localCacheManager;
+
+	private final CacheManager remoteCacheManager;
+
+	private final ConcurrentMap<String, Cache> cacheMap = new ConcurrentHashMap<>(16);
+
+	private final MessageHandler invalidationHandler = this::handleInvalidation;
+
+	@Nullable
+	private MessageChannel invalidationChannel;
+
+	private String nodeId = UUID.randomUUID().toString();
+
+
+	/**
+	 * Create a new TieredCacheManager for the given cache managers.
+	 * @param localCacheManager the cache manager of the local (near) caches
+	 * @param remoteCacheManager the cache manager of the remote (far) caches
+	 */
+	public TieredCacheManager(CacheManager localCacheManager, CacheManager remoteCacheManager) {
+		Assert.notNull(localCacheManager, "Local CacheManager must not be null");
+		Assert.notNull(remoteCacheManager, "Remote CacheManager must not be null");
+		this.localCacheManager = localCacheManager;
+		this.remoteCacheManager = remoteCacheManager;
+	}
+
+
+	/**
+	 * Set the channel to send invalidation messages to and, if subscribable,
+	 * to receive the invalidation messages of other nodes from.
+	 * <p>By default, no invalidations are propagated, which is only suitable
+	 * for a single node.
+	 */
+	public void setInvalidationChannel(@Nullable MessageChannel invalidationChannel) {
+		this.invalidationChannel = invalidationChannel;
+	}
+
+	/**
+	 * Return the channel for invalidation messages, if any.
+	 */
+	@Nullable
+	public MessageChannel getInvalidationChannel() {
+		return this.invalidationChannel;
+	}
+
+	/**
+	 * Set the identifier of this node, used to ignore its own invalidation
+	 * messages. Default is a random UUID.
+	 */
+	public void setNodeId(String nodeId) {
+		Assert.hasText(nodeId, "Node id must not be empty");
+		this.nodeId = nodeId;
+	}
+
+	/**
+	 * Return the identifier of this node.
+	 */
+	public String getNodeId() {
+		return this.nodeId;
+	}
+
+
+	@Override
+	public void afterPropertiesSet() {
+		if (this.invalidationChannel instanceof SubscribableChannel) {
+			((SubscribableChannel) this.invalidationChannel).subscribe(this.invalidationHandler);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (this.invalidationChannel instanceof SubscribableChannel) {
+			((SubscribableChannel) this.invalidationChannel).unsubscribe(this.invalidationHandler);
+		}
+	}
+
+
+	@Override
+	@Nullable
+	public Cache getCache(String name) {
+		Cache cache = this.cacheMap.get(name);
+		if (cache == null) {
+			Cache remoteCache = this.remoteCacheManager.getCache(name);
+			if (remoteCache == null) {
+				return null;
+			}
+			Cache localCache = this.localCacheManager.getCache(name);
+			cache = (localCache != null ?
+					new TieredCache(localCache, remoteCache, this::sendInvalidation) : remoteCache);
+			Cache existing = this.cacheMap.putIfAbsent(name, cache);
+			if (existing != null) {
+				cache = existing;
+			}
+		}
+		return cache;
+	}
+
+	@Override
+	public Collection<String> getCacheNames() {
+		return this.remoteCacheManager.getCacheNames();
+	}
+
+	/**
+	 * Send an invalidation message for the given keys of the given cache.
+	 * @param cache the cache that changed
+	 * @param keys the keys that changed, or {@code null} if the cache has been cleared
+	 */
+	protected void sendInvalidation(TieredCache cache, @Nullable Collection<?> keys) {
+		if (this.invalidationChannel == null) {
+			return;
+		}
+		Object payload = (keys != null ? new ArrayList<>(keys) : Collections.emptyList());
+		MessageBuilder<Object> builder = MessageBuilder.withPayload(payload)
+				.setHeader(CACHE_NAME_HEADER, cache.getName())
+				.setHeader(ORIGIN_HEADER, this.nodeId);
+		if (keys == null) {
+			builder.setHeader(CLEAR_HEADER, true);
+		}
+		this.invalidationChannel.send(builder.build());
+	}
+
+	/**
+	 * Apply an invalidation message received from the channel to the local
+	 * cache it refers to, unless it originates from this node.
+	 * @param message the invalidation message
+	 */
+	protected void handleInvalidation(Message<?> message) {
+		if (this.nodeId.equals(message.getHeaders().get(ORIGIN_HEADER))) {
+			return;
+		}
+		Object cacheName = message.getHeaders().get(CACHE_NAME_HEADER);
+		Cache cache = (cacheName != null ? this.cacheMap.get(cacheName.toString()) : null);
+		if (!(cache instanceof TieredCache)) {
+			// Nothing cached locally yet
+			return;
+		}
+		if (Boolean.TRUE.equals(message.getHeaders().get(CLEAR_HEADER))) {
+			((TieredCache) cache).clearLocal();
+		}
+		else if (message.getPayload() instanceof Collection) {
+			((TieredCache) cache).evictLocal((Collection<?>) message.getPayload());
+		}
+		else if (logger.isDebugEnabled()) {
+			logger.debug("Ignoring invalidation message with unexpected payload: " + message);
+		}
+	}
+
+}
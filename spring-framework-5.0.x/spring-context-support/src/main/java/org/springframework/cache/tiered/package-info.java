@@ -0,0 +1,10 @@
+/**
+ * Support classes for two-level caches, layering local caches in front of
+ * remote ones, with invalidations propagated through a messaging channel.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.cache.tiered;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
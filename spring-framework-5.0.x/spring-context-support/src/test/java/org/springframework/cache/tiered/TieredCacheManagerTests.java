@@ -0,0 +1,133 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.local.LocalCacheManager;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link TieredCacheManager}, simulating two nodes sharing a remote
+ * cache manager and an in-memory invalidation channel.
+ */
+public class TieredCacheManagerTests {
+
+	private final ConcurrentMapCacheManager remoteCacheManager = new ConcurrentMapCacheManager("c1");
+
+	private final ExecutorSubscribableChannel channel = new ExecutorSubscribableChannel();
+
+	private TieredCacheManager node1;
+
+	private TieredCacheManager node2;
+
+
+	@Before
+	public void setUp() {
+		this.node1 = createNode();
+		this.node2 = createNode();
+	}
+
+	@After
+	public void tearDown() {
+		this.node1.destroy();
+		this.node2.destroy();
+	}
+
+	private TieredCacheManager createNode() {
+		LocalCacheManager localCacheManager = new LocalCacheManager();
+		localCacheManager.setMaximumSize(100);
+		TieredCacheManager cacheManager = new TieredCacheManager(localCacheManager, this.remoteCacheManager);
+		cacheManager.setInvalidationChannel(this.channel);
+		cacheManager.afterPropertiesSet();
+		return cacheManager;
+	}
+
+
+	@Test
+	public void cacheNamesFromRemoteCacheManager() {
+		assertEquals(Collections.singleton("c1"), this.node1.getCacheNames());
+		assertNull(this.node1.getCache("unknown"));
+		Cache cache = this.node1.getCache("c1");
+		assertTrue(cache instanceof TieredCache);
+		assertSame(cache, this.node1.getCache("c1"));
+	}
+
+	@Test
+	public void putInvalidatesLocalCacheOfOtherNodes() {
+		Cache cache1 = this.node1.getCache("c1");
+		Cache cache2 = this.node2.getCache("c1");
+		cache1.put("key", "v1");
+		assertEquals("v1", cache2.get("key").get());
+
+		cache1.put("key", "v2");
+		assertNull(((TieredCache) cache2).getLocalCache().get("key"));
+		assertEquals("v2", cache2.get("key").get());
+		// Own invalidation messages are ignored
+		assertEquals("v2", ((TieredCache) cache1).getLocalCache().get("key").get());
+	}
+
+	@Test
+	public void evictInvalidatesLocalCacheOfOtherNodes() {
+		Cache cache1 = this.node1.getCache("c1");
+		Cache cache2 = this.node2.getCache("c1");
+		cache1.put("key", "v1");
+		assertEquals("v1", cache2.get("key").get());
+
+		cache1.evict("key");
+		assertNull(cache2.get("key"));
+	}
+
+	@Test
+	public void clearInvalidatesLocalCacheOfOtherNodes() {
+		Cache cache1 = this.node1.getCache("c1");
+		Cache cache2 = this.node2.getCache("c1");
+		cache1.put("key", "v1");
+		assertEquals("v1", cache2.get("key").get());
+
+		cache1.clear();
+		assertNull(((TieredCache) cache2).getLocalCache().get("key"));
+	}
+
+	@Test
+	public void messageFromUnknownCacheIsIgnored() {
+		this.channel.send(MessageBuilder.withPayload(Collections.singletonList("key"))
+				.setHeader(TieredCacheManager.CACHE_NAME_HEADER, "unknown")
+				.setHeader(TieredCacheManager.ORIGIN_HEADER, "other").build());
+	}
+
+	@Test
+	public void destroyUnsubscribes() {
+		this.node2.destroy();
+		Cache cache1 = this.node1.getCache("c1");
+		Cache cache2 = this.node2.getCache("c1");
+		cache1.put("key", "v1");
+		assertEquals("v1", cache2.get("key").get());
+		cache1.put("key", "v2");
+		assertEquals("v1", cache2.get("key").get());
+	}
+
+}
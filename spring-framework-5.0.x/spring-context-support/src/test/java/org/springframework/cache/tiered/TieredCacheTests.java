@@ -0,0 +1,222 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cache.AbstractCacheTests;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link TieredCache}.
+ */
+public class TieredCacheTests extends AbstractCacheTests<TieredCache> {
+
+	private ConcurrentMapCache localCache;
+
+	private ConcurrentMapCache remoteCache;
+
+	private final List<Collection<?>> invalidations = new ArrayList<>();
+
+	private TieredCache cache;
+
+
+	@Before
+	public void setUp() {
+		this.localCache = new ConcurrentMapCache(CACHE_NAME);
+		this.remoteCache = new ConcurrentMapCache(CACHE_NAME);
+		this.cache = new TieredCache(this.localCache, this.remoteCache,
+				(cache, keys) -> this.invalidations.add(keys));
+	}
+
+	@Override
+	protected TieredCache getCache() {
+		return this.cache;
+	}
+
+	@Override
+	protected Object getNativeCache() {
+		return this.remoteCache.getNativeCache();
+	}
+
+
+	@Test
+	public void readThroughPopulatesLocalCache() {
+		this.remoteCache.put("key", "value");
+		assertNull(this.localCache.get("key"));
+
+		assertEquals("value", this.cache.get("key").get());
+		assertEquals("value", this.localCache.get("key").get());
+	}
+
+	@Test
+	public void localCacheIsReadFirst() {
+		this.remoteCache.put("key", "remote");
+		this.localCache.put("key", "local");
+		assertEquals("local", this.cache.get("key", String.class));
+	}
+
+	@Test
+	public void writesGoToBothLevels() {
+		this.cache.put("key", "value");
+		assertEquals("value", this.localCache.get("key").get());
+		assertEquals("value", this.remoteCache.get("key").get());
+		assertEquals(Arrays.asList("key"), new ArrayList<>(this.invalidations.get(0)));
+	}
+
+	@Test
+	public void valueLoaderPopulatesBothLevels() {
+		assertEquals("loaded", this.cache.get("key", () -> "loaded"));
+		assertEquals("loaded", this.localCache.get("key").get());
+		assertEquals("loaded", this.remoteCache.get("key").get());
+		assertTrue(this.invalidations.isEmpty());
+	}
+
+	@Test
+	public void putIfAbsentKeepsRemoteValue() {
+		this.remoteCache.put("key", "remote");
+		assertEquals("remote", this.cache.putIfAbsent("key", "value").get());
+		assertEquals("remote", this.localCache.get("key").get());
+		assertTrue(this.invalidations.isEmpty());
+	}
+
+	@Test
+	public void getAllReadsRemoteMissesOnly() {
+		this.localCache.put("a", "local-a");
+		this.remoteCache.put("a", "remote-a");
+		this.remoteCache.put("b", "remote-b");
+		assertEquals("local-a", this.cache.getAll(Arrays.asList("a", "b", "c")).get("a").get());
+		assertEquals("remote-b", this.localCache.get("b").get());
+		assertNull(this.localCache.get("c"));
+	}
+
+	@Test
+	public void clearIsPropagatedWithoutKeys() {
+		this.cache.put("key", "value");
+		this.cache.clear();
+		assertNull(this.localCache.get("key"));
+		assertNull(this.remoteCache.get("key"));
+		assertNull(this.invalidations.get(1));
+	}
+
+	@Test
+	public void evictLocalKeepsRemoteValue() {
+		this.cache.put("key", "value");
+		this.cache.evictLocal(Arrays.asList("key"));
+		assertNull(this.localCache.get("key"));
+		assertEquals("value", this.cache.get("key").get());
+	}
+
+	@Test
+	public void invalidationDuringReadThroughIsNotOverridden() {
+		InterleavingCache remoteCache = new InterleavingCache();
+		TieredCache cache = new TieredCache(this.localCache, remoteCache);
+		remoteCache.put("key", "old");
+		remoteCache.afterRead = () -> updateOnOtherNode(cache, remoteCache, "key", "new");
+
+		assertEquals("old", cache.get("key").get());
+		assertNull(this.localCache.get("key"));
+		assertEquals("new", cache.get("key").get());
+		assertEquals("new", this.localCache.get("key").get());
+	}
+
+	@Test
+	public void invalidationDuringValueLoaderReadThroughIsNotOverridden() {
+		InterleavingCache remoteCache = new InterleavingCache();
+		TieredCache cache = new TieredCache(this.localCache, remoteCache);
+		remoteCache.put("key", "old");
+		remoteCache.afterRead = () -> updateOnOtherNode(cache, remoteCache, "key", "new");
+
+		assertEquals("old", cache.get("key", () -> "loaded"));
+		assertNull(this.localCache.get("key"));
+		assertEquals("new", cache.get("key", () -> "loaded"));
+		assertEquals("new", this.localCache.get("key").get());
+	}
+
+	@Test
+	public void invalidationDuringBulkReadThroughIsNotOverridden() {
+		InterleavingCache remoteCache = new InterleavingCache();
+		TieredCache cache = new TieredCache(this.localCache, remoteCache);
+		remoteCache.put("key1", "old");
+		remoteCache.put("key2", "value");
+		remoteCache.afterRead = () -> updateOnOtherNode(cache, remoteCache, "key1", "new");
+
+		Map<Object, Cache.ValueWrapper> entries = cache.getAll(Arrays.asList("key1", "key2"));
+		assertEquals("old", entries.get("key1").get());
+		assertNull(this.localCache.get("key1"));
+		assertEquals("value", this.localCache.get("key2").get());
+	}
+
+	private static void updateOnOtherNode(TieredCache cache, Cache remoteCache, Object key, Object value) {
+		remoteCache.put(key, value);
+		cache.evictLocal(Collections.singleton(key));
+	}
+
+
+	/**
+	 * Remote cache running a callback once after reading, simulating a
+	 * concurrent change on another node.
+	 */
+	private static class InterleavingCache extends ConcurrentMapCache {
+
+		private Runnable afterRead = () -> {};
+
+		public InterleavingCache() {
+			super(CACHE_NAME);
+		}
+
+		@Override
+		public ValueWrapper get(Object key) {
+			ValueWrapper wrapper = super.get(key);
+			interleave();
+			return wrapper;
+		}
+
+		@Override
+		public <T> T get(Object key, Callable<T> valueLoader) {
+			T value = super.get(key, valueLoader);
+			interleave();
+			return value;
+		}
+
+		@Override
+		public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+			Map<Object, ValueWrapper> entries = super.getAll(keys);
+			interleave();
+			return entries;
+		}
+
+		private void interleave() {
+			Runnable callback = this.afterRead;
+			this.afterRead = () -> {};
+			callback.run();
+		}
+	}
+
+}
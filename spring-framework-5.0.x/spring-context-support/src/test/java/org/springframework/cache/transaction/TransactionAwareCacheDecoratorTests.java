@@ -16,6 +16,8 @@
 
 package org.springframework.cache.transaction;
 
+import java.util.Collections;
+
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -95,6 +97,22 @@ public class TransactionAwareCacheDecoratorTests {
 		assertEquals("123", target.get(key, String.class));
 	}
 
+	@Test
+	public void putAllTransactional() {
+		Cache target = new ConcurrentMapCache("testCache");
+		Cache cache = new TransactionAwareCacheDecorator(target);
+
+		TransactionStatus status = this.txManager.getTransaction(
+				new DefaultTransactionAttribute(TransactionDefinition.PROPAGATION_REQUIRED));
+
+		Object key = new Object();
+		cache.putAll(Collections.singletonMap(key, "123"));
+		assertNull(target.get(key));
+		this.txManager.commit(status);
+
+		assertEquals("123", target.get(key, String.class));
+	}
+
 	@Test
 	public void putIfAbsent() { // no transactional support for putIfAbsent
 		Cache target = new ConcurrentMapCache("testCache");
@@ -135,6 +153,22 @@ public class TransactionAwareCacheDecoratorTests {
 		assertNull(target.get(key));
 	}
 
+	@Test
+	public void evictAllTransactional() {
+		Cache target = new ConcurrentMapCache("testCache");
+		Cache cache = new TransactionAwareCacheDecorator(target);
+		Object key = new Object();
+		cache.put(key, "123");
+
+		TransactionStatus status = this.txManager.getTransaction(
+				new DefaultTransactionAttribute(TransactionDefinition.PROPAGATION_REQUIRED));
+		cache.evictAll(Collections.singleton(key));
+		assertEquals("123", target.get(key, String.class));
+		this.txManager.commit(status);
+
+		assertNull(target.get(key));
+	}
+
 	@Test
 	public void clearNonTransactional() {
 		Cache target = new ConcurrentMapCache("testCache");
@@ -16,6 +16,9 @@
 
 package org.springframework.cache;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 import org.springframework.lang.Nullable;
@@ -147,6 +150,58 @@ public interface Cache {
 	 */
 	void clear();
 
+	/**
+	 * Return the values to which this cache maps the specified keys.
+	 * <p>The default implementation performs a {@link #get(Object)} per key.
+	 * Implementations backed by a store with native bulk retrieval should
+	 * override it in order to look up all keys in a single round trip.
+	 * @param keys the keys whose associated values are to be returned
+	 * @return a map with a {@link ValueWrapper} for each key that this cache
+	 * contains a mapping for, possibly holding a cached {@code null} value;
+	 * keys without a mapping are absent from the map
+	 * @since 5.0.17
+	 * @see #get(Object)
+	 */
+	default Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			ValueWrapper wrapper = get(key);
+			if (wrapper != null) {
+				result.put(key, wrapper);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Associate the specified values with their keys in this cache,
+	 * replacing any previous mappings for these keys.
+	 * <p>The default implementation performs a {@link #put(Object, Object)}
+	 * per entry. Implementations backed by a store with native bulk storage
+	 * should override it in order to store all entries in a single round trip.
+	 * @param entries the keys and (possibly {@code null}) values to store
+	 * @since 5.0.17
+	 * @see #put(Object, Object)
+	 */
+	default void putAll(Map<?, ?> entries) {
+		for (Map.Entry<?, ?> entry : entries.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Evict the mappings for the specified keys from this cache, if present.
+	 * <p>The default implementation performs an {@link #evict(Object)} per key.
+	 * @param keys the keys whose mappings are to be removed from the cache
+	 * @since 5.0.17
+	 * @see #evict(Object)
+	 */
+	default void evictAll(Collection<?> keys) {
+		for (Object key : keys) {
+			evict(key);
+		}
+	}
+
 
 	/**
 	 * A (wrapper) object representing a cache value.
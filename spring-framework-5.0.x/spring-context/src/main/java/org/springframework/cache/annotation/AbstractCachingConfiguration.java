@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.cache.annotation;
 
 import java.util.Collection;
+import java.util.concurrent.Executor;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.CacheManager;
@@ -57,6 +58,9 @@ public abstract class AbstractCachingConfiguration implements ImportAware {
 	@Nullable
 	protected CacheErrorHandler errorHandler;
 
+	@Nullable
+	protected Executor refreshExecutor;
+
 
 	@Override
 	public void setImportMetadata(AnnotationMetadata importMetadata) {
@@ -91,6 +95,7 @@ public abstract class AbstractCachingConfiguration implements ImportAware {
 		this.cacheResolver = config.cacheResolver();
 		this.keyGenerator = config.keyGenerator();
 		this.errorHandler = config.errorHandler();
+		this.refreshExecutor = config.refreshExecutor();
 	}
 
 }
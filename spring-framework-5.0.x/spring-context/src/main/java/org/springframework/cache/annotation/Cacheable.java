@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -168,15 +168,66 @@ public @interface Cacheable {
 	 * a couple of limitations:
 	 * <ol>
 	 * <li>{@link #unless()} is not supported</li>
-	 * <li>Only one cache may be specified</li>
 	 * <li>No other cache-related operation can be combined</li>
 	 * </ol>
-	 * This is effectively a hint and the actual cache provider that you are
-	 * using may not support it in a synchronized fashion. Check your provider
-	 * documentation for more details on the actual semantics.
+	 * For a single cache, this is effectively a hint and the actual cache provider
+	 * that you are using may not support it in a synchronized fashion. Check your
+	 * provider documentation for more details on the actual semantics.
+	 * <p>If several caches are specified or if a {@link #refreshAfter()} period is
+	 * set, concurrent loads for the same key are coalesced by the caching
+	 * infrastructure itself: only one caller invokes the method, the others share
+	 * its result. The same applies to methods returning a
+	 * {@link java.util.concurrent.CompletableFuture} or a single-value reactive
+	 * type such as {@code Mono} if the cache aspect is configured to
+	 * {@linkplain org.springframework.cache.interceptor.CacheAspectSupport#setUnwrapAsyncResults
+	 * unwrap asynchronous results}: the <em>resolved</em> value is cached rather
+	 * than the future or publisher then, and a {@code Mono} returned by the method
+	 * is subscribed to right away so that callers can share the in-flight load.
 	 * @since 4.3
 	 * @see org.springframework.cache.Cache#get(Object, Callable)
 	 */
 	boolean sync() default false;
 
+	/**
+	 * The period, in milliseconds, after which a cached value is reloaded in the
+	 * background when it is requested again. The stale value is still returned to
+	 * the caller while the reload is in progress, and concurrent requests do not
+	 * trigger further reloads.
+	 * <p>Default is {@code -1}, meaning that cached values are never refreshed.
+	 * <p>Requires {@link #sync()} as well as a refresh executor, configured through
+	 * {@link CachingConfigurer#refreshExecutor()} or the {@code refresh-executor}
+	 * attribute of {@code <cache:annotation-driven>}: without one, cached values
+	 * are not refreshed. Note that the method is invoked on a different thread for
+	 * a refresh, without any thread-bound state of the original caller.
+	 * @since 5.0.17
+	 * @see org.springframework.cache.interceptor.CacheAspectSupport#setRefreshExecutor
+	 */
+	long refreshAfter() default -1;
+
+	/**
+	 * Cache the entries of a {@link java.util.Map} result individually, one per
+	 * element of the single {@link java.util.Collection} parameter of the method.
+	 * <p>The cache key of each element is computed by the {@link #keyGenerator}
+	 * against the arguments of the invocation, with the collection replaced by
+	 * the element: with the default key generator and a method with no other
+	 * parameters, the element itself is therefore the key. All keys are looked
+	 * up in bulk and the method is invoked once, with a collection holding the
+	 * missing elements only, unless all of them have been found. The entries
+	 * returned for these are then stored in bulk, and merged with the cached
+	 * ones into the result, in the iteration order of the given collection.
+	 * <p>The {@link #condition} is evaluated against the original invocation
+	 * and the {@link #unless} expression against each returned value. Neither
+	 * {@link #key} nor {@link #sync} are supported, and no other cache-related
+	 * operation can be combined.
+	 * <p>The method is invoked with the reduced collection by changing the
+	 * arguments of the intercepted invocation, which the proxy-based
+	 * {@code CacheInterceptor} supports: with AspectJ weaving, the method is
+	 * invoked with the full collection, and only the entries for the missing
+	 * elements are used.
+	 * @since 5.0.17
+	 * @see org.springframework.cache.Cache#getAll(java.util.Collection)
+	 * @see org.springframework.cache.Cache#putAll(java.util.Map)
+	 */
+	boolean batch() default false;
+
 }
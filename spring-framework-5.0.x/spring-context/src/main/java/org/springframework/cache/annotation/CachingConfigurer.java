@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.cache.annotation;
 
+import java.util.concurrent.Executor;
+
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.interceptor.CacheErrorHandler;
 import org.springframework.cache.interceptor.CacheResolver;
@@ -135,4 +137,17 @@ public interface CachingConfigurer {
 	@Nullable
 	CacheErrorHandler errorHandler();
 
+	/**
+	 * Return the {@link Executor} to use to refresh cached values in the background,
+	 * as requested through {@link Cacheable#refreshAfter()}.
+	 * <p>By default, no executor is used and cached values are not refreshed ahead
+	 * of their expiration.
+	 * @since 5.0.17
+	 * @see org.springframework.cache.interceptor.CacheAspectSupport#setRefreshExecutor
+	 */
+	@Nullable
+	default Executor refreshExecutor() {
+		return null;
+	}
+
 }
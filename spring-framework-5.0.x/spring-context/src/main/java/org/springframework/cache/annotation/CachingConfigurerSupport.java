@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.cache.annotation;
 
+import java.util.concurrent.Executor;
+
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.interceptor.CacheErrorHandler;
 import org.springframework.cache.interceptor.CacheResolver;
@@ -56,4 +58,10 @@ public class CachingConfigurerSupport implements CachingConfigurer {
 		return null;
 	}
 
+	@Override
+	@Nullable
+	public Executor refreshExecutor() {
+		return null;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -74,6 +74,9 @@ public class ProxyCachingConfiguration extends AbstractCachingConfiguration {
 		if (this.errorHandler != null) {
 			interceptor.setErrorHandler(this.errorHandler);
 		}
+		if (this.refreshExecutor != null) {
+			interceptor.setRefreshExecutor(this.refreshExecutor);
+		}
 		return interceptor;
 	}
 
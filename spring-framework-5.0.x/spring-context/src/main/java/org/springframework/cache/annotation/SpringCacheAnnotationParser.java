@@ -138,6 +138,8 @@ public class SpringCacheAnnotationParser implements CacheAnnotationParser, Seria
 		builder.setCacheManager(cacheable.cacheManager());
 		builder.setCacheResolver(cacheable.cacheResolver());
 		builder.setSync(cacheable.sync());
+		builder.setRefreshAfter(cacheable.refreshAfter());
+		builder.setBatch(cacheable.batch());
 
 		defaultConfig.applyDefault(builder);
 		CacheableOperation op = builder.build();
@@ -243,6 +245,18 @@ public class SpringCacheAnnotationParser implements CacheAnnotationParser, Seria
 					"These attributes are mutually exclusive: either set the SpEL expression used to" +
 					"compute the key at runtime or set the name of the KeyGenerator bean to use.");
 		}
+		if (operation instanceof CacheableOperation && ((CacheableOperation) operation).isBatch()) {
+			if (StringUtils.hasText(operation.getKey())) {
+				throw new IllegalStateException("Invalid cache annotation configuration on '" +
+						ae.toString() + "'. The 'key' attribute is not supported for batch operations: " +
+						"set the name of a KeyGenerator bean to customize the key of each element instead.");
+			}
+			if (((CacheableOperation) operation).isSync()) {
+				throw new IllegalStateException("Invalid cache annotation configuration on '" +
+						ae.toString() + "'. Both 'batch' and 'sync' attributes have been set. " +
+						"These attributes are mutually exclusive.");
+			}
+		}
 		if (StringUtils.hasText(operation.getCacheManager()) && StringUtils.hasText(operation.getCacheResolver())) {
 			throw new IllegalStateException("Invalid cache annotation configuration on '" +
 					ae.toString() + "'. Both 'cacheManager' and 'cacheResolver' attributes have been set. " +
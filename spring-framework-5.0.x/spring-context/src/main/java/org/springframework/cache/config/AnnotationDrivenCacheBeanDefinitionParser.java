@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -129,6 +129,13 @@ class AnnotationDrivenCacheBeanDefinitionParser implements BeanDefinitionParser
 		}
 	}
 
+	private static void parseRefreshExecutor(Element element, BeanDefinition def) {
+		String name = element.getAttribute("refresh-executor");
+		if (StringUtils.hasText(name)) {
+			def.getPropertyValues().add("refreshExecutor", new RuntimeBeanReference(name.trim()));
+		}
+	}
+
 
 	/**
 	 * Configure the necessary infrastructure to support the Spring's caching annotations.
@@ -151,6 +158,7 @@ class AnnotationDrivenCacheBeanDefinitionParser implements BeanDefinitionParser
 				interceptorDef.setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
 				parseCacheResolution(element, interceptorDef, false);
 				parseErrorHandler(element, interceptorDef);
+				parseRefreshExecutor(element, interceptorDef);
 				CacheNamespaceHandler.parseKeyGenerator(element, interceptorDef);
 				interceptorDef.getPropertyValues().add("cacheOperationSources", new RuntimeBeanReference(sourceName));
 				String interceptorName = parserContext.getReaderContext().registerWithGeneratedName(interceptorDef);
@@ -189,6 +197,7 @@ class AnnotationDrivenCacheBeanDefinitionParser implements BeanDefinitionParser
 				def.setBeanClassName(CACHE_ASPECT_CLASS_NAME);
 				def.setFactoryMethodName("aspectOf");
 				parseCacheResolution(element, def, false);
+				parseRefreshExecutor(element, def);
 				CacheNamespaceHandler.parseKeyGenerator(element, def);
 				parserContext.registerBeanComponent(new BeanComponentDefinition(def, CacheManagementConfigUtils.CACHE_ASPECT_BEAN_NAME));
 			}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.lang.reflect.Method;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.lang.Nullable;
+
+/**
+ * A key expression bound to a single argument of a cached method, such as
+ * {@code #id}, {@code #p0}, {@code #a1} or {@code #root.args[0]}, optionally
+ * followed by a property path such as {@code #user.id}.
+ *
+ * <p>Such expressions are resolved against the argument directly, without
+ * creating an evaluation context per invocation: the argument itself is the
+ * key if there is no property path, otherwise the path is evaluated against
+ * the argument as root object, with a SpEL expression that is compiled to
+ * bytecode once it has been interpreted a number of times.
+ *
+ * @since 5.0.17
+ * @see CacheOperationExpressionEvaluator#bindKey
+ */
+final class ArgumentKeyExpression {
+
+	private static final Pattern ARGUMENT_PATTERN = Pattern.compile(
+			"#(?:root\\.args\\[(\\d+)\\]|[ap](\\d+)|([A-Za-z_]\\w*))((?:\\.[A-Za-z_]\\w*)*)");
+
+	private static final String RESULT_VARIABLE = CacheOperationExpressionEvaluator.RESULT_VARIABLE;
+
+
+	private final int index;
+
+	@Nullable
+	private final Expression propertyPath;
+
+	private final EvaluationContext evaluationContext = new StandardEvaluationContext();
+
+
+	private ArgumentKeyExpression(int index, @Nullable Expression propertyPath) {
+		this.index = index;
+		this.propertyPath = propertyPath;
+	}
+
+
+	/**
+	 * Return whether the key can be resolved for the given arguments:
+	 * a property path cannot be evaluated against a {@code null} argument,
+	 * in which case the regular evaluation is to report the failure.
+	 */
+	public boolean canResolve(Object[] args) {
+		return (this.propertyPath == null || args[this.index] != null);
+	}
+
+	/**
+	 * Resolve the key for the given arguments.
+	 */
+	@Nullable
+	public Object resolve(Object[] args) {
+		Object argument = args[this.index];
+		return (this.propertyPath != null ?
+				this.propertyPath.getValue(this.evaluationContext, argument) : argument);
+	}
+
+
+	/**
+	 * Bind the given key expression to an argument of the given method, if possible.
+	 * @param expression the key expression
+	 * @param method the method whose parameter names the expression may refer to
+	 * @param parameterNameDiscoverer the discoverer of the parameter names
+	 * @return the bound expression, or {@code null} if the expression refers to
+	 * anything else than a single argument and its properties
+	 */
+	@Nullable
+	public static ArgumentKeyExpression bind(String expression, Method method,
+			ParameterNameDiscoverer parameterNameDiscoverer) {
+
+		if (method.isVarArgs()) {
+			// Arguments are flattened for the evaluation of expressions
+			return null;
+		}
+		Matcher matcher = ARGUMENT_PATTERN.matcher(expression.trim());
+		if (!matcher.matches()) {
+			return null;
+		}
+		int index;
+		if (matcher.group(1) != null || matcher.group(2) != null) {
+			index = Integer.parseInt(matcher.group(1) != null ? matcher.group(1) : matcher.group(2));
+		}
+		else {
+			index = indexOf(matcher.group(3), method, parameterNameDiscoverer);
+		}
+		if (index < 0 || index >= method.getParameterCount()) {
+			return null;
+		}
+		String path = matcher.group(4);
+		Expression propertyPath = null;
+		if (!path.isEmpty()) {
+			SpelExpressionParser parser = new SpelExpressionParser(
+					new SpelParserConfiguration(SpelCompilerMode.MIXED, method.getDeclaringClass().getClassLoader()));
+			propertyPath = parser.parseExpression(path.substring(1));
+		}
+		return new ArgumentKeyExpression(index, propertyPath);
+	}
+
+	private static int indexOf(String name, Method method, ParameterNameDiscoverer parameterNameDiscoverer) {
+		if (RESULT_VARIABLE.equals(name)) {
+			// May be shadowed by the result of the invocation
+			return -1;
+		}
+		String[] parameterNames = parameterNameDiscoverer.getParameterNames(method);
+		if (parameterNames != null) {
+			for (int i = 0; i < parameterNames.length; i++) {
+				if (name.equals(parameterNames[i])) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+}
@@ -21,11 +21,19 @@ import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -41,8 +49,12 @@ import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.local.LocalCacheStore;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.CollectionFactory;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -66,6 +78,13 @@ import org.springframework.util.StringUtils;
  * used for determining caching operations, a {@link KeyGenerator} will build the
  * cache keys, and a {@link CacheResolver} will resolve the actual cache(s) to use.
  *
+ * <p>Synchronized {@code @Cacheable} operations on several caches or with a refresh
+ * period are coalesced by this aspect: concurrent misses for the same key share a
+ * single in-flight load, and values older than the refresh period are reloaded on
+ * the {@link #setRefreshExecutor refresh executor} while the stale value is still
+ * being served. Operations with an asynchronous
+ * return type are coalesced as well if {@link #setUnwrapAsyncResults} is enabled.
+ *
  * <p>Note: A cache aspect is serializable but does not perform any actual caching
  * after deserialization.
  *
@@ -80,12 +99,30 @@ import org.springframework.util.StringUtils;
 public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		implements BeanFactoryAware, InitializingBean, SmartInitializingSingleton {
 
+	/**
+	 * The maximum number of load timestamps kept for refresh-ahead purposes.
+	 * Values whose timestamp has been discarded are considered as loaded when
+	 * they are next found in the cache.
+	 */
+	private static final int MAXIMUM_LOAD_TIMESTAMPS = 10000;
+
+
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private final Map<CacheOperationCacheKey, CacheOperationMetadata> metadataCache = new ConcurrentHashMap<>(1024);
 
 	private final CacheOperationExpressionEvaluator evaluator = new CacheOperationExpressionEvaluator();
 
+	private final ConcurrentMap<LoadKey, CompletableFuture<Object>> inFlightLoads = new ConcurrentHashMap<>(64);
+
+	private final LocalCacheStore loadTimestamps =
+			LocalCacheStore.builder().maximumSize(MAXIMUM_LOAD_TIMESTAMPS).build();
+
+	@Nullable
+	private Executor refreshExecutor;
+
+	private boolean unwrapAsyncResults = false;
+
 	@Nullable
 	private CacheOperationSource cacheOperationSource;
 
@@ -165,6 +202,53 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		this.cacheResolver = new SimpleCacheResolver(cacheManager);
 	}
 
+	/**
+	 * Set the {@link Executor} to use for refreshing cached values in the background,
+	 * as specified through {@link CacheableOperation#getRefreshAfter()}.
+	 * <p>By default, no executor is set and cached values are not refreshed ahead
+	 * of their expiration. Refreshes that are rejected by the executor are skipped,
+	 * so the stale value is kept.
+	 * @since 5.0.17
+	 */
+	public void setRefreshExecutor(@Nullable Executor refreshExecutor) {
+		this.refreshExecutor = refreshExecutor;
+	}
+
+	/**
+	 * Return the {@link Executor} used for refreshing cached values in the background,
+	 * if any.
+	 * @since 5.0.17
+	 */
+	@Nullable
+	public Executor getRefreshExecutor() {
+		return this.refreshExecutor;
+	}
+
+	/**
+	 * Set whether synchronized {@code @Cacheable} operations returning a
+	 * {@link CompletableFuture}, a {@link CompletionStage} or a single-value
+	 * reactive type such as {@code Mono} should cache the resolved value rather
+	 * than the returned future or publisher, with concurrent callers sharing a
+	 * single in-flight load.
+	 * <p>The default is {@code false}: the returned object is cached as is, like
+	 * for non-synchronized {@code @Cacheable} and {@code @CachePut} operations.
+	 * Only switch this flag on if no such operations store futures or publishers
+	 * in the caches used by the synchronized operations.
+	 * @since 5.0.17
+	 */
+	public void setUnwrapAsyncResults(boolean unwrapAsyncResults) {
+		this.unwrapAsyncResults = unwrapAsyncResults;
+	}
+
+	/**
+	 * Return whether synchronized {@code @Cacheable} operations with an asynchronous
+	 * return type cache the resolved value.
+	 * @since 5.0.17
+	 */
+	public boolean isUnwrapAsyncResults() {
+		return this.unwrapAsyncResults;
+	}
+
 	/**
 	 * Set the containing {@link BeanFactory} for {@link CacheManager} and other
 	 * service lookups.
@@ -272,6 +356,9 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 			metadata = new CacheOperationMetadata(operation, method, targetClass,
 					operationKeyGenerator, operationCacheResolver);
+			if (StringUtils.hasText(operation.getKey())) {
+				metadata.argumentKey = this.evaluator.bindKey(operation.getKey(), metadata.targetMethod);
+			}
 			this.metadataCache.put(cacheKey, metadata);
 		}
 		return metadata;
@@ -347,6 +434,10 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
 			if (isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
 				Object key = generateKey(context, CacheOperationExpressionEvaluator.NO_RESULT);
+				if (context.getCaches().size() > 1 || getAsyncResultAdapter(context) != null ||
+						((CacheableOperation) context.metadata.operation).getRefreshAfter() >= 0) {
+					return executeCoalesced(invoker, method, context, key);
+				}
 				Cache cache = context.getCaches().iterator().next();
 				try {
 					return wrapCacheValue(method, cache.get(key, () -> unwrapReturnValue(invokeOperation(invoker))));
@@ -363,6 +454,17 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 		}
 
+		// Special handling of batch invocation
+		if (contexts.isBatch()) {
+			CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
+			if (isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
+				return executeBatch(invoker, method, context, contexts.getBatchParameterIndex());
+			}
+			else {
+				// No caching required, only call the underlying method
+				return invokeOperation(invoker);
+			}
+		}
 
 		// Process any early evictions
 		processCacheEvicts(contexts.get(CacheEvictOperation.class), true,
@@ -406,6 +508,268 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return returnValue;
 	}
 
+	/**
+	 * Execute a synchronized {@link CacheableOperation} with an in-flight load shared
+	 * by all concurrent callers for the same key and caches, refreshing the cached
+	 * value if it is older than the operation's refresh period.
+	 */
+	@Nullable
+	private Object executeCoalesced(CacheOperationInvoker invoker, Method method,
+			CacheOperationContext context, Object key) {
+
+		AsyncResultAdapter asyncResultAdapter = getAsyncResultAdapter(context);
+		LoadKey loadKey = new LoadKey(context.getCaches(), key);
+		Cache.ValueWrapper cached = findInCaches(context, key);
+		CompletableFuture<Object> load = null;
+		if (cached == null) {
+			CompletableFuture<Object> newLoad = new CompletableFuture<>();
+			load = this.inFlightLoads.putIfAbsent(loadKey, newLoad);
+			if (load == null) {
+				load = newLoad;
+				// Double-check: a concurrent load may have completed in the meantime
+				cached = findInCaches(context, key);
+				if (cached != null) {
+					this.inFlightLoads.remove(loadKey, newLoad);
+					newLoad.complete(cached.get());
+				}
+				else {
+					load(invoker, context, loadKey, newLoad);
+				}
+			}
+			else if (logger.isTraceEnabled()) {
+				logger.trace("Waiting for in-flight load of key '" + key + "' in cache(s) " + context.getCacheNames());
+			}
+		}
+		else {
+			refreshIfNecessary(invoker, context, loadKey);
+		}
+
+		if (asyncResultAdapter != null) {
+			return asyncResultAdapter.fromFuture(load != null ? load : CompletableFuture.completedFuture(cached.get()));
+		}
+		return wrapCacheValue(method, (load != null ? join(load) : cached.get()));
+	}
+
+	/**
+	 * Execute a batch {@link CacheableOperation}: look up the elements of the
+	 * collection argument in bulk, invoke the underlying method with the missing
+	 * elements only, and store the entries of its map result in bulk.
+	 */
+	@Nullable
+	private Object executeBatch(CacheOperationInvoker invoker, Method method,
+			CacheOperationContext context, int parameterIndex) {
+
+		Object[] args = context.getArgs();
+		Collection<?> elements = (Collection<?>) args[parameterIndex];
+		if (elements == null) {
+			return invokeOperation(invoker);
+		}
+
+		Map<Object, Object> keys = new LinkedHashMap<>(elements.size());
+		for (Object element : elements) {
+			keys.put(element, generateBatchKey(context, parameterIndex, element));
+		}
+		Map<Object, Cache.ValueWrapper> hits = new HashMap<>(keys.size());
+		Collection<Object> missingKeys = new ArrayList<>(keys.values());
+		for (Cache cache : context.getCaches()) {
+			Map<Object, Cache.ValueWrapper> found = doGetAll(cache, missingKeys);
+			if (!found.isEmpty()) {
+				hits.putAll(found);
+				missingKeys.removeAll(found.keySet());
+			}
+			if (missingKeys.isEmpty()) {
+				break;
+			}
+		}
+
+		Map<?, ?> loaded = Collections.emptyMap();
+		if (!missingKeys.isEmpty()) {
+			Collection<Object> missingElements = CollectionFactory.createCollection(
+					method.getParameterTypes()[parameterIndex], missingKeys.size());
+			for (Map.Entry<Object, Object> entry : keys.entrySet()) {
+				if (!hits.containsKey(entry.getValue())) {
+					missingElements.add(entry.getKey());
+				}
+			}
+			if (logger.isTraceEnabled()) {
+				logger.trace("No cache entries for " + missingElements.size() + " of " + keys.size() +
+						" elements in cache(s) " + context.getCacheNames());
+			}
+			args[parameterIndex] = missingElements;
+			Object returnValue;
+			try {
+				returnValue = invokeOperation(invoker);
+			}
+			finally {
+				args[parameterIndex] = elements;
+			}
+			if (returnValue != null) {
+				loaded = (Map<?, ?>) returnValue;
+				Map<Object, Object> entries = new LinkedHashMap<>(missingElements.size());
+				for (Object element : missingElements) {
+					Object value = loaded.get(element);
+					if ((value != null || loaded.containsKey(element)) && context.canPutToCache(value)) {
+						entries.put(keys.get(element), value);
+					}
+				}
+				if (!entries.isEmpty()) {
+					for (Cache cache : context.getCaches()) {
+						doPutAll(cache, entries);
+					}
+				}
+			}
+		}
+
+		Map<Object, Object> result = CollectionFactory.createMap(method.getReturnType(), keys.size());
+		for (Map.Entry<Object, Object> entry : keys.entrySet()) {
+			Cache.ValueWrapper hit = hits.get(entry.getValue());
+			if (hit != null) {
+				result.put(entry.getKey(), hit.get());
+			}
+			else if (loaded.containsKey(entry.getKey())) {
+				result.put(entry.getKey(), loaded.get(entry.getKey()));
+			}
+		}
+		return result;
+	}
+
+	private Object generateBatchKey(CacheOperationContext context, int parameterIndex, Object element) {
+		Object[] elementArgs = context.getArgs().clone();
+		elementArgs[parameterIndex] = element;
+		Object key = context.metadata.keyGenerator.generate(context.getTarget(), context.getMethod(), elementArgs);
+		if (key == null) {
+			throw new IllegalArgumentException("Null key returned for element '" + element + "' of batch " +
+					"cache operation " + context.metadata.operation);
+		}
+		return key;
+	}
+
+	/**
+	 * Invoke the underlying method for the given in-flight load, storing its
+	 * (possibly asynchronous) result in the caches before completing the load.
+	 * Exceptions thrown by the invocation itself are propagated to the caller.
+	 */
+	private void load(CacheOperationInvoker invoker, CacheOperationContext context, LoadKey loadKey,
+			CompletableFuture<Object> load) {
+
+		AsyncResultAdapter asyncResultAdapter = getAsyncResultAdapter(context);
+		Object returnValue;
+		try {
+			returnValue = invokeOperation(invoker);
+		}
+		catch (RuntimeException | Error ex) {
+			completeLoad(context, loadKey, load, null, ex);
+			throw ex;
+		}
+		if (asyncResultAdapter == null) {
+			completeLoad(context, loadKey, load, unwrapReturnValue(returnValue), null);
+		}
+		else if (returnValue == null) {
+			// No asynchronous result to cache
+			this.inFlightLoads.remove(loadKey, load);
+			load.complete(null);
+		}
+		else {
+			asyncResultAdapter.toFuture(returnValue).whenComplete((value, ex) ->
+					completeLoad(context, loadKey, load, value, ex));
+		}
+	}
+
+	private void completeLoad(CacheOperationContext context, LoadKey loadKey, CompletableFuture<Object> load,
+			@Nullable Object value, @Nullable Throwable ex) {
+
+		Throwable failure = ex;
+		try {
+			if (failure == null) {
+				for (Cache cache : context.getCaches()) {
+					doPut(cache, loadKey.key, value);
+				}
+				if (((CacheableOperation) context.metadata.operation).getRefreshAfter() >= 0) {
+					this.loadTimestamps.put(loadKey, System.currentTimeMillis());
+				}
+			}
+		}
+		catch (RuntimeException | Error putEx) {
+			failure = putEx;
+		}
+		finally {
+			this.inFlightLoads.remove(loadKey, load);
+			if (failure != null) {
+				load.completeExceptionally(failure);
+			}
+			else {
+				load.complete(value);
+			}
+		}
+	}
+
+	/**
+	 * Reload the value for the given key if it is older than the operation's refresh
+	 * period, unless a load for it is in progress already. The reload runs on the
+	 * refresh executor, if any: without one, refresh-ahead is disabled.
+	 */
+	private void refreshIfNecessary(CacheOperationInvoker invoker, CacheOperationContext context, LoadKey loadKey) {
+		long refreshAfter = ((CacheableOperation) context.metadata.operation).getRefreshAfter();
+		Executor refreshExecutor = this.refreshExecutor;
+		if (refreshAfter < 0 || refreshExecutor == null) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		Long loadedAt = (Long) this.loadTimestamps.putIfAbsent(loadKey, now);
+		if (loadedAt == null || now - loadedAt < refreshAfter) {
+			return;
+		}
+		CompletableFuture<Object> refresh = new CompletableFuture<>();
+		if (this.inFlightLoads.putIfAbsent(loadKey, refresh) != null) {
+			return;
+		}
+		if (logger.isTraceEnabled()) {
+			logger.trace("Refreshing cache key '" + loadKey.key + "' in cache(s) " + context.getCacheNames());
+		}
+		try {
+			refreshExecutor.execute(() -> {
+				try {
+					load(invoker, context, loadKey, refresh);
+				}
+				catch (Throwable ex) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Failed to refresh cache key '" + loadKey.key + "' in cache(s) " +
+								context.getCacheNames(), ex);
+					}
+				}
+			});
+		}
+		catch (RuntimeException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Could not schedule refresh of cache key '" + loadKey.key + "'", ex);
+			}
+			this.inFlightLoads.remove(loadKey, refresh);
+			refresh.completeExceptionally(ex);
+		}
+	}
+
+	@Nullable
+	private AsyncResultAdapter getAsyncResultAdapter(CacheOperationContext context) {
+		return (this.unwrapAsyncResults ? context.metadata.asyncResultAdapter : null);
+	}
+
+	@Nullable
+	private Object join(CompletableFuture<Object> load) {
+		try {
+			return load.join();
+		}
+		catch (CompletionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new CacheOperationInvoker.ThrowableWrapper(cause != null ? cause : ex);
+		}
+	}
+
 	@Nullable
 	private Object wrapCacheValue(Method method, @Nullable Object cacheValue) {
 		if (method.getReturnType() == Optional.class &&
@@ -561,6 +925,8 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final boolean sync;
 
+		private final int batchParameterIndex;
+
 		public CacheOperationContexts(Collection<? extends CacheOperation> operations, Method method,
 				Object[] args, Object target, Class<?> targetClass) {
 
@@ -569,6 +935,7 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 				this.contexts.add(op.getClass(), getOperationContext(op, method, args, target, targetClass));
 			}
 			this.sync = determineSyncFlag(method);
+			this.batchParameterIndex = determineBatchParameterIndex(method);
 		}
 
 		public Collection<CacheOperationContext> get(Class<? extends CacheOperation> operationClass) {
@@ -580,6 +947,51 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			return this.sync;
 		}
 
+		public boolean isBatch() {
+			return (this.batchParameterIndex >= 0);
+		}
+
+		public int getBatchParameterIndex() {
+			return this.batchParameterIndex;
+		}
+
+		private int determineBatchParameterIndex(Method method) {
+			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
+			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
+				return -1;
+			}
+			boolean batchEnabled = false;
+			for (CacheOperationContext cacheOperationContext : cacheOperationContexts) {
+				if (((CacheableOperation) cacheOperationContext.getOperation()).isBatch()) {
+					batchEnabled = true;
+					break;
+				}
+			}
+			if (!batchEnabled) {
+				return -1;
+			}
+			if (this.contexts.size() > 1 || cacheOperationContexts.size() > 1) {
+				throw new IllegalStateException(
+						"@Cacheable(batch=true) cannot be combined with other cache operations on '" + method + "'");
+			}
+			int index = -1;
+			Class<?>[] parameterTypes = method.getParameterTypes();
+			for (int i = 0; i < parameterTypes.length; i++) {
+				if (Collection.class.isAssignableFrom(parameterTypes[i])) {
+					if (index >= 0) {
+						index = -1;
+						break;
+					}
+					index = i;
+				}
+			}
+			if (index < 0 || method.isVarArgs() || !Map.class.isAssignableFrom(method.getReturnType())) {
+				throw new IllegalStateException("@Cacheable(batch=true) requires a single Collection " +
+						"parameter and a Map return type on '" + method + "'");
+			}
+			return index;
+		}
+
 		private boolean determineSyncFlag(Method method) {
 			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
 			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
@@ -603,16 +1015,19 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 				}
 				CacheOperationContext cacheOperationContext = cacheOperationContexts.iterator().next();
 				CacheableOperation operation = (CacheableOperation) cacheOperationContext.getOperation();
-				if (cacheOperationContext.getCaches().size() > 1) {
-					throw new IllegalStateException(
-							"@Cacheable(sync=true) only allows a single cache on '" + operation + "'");
-				}
 				if (StringUtils.hasText(operation.getUnless())) {
 					throw new IllegalStateException(
 							"@Cacheable(sync=true) does not support unless attribute on '" + operation + "'");
 				}
 				return true;
 			}
+			for (CacheOperationContext cacheOperationContext : cacheOperationContexts) {
+				CacheableOperation operation = (CacheableOperation) cacheOperationContext.getOperation();
+				if (operation.getRefreshAfter() >= 0) {
+					throw new IllegalStateException(
+							"@Cacheable(refreshAfter) requires sync=true on '" + operation + "'");
+				}
+			}
 			return false;
 		}
 	}
@@ -638,6 +1053,12 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final CacheResolver cacheResolver;
 
+		@Nullable
+		private final AsyncResultAdapter asyncResultAdapter;
+
+		@Nullable
+		private ArgumentKeyExpression argumentKey;
+
 		public CacheOperationMetadata(CacheOperation operation, Method method, Class<?> targetClass,
 				KeyGenerator keyGenerator, CacheResolver cacheResolver) {
 
@@ -649,6 +1070,7 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			this.methodKey = new AnnotatedElementKey(this.targetMethod, targetClass);
 			this.keyGenerator = keyGenerator;
 			this.cacheResolver = cacheResolver;
+			this.asyncResultAdapter = AsyncResultAdapter.forReturnType(this.method.getReturnType());
 		}
 	}
 
@@ -666,14 +1088,14 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final Collection<? extends Cache> caches;
 
-		private final Collection<String> cacheNames;
+		@Nullable
+		private Collection<String> cacheNames;
 
 		public CacheOperationContext(CacheOperationMetadata metadata, Object[] args, Object target) {
 			this.metadata = metadata;
 			this.args = extractArgs(metadata.method, args);
 			this.target = target;
 			this.caches = CacheAspectSupport.this.getCaches(this, metadata.cacheResolver);
-			this.cacheNames = createCacheNames(this.caches);
 		}
 
 		@Override
@@ -737,6 +1159,11 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		@Nullable
 		protected Object generateKey(@Nullable Object result) {
 			if (StringUtils.hasText(this.metadata.operation.getKey())) {
+				ArgumentKeyExpression argumentKey = this.metadata.argumentKey;
+				if (argumentKey != null && argumentKey.canResolve(this.args)) {
+					// No need for an evaluation context: the key is derived from an argument only
+					return argumentKey.resolve(this.args);
+				}
 				EvaluationContext evaluationContext = createEvaluationContext(result);
 				return evaluator.key(this.metadata.operation.getKey(), this.metadata.methodKey, evaluationContext);
 			}
@@ -753,6 +1180,10 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		}
 
 		protected Collection<String> getCacheNames() {
+			if (this.cacheNames == null) {
+				// Only needed for logging purposes, so only created on demand
+				this.cacheNames = createCacheNames(this.caches);
+			}
 			return this.cacheNames;
 		}
 
@@ -787,6 +1218,101 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	}
 
 
+	/**
+	 * Adapter for methods returning a {@link CompletableFuture} or a single-value
+	 * reactive type, translating between such results and the futures of in-flight
+	 * loads, so that the resolved values get cached.
+	 */
+	private static class AsyncResultAdapter {
+
+		@Nullable
+		private final ReactiveAdapter reactiveAdapter;
+
+		@Nullable
+		private final ReactiveAdapter futureAdapter;
+
+		private AsyncResultAdapter(@Nullable ReactiveAdapter reactiveAdapter, @Nullable ReactiveAdapter futureAdapter) {
+			this.reactiveAdapter = reactiveAdapter;
+			this.futureAdapter = futureAdapter;
+		}
+
+		@SuppressWarnings("unchecked")
+		public CompletableFuture<Object> toFuture(Object returnValue) {
+			if (this.reactiveAdapter != null && this.futureAdapter != null) {
+				return (CompletableFuture<Object>) this.futureAdapter.fromPublisher(
+						this.reactiveAdapter.toPublisher(returnValue));
+			}
+			return (CompletableFuture<Object>) ((CompletionStage<?>) returnValue).toCompletableFuture();
+		}
+
+		public Object fromFuture(CompletableFuture<Object> future) {
+			if (this.reactiveAdapter != null && this.futureAdapter != null) {
+				return this.reactiveAdapter.fromPublisher(this.futureAdapter.toPublisher(future));
+			}
+			// Protect the shared future against completion by individual callers
+			return future.thenApply(Function.identity());
+		}
+
+		@Nullable
+		public static AsyncResultAdapter forReturnType(Class<?> returnType) {
+			if (returnType == CompletableFuture.class || returnType == CompletionStage.class) {
+				return new AsyncResultAdapter(null, null);
+			}
+			ReactiveAdapterRegistry registry = ReactiveAdapterRegistry.getSharedInstance();
+			ReactiveAdapter reactiveAdapter = registry.getAdapter(returnType);
+			if (reactiveAdapter == null || reactiveAdapter.isMultiValue() || reactiveAdapter.isNoValue()) {
+				return null;
+			}
+			ReactiveAdapter futureAdapter = registry.getAdapter(CompletableFuture.class);
+			return (futureAdapter != null ? new AsyncResultAdapter(reactiveAdapter, futureAdapter) : null);
+		}
+	}
+
+
+	/**
+	 * Key of an in-flight load or load timestamp: the cache key along with the
+	 * caches that a value is loaded into.
+	 */
+	private static final class LoadKey {
+
+		private final Collection<? extends Cache> caches;
+
+		private final Object key;
+
+		public LoadKey(Collection<? extends Cache> caches, Object key) {
+			this.caches = caches;
+			this.key = key;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof LoadKey)) {
+				return false;
+			}
+			LoadKey otherKey = (LoadKey) other;
+			return (this.key.equals(otherKey.key) && this.caches.size() == otherKey.caches.size() &&
+					this.caches.containsAll(otherKey.caches));
+		}
+
+		@Override
+		public int hashCode() {
+			int hashCode = this.key.hashCode();
+			for (Cache cache : this.caches) {
+				hashCode += cache.hashCode();
+			}
+			return hashCode;
+		}
+
+		@Override
+		public String toString() {
+			return this.key + " in " + this.caches;
+		}
+	}
+
+
 	private static final class CacheOperationCacheKey implements Comparable<CacheOperationCacheKey> {
 
 		private final CacheOperation cacheOperation;
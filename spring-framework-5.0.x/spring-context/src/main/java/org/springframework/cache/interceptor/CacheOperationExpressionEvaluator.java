@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -87,6 +87,7 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 				caches, method, args, target, targetClass);
 		CacheEvaluationContext evaluationContext = new CacheEvaluationContext(
 				rootObject, targetMethod, args, getParameterNameDiscoverer());
+		applyDelegatesTo(evaluationContext);
 		if (result == RESULT_UNAVAILABLE) {
 			evaluationContext.addUnavailableVariable(RESULT_VARIABLE);
 		}
@@ -104,6 +105,20 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 		return getExpression(this.keyCache, methodKey, keyExpression).getValue(evalContext);
 	}
 
+	/**
+	 * Bind the given key expression to an argument of the given method,
+	 * if it refers to nothing else than a single argument and its properties.
+	 * @param keyExpression the key expression
+	 * @param targetMethod the target method
+	 * @return the bound key expression, or {@code null} if the expression
+	 * needs to be evaluated against a full evaluation context
+	 * @since 5.0.17
+	 */
+	@Nullable
+	ArgumentKeyExpression bindKey(String keyExpression, Method targetMethod) {
+		return ArgumentKeyExpression.bind(keyExpression, targetMethod, getParameterNameDiscoverer());
+	}
+
 	public boolean condition(String conditionExpression, AnnotatedElementKey methodKey, EvaluationContext evalContext) {
 		return (Boolean.TRUE.equals(getExpression(this.conditionCache, methodKey, conditionExpression).getValue(
 				evalContext, Boolean.class)));
@@ -33,6 +33,10 @@ public class CacheableOperation extends CacheOperation {
 
 	private final boolean sync;
 
+	private final long refreshAfter;
+
+	private final boolean batch;
+
 
 	/**
 	 * @since 4.3
@@ -41,6 +45,8 @@ public class CacheableOperation extends CacheOperation {
 		super(b);
 		this.unless = b.unless;
 		this.sync = b.sync;
+		this.refreshAfter = b.refreshAfter;
+		this.batch = b.batch;
 	}
 
 
@@ -53,6 +59,24 @@ public class CacheableOperation extends CacheOperation {
 		return this.sync;
 	}
 
+	/**
+	 * Return the period in milliseconds after which a cached value is refreshed
+	 * in the background, or {@code -1} if cached values are never refreshed.
+	 * @since 5.0.17
+	 */
+	public long getRefreshAfter() {
+		return this.refreshAfter;
+	}
+
+	/**
+	 * Return whether the entries of a map result are cached individually,
+	 * one per element of the collection parameter of the method.
+	 * @since 5.0.17
+	 */
+	public boolean isBatch() {
+		return this.batch;
+	}
+
 
 	/**
 	 * @since 4.3
@@ -64,6 +88,10 @@ public class CacheableOperation extends CacheOperation {
 
 		private boolean sync;
 
+		private long refreshAfter = -1;
+
+		private boolean batch;
+
 		public void setUnless(String unless) {
 			this.unless = unless;
 		}
@@ -72,6 +100,20 @@ public class CacheableOperation extends CacheOperation {
 			this.sync = sync;
 		}
 
+		/**
+		 * @since 5.0.17
+		 */
+		public void setRefreshAfter(long refreshAfter) {
+			this.refreshAfter = refreshAfter;
+		}
+
+		/**
+		 * @since 5.0.17
+		 */
+		public void setBatch(boolean batch) {
+			this.batch = batch;
+		}
+
 		@Override
 		protected StringBuilder getOperationDescription() {
 			StringBuilder sb = super.getOperationDescription();
@@ -81,6 +123,14 @@ public class CacheableOperation extends CacheOperation {
 			sb.append(" | sync='");
 			sb.append(this.sync);
 			sb.append("'");
+			if (this.refreshAfter >= 0) {
+				sb.append(" | refreshAfter='");
+				sb.append(this.refreshAfter);
+				sb.append("'");
+			}
+			if (this.batch) {
+				sb.append(" | batch='true'");
+			}
 			return sb;
 		}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -50,8 +50,21 @@ public class SimpleKey implements Serializable {
 	public SimpleKey(Object... elements) {
 		Assert.notNull(elements, "Elements must not be null");
 		this.params = new Object[elements.length];
-		System.arraycopy(elements, 0, this.params, 0, elements.length);
-		this.hashCode = Arrays.deepHashCode(this.params);
+		// Copy the elements and compute the hash code in a single pass,
+		// unless nested arrays require a deep hash code
+		int hash = 1;
+		boolean nestedArray = false;
+		for (int i = 0; i < elements.length; i++) {
+			Object element = elements[i];
+			this.params[i] = element;
+			if (element != null && element.getClass().isArray()) {
+				nestedArray = true;
+			}
+			else {
+				hash = 31 * hash + (element != null ? element.hashCode() : 0);
+			}
+		}
+		this.hashCode = (nestedArray ? Arrays.deepHashCode(this.params) : hash);
 	}
 
 
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.local;
+
+/**
+ * A probabilistic estimate of how often keys have been used recently, in the
+ * form of a Count-Min sketch with four 4-bit counters per key. Once the number
+ * of recorded increments reaches a sample size proportional to the table, all
+ * counters are halved, so that the popularity of keys ages over time.
+ *
+ * <p>Not thread-safe: meant to be accessed under the eviction lock of a
+ * {@link LocalCacheStore} only.
+ *
+ * @since 5.0.17
+ */
+final class FrequencySketch {
+
+	private static final long[] SEEDS = {
+			0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+	private static final long RESET_MASK = 0x7777777777777777L;
+
+	private static final long ONE_MASK = 0x1111111111111111L;
+
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+
+	private long[] table = new long[0];
+
+	private int tableMask;
+
+	private int sampleSize;
+
+	private int size;
+
+
+	/**
+	 * Grow the sketch, if necessary, so that it can accurately estimate the
+	 * frequency of the given number of keys. Resets all counters on growth.
+	 */
+	public void ensureCapacity(long maximumSize) {
+		int capacity = (int) Math.min(Math.max(maximumSize, 16), MAXIMUM_CAPACITY);
+		if (this.table.length >= capacity) {
+			return;
+		}
+		int length = Integer.highestOneBit(capacity - 1) << 1;
+		this.table = new long[length];
+		this.tableMask = length - 1;
+		this.sampleSize = (int) Math.min(10L * length, Integer.MAX_VALUE);
+		this.size = 0;
+	}
+
+	/**
+	 * Return the estimated number of occurrences of the given key, up to 15.
+	 */
+	public int frequency(Object key) {
+		if (this.table.length == 0) {
+			return 0;
+		}
+		int hash = spread(key.hashCode());
+		int start = (hash & 3) << 2;
+		int frequency = Integer.MAX_VALUE;
+		for (int i = 0; i < 4; i++) {
+			int index = indexOf(hash, i);
+			int count = (int) ((this.table[index] >>> ((start + i) << 2)) & 0xfL);
+			frequency = Math.min(frequency, count);
+		}
+		return frequency;
+	}
+
+	/**
+	 * Increment the popularity of the given key, aging all counters once the
+	 * sample size has been reached.
+	 */
+	public void increment(Object key) {
+		if (this.table.length == 0) {
+			return;
+		}
+		int hash = spread(key.hashCode());
+		int start = (hash & 3) << 2;
+		boolean added = false;
+		for (int i = 0; i < 4; i++) {
+			added |= incrementAt(indexOf(hash, i), start + i);
+		}
+		if (added && ++this.size == this.sampleSize) {
+			reset();
+		}
+	}
+
+	private boolean incrementAt(int index, int counter) {
+		int offset = counter << 2;
+		long mask = (0xfL << offset);
+		if ((this.table[index] & mask) != mask) {
+			this.table[index] += (1L << offset);
+			return true;
+		}
+		return false;
+	}
+
+	private void reset() {
+		int count = 0;
+		for (int i = 0; i < this.table.length; i++) {
+			count += Long.bitCount(this.table[i] & ONE_MASK);
+			this.table[i] = (this.table[i] >>> 1) & RESET_MASK;
+		}
+		this.size = (this.size >>> 1) - (count >>> 2);
+	}
+
+	private int indexOf(int hash, int depth) {
+		long value = (hash + SEEDS[depth]) * SEEDS[depth];
+		value += (value >>> 32);
+		return ((int) value) & this.tableMask;
+	}
+
+	private static int spread(int hash) {
+		int value = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+		value = ((value >>> 16) ^ value) * 0x45d9f3b;
+		return (value >>> 16) ^ value;
+	}
+
+}
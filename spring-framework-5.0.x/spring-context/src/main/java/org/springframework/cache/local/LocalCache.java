@@ -0,0 +1,143 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.local;
+
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Spring {@link org.springframework.cache.Cache} adapter implementation
+ * on top of a {@link LocalCacheStore}, i.e. a bounded in-memory cache with
+ * optional expiration and statistics.
+ *
+ * <p>Typically obtained from a {@link LocalCacheManager}, or used in
+ * combination with {@link org.springframework.cache.support.SimpleCacheManager}.
+ *
+ * @since 5.0.17
+ * @see LocalCacheManager
+ */
+public class LocalCache extends AbstractValueAdaptingCache {
+
+	private final String name;
+
+	private final LocalCacheStore store;
+
+
+	/**
+	 * Create a {@link LocalCache} instance with the specified name and the
+	 * given {@link LocalCacheStore} to use.
+	 * @param name the name of the cache
+	 * @param store the backing store
+	 */
+	public LocalCache(String name, LocalCacheStore store) {
+		this(name, store, true);
+	}
+
+	/**
+	 * Create a {@link LocalCache} instance with the specified name and the
+	 * given {@link LocalCacheStore} to use.
+	 * @param name the name of the cache
+	 * @param store the backing store
+	 * @param allowNullValues whether to accept and convert {@code null}
+	 * values for this cache
+	 */
+	public LocalCache(String name, LocalCacheStore store, boolean allowNullValues) {
+		super(allowNullValues);
+		Assert.notNull(name, "Name must not be null");
+		Assert.notNull(store, "Store must not be null");
+		this.name = name;
+		this.store = store;
+	}
+
+
+	@Override
+	public final String getName() {
+		return this.name;
+	}
+
+	@Override
+	public final LocalCacheStore getNativeCache() {
+		return this.store;
+	}
+
+	/**
+	 * Return a snapshot of the statistics of this cache.
+	 * @see LocalCacheManager#setRecordStats(boolean)
+	 */
+	public LocalCacheStatistics getStatistics() {
+		return this.store.getStatistics();
+	}
+
+	@Override
+	@Nullable
+	protected Object lookup(Object key) {
+		return this.store.get(key);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		return (T) fromStoreValue(this.store.computeIfAbsent(key, new LoadFunction(valueLoader)));
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		this.store.put(key, toStoreValue(value));
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		return toValueWrapper(this.store.putIfAbsent(key, toStoreValue(value)));
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.store.remove(key);
+	}
+
+	@Override
+	public void clear() {
+		this.store.clear();
+	}
+
+
+	private class LoadFunction implements Function<Object, Object> {
+
+		private final Callable<?> valueLoader;
+
+		public LoadFunction(Callable<?> valueLoader) {
+			this.valueLoader = valueLoader;
+		}
+
+		@Override
+		public Object apply(Object key) {
+			try {
+				return toStoreValue(this.valueLoader.call());
+			}
+			catch (Throwable ex) {
+				throw new ValueRetrievalException(key, this.valueLoader, ex);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.local;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link CacheManager} implementation that lazily builds {@link LocalCache}
+ * instances for each {@link #getCache} request. Also supports a 'static' mode
+ * where the set of cache names is pre-defined through {@link #setCacheNames},
+ * with no dynamic creation of further cache regions at runtime.
+ *
+ * <p>Each cache is bounded by the configured {@link #setMaximumSize maximum size}
+ * or {@link #setMaximumWeight maximum weight} (unbounded by default), may expire
+ * entries after write and/or access, and optionally records statistics. Unlike
+ * {@link org.springframework.cache.concurrent.ConcurrentMapCacheManager}, this
+ * is therefore suitable for high-cardinality keys without third-party caching
+ * libraries.
+ *
+ * @since 5.0.17
+ * @see LocalCache
+ * @see LocalCacheStore
+ */
+public class LocalCacheManager implements CacheManager {
+
+	private static final LocalCacheStore.Weigher SINGLETON_WEIGHER = (key, value) -> 1;
+
+	private final ConcurrentMap<String, Cache> cacheMap = new ConcurrentHashMap<>(16);
+
+	private boolean dynamic = true;
+
+	private long maximumSize = -1;
+
+	private long maximumWeight = -1;
+
+	@Nullable
+	private LocalCacheStore.Weigher weigher;
+
+	@Nullable
+	private Duration expireAfterWrite;
+
+	@Nullable
+	private Duration expireAfterAccess;
+
+	private boolean recordStats = false;
+
+	private boolean allowNullValues = true;
+
+
+	/**
+	 * Construct a dynamic LocalCacheManager,
+	 * lazily creating cache instances as they are being requested.
+	 */
+	public LocalCacheManager() {
+	}
+
+	/**
+	 * Construct a static LocalCacheManager,
+	 * managing caches for the specified cache names only.
+	 */
+	public LocalCacheManager(String... cacheNames) {
+		setCacheNames(Arrays.asList(cacheNames));
+	}
+
+
+	/**
+	 * Specify the set of cache names for this CacheManager's 'static' mode.
+	 * <p>The number of caches and their names will be fixed after a call to this method,
+	 * with no creation of further cache regions at runtime.
+	 * <p>Calling this with a {@code null} collection argument resets the
+	 * mode to 'dynamic', allowing for further creation of caches again.
+	 */
+	public void setCacheNames(@Nullable Collection<String> cacheNames) {
+		if (cacheNames != null) {
+			for (String name : cacheNames) {
+				this.cacheMap.put(name, createLocalCache(name));
+			}
+			this.dynamic = false;
+		}
+		else {
+			this.dynamic = true;
+		}
+	}
+
+	/**
+	 * Set the maximum number of entries of each cache, or {@code -1} for no bound.
+	 * <p>Mutually exclusive with {@link #setMaximumWeight}.
+	 * <p>Note: A change of this setting will reset all existing caches, if any.
+	 */
+	public void setMaximumSize(long maximumSize) {
+		if (this.maximumSize != maximumSize) {
+			this.maximumSize = maximumSize;
+			refreshKnownCaches();
+		}
+	}
+
+	/**
+	 * Set the maximum total weight of the entries of each cache, as computed by
+	 * the {@link #setWeigher weigher}, or {@code -1} for no bound.
+	 * <p>Mutually exclusive with {@link #setMaximumSize}.
+	 * <p>Note: A change of this setting will reset all existing caches, if any.
+	 */
+	public void setMaximumWeight(long maximumWeight) {
+		if (this.maximumWeight != maximumWeight) {
+			this.maximumWeight = maximumWeight;
+			refreshKnownCaches();
+		}
+	}
+
+	/**
+	 * Set the {@link LocalCacheStore.Weigher} to use along with a maximum weight.
+	 * If none is set, each entry weighs 1.
+	 * <p>The weigher is invoked with the stored values, i.e. with an internal
+	 * holder object for user-level {@code null} values.
+	 * <p>Note: A change of this setting will reset all existing caches, if any.
+	 */
+	public void setWeigher(@Nullable LocalCacheStore.Weigher weigher) {
+		if (this.weigher != weigher) {
+			this.weigher = weigher;
+			refreshKnownCaches();
+		}
+	}
+
+	/**
+	 * Set the duration after which entries expire once stored, if any.
+	 * <p>Note: A change of this setting will reset all existing caches, if any.
+	 */
+	public void setExpireAfterWrite(@Nullable Duration expireAfterWrite) {
+		this.expireAfterWrite = expireAfterWrite;
+		refreshKnownCaches();
+	}
+
+	/**
+	 * Set the duration after which entries expire once stored or last read, if any.
+	 * <p>Note: A change of this setting will reset all existing caches, if any.
+	 */
+	public void setExpireAfterAccess(@Nullable Duration expireAfterAccess) {
+		this.expireAfterAccess = expireAfterAccess;
+		refreshKnownCaches();
+	}
+
+	/**
+	 * Specify whether to record hit, miss, put and eviction statistics for
+	 * all caches in this cache manager. Default is "false".
+	 * <p>Note: A change of this setting will reset all existing caches, if any.
+	 * @see LocalCache#getStatistics()
+	 */
+	public void setRecordStats(boolean recordStats) {
+		if (this.recordStats != recordStats) {
+			this.recordStats = recordStats;
+			refreshKnownCaches();
+		}
+	}
+
+	/**
+	 * Specify whether to accept and convert {@code null} values for all caches
+	 * in this cache manager.
+	 * <p>Default is "true", despite {@link LocalCacheStore} itself not supporting
+	 * {@code null} values. An internal holder object will be used to store
+	 * user-level {@code null}s.
+	 */
+	public void setAllowNullValues(boolean allowNullValues) {
+		if (this.allowNullValues != allowNullValues) {
+			this.allowNullValues = allowNullValues;
+			refreshKnownCaches();
+		}
+	}
+
+	/**
+	 * Return whether this cache manager accepts and converts {@code null} values
+	 * for all of its caches.
+	 */
+	public boolean isAllowNullValues() {
+		return this.allowNullValues;
+	}
+
+
+	@Override
+	public Collection<String> getCacheNames() {
+		return Collections.unmodifiableSet(this.cacheMap.keySet());
+	}
+
+	@Override
+	@Nullable
+	public Cache getCache(String name) {
+		Cache cache = this.cacheMap.get(name);
+		if (cache == null && this.dynamic) {
+			synchronized (this.cacheMap) {
+				cache = this.cacheMap.get(name);
+				if (cache == null) {
+					cache = createLocalCache(name);
+					this.cacheMap.put(name, cache);
+				}
+			}
+		}
+		return cache;
+	}
+
+	/**
+	 * Create a new LocalCache instance for the specified cache name.
+	 * @param name the name of the cache
+	 * @return the LocalCache (or a decorator thereof)
+	 */
+	protected Cache createLocalCache(String name) {
+		return new LocalCache(name, createLocalCacheStore(name), isAllowNullValues());
+	}
+
+	/**
+	 * Create a native LocalCacheStore instance for the specified cache name.
+	 * @param name the name of the cache
+	 * @return the native store
+	 */
+	protected LocalCacheStore createLocalCacheStore(String name) {
+		LocalCacheStore.Builder builder = LocalCacheStore.builder().recordStats(this.recordStats);
+		if (this.maximumSize >= 0) {
+			builder.maximumSize(this.maximumSize);
+		}
+		if (this.maximumWeight >= 0) {
+			builder.maximumWeight(this.maximumWeight).weigher(this.weigher != null ? this.weigher : SINGLETON_WEIGHER);
+		}
+		if (this.expireAfterWrite != null) {
+			builder.expireAfterWrite(this.expireAfterWrite);
+		}
+		if (this.expireAfterAccess != null) {
+			builder.expireAfterAccess(this.expireAfterAccess);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Create the known caches again with the current state of this manager.
+	 */
+	private void refreshKnownCaches() {
+		for (Map.Entry<String, Cache> entry : this.cacheMap.entrySet()) {
+			entry.setValue(createLocalCache(entry.getKey()));
+		}
+	}
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.local;
+
+/**
+ * Immutable snapshot of the statistics of a {@link LocalCacheStore}.
+ *
+ * <p>All counts are zero unless statistics recording has been enabled.
+ * Evictions include entries removed due to the size or weight bound as well
+ * as expired entries, but not entries explicitly evicted or cleared.
+ *
+ * @since 5.0.17
+ * @see LocalCacheStore#getStatistics()
+ */
+public final class LocalCacheStatistics {
+
+	private final long hitCount;
+
+	private final long missCount;
+
+	private final long putCount;
+
+	private final long evictionCount;
+
+	private final long evictionWeight;
+
+
+	public LocalCacheStatistics(long hitCount, long missCount, long putCount,
+			long evictionCount, long evictionWeight) {
+
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.putCount = putCount;
+		this.evictionCount = evictionCount;
+		this.evictionWeight = evictionWeight;
+	}
+
+
+	/**
+	 * Return the number of lookups that found a live entry.
+	 */
+	public long getHitCount() {
+		return this.hitCount;
+	}
+
+	/**
+	 * Return the number of lookups that found no entry or an expired one.
+	 */
+	public long getMissCount() {
+		return this.missCount;
+	}
+
+	/**
+	 * Return the total number of lookups, i.e. hits plus misses.
+	 */
+	public long getRequestCount() {
+		return this.hitCount + this.missCount;
+	}
+
+	/**
+	 * Return the ratio of lookups that were hits, or {@code 1.0} if there
+	 * have been no lookups yet.
+	 */
+	public double getHitRate() {
+		long requestCount = getRequestCount();
+		return (requestCount == 0 ? 1.0 : (double) this.hitCount / requestCount);
+	}
+
+	/**
+	 * Return the number of entries that have been stored, including those
+	 * stored as the result of a lookup with a value loader.
+	 */
+	public long getPutCount() {
+		return this.putCount;
+	}
+
+	/**
+	 * Return the number of entries that have been evicted or have expired.
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount;
+	}
+
+	/**
+	 * Return the sum of the weights of the entries that have been evicted
+	 * or have expired.
+	 */
+	public long getEvictionWeight() {
+		return this.evictionWeight;
+	}
+
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof LocalCacheStatistics)) {
+			return false;
+		}
+		LocalCacheStatistics otherStats = (LocalCacheStatistics) other;
+		return (this.hitCount == otherStats.hitCount && this.missCount == otherStats.missCount &&
+				this.putCount == otherStats.putCount && this.evictionCount == otherStats.evictionCount &&
+				this.evictionWeight == otherStats.evictionWeight);
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) (this.hitCount ^ this.missCount * 31 ^ this.putCount * 17 ^
+				this.evictionCount * 13 ^ this.evictionWeight * 7);
+	}
+
+	@Override
+	public String toString() {
+		return "LocalCacheStatistics [hitCount=" + this.hitCount + ", missCount=" + this.missCount +
+				", putCount=" + this.putCount + ", evictionCount=" + this.evictionCount +
+				", evictionWeight=" + this.evictionWeight + "]";
+	}
+
+}
@@ -0,0 +1,1103 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.local;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * A concurrent in-memory key-value store with an optional size or weight bound,
+ * expiration after write and/or access, and optional statistics. This is the
+ * native store behind a {@link LocalCache}.
+ *
+ * <p>Entries are kept in a {@link ConcurrentHashMap}; the eviction policy is
+ * maintained separately under a lock that is never acquired by readers. Reads
+ * record the accessed entry in a striped, lossy buffer, and writes queue a task
+ * in a write buffer; both buffers are replayed against the policy by whichever
+ * thread manages to acquire the lock, typically right after a write or once a
+ * read buffer fills up. Writers only block on that lock if the write buffer
+ * grows too far behind.
+ *
+ * <p>The eviction policy of a bounded store is W-TinyLFU: new entries enter a
+ * small LRU admission window (1% of the bound); entries leaving the window
+ * compete with the least recently used entry of the main space, which is a
+ * segmented LRU, and only the one used more frequently according to a
+ * {@link FrequencySketch} is retained. This retains popular entries under
+ * scans and bursts of one-hit wonders, while still adapting to recency.
+ *
+ * <p>Expired entries are never returned, and get removed during maintenance.
+ *
+ * <p>Keys are compared by {@code equals}; neither keys nor values may be
+ * {@code null}.
+ *
+ * @since 5.0.17
+ * @see #builder()
+ */
+public class LocalCacheStore {
+
+	private static final int ALIVE = 0;
+
+	private static final int RETIRED = 1;
+
+	private static final int DEAD = 2;
+
+	private static final int NONE = 0;
+
+	private static final int WINDOW = 1;
+
+	private static final int PROBATION = 2;
+
+	private static final int PROTECTED = 3;
+
+	private static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+	/** Number of pending writes beyond which writers help with maintenance. */
+	private static final int WRITE_BUFFER_THRESHOLD = 128 * Math.max(NCPU, 4);
+
+	/** Percentage of the main space reserved for the protected segment. */
+	private static final double PROTECTED_PERCENTAGE = 0.8;
+
+	/** Percentage of the maximum left for the main space, the remainder being the window. */
+	private static final double MAIN_PERCENTAGE = 0.99;
+
+
+	private final ConcurrentHashMap<Object, Node> data = new ConcurrentHashMap<>(256);
+
+	private final long maximum;
+
+	private final boolean bounded;
+
+	private final long windowMaximum;
+
+	private final long protectedMaximum;
+
+	@Nullable
+	private final Weigher weigher;
+
+	private final long expireAfterWriteNanos;
+
+	private final long expireAfterAccessNanos;
+
+	private final LongSupplier ticker;
+
+	private final boolean recordStats;
+
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	private final ReadBuffer readBuffer = new ReadBuffer();
+
+	private final Queue<Runnable> writeBuffer = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger pendingWrites = new AtomicInteger();
+
+	private volatile boolean drainRequired;
+
+	private final Consumer<Node> accessTask = this::onAccess;
+
+	// Guarded by evictionLock
+
+	private final FrequencySketch sketch = new FrequencySketch();
+
+	private final AccessOrderDeque window = new AccessOrderDeque();
+
+	private final AccessOrderDeque probation = new AccessOrderDeque();
+
+	private final AccessOrderDeque protectedDeque = new AccessOrderDeque();
+
+	private final WriteOrderDeque writeOrder = new WriteOrderDeque();
+
+	private long weightedSize;
+
+	private long windowWeightedSize;
+
+	private long protectedWeightedSize;
+
+	// Statistics
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder putCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+	private final LongAdder evictionWeight = new LongAdder();
+
+
+	private LocalCacheStore(Builder builder) {
+		this.bounded = (builder.maximumSize >= 0 || builder.maximumWeight >= 0);
+		this.maximum = (builder.maximumSize >= 0 ? builder.maximumSize :
+				builder.maximumWeight >= 0 ? builder.maximumWeight : Long.MAX_VALUE);
+		this.windowMaximum = (this.bounded ? this.maximum - (long) (MAIN_PERCENTAGE * this.maximum) : Long.MAX_VALUE);
+		this.protectedMaximum = (long) (PROTECTED_PERCENTAGE * (this.maximum - this.windowMaximum));
+		this.weigher = builder.weigher;
+		this.expireAfterWriteNanos = builder.expireAfterWriteNanos;
+		this.expireAfterAccessNanos = builder.expireAfterAccessNanos;
+		this.ticker = builder.ticker;
+		this.recordStats = builder.recordStats;
+		if (this.bounded && this.weigher == null) {
+			this.sketch.ensureCapacity(this.maximum);
+		}
+	}
+
+
+	/**
+	 * Return a builder for a new {@code LocalCacheStore}.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+
+	/**
+	 * Return the value stored for the given key, or {@code null} if none
+	 * or if the entry has expired.
+	 */
+	@Nullable
+	public Object get(Object key) {
+		Node node = this.data.get(key);
+		if (node == null) {
+			recordMiss();
+			return null;
+		}
+		long now = (isExpiring() ? this.ticker.getAsLong() : 0L);
+		if (hasExpired(node, now)) {
+			recordMiss();
+			scheduleDrain(false);
+			return null;
+		}
+		Object value = node.value;
+		afterRead(node, now);
+		recordHit();
+		return value;
+	}
+
+	/**
+	 * Store the given value for the given key, replacing any existing entry.
+	 */
+	public void put(Object key, Object value) {
+		Assert.notNull(key, "Key must not be null");
+		Assert.notNull(value, "Value must not be null");
+		int weight = weigh(key, value);
+		long now = (isExpiring() ? this.ticker.getAsLong() : 0L);
+		Node[] existing = new Node[1];
+		Node node = this.data.compute(key, (k, current) -> {
+			if (current == null) {
+				return new Node(k, value, weight, now);
+			}
+			existing[0] = current;
+			current.update(value, weight, now);
+			return current;
+		});
+		if (this.recordStats) {
+			this.putCount.increment();
+		}
+		if (existing[0] == null) {
+			afterWrite(() -> onAdd(node));
+		}
+		else {
+			afterWrite(() -> onUpdate(node));
+		}
+	}
+
+	/**
+	 * Store the given value for the given key unless a live entry exists.
+	 * @return the existing value, or {@code null} if the given value has
+	 * been stored
+	 */
+	@Nullable
+	public Object putIfAbsent(Object key, Object value) {
+		Assert.notNull(value, "Value must not be null");
+		return doComputeIfAbsent(key, k -> value, true);
+	}
+
+	/**
+	 * Return the value stored for the given key, computing and storing it
+	 * through the given function if there is no live entry. The function
+	 * is invoked at most once per key at a time; other lookups for the same
+	 * key block until it returns, lookups for other keys do not.
+	 * @param key the key
+	 * @param mappingFunction the function computing the value; may return
+	 * {@code null} in which case nothing is stored
+	 * @return the existing or computed value, or {@code null} if none
+	 */
+	@Nullable
+	public Object computeIfAbsent(Object key, Function<Object, ?> mappingFunction) {
+		return doComputeIfAbsent(key, mappingFunction, false);
+	}
+
+	@Nullable
+	private Object doComputeIfAbsent(Object key, Function<Object, ?> mappingFunction, boolean putIfAbsent) {
+		Assert.notNull(key, "Key must not be null");
+		long now = (isExpiring() ? this.ticker.getAsLong() : 0L);
+		Node node = this.data.get(key);
+		if (node != null && !hasExpired(node, now)) {
+			Object value = node.value;
+			afterRead(node, now);
+			if (!putIfAbsent) {
+				recordHit();
+			}
+			return value;
+		}
+		Node[] computed = new Node[1];
+		Node[] replaced = new Node[1];
+		node = this.data.compute(key, (k, current) -> {
+			if (current != null && !hasExpired(current, now)) {
+				return current;
+			}
+			Object value = mappingFunction.apply(k);
+			if (current != null) {
+				current.retire();
+				replaced[0] = current;
+			}
+			if (value == null) {
+				return null;
+			}
+			computed[0] = new Node(k, value, weigh(k, value), now);
+			return computed[0];
+		});
+		if (replaced[0] != null) {
+			Node expired = replaced[0];
+			afterWrite(() -> makeDead(expired));
+		}
+		if (computed[0] != null) {
+			if (!putIfAbsent) {
+				recordMiss();
+			}
+			if (this.recordStats) {
+				this.putCount.increment();
+			}
+			Node added = computed[0];
+			afterWrite(() -> onAdd(added));
+			return (putIfAbsent ? null : added.value);
+		}
+		if (node != null) {
+			afterRead(node, now);
+			if (!putIfAbsent) {
+				recordHit();
+			}
+			return node.value;
+		}
+		if (!putIfAbsent) {
+			recordMiss();
+		}
+		return null;
+	}
+
+	/**
+	 * Remove the entry for the given key, if any.
+	 */
+	public void remove(Object key) {
+		Node node = this.data.remove(key);
+		if (node != null) {
+			node.retire();
+			afterWrite(() -> makeDead(node));
+		}
+	}
+
+	/**
+	 * Remove all entries from this store.
+	 */
+	public void clear() {
+		this.evictionLock.lock();
+		try {
+			drainBuffers();
+			for (Node node : this.data.values()) {
+				if (this.data.remove(node.key, node)) {
+					node.retire();
+				}
+				makeDead(node);
+			}
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Perform any pending maintenance, such as replaying buffered reads and
+	 * writes against the eviction policy and removing expired entries.
+	 */
+	public void cleanUp() {
+		this.evictionLock.lock();
+		try {
+			this.drainRequired = false;
+			maintenance();
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Return the approximate number of entries in this store, possibly
+	 * including expired entries that have not been removed yet.
+	 */
+	public long getEstimatedSize() {
+		return this.data.mappingCount();
+	}
+
+	/**
+	 * Return the sum of the weights of the entries in this store, as of the
+	 * last maintenance; each entry weighs 1 unless a {@link Weigher} is used.
+	 */
+	public long getWeightedSize() {
+		this.evictionLock.lock();
+		try {
+			return this.weightedSize;
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Return the maximum size or weight of this store, or {@link Long#MAX_VALUE}
+	 * if it is unbounded.
+	 */
+	public long getMaximum() {
+		return this.maximum;
+	}
+
+	/**
+	 * Return whether this store records statistics.
+	 */
+	public boolean isRecordStats() {
+		return this.recordStats;
+	}
+
+	/**
+	 * Return a snapshot of the statistics of this store.
+	 */
+	public LocalCacheStatistics getStatistics() {
+		return new LocalCacheStatistics(this.hitCount.sum(), this.missCount.sum(), this.putCount.sum(),
+				this.evictionCount.sum(), this.evictionWeight.sum());
+	}
+
+
+	private boolean isExpiring() {
+		return (this.expireAfterWriteNanos >= 0 || this.expireAfterAccessNanos >= 0);
+	}
+
+	private boolean isOrdering() {
+		return (this.bounded || this.expireAfterAccessNanos >= 0);
+	}
+
+	private boolean hasExpired(Node node, long now) {
+		return ((this.expireAfterWriteNanos >= 0 && now - node.writeTime >= this.expireAfterWriteNanos) ||
+				(this.expireAfterAccessNanos >= 0 && now - node.accessTime >= this.expireAfterAccessNanos));
+	}
+
+	private int weigh(Object key, Object value) {
+		if (this.weigher == null) {
+			return 1;
+		}
+		int weight = this.weigher.weigh(key, value);
+		Assert.state(weight >= 0, "Weigher must not return a negative weight");
+		return weight;
+	}
+
+	private void recordHit() {
+		if (this.recordStats) {
+			this.hitCount.increment();
+		}
+	}
+
+	private void recordMiss() {
+		if (this.recordStats) {
+			this.missCount.increment();
+		}
+	}
+
+	private void afterRead(Node node, long now) {
+		if (this.expireAfterAccessNanos >= 0) {
+			node.accessTime = now;
+		}
+		if (isOrdering() && this.readBuffer.offer(node)) {
+			scheduleDrain(false);
+		}
+	}
+
+	private void afterWrite(Runnable task) {
+		this.writeBuffer.add(task);
+		int pending = this.pendingWrites.incrementAndGet();
+		scheduleDrain(pending > WRITE_BUFFER_THRESHOLD);
+	}
+
+	/**
+	 * Run the maintenance if the eviction lock is free, or make sure that the
+	 * current holder of the lock runs it once more before releasing the lock.
+	 * @param blocking whether to wait for the lock (applying back-pressure on
+	 * writers) rather than relying on the current holder
+	 */
+	private void scheduleDrain(boolean blocking) {
+		this.drainRequired = true;
+		while (this.drainRequired) {
+			if (blocking) {
+				this.evictionLock.lock();
+				blocking = false;
+			}
+			else if (!this.evictionLock.tryLock()) {
+				return;
+			}
+			try {
+				this.drainRequired = false;
+				maintenance();
+			}
+			finally {
+				this.evictionLock.unlock();
+			}
+		}
+	}
+
+	private void maintenance() {
+		drainBuffers();
+		expireEntries();
+		evictEntries();
+	}
+
+	private void drainBuffers() {
+		this.readBuffer.drainTo(this.accessTask);
+		Runnable task;
+		while ((task = this.writeBuffer.poll()) != null) {
+			this.pendingWrites.decrementAndGet();
+			task.run();
+		}
+	}
+
+	private void onAdd(Node node) {
+		if (node.state == DEAD || node.added) {
+			return;
+		}
+		node.added = true;
+		node.policyWeight = node.weight;
+		this.weightedSize += node.policyWeight;
+		if (isOrdering()) {
+			node.queueType = WINDOW;
+			this.windowWeightedSize += node.policyWeight;
+			this.window.addLast(node);
+		}
+		if (this.expireAfterWriteNanos >= 0) {
+			this.writeOrder.addLast(node);
+		}
+		if (this.bounded) {
+			if (this.weigher != null) {
+				this.sketch.ensureCapacity(Math.min(this.data.mappingCount(), this.maximum));
+			}
+			this.sketch.increment(node.key);
+		}
+	}
+
+	private void onUpdate(Node node) {
+		if (node.state == DEAD || !node.added) {
+			// Not added to the policy yet: the pending add task reads the latest weight
+			return;
+		}
+		int delta = node.weight - node.policyWeight;
+		node.policyWeight += delta;
+		this.weightedSize += delta;
+		if (node.queueType == WINDOW) {
+			this.windowWeightedSize += delta;
+		}
+		else if (node.queueType == PROTECTED) {
+			this.protectedWeightedSize += delta;
+		}
+		if (this.expireAfterWriteNanos >= 0) {
+			this.writeOrder.moveToBack(node);
+		}
+		onAccess(node);
+	}
+
+	private void onAccess(Node node) {
+		if (node.state == DEAD) {
+			return;
+		}
+		if (this.bounded) {
+			this.sketch.increment(node.key);
+		}
+		if (node.queueType == WINDOW) {
+			this.window.moveToBack(node);
+		}
+		else if (node.queueType == PROBATION) {
+			this.probation.remove(node);
+			node.queueType = PROTECTED;
+			this.protectedDeque.addLast(node);
+			this.protectedWeightedSize += node.policyWeight;
+			demoteFromProtected();
+		}
+		else if (node.queueType == PROTECTED) {
+			this.protectedDeque.moveToBack(node);
+		}
+	}
+
+	private void demoteFromProtected() {
+		while (this.protectedWeightedSize > this.protectedMaximum) {
+			Node demoted = this.protectedDeque.peekFirst();
+			if (demoted == null) {
+				break;
+			}
+			this.protectedDeque.remove(demoted);
+			this.protectedWeightedSize -= demoted.policyWeight;
+			demoted.queueType = PROBATION;
+			this.probation.addLast(demoted);
+		}
+	}
+
+	private void makeDead(Node node) {
+		if (node.state == DEAD) {
+			return;
+		}
+		if (node.queueType != NONE) {
+			if (node.queueType == WINDOW) {
+				this.window.remove(node);
+				this.windowWeightedSize -= node.policyWeight;
+			}
+			else if (node.queueType == PROBATION) {
+				this.probation.remove(node);
+			}
+			else {
+				this.protectedDeque.remove(node);
+				this.protectedWeightedSize -= node.policyWeight;
+			}
+			node.queueType = NONE;
+		}
+		if (node.added && this.expireAfterWriteNanos >= 0) {
+			this.writeOrder.remove(node);
+		}
+		this.weightedSize -= node.policyWeight;
+		node.policyWeight = 0;
+		node.state = DEAD;
+	}
+
+	private void expireEntries() {
+		if (!isExpiring()) {
+			return;
+		}
+		long now = this.ticker.getAsLong();
+		if (this.expireAfterAccessNanos >= 0) {
+			expireAfterAccess(this.window, now);
+			expireAfterAccess(this.probation, now);
+			expireAfterAccess(this.protectedDeque, now);
+		}
+		if (this.expireAfterWriteNanos >= 0) {
+			Node node;
+			while ((node = this.writeOrder.peekFirst()) != null && now - node.writeTime >= this.expireAfterWriteNanos) {
+				if (!evict(node, now, true)) {
+					this.writeOrder.moveToBack(node);
+				}
+			}
+		}
+	}
+
+	private void expireAfterAccess(AccessOrderDeque deque, long now) {
+		Node node;
+		while ((node = deque.peekFirst()) != null && now - node.accessTime >= this.expireAfterAccessNanos) {
+			if (!evict(node, now, true)) {
+				deque.moveToBack(node);
+			}
+		}
+	}
+
+	private void evictEntries() {
+		if (!this.bounded) {
+			return;
+		}
+		Node candidate = evictFromWindow();
+		while (this.weightedSize > this.maximum) {
+			Node victim = this.probation.peekFirst();
+			if (candidate != null && victim != null && victim != candidate) {
+				if (candidate.policyWeight <= this.maximum && admit(candidate.key, victim.key)) {
+					evict(victim, 0L, false);
+				}
+				else {
+					Node next = candidate.nextInAccess;
+					evict(candidate, 0L, false);
+					candidate = next;
+				}
+				continue;
+			}
+			Node node = (victim != null ? victim : this.protectedDeque.peekFirst());
+			if (node == null) {
+				node = this.window.peekFirst();
+				if (node == null) {
+					break;
+				}
+			}
+			if (node == candidate) {
+				candidate = candidate.nextInAccess;
+			}
+			evict(node, 0L, false);
+		}
+	}
+
+	/**
+	 * Move the entries in excess of the window's maximum to the tail of the
+	 * probation segment, where they become candidates for admission.
+	 * @return the first candidate, or {@code null} if none
+	 */
+	@Nullable
+	private Node evictFromWindow() {
+		Node first = null;
+		while (this.windowWeightedSize > this.windowMaximum) {
+			Node node = this.window.peekFirst();
+			if (node == null) {
+				break;
+			}
+			this.window.remove(node);
+			this.windowWeightedSize -= node.policyWeight;
+			node.queueType = PROBATION;
+			this.probation.addLast(node);
+			if (first == null) {
+				first = node;
+			}
+		}
+		return first;
+	}
+
+	/**
+	 * Determine whether the candidate should replace the victim, based on their
+	 * estimated frequency. A small random chance to admit warm candidates avoids
+	 * an attacker keeping a popular victim in place through hash collisions.
+	 */
+	private boolean admit(Object candidateKey, Object victimKey) {
+		int candidateFrequency = this.sketch.frequency(candidateKey);
+		int victimFrequency = this.sketch.frequency(victimKey);
+		if (candidateFrequency > victimFrequency) {
+			return true;
+		}
+		else if (candidateFrequency <= 5) {
+			return false;
+		}
+		return ((ThreadLocalRandom.current().nextInt() & 127) == 0);
+	}
+
+	/**
+	 * Remove the given entry from the store and the policy.
+	 * @return {@code false} if the entry turned out to have been refreshed
+	 * concurrently and is therefore no longer eligible for expiration
+	 */
+	private boolean evict(Node node, long now, boolean expiration) {
+		boolean[] resurrected = new boolean[1];
+		boolean[] removed = new boolean[1];
+		this.data.computeIfPresent(node.key, (k, current) -> {
+			if (current != node) {
+				return current;
+			}
+			if (expiration && !hasExpired(current, now)) {
+				resurrected[0] = true;
+				return current;
+			}
+			current.retire();
+			removed[0] = true;
+			return null;
+		});
+		if (resurrected[0]) {
+			return false;
+		}
+		if (removed[0] && this.recordStats) {
+			this.evictionCount.increment();
+			this.evictionWeight.add(node.policyWeight);
+		}
+		makeDead(node);
+		return true;
+	}
+
+
+	/**
+	 * Calculates the weight of cache entries, for stores bounded by weight
+	 * rather than by number of entries.
+	 */
+	@FunctionalInterface
+	public interface Weigher {
+
+		/**
+		 * Return the weight of the given entry, as a non-negative value.
+		 */
+		int weigh(Object key, Object value);
+	}
+
+
+	/**
+	 * Builder for {@link LocalCacheStore} instances.
+	 */
+	public static final class Builder {
+
+		private long maximumSize = -1;
+
+		private long maximumWeight = -1;
+
+		@Nullable
+		private Weigher weigher;
+
+		private long expireAfterWriteNanos = -1;
+
+		private long expireAfterAccessNanos = -1;
+
+		private LongSupplier ticker = System::nanoTime;
+
+		private boolean recordStats;
+
+		private Builder() {
+		}
+
+		/**
+		 * Bound the store to the given number of entries.
+		 */
+		public Builder maximumSize(long maximumSize) {
+			Assert.isTrue(maximumSize >= 0, "Maximum size must not be negative");
+			Assert.state(this.maximumWeight < 0, "Maximum weight already set");
+			this.maximumSize = maximumSize;
+			return this;
+		}
+
+		/**
+		 * Bound the store to the given total weight of its entries, as
+		 * calculated by the {@link #weigher(Weigher) weigher}.
+		 */
+		public Builder maximumWeight(long maximumWeight) {
+			Assert.isTrue(maximumWeight >= 0, "Maximum weight must not be negative");
+			Assert.state(this.maximumSize < 0, "Maximum size already set");
+			this.maximumWeight = maximumWeight;
+			return this;
+		}
+
+		/**
+		 * Set the {@link Weigher} to use along with a {@link #maximumWeight}.
+		 */
+		public Builder weigher(Weigher weigher) {
+			Assert.notNull(weigher, "Weigher must not be null");
+			this.weigher = weigher;
+			return this;
+		}
+
+		/**
+		 * Expire entries once the given duration has elapsed since they
+		 * were stored.
+		 */
+		public Builder expireAfterWrite(Duration duration) {
+			Assert.isTrue(!duration.isNegative(), "Duration must not be negative");
+			this.expireAfterWriteNanos = duration.toNanos();
+			return this;
+		}
+
+		/**
+		 * Expire entries once the given duration has elapsed since they
+		 * were last stored or read.
+		 */
+		public Builder expireAfterAccess(Duration duration) {
+			Assert.isTrue(!duration.isNegative(), "Duration must not be negative");
+			this.expireAfterAccessNanos = duration.toNanos();
+			return this;
+		}
+
+		/**
+		 * Set the nanosecond time source to use for expiration. Default is
+		 * {@link System#nanoTime()}.
+		 */
+		public Builder ticker(LongSupplier ticker) {
+			Assert.notNull(ticker, "Ticker must not be null");
+			this.ticker = ticker;
+			return this;
+		}
+
+		/**
+		 * Specify whether to record hit, miss, put and eviction statistics.
+		 * Default is "false".
+		 */
+		public Builder recordStats(boolean recordStats) {
+			this.recordStats = recordStats;
+			return this;
+		}
+
+		/**
+		 * Build a new {@link LocalCacheStore} with this builder's settings.
+		 */
+		public LocalCacheStore build() {
+			Assert.state(this.weigher == null || this.maximumWeight >= 0, "Weigher requires a maximum weight");
+			Assert.state(this.maximumWeight < 0 || this.weigher != null, "Maximum weight requires a weigher");
+			return new LocalCacheStore(this);
+		}
+	}
+
+
+	/**
+	 * A cache entry, linked into the access and write order deques of the
+	 * eviction policy.
+	 */
+	private static final class Node {
+
+		final Object key;
+
+		volatile Object value;
+
+		volatile int weight;
+
+		volatile long writeTime;
+
+		volatile long accessTime;
+
+		volatile int state = ALIVE;
+
+		// Guarded by evictionLock
+
+		int policyWeight;
+
+		boolean added;
+
+		int queueType = NONE;
+
+		@Nullable
+		Node prevInAccess;
+
+		@Nullable
+		Node nextInAccess;
+
+		@Nullable
+		Node prevInWrite;
+
+		@Nullable
+		Node nextInWrite;
+
+		Node(Object key, Object value, int weight, long now) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+			this.writeTime = now;
+			this.accessTime = now;
+		}
+
+		void update(Object value, int weight, long now) {
+			this.value = value;
+			this.weight = weight;
+			this.writeTime = now;
+			this.accessTime = now;
+		}
+
+		void retire() {
+			if (this.state == ALIVE) {
+				this.state = RETIRED;
+			}
+		}
+	}
+
+
+	/**
+	 * Intrusive doubly-linked deque of entries in access order.
+	 */
+	private static final class AccessOrderDeque {
+
+		@Nullable
+		private Node first;
+
+		@Nullable
+		private Node last;
+
+		@Nullable
+		Node peekFirst() {
+			return this.first;
+		}
+
+		void addLast(Node node) {
+			node.prevInAccess = this.last;
+			node.nextInAccess = null;
+			if (this.last == null) {
+				this.first = node;
+			}
+			else {
+				this.last.nextInAccess = node;
+			}
+			this.last = node;
+		}
+
+		void remove(Node node) {
+			Node prev = node.prevInAccess;
+			Node next = node.nextInAccess;
+			if (prev == null) {
+				this.first = next;
+			}
+			else {
+				prev.nextInAccess = next;
+			}
+			if (next == null) {
+				this.last = prev;
+			}
+			else {
+				next.prevInAccess = prev;
+			}
+			node.prevInAccess = null;
+			node.nextInAccess = null;
+		}
+
+		void moveToBack(Node node) {
+			if (node != this.last) {
+				remove(node);
+				addLast(node);
+			}
+		}
+	}
+
+
+	/**
+	 * Intrusive doubly-linked deque of entries in write order.
+	 */
+	private static final class WriteOrderDeque {
+
+		@Nullable
+		private Node first;
+
+		@Nullable
+		private Node last;
+
+		@Nullable
+		Node peekFirst() {
+			return this.first;
+		}
+
+		void addLast(Node node) {
+			node.prevInWrite = this.last;
+			node.nextInWrite = null;
+			if (this.last == null) {
+				this.first = node;
+			}
+			else {
+				this.last.nextInWrite = node;
+			}
+			this.last = node;
+		}
+
+		void remove(Node node) {
+			Node prev = node.prevInWrite;
+			Node next = node.nextInWrite;
+			if (prev == null) {
+				this.first = next;
+			}
+			else {
+				prev.nextInWrite = next;
+			}
+			if (next == null) {
+				this.last = prev;
+			}
+			else {
+				next.prevInWrite = prev;
+			}
+			node.prevInWrite = null;
+			node.nextInWrite = null;
+		}
+
+		void moveToBack(Node node) {
+			if (node != this.last) {
+				remove(node);
+				addLast(node);
+			}
+		}
+	}
+
+
+	/**
+	 * Striped, lossy ring buffers recording reads. Offers never block: when a
+	 * stripe is full or contended the read is simply not recorded, which only
+	 * affects the accuracy of the policy.
+	 */
+	private static final class ReadBuffer {
+
+		private static final int BUFFER_SIZE = 16;
+
+		private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+
+		/** Spacing between counters to avoid false sharing. */
+		private static final int PADDING = 16;
+
+		private final int stripeMask;
+
+		private final AtomicReferenceArray<Node> buffer;
+
+		private final AtomicLongArray writeCounts;
+
+		private final AtomicLongArray readCounts;
+
+		ReadBuffer() {
+			int stripes = Integer.highestOneBit(Math.min(Math.max(NCPU, 1), 64) * 2 - 1);
+			this.stripeMask = stripes - 1;
+			this.buffer = new AtomicReferenceArray<>(stripes * BUFFER_SIZE);
+			this.writeCounts = new AtomicLongArray(stripes * PADDING);
+			this.readCounts = new AtomicLongArray(stripes * PADDING);
+		}
+
+		/**
+		 * Record the given entry.
+		 * @return {@code true} if the stripe is full and should be drained
+		 */
+		boolean offer(Node node) {
+			int stripe = stripeIndex();
+			int counter = stripe * PADDING;
+			long tail = this.writeCounts.get(counter);
+			long size = tail - this.readCounts.get(counter);
+			if (size >= BUFFER_SIZE) {
+				return true;
+			}
+			if (this.writeCounts.compareAndSet(counter, tail, tail + 1)) {
+				this.buffer.lazySet(stripe * BUFFER_SIZE + (int) (tail & BUFFER_MASK), node);
+				return (size + 1 >= BUFFER_SIZE);
+			}
+			return false;
+		}
+
+		/**
+		 * Replay the recorded entries. To be called under the eviction lock.
+		 */
+		void drainTo(Consumer<Node> consumer) {
+			for (int stripe = 0; stripe <= this.stripeMask; stripe++) {
+				int counter = stripe * PADDING;
+				long head = this.readCounts.get(counter);
+				long tail = this.writeCounts.get(counter);
+				for (; head < tail; head++) {
+					int index = stripe * BUFFER_SIZE + (int) (head & BUFFER_MASK);
+					Node node = this.buffer.get(index);
+					if (node == null) {
+						// Slot claimed but not yet published
+						break;
+					}
+					this.buffer.lazySet(index, null);
+					consumer.accept(node);
+				}
+				this.readCounts.lazySet(counter, head);
+			}
+		}
+
+		private int stripeIndex() {
+			long id = Thread.currentThread().getId();
+			int hash = (int) (id ^ (id >>> 32)) * 0x9e3779b9;
+			return (hash ^ (hash >>> 16)) & this.stripeMask;
+		}
+	}
+
+}
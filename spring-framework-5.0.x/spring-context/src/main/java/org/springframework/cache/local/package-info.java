@@ -0,0 +1,13 @@
+/**
+ * Implementation package for a bounded in-memory cache with a W-TinyLFU
+ * eviction policy, expiration and statistics. Provides a
+ * {@link org.springframework.cache.CacheManager CacheManager}
+ * and {@link org.springframework.cache.Cache Cache} implementation for
+ * use in a Spring context, without any third-party dependency.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.cache.local;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,7 @@ import org.springframework.beans.factory.config.BeanDefinitionCustomizer;
 import org.springframework.beans.factory.support.BeanNameGenerator;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.SpringProperties;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -63,6 +64,9 @@ public class AnnotationConfigApplicationContext extends GenericApplicationContex
 
 	private final ClassPathBeanDefinitionScanner scanner;
 
+	@Nullable
+	private ConfigurationClassModel configurationModel;
+
 
 	/**
 	 * Create a new AnnotationConfigApplicationContext that needs to be populated
@@ -171,6 +175,39 @@ public class AnnotationConfigApplicationContext extends GenericApplicationContex
 		this.scanner.setScopeMetadataResolver(scopeMetadataResolver);
 	}
 
+	/**
+	 * Set a precomputed {@link ConfigurationClassModel} to apply instead of parsing
+	 * the registered configuration classes on {@link #refresh()}.
+	 * <p>Default is none, unless the {@value ConfigurationClassModel#ENABLE_MODEL}
+	 * flag is set as a system property or in {@code spring.properties}: the model
+	 * found at {@value ConfigurationClassModel#MODEL_LOCATION} is used then, if any.
+	 * A model only applies if it was recorded for the same registered classes and
+	 * active profiles; configuration classes are parsed otherwise.
+	 * @since 5.0.17
+	 * @see ConfigurationClassModelGenerator
+	 */
+	public void setConfigurationModel(@Nullable ConfigurationClassModel configurationModel) {
+		this.configurationModel = configurationModel;
+	}
+
+	/**
+	 * Pass the {@link ConfigurationClassModel} to use, if any, on to the
+	 * {@link ConfigurationClassPostProcessor} of this context.
+	 */
+	@Override
+	protected void prepareRefresh() {
+		super.prepareRefresh();
+		ConfigurationClassModel model = this.configurationModel;
+		if (model == null && SpringProperties.getFlag(ConfigurationClassModel.ENABLE_MODEL)) {
+			// The bean ClassLoader gets initialized from the context ClassLoader later on
+			model = ConfigurationClassModel.loadModel(getClassLoader());
+		}
+		if (model != null && containsBeanDefinition(AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME)) {
+			getBeanDefinition(AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME)
+					.getPropertyValues().add("configurationModel", model);
+		}
+	}
+
 
 	//---------------------------------------------------------------------
 	// Implementation of AnnotationConfigRegistry
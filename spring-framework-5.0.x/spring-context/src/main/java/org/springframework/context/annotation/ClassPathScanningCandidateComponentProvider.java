@@ -68,7 +68,9 @@ import org.springframework.util.ClassUtils;
  * include filters. {@link AnnotationTypeFilter}, {@link AssignableTypeFilter} include
  * filters on an annotation/superclass that are annotated with {@link Indexed} are
  * supported: if any other include filter is specified, the index is ignored and
- * classpath scanning is used instead.
+ * classpath scanning is used instead, unless the index is
+ * {@linkplain CandidateComponentsIndex#isComplete() complete} and therefore
+ * provides candidates for any kind of include filter.
  *
  * <p>This implementation is based on Spring's
  * {@link org.springframework.core.type.classreading.MetadataReader MetadataReader}
@@ -327,6 +329,9 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	 * @since 5.0
 	 */
 	private boolean indexSupportsIncludeFilters() {
+		if (this.componentsIndex != null && this.componentsIndex.isComplete()) {
+			return true;
+		}
 		for (TypeFilter includeFilter : this.includeFilters) {
 			if (!indexSupportsIncludeFilter(includeFilter)) {
 				return false;
@@ -370,6 +375,10 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		if (filter instanceof AssignableTypeFilter) {
 			return ((AssignableTypeFilter) filter).getTargetType().getName();
 		}
+		if (this.componentsIndex != null && this.componentsIndex.isComplete()) {
+			// All types are registered for Object, the include filters get applied later on
+			return Object.class.getName();
+		}
 		return null;
 	}
 
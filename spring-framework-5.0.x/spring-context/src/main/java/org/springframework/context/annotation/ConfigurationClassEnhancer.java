@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,7 +20,10 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -37,6 +40,8 @@ import org.springframework.beans.factory.support.SimpleInstantiationStrategy;
 import org.springframework.cglib.core.ClassGenerator;
 import org.springframework.cglib.core.Constants;
 import org.springframework.cglib.core.DefaultGeneratorStrategy;
+import org.springframework.cglib.core.GeneratedClassCache;
+import org.springframework.cglib.core.GeneratorStrategy;
 import org.springframework.cglib.core.SpringNamingPolicy;
 import org.springframework.cglib.proxy.Callback;
 import org.springframework.cglib.proxy.CallbackFilter;
@@ -146,13 +151,53 @@ class ConfigurationClassEnhancer {
 		 * 有了 factory 就能获得对象，而不用去通过方法获得对象了，因为通过方法获得对象不能控制器过程，
 		 * 该 BeanFactory 的作用是在 this 调用时拦截该调用，并直接在 beanFactory 中获得目标 bean。
 		 */
-		enhancer.setStrategy(new BeanFactoryAwareGeneratorStrategy(classLoader));
+		GeneratorStrategy strategy = new BeanFactoryAwareGeneratorStrategy(classLoader);
+		enhancer.setStrategy(strategy);
 		// 添加了一个方法的过滤器
 		enhancer.setCallbackFilter(CALLBACK_FILTER);
 		enhancer.setCallbackTypes(CALLBACK_FILTER.getCallbackTypes());
+
+		// Reuse the bytecode of a configuration class enhanced before, if possible.
+		GeneratedClassCache classCache = GeneratedClassCache.getSharedInstance();
+		if (classCache != null) {
+			String cacheKey = buildClassCacheKey(classCache, configSuperClass);
+			if (cacheKey != null) {
+				enhancer.setNamingPolicy(classCache.getNamingPolicy(cacheKey));
+				enhancer.setStrategy(classCache.getStrategy(strategy, classLoader));
+			}
+		}
 		return enhancer;
 	}
 
+	/**
+	 * Build the key of the enhanced subclass in the given cache of generated
+	 * classes, reflecting the bytecode of the configuration class as well as
+	 * the callback assigned to each method.
+	 * @return the key, or {@code null} if the enhanced subclass cannot be cached
+	 */
+	@Nullable
+	private String buildClassCacheKey(GeneratedClassCache classCache, Class<?> configSuperClass) {
+		GeneratedClassCache.Key key = classCache.newKey(ConfigurationClassEnhancer.class);
+		key.addClass(configSuperClass).addClass(EnhancedConfiguration.class);
+		for (Class<?> callbackType : CALLBACK_FILTER.getCallbackTypes()) {
+			key.add(callbackType.getName());
+		}
+		List<String> assignments = new ArrayList<>();
+		for (Method method : ReflectionUtils.getAllDeclaredMethods(configSuperClass)) {
+			if (!Modifier.isPrivate(method.getModifiers()) && !Modifier.isStatic(method.getModifiers())) {
+				assignments.add(method + "=" + CALLBACK_FILTER.accept(method));
+			}
+		}
+		for (Method method : EnhancedConfiguration.class.getMethods()) {
+			assignments.add(method + "=" + CALLBACK_FILTER.accept(method));
+		}
+		Collections.sort(assignments);
+		for (String assignment : assignments) {
+			key.add(assignment);
+		}
+		return key.build();
+	}
+
 	/**
 	 * Uses enhancer to generate a subclass of superclass,
 	 * ensuring that callbacks are registered for the new subclass.
@@ -0,0 +1,972 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.support.PropertySourceFactory;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Precomputed result of {@link ConfigurationClassPostProcessor} processing: the bean
+ * definitions derived from {@link Configuration @Configuration} classes, component
+ * scanning, {@link Import @Import}s and {@link Bean @Bean} methods, along with the
+ * {@link PropertySource @PropertySource} declarations and import relationships
+ * that were encountered.
+ *
+ * <p>A model is recorded at build time through {@link ConfigurationClassModelGenerator}
+ * and stored in a compact binary format at {@value #MODEL_LOCATION}. An
+ * {@link AnnotationConfigApplicationContext} applies a model that has been
+ * {@linkplain AnnotationConfigApplicationContext#setConfigurationModel set} on it,
+ * or detects it at that location if the {@value #ENABLE_MODEL} flag is set,
+ * instead of parsing configuration classes. This skips class scanning and annotation
+ * introspection, as long as the context starts from the same bean definitions and
+ * active profiles that the model was recorded for. Otherwise, configuration classes
+ * are processed as usual.
+ *
+ * <p>Note that {@link Conditional @Conditional} annotations are evaluated at build
+ * time: conditions that depend on anything but the active profiles are not
+ * re-evaluated when the model is applied.
+ *
+ * @since 5.0.17
+ * @see ConfigurationClassModelGenerator
+ * @see AnnotationConfigApplicationContext#setConfigurationModel
+ * @see ConfigurationClassPostProcessor#setConfigurationModel
+ */
+public final class ConfigurationClassModel {
+
+	/**
+	 * The location to look for a configuration class model.
+	 */
+	public static final String MODEL_LOCATION = "META-INF/spring.configuration-model";
+
+	/**
+	 * System property that instructs an {@link AnnotationConfigApplicationContext}
+	 * to detect a configuration class model at {@value #MODEL_LOCATION}.
+	 * <p>The default is "false", only applying a model that has been
+	 * {@linkplain AnnotationConfigApplicationContext#setConfigurationModel set}
+	 * explicitly.
+	 */
+	public static final String ENABLE_MODEL = "spring.configuration-model.enabled";
+
+
+	private static final int MAGIC = 0x53434D00;
+
+	private static final int VERSION = 1;
+
+	private static final byte KIND_GENERIC = 0;
+
+	private static final byte KIND_ROOT = 1;
+
+	private static final byte KIND_BEAN_METHOD = 2;
+
+	private static final byte VALUE_NULL = 0;
+
+	private static final byte VALUE_STRING = 1;
+
+	private static final byte VALUE_BOOLEAN = 2;
+
+	private static final byte VALUE_INTEGER = 3;
+
+	private static final byte VALUE_LONG = 4;
+
+	private static final byte VALUE_CLASS = 5;
+
+	private static final byte VALUE_BEAN_REFERENCE = 6;
+
+	private static final byte VALUE_BEAN_NAME_REFERENCE = 7;
+
+	private static final byte VALUE_TYPED_STRING = 8;
+
+	private static final Log logger = LogFactory.getLog(ConfigurationClassModel.class);
+
+	private static final ConcurrentMap<ClassLoader, ConfigurationClassModel> cache =
+			new ConcurrentReferenceHashMap<>();
+
+
+	private final String[] activeProfiles;
+
+	private final String[] defaultProfiles;
+
+	/** Bean definitions present before processing: bean name --> bean class name */
+	private final Map<String, String> inputBeanClassNames;
+
+	/** Attributes set on input bean definitions: bean name --> attributes */
+	private final Map<String, Map<String, Object>> inputAttributes;
+
+	private final List<String> removedBeanNames;
+
+	/** Derived bean definitions, in registration order: bean name --> definition */
+	private final Map<String, AbstractBeanDefinition> beanDefinitions;
+
+	/** Scoped proxies: bean name --> name of the decorated target bean */
+	private final Map<String, String> decoratedBeanNames;
+
+	private final Map<String, String[]> aliases;
+
+	private final List<PropertySourceDeclaration> propertySources;
+
+	/** Imported configuration classes: class name --> importing class name */
+	private final Map<String, String> importingClassNames;
+
+
+	private ConfigurationClassModel(String[] activeProfiles, String[] defaultProfiles,
+			Map<String, String> inputBeanClassNames, Map<String, Map<String, Object>> inputAttributes,
+			List<String> removedBeanNames, Map<String, AbstractBeanDefinition> beanDefinitions,
+			Map<String, String> decoratedBeanNames, Map<String, String[]> aliases,
+			List<PropertySourceDeclaration> propertySources, Map<String, String> importingClassNames) {
+
+		this.activeProfiles = activeProfiles;
+		this.defaultProfiles = defaultProfiles;
+		this.inputBeanClassNames = inputBeanClassNames;
+		this.inputAttributes = inputAttributes;
+		this.removedBeanNames = removedBeanNames;
+		this.beanDefinitions = beanDefinitions;
+		this.decoratedBeanNames = decoratedBeanNames;
+		this.aliases = aliases;
+		this.propertySources = propertySources;
+		this.importingClassNames = importingClassNames;
+	}
+
+
+	/**
+	 * Return the names of the bean definitions contained in this model,
+	 * in registration order.
+	 */
+	public Set<String> getBeanDefinitionNames() {
+		return Collections.unmodifiableSet(this.beanDefinitions.keySet());
+	}
+
+	/**
+	 * Determine whether this model was recorded for the bean definitions currently
+	 * contained in the given registry and for the profiles of the given environment.
+	 * @param registry the registry to apply this model to
+	 * @param environment the environment of the registry
+	 */
+	public boolean matches(BeanDefinitionRegistry registry, Environment environment) {
+		if (!Arrays.equals(this.activeProfiles, environment.getActiveProfiles()) ||
+				!Arrays.equals(this.defaultProfiles, environment.getDefaultProfiles())) {
+			return false;
+		}
+		String[] beanNames = registry.getBeanDefinitionNames();
+		if (beanNames.length != this.inputBeanClassNames.size()) {
+			return false;
+		}
+		for (String beanName : beanNames) {
+			if (!this.inputBeanClassNames.containsKey(beanName) || !ObjectUtils.nullSafeEquals(
+					this.inputBeanClassNames.get(beanName), registry.getBeanDefinition(beanName).getBeanClassName())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Return the {@link PropertySource @PropertySource} declarations to process,
+	 * in the order in which they were encountered.
+	 */
+	List<AnnotationAttributes> getPropertySources(@Nullable ClassLoader classLoader) {
+		List<AnnotationAttributes> result = new ArrayList<>(this.propertySources.size());
+		for (PropertySourceDeclaration propertySource : this.propertySources) {
+			result.add(propertySource.toAnnotationAttributes(classLoader));
+		}
+		return result;
+	}
+
+	/**
+	 * Register the bean definitions of this model with the given registry,
+	 * mirroring the effect of parsing the configuration classes in the registry.
+	 */
+	void registerBeanDefinitions(BeanDefinitionRegistry registry) {
+		this.inputAttributes.forEach((beanName, attributes) -> {
+			BeanDefinition bd = registry.getBeanDefinition(beanName);
+			attributes.forEach(bd::setAttribute);
+		});
+		for (String beanName : this.removedBeanNames) {
+			registry.removeBeanDefinition(beanName);
+		}
+		Map<String, AbstractBeanDefinition> registered = new LinkedHashMap<>(this.beanDefinitions.size());
+		this.beanDefinitions.forEach((beanName, bd) -> registered.put(beanName, bd.cloneBeanDefinition()));
+		this.decoratedBeanNames.forEach((beanName, targetBeanName) -> {
+			RootBeanDefinition proxyDefinition = (RootBeanDefinition) registered.get(beanName);
+			BeanDefinition targetDefinition = registered.get(targetBeanName);
+			proxyDefinition.setDecoratedDefinition(new BeanDefinitionHolder(targetDefinition, targetBeanName));
+			proxyDefinition.setOriginatingBeanDefinition(targetDefinition);
+		});
+		registered.forEach(registry::registerBeanDefinition);
+		this.aliases.forEach((beanName, aliases) -> {
+			for (String alias : aliases) {
+				registry.registerAlias(beanName, alias);
+			}
+		});
+	}
+
+	/**
+	 * Return an {@link ImportRegistry} for {@link ImportAware} support, lazily
+	 * reading the metadata of importing classes through the given factory.
+	 */
+	ImportRegistry getImportRegistry(MetadataReaderFactory metadataReaderFactory) {
+		return new ModelImportRegistry(this.importingClassNames, metadataReaderFactory);
+	}
+
+
+	/**
+	 * Write this model to the given stream in its binary format.
+	 * @param out the stream to write to (left open)
+	 * @throws IOException in case of I/O errors
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		DataOutputStream dos = new DataOutputStream(out);
+		dos.writeInt(MAGIC);
+		dos.writeInt(VERSION);
+		writeStrings(dos, this.activeProfiles);
+		writeStrings(dos, this.defaultProfiles);
+		dos.writeInt(this.inputBeanClassNames.size());
+		for (Map.Entry<String, String> entry : this.inputBeanClassNames.entrySet()) {
+			dos.writeUTF(entry.getKey());
+			writeNullableString(dos, entry.getValue());
+			writeValues(dos, this.inputAttributes.getOrDefault(entry.getKey(), Collections.emptyMap()));
+		}
+		writeStrings(dos, this.removedBeanNames.toArray(new String[0]));
+		dos.writeInt(this.beanDefinitions.size());
+		for (Map.Entry<String, AbstractBeanDefinition> entry : this.beanDefinitions.entrySet()) {
+			String beanName = entry.getKey();
+			dos.writeUTF(beanName);
+			writeStrings(dos, this.aliases.getOrDefault(beanName, new String[0]));
+			writeNullableString(dos, this.decoratedBeanNames.get(beanName));
+			writeBeanDefinition(dos, entry.getValue());
+		}
+		dos.writeInt(this.propertySources.size());
+		for (PropertySourceDeclaration propertySource : this.propertySources) {
+			propertySource.writeTo(dos);
+		}
+		dos.writeInt(this.importingClassNames.size());
+		for (Map.Entry<String, String> entry : this.importingClassNames.entrySet()) {
+			dos.writeUTF(entry.getKey());
+			dos.writeUTF(entry.getValue());
+		}
+		dos.flush();
+	}
+
+	/**
+	 * Read a model from the given stream in its binary format, resolving
+	 * referenced classes against the default class loader.
+	 * @param in the stream to read from (left open)
+	 * @return the model
+	 * @throws IOException in case of I/O errors or an invalid format
+	 * @see #readFrom(InputStream, ClassLoader)
+	 */
+	public static ConfigurationClassModel readFrom(InputStream in) throws IOException {
+		return readFrom(in, null);
+	}
+
+	/**
+	 * Read a model from the given stream in its binary format.
+	 * @param in the stream to read from (left open)
+	 * @param classLoader the ClassLoader to resolve referenced classes against,
+	 * typically the bean ClassLoader of the context to apply the model to
+	 * (can be {@code null} to use the default)
+	 * @return the model
+	 * @throws IOException in case of I/O errors or an invalid format
+	 */
+	public static ConfigurationClassModel readFrom(InputStream in, @Nullable ClassLoader classLoader)
+			throws IOException {
+
+		DataInputStream dis = new DataInputStream(in);
+		if (dis.readInt() != MAGIC) {
+			throw new IOException("Not a configuration class model");
+		}
+		int version = dis.readInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported configuration class model version " + version);
+		}
+		String[] activeProfiles = readStrings(dis);
+		String[] defaultProfiles = readStrings(dis);
+		int inputCount = dis.readInt();
+		Map<String, String> inputBeanClassNames = new LinkedHashMap<>(inputCount);
+		Map<String, Map<String, Object>> inputAttributes = new LinkedHashMap<>(inputCount);
+		for (int i = 0; i < inputCount; i++) {
+			String beanName = dis.readUTF();
+			inputBeanClassNames.put(beanName, readNullableString(dis));
+			Map<String, Object> attributes = readValues(dis, classLoader);
+			if (!attributes.isEmpty()) {
+				inputAttributes.put(beanName, attributes);
+			}
+		}
+		List<String> removedBeanNames = Arrays.asList(readStrings(dis));
+		int beanDefinitionCount = dis.readInt();
+		Map<String, AbstractBeanDefinition> beanDefinitions = new LinkedHashMap<>(beanDefinitionCount);
+		Map<String, String> decoratedBeanNames = new LinkedHashMap<>();
+		Map<String, String[]> aliases = new LinkedHashMap<>();
+		for (int i = 0; i < beanDefinitionCount; i++) {
+			String beanName = dis.readUTF();
+			String[] beanAliases = readStrings(dis);
+			if (beanAliases.length > 0) {
+				aliases.put(beanName, beanAliases);
+			}
+			String decoratedBeanName = readNullableString(dis);
+			if (decoratedBeanName != null) {
+				decoratedBeanNames.put(beanName, decoratedBeanName);
+			}
+			beanDefinitions.put(beanName, readBeanDefinition(dis, classLoader));
+		}
+		int propertySourceCount = dis.readInt();
+		List<PropertySourceDeclaration> propertySources = new ArrayList<>(propertySourceCount);
+		for (int i = 0; i < propertySourceCount; i++) {
+			propertySources.add(PropertySourceDeclaration.readFrom(dis));
+		}
+		int importCount = dis.readInt();
+		Map<String, String> importingClassNames = new LinkedHashMap<>(importCount);
+		for (int i = 0; i < importCount; i++) {
+			importingClassNames.put(dis.readUTF(), dis.readUTF());
+		}
+		return new ConfigurationClassModel(activeProfiles, defaultProfiles, inputBeanClassNames,
+				inputAttributes, removedBeanNames, beanDefinitions, decoratedBeanNames, aliases,
+				propertySources, importingClassNames);
+	}
+
+	/**
+	 * Load the {@link ConfigurationClassModel} from {@value #MODEL_LOCATION},
+	 * using the given class loader. If no model is available, return {@code null}.
+	 * @param classLoader the ClassLoader to use for loading the model and for resolving
+	 * the classes it references (can be {@code null} to use the default)
+	 * @return the model to use or {@code null} if no model was found
+	 * @throws IllegalStateException if the model cannot be read
+	 */
+	@Nullable
+	public static ConfigurationClassModel loadModel(@Nullable ClassLoader classLoader) {
+		ClassLoader classLoaderToUse = classLoader;
+		if (classLoaderToUse == null) {
+			classLoaderToUse = ConfigurationClassModel.class.getClassLoader();
+		}
+		return cache.computeIfAbsent(classLoaderToUse, ConfigurationClassModel::doLoadModel);
+	}
+
+	@Nullable
+	private static ConfigurationClassModel doLoadModel(ClassLoader classLoader) {
+		URL url = classLoader.getResource(MODEL_LOCATION);
+		if (url == null) {
+			return null;
+		}
+		try (InputStream in = new BufferedInputStream(url.openStream())) {
+			ConfigurationClassModel model = readFrom(in, classLoader);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Loaded configuration class model with " + model.beanDefinitions.size() +
+						" bean definitions from [" + url + "]");
+			}
+			return model;
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to load configuration class model from location [" +
+					MODEL_LOCATION + "]", ex);
+		}
+	}
+
+
+	private static void writeBeanDefinition(DataOutputStream dos, AbstractBeanDefinition bd) throws IOException {
+		if (bd instanceof BeanMethodDefinition) {
+			dos.writeByte(KIND_BEAN_METHOD);
+		}
+		else if (bd instanceof RootBeanDefinition) {
+			dos.writeByte(KIND_ROOT);
+		}
+		else {
+			dos.writeByte(KIND_GENERIC);
+			writeNullableString(dos, bd.getParentName());
+		}
+		writeNullableString(dos, bd.getBeanClassName());
+		writeNullableString(dos, bd.getScope());
+		dos.writeBoolean(bd.isAbstract());
+		dos.writeBoolean(bd.isLazyInit());
+		dos.writeInt(bd.getAutowireMode());
+		dos.writeInt(bd.getDependencyCheck());
+		writeStrings(dos, bd.getDependsOn() != null ? bd.getDependsOn() : new String[0]);
+		dos.writeBoolean(bd.isAutowireCandidate());
+		dos.writeBoolean(bd.isPrimary());
+		dos.writeBoolean(bd.isNonPublicAccessAllowed());
+		dos.writeBoolean(bd.isLenientConstructorResolution());
+		writeNullableString(dos, bd.getFactoryBeanName());
+		writeNullableString(dos, bd.getFactoryMethodName());
+		writeNullableString(dos, bd.getInitMethodName());
+		dos.writeBoolean(bd.isEnforceInitMethod());
+		writeNullableString(dos, bd.getDestroyMethodName());
+		dos.writeBoolean(bd.isEnforceDestroyMethod());
+		dos.writeBoolean(bd.isSynthetic());
+		dos.writeInt(bd.getRole());
+		writeNullableString(dos, bd.getDescription());
+		writeNullableString(dos, bd.getResourceDescription());
+		if (bd instanceof RootBeanDefinition) {
+			Class<?> targetType = ((RootBeanDefinition) bd).getTargetType();
+			writeNullableString(dos, targetType != null ? targetType.getName() : null);
+		}
+
+		Map<String, Object> attributes = new LinkedHashMap<>();
+		for (String name : bd.attributeNames()) {
+			attributes.put(name, bd.getAttribute(name));
+		}
+		writeValues(dos, attributes);
+		Map<String, Object> propertyValues = new LinkedHashMap<>();
+		for (PropertyValue pv : bd.getPropertyValues().getPropertyValueList()) {
+			propertyValues.put(pv.getName(), pv.getValue());
+		}
+		writeValues(dos, propertyValues);
+
+		ConstructorArgumentValues cav = bd.getConstructorArgumentValues();
+		dos.writeInt(cav.getIndexedArgumentValues().size());
+		for (Map.Entry<Integer, ConstructorArgumentValues.ValueHolder> entry : cav.getIndexedArgumentValues().entrySet()) {
+			dos.writeInt(entry.getKey());
+			writeValueHolder(dos, entry.getValue());
+		}
+		dos.writeInt(cav.getGenericArgumentValues().size());
+		for (ConstructorArgumentValues.ValueHolder valueHolder : cav.getGenericArgumentValues()) {
+			writeValueHolder(dos, valueHolder);
+		}
+	}
+
+	private static AbstractBeanDefinition readBeanDefinition(DataInputStream dis, @Nullable ClassLoader classLoader)
+			throws IOException {
+
+		byte kind = dis.readByte();
+		AbstractBeanDefinition bd;
+		if (kind == KIND_BEAN_METHOD) {
+			bd = new BeanMethodDefinition();
+		}
+		else if (kind == KIND_ROOT) {
+			bd = new RootBeanDefinition();
+		}
+		else {
+			GenericBeanDefinition gbd = new GenericBeanDefinition();
+			gbd.setParentName(readNullableString(dis));
+			bd = gbd;
+		}
+		bd.setBeanClassName(readNullableString(dis));
+		bd.setScope(readNullableString(dis));
+		bd.setAbstract(dis.readBoolean());
+		bd.setLazyInit(dis.readBoolean());
+		bd.setAutowireMode(dis.readInt());
+		bd.setDependencyCheck(dis.readInt());
+		String[] dependsOn = readStrings(dis);
+		bd.setDependsOn(dependsOn.length > 0 ? dependsOn : null);
+		bd.setAutowireCandidate(dis.readBoolean());
+		bd.setPrimary(dis.readBoolean());
+		bd.setNonPublicAccessAllowed(dis.readBoolean());
+		bd.setLenientConstructorResolution(dis.readBoolean());
+		bd.setFactoryBeanName(readNullableString(dis));
+		String factoryMethodName = readNullableString(dis);
+		if (factoryMethodName != null && kind == KIND_BEAN_METHOD && bd.getFactoryBeanName() != null) {
+			// Instance @Bean methods are registered as unique factory methods
+			((RootBeanDefinition) bd).setUniqueFactoryMethodName(factoryMethodName);
+		}
+		else {
+			bd.setFactoryMethodName(factoryMethodName);
+		}
+		bd.setInitMethodName(readNullableString(dis));
+		bd.setEnforceInitMethod(dis.readBoolean());
+		bd.setDestroyMethodName(readNullableString(dis));
+		bd.setEnforceDestroyMethod(dis.readBoolean());
+		bd.setSynthetic(dis.readBoolean());
+		bd.setRole(dis.readInt());
+		bd.setDescription(readNullableString(dis));
+		bd.setResourceDescription(readNullableString(dis));
+		if (bd instanceof RootBeanDefinition) {
+			String targetTypeName = readNullableString(dis);
+			if (targetTypeName != null) {
+				((RootBeanDefinition) bd).setTargetType(resolveClass(targetTypeName, classLoader));
+			}
+		}
+
+		readValues(dis, classLoader).forEach(bd::setAttribute);
+		readValues(dis, classLoader).forEach(bd.getPropertyValues()::add);
+
+		ConstructorArgumentValues cav = bd.getConstructorArgumentValues();
+		int indexedCount = dis.readInt();
+		for (int i = 0; i < indexedCount; i++) {
+			int index = dis.readInt();
+			cav.addIndexedArgumentValue(index, readValueHolder(dis, classLoader));
+		}
+		int genericCount = dis.readInt();
+		for (int i = 0; i < genericCount; i++) {
+			cav.addGenericArgumentValue(readValueHolder(dis, classLoader));
+		}
+		return bd;
+	}
+
+	private static void writeValueHolder(DataOutputStream dos, ConstructorArgumentValues.ValueHolder valueHolder)
+			throws IOException {
+
+		writeValue(dos, valueHolder.getValue());
+		writeNullableString(dos, valueHolder.getType());
+		writeNullableString(dos, valueHolder.getName());
+	}
+
+	private static ConstructorArgumentValues.ValueHolder readValueHolder(DataInputStream dis,
+			@Nullable ClassLoader classLoader) throws IOException {
+
+		Object value = readValue(dis, classLoader);
+		String type = readNullableString(dis);
+		String name = readNullableString(dis);
+		return new ConstructorArgumentValues.ValueHolder(value, type, name);
+	}
+
+	private static void writeValues(DataOutputStream dos, Map<String, Object> values) throws IOException {
+		dos.writeInt(values.size());
+		for (Map.Entry<String, Object> entry : values.entrySet()) {
+			dos.writeUTF(entry.getKey());
+			writeValue(dos, entry.getValue());
+		}
+	}
+
+	private static Map<String, Object> readValues(DataInputStream dis, @Nullable ClassLoader classLoader)
+			throws IOException {
+
+		int count = dis.readInt();
+		Map<String, Object> values = new LinkedHashMap<>(count);
+		for (int i = 0; i < count; i++) {
+			values.put(dis.readUTF(), readValue(dis, classLoader));
+		}
+		return values;
+	}
+
+	private static void writeValue(DataOutputStream dos, @Nullable Object value) throws IOException {
+		if (value == null) {
+			dos.writeByte(VALUE_NULL);
+		}
+		else if (value instanceof String) {
+			dos.writeByte(VALUE_STRING);
+			dos.writeUTF((String) value);
+		}
+		else if (value instanceof Boolean) {
+			dos.writeByte(VALUE_BOOLEAN);
+			dos.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Integer) {
+			dos.writeByte(VALUE_INTEGER);
+			dos.writeInt((Integer) value);
+		}
+		else if (value instanceof Long) {
+			dos.writeByte(VALUE_LONG);
+			dos.writeLong((Long) value);
+		}
+		else if (value instanceof Class) {
+			dos.writeByte(VALUE_CLASS);
+			dos.writeUTF(((Class<?>) value).getName());
+		}
+		else if (value instanceof RuntimeBeanReference) {
+			RuntimeBeanReference ref = (RuntimeBeanReference) value;
+			dos.writeByte(VALUE_BEAN_REFERENCE);
+			dos.writeUTF(ref.getBeanName());
+			dos.writeBoolean(ref.isToParent());
+		}
+		else if (value instanceof RuntimeBeanNameReference) {
+			dos.writeByte(VALUE_BEAN_NAME_REFERENCE);
+			dos.writeUTF(((RuntimeBeanNameReference) value).getBeanName());
+		}
+		else if (value instanceof TypedStringValue) {
+			TypedStringValue typedValue = (TypedStringValue) value;
+			dos.writeByte(VALUE_TYPED_STRING);
+			writeNullableString(dos, typedValue.getValue());
+			writeNullableString(dos, typedValue.getTargetTypeName());
+		}
+		else {
+			throw new IllegalArgumentException("Cannot record value of type [" + value.getClass().getName() +
+					"] in a configuration class model: " + value);
+		}
+	}
+
+	@Nullable
+	private static Object readValue(DataInputStream dis, @Nullable ClassLoader classLoader) throws IOException {
+		byte type = dis.readByte();
+		switch (type) {
+			case VALUE_NULL:
+				return null;
+			case VALUE_STRING:
+				return dis.readUTF();
+			case VALUE_BOOLEAN:
+				return dis.readBoolean();
+			case VALUE_INTEGER:
+				return dis.readInt();
+			case VALUE_LONG:
+				return dis.readLong();
+			case VALUE_CLASS:
+				return resolveClass(dis.readUTF(), classLoader);
+			case VALUE_BEAN_REFERENCE:
+				return new RuntimeBeanReference(dis.readUTF(), dis.readBoolean());
+			case VALUE_BEAN_NAME_REFERENCE:
+				return new RuntimeBeanNameReference(dis.readUTF());
+			case VALUE_TYPED_STRING:
+				String value = readNullableString(dis);
+				String targetTypeName = readNullableString(dis);
+				return (targetTypeName != null ? new TypedStringValue(value, targetTypeName) : new TypedStringValue(value));
+			default:
+				throw new IOException("Invalid value type " + type + " in configuration class model");
+		}
+	}
+
+	private static void writeStrings(DataOutputStream dos, String[] values) throws IOException {
+		dos.writeInt(values.length);
+		for (String value : values) {
+			dos.writeUTF(value);
+		}
+	}
+
+	private static String[] readStrings(DataInputStream dis) throws IOException {
+		String[] values = new String[dis.readInt()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = dis.readUTF();
+		}
+		return values;
+	}
+
+	private static void writeNullableString(DataOutputStream dos, @Nullable String value) throws IOException {
+		dos.writeBoolean(value != null);
+		if (value != null) {
+			dos.writeUTF(value);
+		}
+	}
+
+	@Nullable
+	private static String readNullableString(DataInputStream dis) throws IOException {
+		return (dis.readBoolean() ? dis.readUTF() : null);
+	}
+
+	private static Class<?> resolveClass(String className, @Nullable ClassLoader classLoader) {
+		try {
+			return ClassUtils.forName(className, classLoader);
+		}
+		catch (ClassNotFoundException | LinkageError ex) {
+			throw new IllegalStateException("Cannot load class [" + className +
+					"] referenced by configuration class model", ex);
+		}
+	}
+
+
+	/**
+	 * Records a {@link ConfigurationClassModel} from the changes that
+	 * {@link ConfigurationClassPostProcessor} applies to a registry.
+	 */
+	static class Recorder {
+
+		private final BeanDefinitionRegistry registry;
+
+		@Nullable
+		private final ClassLoader beanClassLoader;
+
+		private final String[] activeProfiles;
+
+		private final String[] defaultProfiles;
+
+		private final Map<String, BeanDefinition> inputBeanDefinitions = new LinkedHashMap<>();
+
+		private final List<PropertySourceDeclaration> propertySources = new ArrayList<>();
+
+		private final Map<String, String> importingClassNames = new LinkedHashMap<>();
+
+		@Nullable
+		private ConfigurationClassModel model;
+
+		public Recorder(BeanDefinitionRegistry registry, Environment environment) {
+			this.registry = registry;
+			this.beanClassLoader = (registry instanceof ConfigurableBeanFactory ?
+					((ConfigurableBeanFactory) registry).getBeanClassLoader() : null);
+			// Determined upfront, consistent with the check in matches
+			this.activeProfiles = environment.getActiveProfiles();
+			this.defaultProfiles = environment.getDefaultProfiles();
+			for (String beanName : registry.getBeanDefinitionNames()) {
+				this.inputBeanDefinitions.put(beanName, registry.getBeanDefinition(beanName));
+			}
+		}
+
+		public void recordPropertySource(AnnotationAttributes propertySource) {
+			this.propertySources.add(new PropertySourceDeclaration(propertySource));
+		}
+
+		public void recordImports(Set<ConfigurationClass> configClasses, ImportRegistry importRegistry) {
+			for (ConfigurationClass configClass : configClasses) {
+				String className = configClass.getMetadata().getClassName();
+				AnnotationMetadata importingClass = importRegistry.getImportingClassFor(className);
+				if (importingClass != null) {
+					this.importingClassNames.put(className, importingClass.getClassName());
+				}
+			}
+		}
+
+		public void recordBeanDefinitions() {
+			Map<String, String> inputBeanClassNames = new LinkedHashMap<>();
+			Map<String, Map<String, Object>> inputAttributes = new LinkedHashMap<>();
+			List<String> removedBeanNames = new ArrayList<>();
+			Set<String> changedBeanNames = new HashSet<>();
+			this.inputBeanDefinitions.forEach((beanName, bd) -> {
+				inputBeanClassNames.put(beanName, bd.getBeanClassName());
+				if (!this.registry.containsBeanDefinition(beanName)) {
+					removedBeanNames.add(beanName);
+				}
+				else if (this.registry.getBeanDefinition(beanName) != bd) {
+					// Overridden, e.g. by a @Bean method: re-registered in place
+					changedBeanNames.add(beanName);
+				}
+				else if (bd.attributeNames().length > 0) {
+					Map<String, Object> attributes = new LinkedHashMap<>();
+					for (String name : bd.attributeNames()) {
+						attributes.put(name, bd.getAttribute(name));
+					}
+					inputAttributes.put(beanName, attributes);
+				}
+			});
+
+			Map<String, AbstractBeanDefinition> beanDefinitions = new LinkedHashMap<>();
+			Map<String, String> decoratedBeanNames = new LinkedHashMap<>();
+			Map<String, String[]> aliases = new LinkedHashMap<>();
+			for (String beanName : this.registry.getBeanDefinitionNames()) {
+				if (this.inputBeanDefinitions.containsKey(beanName) && !changedBeanNames.contains(beanName)) {
+					continue;
+				}
+				BeanDefinition bd = this.registry.getBeanDefinition(beanName);
+				beanDefinitions.put(beanName, copyBeanDefinition(beanName, bd));
+				if (bd instanceof RootBeanDefinition) {
+					BeanDefinitionHolder decorated = ((RootBeanDefinition) bd).getDecoratedDefinition();
+					if (decorated != null) {
+						decoratedBeanNames.put(beanName, decorated.getBeanName());
+					}
+				}
+				String[] beanAliases = this.registry.getAliases(beanName);
+				if (beanAliases.length > 0) {
+					aliases.put(beanName, beanAliases);
+				}
+			}
+			decoratedBeanNames.forEach((beanName, targetBeanName) -> {
+				if (!beanDefinitions.containsKey(targetBeanName)) {
+					throw new IllegalArgumentException("Cannot record bean definition '" + beanName +
+							"' in a configuration class model: decorated bean definition '" +
+							targetBeanName + "' is not part of the model");
+				}
+			});
+
+			this.model = new ConfigurationClassModel(this.activeProfiles, this.defaultProfiles,
+					inputBeanClassNames, inputAttributes, removedBeanNames, beanDefinitions,
+					decoratedBeanNames, aliases, this.propertySources, this.importingClassNames);
+		}
+
+		public ConfigurationClassModel getModel() {
+			Assert.state(this.model != null, "No configuration classes found");
+			return this.model;
+		}
+
+		/**
+		 * Copy the given bean definition into the form that a model holds,
+		 * rejecting any settings that cannot be recorded.
+		 */
+		private AbstractBeanDefinition copyBeanDefinition(String beanName, BeanDefinition original) {
+			if (!(original instanceof AbstractBeanDefinition)) {
+				throw unsupported(beanName, "not an AbstractBeanDefinition");
+			}
+			AbstractBeanDefinition abd = (AbstractBeanDefinition) original;
+			if (abd.getInstanceSupplier() != null) {
+				throw unsupported(beanName, "instance supplier");
+			}
+			if (!abd.getQualifiers().isEmpty()) {
+				throw unsupported(beanName, "qualifiers");
+			}
+			if (!abd.getMethodOverrides().isEmpty()) {
+				throw unsupported(beanName, "method overrides");
+			}
+			if (abd instanceof ConfigurationClassBeanDefinitionReader.ConfigurationClassBeanDefinition) {
+				abd = new BeanMethodDefinition((RootBeanDefinition) abd);
+			}
+			try {
+				// Round-trip through the binary format, validating all values
+				ByteArrayOutputStream bos = new ByteArrayOutputStream(256);
+				writeBeanDefinition(new DataOutputStream(bos), abd);
+				return readBeanDefinition(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())),
+						this.beanClassLoader);
+			}
+			catch (IllegalArgumentException ex) {
+				throw unsupported(beanName, ex.getMessage());
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+
+		private IllegalArgumentException unsupported(String beanName, @Nullable String reason) {
+			return new IllegalArgumentException("Cannot record bean definition '" + beanName +
+					"' in a configuration class model: " + reason);
+		}
+	}
+
+
+	/**
+	 * Bean definition for a {@link Bean @Bean} method, only considering
+	 * {@code @Bean}-annotated methods as factory methods.
+	 */
+	@SuppressWarnings("serial")
+	static class BeanMethodDefinition extends RootBeanDefinition {
+
+		public BeanMethodDefinition() {
+		}
+
+		public BeanMethodDefinition(RootBeanDefinition original) {
+			super(original);
+		}
+
+		@Override
+		public boolean isFactoryMethod(Method candidate) {
+			return (super.isFactoryMethod(candidate) && BeanAnnotationHelper.isBeanAnnotated(candidate));
+		}
+
+		@Override
+		public BeanMethodDefinition cloneBeanDefinition() {
+			return new BeanMethodDefinition(this);
+		}
+	}
+
+
+	/**
+	 * A recorded {@link PropertySource @PropertySource} declaration.
+	 */
+	private static class PropertySourceDeclaration {
+
+		private final String name;
+
+		private final String[] locations;
+
+		private final boolean ignoreResourceNotFound;
+
+		private final String encoding;
+
+		private final String factoryClassName;
+
+		public PropertySourceDeclaration(AnnotationAttributes attributes) {
+			this(attributes.getString("name"), attributes.getStringArray("value"),
+					attributes.getBoolean("ignoreResourceNotFound"), attributes.getString("encoding"),
+					attributes.getClass("factory").getName());
+		}
+
+		private PropertySourceDeclaration(String name, String[] locations, boolean ignoreResourceNotFound,
+				String encoding, String factoryClassName) {
+
+			this.name = name;
+			this.locations = locations;
+			this.ignoreResourceNotFound = ignoreResourceNotFound;
+			this.encoding = encoding;
+			this.factoryClassName = factoryClassName;
+		}
+
+		public AnnotationAttributes toAnnotationAttributes(@Nullable ClassLoader classLoader) {
+			AnnotationAttributes attributes = new AnnotationAttributes(PropertySource.class);
+			attributes.put("name", this.name);
+			attributes.put("value", this.locations);
+			attributes.put("ignoreResourceNotFound", this.ignoreResourceNotFound);
+			attributes.put("encoding", this.encoding);
+			attributes.put("factory", (PropertySourceFactory.class.getName().equals(this.factoryClassName) ?
+					PropertySourceFactory.class : resolveClass(this.factoryClassName, classLoader)));
+			return attributes;
+		}
+
+		public void writeTo(DataOutputStream dos) throws IOException {
+			dos.writeUTF(this.name);
+			writeStrings(dos, this.locations);
+			dos.writeBoolean(this.ignoreResourceNotFound);
+			dos.writeUTF(this.encoding);
+			dos.writeUTF(this.factoryClassName);
+		}
+
+		public static PropertySourceDeclaration readFrom(DataInputStream dis) throws IOException {
+			return new PropertySourceDeclaration(dis.readUTF(), readStrings(dis), dis.readBoolean(),
+					dis.readUTF(), dis.readUTF());
+		}
+	}
+
+
+	/**
+	 * {@link ImportRegistry} backed by recorded import relationships.
+	 */
+	private static class ModelImportRegistry implements ImportRegistry {
+
+		private final Map<String, String> importingClassNames;
+
+		private final MetadataReaderFactory metadataReaderFactory;
+
+		public ModelImportRegistry(Map<String, String> importingClassNames, MetadataReaderFactory metadataReaderFactory) {
+			this.importingClassNames = new ConcurrentHashMap<>(importingClassNames);
+			this.metadataReaderFactory = metadataReaderFactory;
+		}
+
+		@Override
+		@Nullable
+		public AnnotationMetadata getImportingClassFor(String importedClass) {
+			String importingClassName = this.importingClassNames.get(importedClass);
+			if (importingClassName == null) {
+				return null;
+			}
+			try {
+				return this.metadataReaderFactory.getMetadataReader(importingClassName).getAnnotationMetadata();
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to read metadata of importing class [" +
+						importingClassName + "]", ex);
+			}
+		}
+
+		@Override
+		public void removeImportingClass(String importingClass) {
+			this.importingClassNames.values().removeIf(importingClass::equals);
+		}
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Build-time generator for a {@link ConfigurationClassModel}, processing the
+ * given annotated classes the way an {@link AnnotationConfigApplicationContext}
+ * would and recording the resulting bean definitions.
+ *
+ * <p>Typically run after compilation, writing the model into the output
+ * resources of the application, e.g. with a Gradle task along the lines of:
+ *
+ * <pre class="code">
+ * task generateConfigurationModel(type: JavaExec) {
+ *     classpath = sourceSets.main.runtimeClasspath
+ *     main = "org.springframework.context.annotation.ConfigurationClassModelGenerator"
+ *     args "$buildDir/resources/main/META-INF/spring.configuration-model", "com.example.AppConfig"
+ * }
+ * classes.finalizedBy generateConfigurationModel
+ * </pre>
+ *
+ * <p>The application then needs to opt into the model at runtime through the
+ * {@value ConfigurationClassModel#ENABLE_MODEL} flag.
+ *
+ * <p>Active profiles are taken from the {@code spring.profiles.active} system
+ * property, as at runtime. Bean definitions that cannot be recorded, e.g. with
+ * an instance supplier or with values other than plain strings, primitive
+ * wrappers, classes and bean references, are rejected.
+ *
+ * @since 5.0.17
+ * @see ConfigurationClassModel
+ */
+public class ConfigurationClassModelGenerator {
+
+	private final ClassLoader classLoader;
+
+
+	/**
+	 * Create a new generator for the given class loader.
+	 * @param classLoader the ClassLoader to load annotated classes with
+	 */
+	public ConfigurationClassModelGenerator(ClassLoader classLoader) {
+		Assert.notNull(classLoader, "ClassLoader must not be null");
+		this.classLoader = classLoader;
+	}
+
+
+	/**
+	 * Record the {@link ConfigurationClassModel} for the given annotated classes.
+	 * @param annotatedClasses one or more annotated classes,
+	 * e.g. {@link Configuration @Configuration} classes
+	 * @return the recorded model
+	 */
+	public ConfigurationClassModel generate(Class<?>... annotatedClasses) {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setClassLoader(this.classLoader);
+		context.register(annotatedClasses);
+
+		ConfigurationClassPostProcessor postProcessor = new ConfigurationClassPostProcessor();
+		postProcessor.setEnvironment(context.getEnvironment());
+		postProcessor.setBeanClassLoader(this.classLoader);
+		postProcessor.setResourceLoader(context);
+		return postProcessor.recordConfigurationModel(context.getDefaultListableBeanFactory());
+	}
+
+	/**
+	 * Record the {@link ConfigurationClassModel} for the given annotated classes
+	 * and write it to the given file.
+	 * @param file the file to write the model to
+	 * @param annotatedClassNames the names of one or more annotated classes
+	 * @throws IOException in case of I/O errors
+	 * @throws ClassNotFoundException if an annotated class cannot be found
+	 */
+	public void generate(File file, String... annotatedClassNames) throws IOException, ClassNotFoundException {
+		Class<?>[] annotatedClasses = new Class<?>[annotatedClassNames.length];
+		for (int i = 0; i < annotatedClassNames.length; i++) {
+			annotatedClasses[i] = ClassUtils.forName(annotatedClassNames[i], this.classLoader);
+		}
+		ConfigurationClassModel model = generate(annotatedClasses);
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null) {
+			Files.createDirectories(parent.toPath());
+		}
+		try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file.toPath()))) {
+			model.writeTo(out);
+		}
+	}
+
+
+	/**
+	 * Command-line entry point.
+	 * @param args the file to write the model to, followed by the names
+	 * of one or more annotated classes
+	 * @throws Exception if the model cannot be generated
+	 */
+	public static void main(String[] args) throws Exception {
+		Assert.isTrue(args.length >= 2, "Usage: ConfigurationClassModelGenerator <file> <annotatedClass>...");
+		String[] annotatedClassNames = new String[args.length - 1];
+		System.arraycopy(args, 1, annotatedClassNames, 0, annotatedClassNames.length);
+		ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+		Assert.state(classLoader != null, "No ClassLoader available");
+		new ConfigurationClassModelGenerator(classLoader).generate(new File(args[0]), annotatedClassNames);
+	}
+
+}
@@ -17,6 +17,7 @@
 package org.springframework.context.annotation;
 
 import java.beans.PropertyDescriptor;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -53,6 +54,7 @@ import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.annotation.ConfigurationClassEnhancer.EnhancedConfiguration;
 import org.springframework.core.Ordered;
 import org.springframework.core.PriorityOrdered;
+import org.springframework.core.annotation.AnnotationAttributes;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.StandardEnvironment;
 import org.springframework.core.io.DefaultResourceLoader;
@@ -118,6 +120,9 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 
 	private boolean localBeanNameGeneratorSet = false;
 
+	@Nullable
+	private ConfigurationClassModel configurationModel;
+
 	/* Using short class names as default bean names */
 	private BeanNameGenerator componentScanBeanNameGenerator = new AnnotationBeanNameGenerator();
 
@@ -190,6 +195,18 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		this.importBeanNameGenerator = beanNameGenerator;
 	}
 
+	/**
+	 * Set a precomputed {@link ConfigurationClassModel} to apply instead of parsing
+	 * the configuration classes in the registry, provided that the model
+	 * {@link ConfigurationClassModel#matches matches} the registry.
+	 * <p>Default is none, always parsing configuration classes.
+	 * @since 5.0.17
+	 * @see AnnotationConfigApplicationContext#setConfigurationModel
+	 */
+	public void setConfigurationModel(@Nullable ConfigurationClassModel configurationModel) {
+		this.configurationModel = configurationModel;
+	}
+
 	@Override
 	public void setEnvironment(Environment environment) {
 		Assert.notNull(environment, "Environment must not be null");
@@ -259,9 +276,47 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 	/**
 	 * Build and validate a configuration model based on the registry of
 	 * {@link Configuration} classes.
-	 * 拿出所有的 bd ，然后判断 bd 是否包含了 @Configuration、@Import、@Component 注解
+	 * <p>Applies the {@linkplain #setConfigurationModel precomputed model}
+	 * instead, if it matches the registry.
 	 */
 	public void processConfigBeanDefinitions(BeanDefinitionRegistry registry) {
+		if (this.configurationModel != null) {
+			if (this.environment == null) {
+				this.environment = new StandardEnvironment();
+			}
+			if (this.configurationModel.matches(registry, this.environment)) {
+				applyConfigurationModel(this.configurationModel, registry);
+				return;
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Configuration class model does not match the bean definitions and profiles of " +
+						registry + " - parsing configuration classes");
+			}
+		}
+		processConfigBeanDefinitions(registry, null);
+	}
+
+	/**
+	 * Process the configuration classes in the given registry, recording
+	 * the resulting {@link ConfigurationClassModel}.
+	 * @since 5.0.17
+	 * @see ConfigurationClassModelGenerator
+	 */
+	ConfigurationClassModel recordConfigurationModel(BeanDefinitionRegistry registry) {
+		if (this.environment == null) {
+			this.environment = new StandardEnvironment();
+		}
+		ConfigurationClassModel.Recorder recorder = new ConfigurationClassModel.Recorder(registry, this.environment);
+		processConfigBeanDefinitions(registry, recorder);
+		return recorder.getModel();
+	}
+
+	/**
+	 * 拿出所有的 bd ，然后判断 bd 是否包含了 @Configuration、@Import、@Component 注解
+	 */
+	private void processConfigBeanDefinitions(BeanDefinitionRegistry registry,
+			@Nullable ConfigurationClassModel.Recorder recorder) {
+
 		// 定义一个 list 存放的是 app 提供的 BeanDefinition（项目当中提供了 @Component 注解的类）
 		List<BeanDefinitionHolder> configCandidates = new ArrayList<>();
 
@@ -416,6 +471,12 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		}
 		while (!candidates.isEmpty());
 
+		if (recorder != null) {
+			parser.getProcessedPropertySources().forEach(recorder::recordPropertySource);
+			recorder.recordImports(parser.getConfigurationClasses(), parser.getImportRegistry());
+			recorder.recordBeanDefinitions();
+		}
+
 		// Register the ImportRegistry as a bean in order to support ImportAware @Configuration classes
 		if (sbr != null && !sbr.containsSingleton(IMPORT_REGISTRY_BEAN_NAME)) {
 			sbr.registerSingleton(IMPORT_REGISTRY_BEAN_NAME, parser.getImportRegistry());
@@ -428,6 +489,43 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		}
 	}
 
+	/**
+	 * Apply the given precomputed model: process its {@code @PropertySource}
+	 * declarations and register its bean definitions.
+	 */
+	private void applyConfigurationModel(ConfigurationClassModel model, BeanDefinitionRegistry registry) {
+		List<AnnotationAttributes> propertySources = model.getPropertySources(this.beanClassLoader);
+		if (!propertySources.isEmpty()) {
+			Assert.state(this.environment != null, "No Environment available");
+			ConfigurationClassParser parser = new ConfigurationClassParser(
+					this.metadataReaderFactory, this.problemReporter, this.environment,
+					this.resourceLoader, this.componentScanBeanNameGenerator, registry);
+			for (AnnotationAttributes propertySource : propertySources) {
+				try {
+					parser.processPropertySource(propertySource);
+				}
+				catch (IOException ex) {
+					throw new BeanDefinitionStoreException(
+							"Failed to process @PropertySource declaration from configuration class model", ex);
+				}
+			}
+		}
+
+		model.registerBeanDefinitions(registry);
+
+		// Register the ImportRegistry as a bean in order to support ImportAware @Configuration classes
+		if (registry instanceof SingletonBeanRegistry) {
+			SingletonBeanRegistry sbr = (SingletonBeanRegistry) registry;
+			if (!sbr.containsSingleton(IMPORT_REGISTRY_BEAN_NAME)) {
+				sbr.registerSingleton(IMPORT_REGISTRY_BEAN_NAME, model.getImportRegistry(this.metadataReaderFactory));
+			}
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Applied configuration class model with " + model.getBeanDefinitionNames().size() +
+					" bean definitions to " + registry);
+		}
+	}
+
 	/**
 	 * Post-processes a BeanFactory in search of Configuration class BeanDefinitions;
 	 * any candidates are then enhanced by a {@link ConfigurationClassEnhancer}.
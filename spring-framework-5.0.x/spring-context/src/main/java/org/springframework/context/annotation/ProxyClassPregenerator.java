@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.util.Arrays;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cglib.core.GeneratedClassCache;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericXmlApplicationContext;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Build-time entry point that populates a {@link GeneratedClassCache} with the
+ * CGLIB classes generated for a set of application contexts: enhanced
+ * {@code @Configuration} classes as well as class-based AOP proxies.
+ *
+ * <p>Each context is refreshed once against the given output directory, and
+ * closed right away. The directory can then be packaged with the application and
+ * be configured as a {@code "classpath:"} location of the shared cache at runtime.
+ * Note that only classes generated during the refresh are covered, not those of
+ * lazy-init beans or beans created on demand afterwards.
+ *
+ * <p>Typically invoked as a Java task of the build:
+ *
+ * <pre class="code">
+ * java org.springframework.context.annotation.ProxyClassPregenerator build/proxies \
+ *     com.example.AppConfig classpath:com/example/services.xml</pre>
+ *
+ * @since 5.0.17
+ * @see GeneratedClassCache#CACHE_LOCATION_PROPERTY_NAME
+ */
+public abstract class ProxyClassPregenerator {
+
+	private static final String XML_SUFFIX = ".xml";
+
+	private static final Log logger = LogFactory.getLog(ProxyClassPregenerator.class);
+
+
+	/**
+	 * Populate the cache in the directory specified as first argument with the
+	 * classes generated for the contexts specified as further arguments.
+	 * @param args the output directory, followed by {@code @Configuration} class
+	 * names and XML resource locations (ending with {@code ".xml"})
+	 * @throws Exception if a context could not be refreshed
+	 */
+	public static void main(String[] args) throws Exception {
+		Assert.isTrue(args.length > 1,
+				"Usage: ProxyClassPregenerator <outputDirectory> <configClassOrXmlLocation>...");
+		pregenerate(new GeneratedClassCache(args[0]), Arrays.copyOfRange(args, 1, args.length));
+	}
+
+	/**
+	 * Populate the given cache with the classes generated for the given contexts.
+	 * @param cache the cache to populate
+	 * @param sources the {@code @Configuration} class names and XML resource
+	 * locations (ending with {@code ".xml"}) to refresh a context for
+	 * @throws ClassNotFoundException if a configuration class could not be found
+	 */
+	public static void pregenerate(GeneratedClassCache cache, String... sources) throws ClassNotFoundException {
+		Assert.isTrue(!cache.isReadOnly(), () -> "Cannot populate read-only cache " + cache);
+		GeneratedClassCache previousCache = GeneratedClassCache.getSharedInstance();
+		GeneratedClassCache.setSharedInstance(cache);
+		try {
+			for (String source : sources) {
+				ConfigurableApplicationContext context = createContext(source);
+				context.close();
+				if (logger.isInfoEnabled()) {
+					logger.info("Generated classes of context for [" + source + "] in " + cache);
+				}
+			}
+		}
+		finally {
+			GeneratedClassCache.setSharedInstance(previousCache);
+		}
+	}
+
+	private static ConfigurableApplicationContext createContext(String source) throws ClassNotFoundException {
+		if (source.endsWith(XML_SUFFIX)) {
+			return new GenericXmlApplicationContext(source);
+		}
+		ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+		return new AnnotationConfigApplicationContext(ClassUtils.forName(source, classLoader));
+	}
+
+}
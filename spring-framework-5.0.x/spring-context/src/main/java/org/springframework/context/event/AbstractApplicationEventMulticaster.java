@@ -18,6 +18,7 @@ package org.springframework.context.event;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -32,7 +33,9 @@ import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -53,6 +56,11 @@ import org.springframework.util.ObjectUtils;
  * all events to all registered listeners, invoking them in the calling thread.
  * Alternative implementations could be more sophisticated in those respects.
  *
+ * <p>The listeners for each event type and source type are retrieved once and
+ * cached until the registered listeners change. As of 5.0.17, events of their
+ * default event type are additionally dispatched through a table keyed by event
+ * class (or payload class) and source type, see {@link #getApplicationListeners(ApplicationEvent)}.
+ *
  * @author Juergen Hoeller
  * @author Stephane Nicoll
  * @since 1.2.3
@@ -66,6 +74,10 @@ public abstract class AbstractApplicationEventMulticaster
 
 	final Map<ListenerCacheKey, ListenerRetriever> retrieverCache = new ConcurrentHashMap<>(64);
 
+	final Map<Class<?>, Map<Class<?>, ListenerRetriever>> eventDispatchCache = new ConcurrentHashMap<>(64);
+
+	final Map<Class<?>, Map<Class<?>, ListenerRetriever>> payloadDispatchCache = new ConcurrentHashMap<>(64);
+
 	@Nullable
 	private ClassLoader beanClassLoader;
 
@@ -111,7 +123,7 @@ public abstract class AbstractApplicationEventMulticaster
 				this.defaultRetriever.applicationListeners.remove(singletonTarget);
 			}
 			this.defaultRetriever.applicationListeners.add(listener);
-			this.retrieverCache.clear();
+			clearListenerCaches();
 		}
 	}
 
@@ -119,7 +131,7 @@ public abstract class AbstractApplicationEventMulticaster
 	public void addApplicationListenerBean(String listenerBeanName) {
 		synchronized (this.retrievalMutex) {
 			this.defaultRetriever.applicationListenerBeans.add(listenerBeanName);
-			this.retrieverCache.clear();
+			clearListenerCaches();
 		}
 	}
 
@@ -127,7 +139,7 @@ public abstract class AbstractApplicationEventMulticaster
 	public void removeApplicationListener(ApplicationListener<?> listener) {
 		synchronized (this.retrievalMutex) {
 			this.defaultRetriever.applicationListeners.remove(listener);
-			this.retrieverCache.clear();
+			clearListenerCaches();
 		}
 	}
 
@@ -135,7 +147,7 @@ public abstract class AbstractApplicationEventMulticaster
 	public void removeApplicationListenerBean(String listenerBeanName) {
 		synchronized (this.retrievalMutex) {
 			this.defaultRetriever.applicationListenerBeans.remove(listenerBeanName);
-			this.retrieverCache.clear();
+			clearListenerCaches();
 		}
 	}
 
@@ -144,11 +156,18 @@ public abstract class AbstractApplicationEventMulticaster
 		synchronized (this.retrievalMutex) {
 			this.defaultRetriever.applicationListeners.clear();
 			this.defaultRetriever.applicationListenerBeans.clear();
-			this.retrieverCache.clear();
+			clearListenerCaches();
 		}
 	}
 
 
+	private void clearListenerCaches() {
+		this.retrieverCache.clear();
+		this.eventDispatchCache.clear();
+		this.payloadDispatchCache.clear();
+	}
+
+
 	/**
 	 * Return a Collection containing all ApplicationListeners.
 	 * @return a Collection of ApplicationListeners
@@ -204,6 +223,60 @@ public abstract class AbstractApplicationEventMulticaster
 		}
 	}
 
+	/**
+	 * Return a Collection of ApplicationListeners matching the given event
+	 * for its default event type, as resolved by {@link ResolvableType#forInstance}.
+	 * <p>Equivalent to {@link #getApplicationListeners(ApplicationEvent, ResolvableType)},
+	 * but the cached listeners are looked up by event class (or payload class for
+	 * a plain {@link PayloadApplicationEvent}) and source type, without resolving
+	 * the event type and building a cache key for each event. Events which provide
+	 * their own {@link ResolvableType} are always resolved.
+	 * @param event the event to be propagated
+	 * @return a Collection of ApplicationListeners
+	 * @since 5.0.17
+	 * @see #getApplicationListeners(ApplicationEvent, ResolvableType)
+	 */
+	protected Collection<ApplicationListener<?>> getApplicationListeners(ApplicationEvent event) {
+		Object source = event.getSource();
+		Map<Class<?>, Map<Class<?>, ListenerRetriever>> dispatchCache = null;
+		Class<?> dispatchType = null;
+		if (event instanceof PayloadApplicationEvent) {
+			Object payload = ((PayloadApplicationEvent<?>) event).getPayload();
+			if (event.getClass() == PayloadApplicationEvent.class && !(payload instanceof ResolvableTypeProvider)) {
+				dispatchCache = this.payloadDispatchCache;
+				dispatchType = payload.getClass();
+			}
+		}
+		else if (!(event instanceof ResolvableTypeProvider)) {
+			dispatchCache = this.eventDispatchCache;
+			dispatchType = event.getClass();
+		}
+		if (dispatchCache == null || source == null) {
+			return getApplicationListeners(event, ResolvableType.forInstance(event));
+		}
+
+		// Quick check for existing entry, without any allocation...
+		Class<?> sourceType = source.getClass();
+		Map<Class<?>, ListenerRetriever> retrievers = dispatchCache.get(dispatchType);
+		if (retrievers != null) {
+			ListenerRetriever retriever = retrievers.get(sourceType);
+			if (retriever != null) {
+				return retriever.getApplicationListeners();
+			}
+		}
+
+		ResolvableType eventType = ResolvableType.forInstance(event);
+		Collection<ApplicationListener<?>> listeners = getApplicationListeners(event, eventType);
+		synchronized (this.retrievalMutex) {
+			// Only register a retriever that has not been invalidated in the meantime
+			ListenerRetriever retriever = this.retrieverCache.get(new ListenerCacheKey(eventType, sourceType));
+			if (retriever != null) {
+				dispatchCache.computeIfAbsent(dispatchType, key -> new ConcurrentHashMap<>(4)).put(sourceType, retriever);
+			}
+		}
+		return listeners;
+	}
+
 	/**
 	 * Actually retrieve the application listeners for the given event and source type.
 	 * @param eventType the event type
@@ -260,6 +333,7 @@ public abstract class AbstractApplicationEventMulticaster
 		if (retriever != null && retriever.applicationListenerBeans.isEmpty()) {
 			retriever.applicationListeners.clear();
 			retriever.applicationListeners.addAll(allListeners);
+			retriever.sortedListeners = Collections.unmodifiableList(new ArrayList<>(allListeners));
 		}
 		return allListeners;
 	}
@@ -362,6 +436,8 @@ public abstract class AbstractApplicationEventMulticaster
 	 * Helper class that encapsulates a specific set of target listeners,
 	 * allowing for efficient retrieval of pre-filtered listeners.
 	 * <p>An instance of this helper gets cached per event type and source type.
+	 * If it only holds singleton listeners, their sorted list is immutable and
+	 * gets returned as-is for each event.
 	 */
 	private class ListenerRetriever {
 
@@ -371,11 +447,17 @@ public abstract class AbstractApplicationEventMulticaster
 
 		private final boolean preFiltered;
 
+		@Nullable
+		private List<ApplicationListener<?>> sortedListeners;
+
 		public ListenerRetriever(boolean preFiltered) {
 			this.preFiltered = preFiltered;
 		}
 
 		public Collection<ApplicationListener<?>> getApplicationListeners() {
+			if (this.sortedListeners != null) {
+				return this.sortedListeners;
+			}
 			List<ApplicationListener<?>> allListeners = new ArrayList<>(
 					this.applicationListeners.size() + this.applicationListenerBeans.size());
 			allListeners.addAll(this.applicationListeners);
@@ -16,8 +16,12 @@
 
 package org.springframework.context.event;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.util.ArrayList;
@@ -35,6 +39,7 @@ import org.springframework.context.PayloadApplicationEvent;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.core.BridgeMethodResolver;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.Order;
 import org.springframework.lang.Nullable;
@@ -53,6 +58,11 @@ import org.springframework.util.StringUtils;
  * to define any arbitrary event type. If a condition is defined, it is
  * evaluated prior to invoking the underlying method.
  *
+ * <p>Unless a condition is defined or the argument resolution and invocation
+ * hooks are overridden, events of plain declared types get dispatched through
+ * a {@link MethodHandle} for the listener method, without allocating an
+ * argument array for each event.
+ *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
  * @author Sam Brannen
@@ -60,6 +70,11 @@ import org.springframework.util.StringUtils;
  */
 public class ApplicationListenerMethodAdapter implements GenericApplicationListener {
 
+	private static final Object NO_MATCH = new Object();
+
+	private static final Object UNRESOLVED = new Object();
+
+
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private final String beanName;
@@ -77,6 +92,12 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 
 	private final int order;
 
+	@Nullable
+	private final Class<?>[] declaredEventClasses;
+
+	@Nullable
+	private final MethodHandle methodHandle;
+
 	@Nullable
 	private ApplicationContext applicationContext;
 
@@ -95,6 +116,11 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		this.declaredEventTypes = resolveDeclaredEventTypes(method, ann);
 		this.condition = (ann != null ? ann.condition() : null);
 		this.order = resolveOrder(this.targetMethod);
+		this.declaredEventClasses = resolveDeclaredEventClasses(this.declaredEventTypes);
+		this.methodHandle = (this.declaredEventClasses != null && !StringUtils.hasText(this.condition) &&
+				!isOverridden("resolveArguments", ApplicationEvent.class) &&
+				!isOverridden("doInvoke", Object[].class) && !isOverridden("getCondition") ?
+				resolveMethodHandle(this.method) : null);
 	}
 
 	private static List<ResolvableType> resolveDeclaredEventTypes(Method method, @Nullable EventListener ann) {
@@ -127,6 +153,51 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		return (ann != null ? ann.value() : 0);
 	}
 
+	/**
+	 * Return the raw classes of the declared event types if these are plain
+	 * classes, matching events and payloads by a simple instance check.
+	 */
+	@Nullable
+	private static Class<?>[] resolveDeclaredEventClasses(List<ResolvableType> declaredEventTypes) {
+		Class<?>[] classes = new Class<?>[declaredEventTypes.size()];
+		for (int i = 0; i < classes.length; i++) {
+			Object type = declaredEventTypes.get(i).getType();
+			if (!(type instanceof Class) || ((Class<?>) type).isPrimitive() || ((Class<?>) type).isArray() ||
+					((Class<?>) type).getTypeParameters().length > 0) {
+				return null;
+			}
+			classes[i] = (Class<?>) type;
+		}
+		return classes;
+	}
+
+	/**
+	 * Return a {@link MethodHandle} for the given listener method, adapted to
+	 * {@code (Object, Object)Object} or {@code (Object)Object} for a method
+	 * without parameter, or {@code null} if not accessible as such.
+	 */
+	@Nullable
+	private static MethodHandle resolveMethodHandle(Method method) {
+		if (Modifier.isStatic(method.getModifiers())) {
+			return null;
+		}
+		try {
+			ReflectionUtils.makeAccessible(method);
+			MethodHandle handle = MethodHandles.lookup().unreflect(method);
+			return handle.asType(method.getParameterCount() == 0 ?
+					MethodType.methodType(Object.class, Object.class) :
+					MethodType.methodType(Object.class, Object.class, Object.class));
+		}
+		catch (IllegalAccessException | RuntimeException ex) {
+			return null;
+		}
+	}
+
+	private boolean isOverridden(String methodName, Class<?>... paramTypes) {
+		Method method = ReflectionUtils.findMethod(getClass(), methodName, paramTypes);
+		return (method != null && method.getDeclaringClass() != ApplicationListenerMethodAdapter.class);
+	}
+
 
 	/**
 	 * Initialize this instance.
@@ -175,6 +246,21 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 	 * match and handling non-null result, if any.
 	 */
 	public void processEvent(ApplicationEvent event) {
+		if (this.methodHandle != null) {
+			Object argument = resolveArgument(event);
+			if (argument != UNRESOLVED) {
+				if (argument != NO_MATCH) {
+					Object result = invokeMethodHandle(this.methodHandle, argument);
+					if (result != null) {
+						handleResult(result);
+					}
+					else {
+						logger.trace("No result object given - no result to handle");
+					}
+				}
+				return;
+			}
+		}
 		Object[] args = resolveArguments(event);
 		if (shouldHandle(event, args)) {
 			Object result = doInvoke(args);
@@ -213,6 +299,60 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		return new Object[] {event};
 	}
 
+	/**
+	 * Resolve the single argument for the specified event from the plain
+	 * declared event classes, following {@link #resolveArguments}.
+	 * @return the argument, {@code null} for a method without parameter,
+	 * {@link #NO_MATCH} if the method should not be invoked for the event, or
+	 * {@link #UNRESOLVED} if the generic event type needs to be resolved
+	 */
+	@Nullable
+	private Object resolveArgument(ApplicationEvent event) {
+		Assert.state(this.declaredEventClasses != null, "No declared event classes");
+		Object payload = null;
+		if (event instanceof PayloadApplicationEvent) {
+			payload = ((PayloadApplicationEvent<?>) event).getPayload();
+			if (event.getClass() != PayloadApplicationEvent.class || payload instanceof ResolvableTypeProvider) {
+				return UNRESOLVED;
+			}
+		}
+		for (Class<?> eventClass : this.declaredEventClasses) {
+			boolean payloadClass = (payload != null && !ApplicationEvent.class.isAssignableFrom(eventClass));
+			if ((payloadClass && eventClass.isInstance(payload)) || eventClass.isInstance(event)) {
+				if (this.method.getParameterCount() == 0) {
+					return null;
+				}
+				return (payloadClass && eventClass.isInstance(payload) ? payload : event);
+			}
+		}
+		return NO_MATCH;
+	}
+
+	/**
+	 * Invoke the listener method through the given {@link MethodHandle},
+	 * falling back to {@link #doInvoke} for any mismatch to report.
+	 */
+	@Nullable
+	private Object invokeMethodHandle(MethodHandle methodHandle, @Nullable Object argument) {
+		Object bean = getTargetBean();
+		if (!this.method.getDeclaringClass().isInstance(bean) ||
+				(argument != null && !this.method.getParameterTypes()[0].isInstance(argument))) {
+			return doInvoke(argument != null ? new Object[] {argument} : new Object[0]);
+		}
+		try {
+			return (argument != null ? (Object) methodHandle.invokeExact(bean, argument) :
+					(Object) methodHandle.invokeExact(bean));
+		}
+		catch (RuntimeException ex) {
+			throw ex;
+		}
+		catch (Throwable ex) {
+			Object[] args = (argument != null ? new Object[] {argument} : new Object[0]);
+			String msg = getInvocationErrorMessage(bean, "Failed to invoke event listener method", args);
+			throw new UndeclaredThrowableException(ex, msg);
+		}
+	}
+
 	protected void handleResult(Object result) {
 		if (result.getClass().isArray()) {
 			Object[] events = ObjectUtils.toObjectArray(result);
@@ -0,0 +1,564 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.ResolvableType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Asynchronous variant of {@link SimpleApplicationEventMulticaster} that queues
+ * events in a bounded ring buffer per listener, applying back-pressure to the
+ * publishers instead of queuing an unbounded number of tasks.
+ *
+ * <p>Each listener is served by at most one task on the
+ * {@linkplain #setTaskExecutor task executor} at any time, which processes the
+ * queued events in batches of up to {@linkplain #setBatchSize batch size}
+ * events. A listener therefore receives the events in the order in which they
+ * got published, while different listeners are processed independently.
+ * If no task executor is specified, all listeners are invoked in the calling
+ * thread, just like with {@link SimpleApplicationEventMulticaster}.
+ *
+ * <p>Once the {@linkplain #setQueueCapacity queue} of a listener is full, the
+ * configured {@link OverflowPolicy} applies. The queue depth, the number of
+ * dispatched and dropped events and the dispatch latency (the time between
+ * publication and invocation of the listener) are exposed as metrics.
+ *
+ * @since 5.0.17
+ * @see #setTaskExecutor
+ * @see #setOverflowPolicy
+ */
+public class BufferedApplicationEventMulticaster extends SimpleApplicationEventMulticaster {
+
+	/**
+	 * Policy for events published to a listener whose queue is full.
+	 */
+	public enum OverflowPolicy {
+
+		/**
+		 * Block the publishing thread until the listener's queue has room.
+		 * An interrupted publisher drops the event, keeping the interrupt flag.
+		 */
+		BLOCK,
+
+		/**
+		 * Discard the oldest queued event of the listener to make room.
+		 */
+		DROP_OLDEST,
+
+		/**
+		 * Process all queued events and the new event of the listener in the
+		 * publishing thread, preserving their order.
+		 */
+		CALLER_RUNS
+	}
+
+
+	private static final Log logger = LogFactory.getLog(BufferedApplicationEventMulticaster.class);
+
+	private final Map<ApplicationListener<?>, ListenerQueue> queues = new ConcurrentHashMap<>(64);
+
+	private int queueCapacity = 1024;
+
+	private int batchSize = 64;
+
+	private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+	private final LongAdder dispatchedCount = new LongAdder();
+
+	private final LongAdder droppedCount = new LongAdder();
+
+	private final LongAdder callerRunsCount = new LongAdder();
+
+	private final LongAdder totalDispatchLatency = new LongAdder();
+
+	private final AtomicLong maxDispatchLatency = new AtomicLong();
+
+
+	/**
+	 * Create a new BufferedApplicationEventMulticaster.
+	 */
+	public BufferedApplicationEventMulticaster() {
+	}
+
+	/**
+	 * Create a new BufferedApplicationEventMulticaster for the given BeanFactory.
+	 */
+	public BufferedApplicationEventMulticaster(BeanFactory beanFactory) {
+		super(beanFactory);
+	}
+
+
+	/**
+	 * Set the maximum number of events to queue per listener.
+	 * Default is 1024.
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		Assert.isTrue(queueCapacity > 0, "Queue capacity must be greater than 0");
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Return the maximum number of events to queue per listener.
+	 */
+	public int getQueueCapacity() {
+		return this.queueCapacity;
+	}
+
+	/**
+	 * Set the maximum number of events that a task processes for a listener
+	 * before yielding the thread to other listeners. Default is 64.
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Return the maximum number of events that a task processes for a listener.
+	 */
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	/**
+	 * Set the policy for events published to a listener whose queue is full.
+	 * Default is {@link OverflowPolicy#BLOCK}.
+	 */
+	public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+		Assert.notNull(overflowPolicy, "OverflowPolicy must not be null");
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	/**
+	 * Return the policy for events published to a listener whose queue is full.
+	 */
+	public OverflowPolicy getOverflowPolicy() {
+		return this.overflowPolicy;
+	}
+
+
+	@Override
+	public void multicastEvent(ApplicationEvent event, @Nullable ResolvableType eventType) {
+		Executor executor = getTaskExecutor();
+		if (executor == null) {
+			super.multicastEvent(event, eventType);
+			return;
+		}
+		long timestamp = System.nanoTime();
+		for (ApplicationListener<?> listener : (eventType != null ?
+				getApplicationListeners(event, eventType) : getApplicationListeners(event))) {
+			ListenerQueue queue;
+			do {
+				queue = this.queues.computeIfAbsent(listener, ListenerQueue::new);
+			}
+			while (!queue.offer(event, timestamp, executor));
+		}
+	}
+
+
+	/**
+	 * Return the number of events currently queued for all listeners.
+	 */
+	public int getQueueDepth() {
+		int depth = 0;
+		for (ListenerQueue queue : this.queues.values()) {
+			depth += queue.size();
+		}
+		return depth;
+	}
+
+	/**
+	 * Return the number of events currently queued for the given listener.
+	 */
+	public int getQueueDepth(ApplicationListener<?> listener) {
+		ListenerQueue queue = this.queues.get(listener);
+		return (queue != null ? queue.size() : 0);
+	}
+
+	/**
+	 * Return the number of events dispatched to listeners so far,
+	 * including events processed in the publishing thread.
+	 */
+	public long getDispatchedCount() {
+		return this.dispatchedCount.sum();
+	}
+
+	/**
+	 * Return the number of events dropped so far.
+	 * @see OverflowPolicy#DROP_OLDEST
+	 * @see OverflowPolicy#BLOCK
+	 */
+	public long getDroppedCount() {
+		return this.droppedCount.sum();
+	}
+
+	/**
+	 * Return the number of times that a publishing thread processed the
+	 * events of a listener with a full queue.
+	 * @see OverflowPolicy#CALLER_RUNS
+	 */
+	public long getCallerRunsCount() {
+		return this.callerRunsCount.sum();
+	}
+
+	/**
+	 * Return the average time in nanoseconds between the publication of an
+	 * event and the invocation of a listener.
+	 */
+	public long getAverageDispatchLatency() {
+		long count = this.dispatchedCount.sum();
+		return (count > 0 ? this.totalDispatchLatency.sum() / count : 0);
+	}
+
+	/**
+	 * Return the maximum time in nanoseconds between the publication of an
+	 * event and the invocation of a listener.
+	 */
+	public long getMaxDispatchLatency() {
+		return this.maxDispatchLatency.get();
+	}
+
+
+	private void dispatch(ApplicationListener<?> listener, ApplicationEvent event, long timestamp) {
+		long latency = System.nanoTime() - timestamp;
+		this.dispatchedCount.increment();
+		this.totalDispatchLatency.add(latency);
+		this.maxDispatchLatency.accumulateAndGet(latency, Math::max);
+		try {
+			invokeListener(listener, event);
+		}
+		catch (Throwable ex) {
+			// Keep processing the subsequent events of the listener
+			logger.error("Failed to dispatch event to listener [" + listener + "]", ex);
+		}
+	}
+
+
+	/**
+	 * Bounded ring buffer of the pending events of a listener, growing up to the
+	 * queue capacity. Only exists while events are pending: it gets retired once
+	 * drained, and subsequent events are queued in a new instance.
+	 */
+	private class ListenerQueue implements Runnable {
+
+		private static final int INITIAL_CAPACITY = 16;
+
+		private final ApplicationListener<?> listener;
+
+		private final int capacity = queueCapacity;
+
+		private ApplicationEvent[] events = new ApplicationEvent[Math.min(INITIAL_CAPACITY, this.capacity)];
+
+		private long[] timestamps = new long[this.events.length];
+
+		private final ApplicationEvent[] batch = new ApplicationEvent[batchSize];
+
+		private final long[] batchTimestamps = new long[this.batch.length];
+
+		private final ReentrantLock lock = new ReentrantLock();
+
+		private final Condition notFull = this.lock.newCondition();
+
+		/** Held while invoking the listener, serializing its invocations */
+		private final ReentrantLock processingLock = new ReentrantLock();
+
+		private int head;
+
+		private int count;
+
+		private boolean scheduled;
+
+		private boolean retired;
+
+		@Nullable
+		private Executor executor;
+
+		/** The thread currently running this queue's task, if any */
+		@Nullable
+		private Thread runner;
+
+		private boolean resubmittedInline;
+
+		public ListenerQueue(ApplicationListener<?> listener) {
+			this.listener = listener;
+		}
+
+		public int size() {
+			this.lock.lock();
+			try {
+				return this.count;
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		/**
+		 * Queue the given event, applying the overflow policy if necessary.
+		 * @return {@code false} if this queue has been retired in the meantime
+		 */
+		public boolean offer(ApplicationEvent event, long timestamp, Executor executor) {
+			this.lock.lock();
+			try {
+				if (this.retired) {
+					return false;
+				}
+				while (this.count == this.capacity) {
+					OverflowPolicy policy = overflowPolicy;
+					if (policy == OverflowPolicy.DROP_OLDEST) {
+						take();
+						droppedCount.increment();
+					}
+					else if (policy == OverflowPolicy.CALLER_RUNS || this.processingLock.isHeldByCurrentThread()) {
+						// Blocking within the listener itself would never return
+						this.lock.unlock();
+						try {
+							runInCallerThread(event, timestamp);
+						}
+						finally {
+							this.lock.lock();
+						}
+						return true;
+					}
+					else {
+						try {
+							this.notFull.await();
+						}
+						catch (InterruptedException ex) {
+							Thread.currentThread().interrupt();
+							droppedCount.increment();
+							return true;
+						}
+						if (this.retired) {
+							return false;
+						}
+					}
+				}
+				if (this.count == this.events.length) {
+					grow();
+				}
+				int tail = (this.head + this.count) % this.events.length;
+				this.events[tail] = event;
+				this.timestamps[tail] = timestamp;
+				this.count++;
+				if (this.scheduled) {
+					return true;
+				}
+				this.scheduled = true;
+				this.executor = executor;
+			}
+			finally {
+				this.lock.unlock();
+			}
+			try {
+				executor.execute(this);
+			}
+			catch (RuntimeException ex) {
+				this.lock.lock();
+				try {
+					// Nothing would process the event: withdraw it before propagating the rejection.
+					// Events queued by other publishers in the meantime await the next submission.
+					this.scheduled = false;
+					withdraw(event);
+				}
+				finally {
+					this.lock.unlock();
+				}
+				throw ex;
+			}
+			return true;
+		}
+
+		private void runInCallerThread(ApplicationEvent event, long timestamp) {
+			callerRunsCount.increment();
+			this.processingLock.lock();
+			try {
+				ApplicationEvent[] batch = new ApplicationEvent[batchSize];
+				long[] batchTimestamps = new long[batchSize];
+				int size;
+				while ((size = poll(batch, batchTimestamps)) > 0) {
+					for (int i = 0; i < size; i++) {
+						dispatch(this.listener, batch[i], batchTimestamps[i]);
+					}
+				}
+				dispatch(this.listener, event, timestamp);
+			}
+			finally {
+				this.processingLock.unlock();
+			}
+		}
+
+		@Override
+		public void run() {
+			Thread currentThread = Thread.currentThread();
+			this.lock.lock();
+			try {
+				if (this.runner == currentThread) {
+					// Resubmitted to an executor running tasks in the calling thread:
+					// continue in the outer invocation instead of recursing
+					this.resubmittedInline = true;
+					return;
+				}
+				this.runner = currentThread;
+			}
+			finally {
+				this.lock.unlock();
+			}
+			try {
+				boolean processing = true;
+				while (processing) {
+					this.processingLock.lock();
+					try {
+						int size = poll(this.batch, this.batchTimestamps);
+						for (int i = 0; i < size; i++) {
+							ApplicationEvent event = this.batch[i];
+							this.batch[i] = null;
+							dispatch(this.listener, event, this.batchTimestamps[i]);
+						}
+					}
+					finally {
+						this.processingLock.unlock();
+					}
+					Executor executor;
+					this.lock.lock();
+					try {
+						if (this.count == 0) {
+							this.scheduled = false;
+							this.retired = true;
+							queues.remove(this.listener, this);
+							// Publishers waiting for room continue with a new queue
+							this.notFull.signalAll();
+							return;
+						}
+						Assert.state(this.executor != null, "No executor");
+						executor = this.executor;
+						this.resubmittedInline = false;
+					}
+					finally {
+						this.lock.unlock();
+					}
+					try {
+						// Yield to the other listeners before processing the next batch
+						executor.execute(this);
+					}
+					catch (RuntimeException ex) {
+						// Keep processing the queued events in the current thread instead
+						if (logger.isDebugEnabled()) {
+							logger.debug("Executor rejected task for listener [" + this.listener +
+									"] - processing next batch in current thread: " + ex);
+						}
+						continue;
+					}
+					this.lock.lock();
+					try {
+						processing = this.resubmittedInline;
+					}
+					finally {
+						this.lock.unlock();
+					}
+				}
+			}
+			finally {
+				this.lock.lock();
+				try {
+					if (this.runner == currentThread) {
+						this.runner = null;
+					}
+				}
+				finally {
+					this.lock.unlock();
+				}
+			}
+		}
+
+		private int poll(ApplicationEvent[] batch, long[] batchTimestamps) {
+			this.lock.lock();
+			try {
+				int size = Math.min(this.count, batch.length);
+				for (int i = 0; i < size; i++) {
+					batchTimestamps[i] = this.timestamps[this.head];
+					batch[i] = take();
+				}
+				if (size > 0) {
+					this.notFull.signalAll();
+				}
+				return size;
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		private void grow() {
+			int length = Math.min(this.events.length * 2, this.capacity);
+			ApplicationEvent[] events = new ApplicationEvent[length];
+			long[] timestamps = new long[length];
+			for (int i = 0; i < this.count; i++) {
+				int index = (this.head + i) % this.events.length;
+				events[i] = this.events[index];
+				timestamps[i] = this.timestamps[index];
+			}
+			this.events = events;
+			this.timestamps = timestamps;
+			this.head = 0;
+		}
+
+		/**
+		 * Remove the most recently queued occurrence of the given event.
+		 */
+		private void withdraw(ApplicationEvent event) {
+			for (int i = this.count - 1; i >= 0; i--) {
+				if (this.events[(this.head + i) % this.events.length] == event) {
+					for (int j = i + 1; j < this.count; j++) {
+						int from = (this.head + j) % this.events.length;
+						int to = (this.head + j - 1) % this.events.length;
+						this.events[to] = this.events[from];
+						this.timestamps[to] = this.timestamps[from];
+					}
+					this.events[(this.head + this.count - 1) % this.events.length] = null;
+					this.count--;
+					this.notFull.signalAll();
+					return;
+				}
+			}
+		}
+
+		private ApplicationEvent take() {
+			ApplicationEvent event = this.events[this.head];
+			this.events[this.head] = null;
+			this.head = (this.head + 1) % this.events.length;
+			this.count--;
+			return event;
+		}
+	}
+
+}
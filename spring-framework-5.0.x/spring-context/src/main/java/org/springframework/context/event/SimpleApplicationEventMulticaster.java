@@ -16,6 +16,7 @@
 
 package org.springframework.context.event;
 
+import java.util.Collection;
 import java.util.concurrent.Executor;
 
 import org.apache.commons.logging.Log;
@@ -124,14 +125,15 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 
 	@Override
 	public void multicastEvent(ApplicationEvent event) {
-		multicastEvent(event, resolveDefaultEventType(event));
+		multicastEvent(event, null);
 	}
 
 	@Override
 	public void multicastEvent(final ApplicationEvent event, @Nullable ResolvableType eventType) {
-		ResolvableType type = (eventType != null ? eventType : resolveDefaultEventType(event));
-		for (final ApplicationListener<?> listener : getApplicationListeners(event, type)) {
-			Executor executor = getTaskExecutor();
+		Collection<ApplicationListener<?>> listeners = (eventType != null ?
+				getApplicationListeners(event, eventType) : getApplicationListeners(event));
+		Executor executor = getTaskExecutor();
+		for (final ApplicationListener<?> listener : listeners) {
 			if (executor != null) {
 				executor.execute(() -> invokeListener(listener, event));
 			}
@@ -141,10 +143,6 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		}
 	}
 
-	private ResolvableType resolveDefaultEventType(ApplicationEvent event) {
-		return ResolvableType.forInstance(event);
-	}
-
 	/**
 	 * Invoke the given listener with the given event.
 	 * @param listener the ApplicationListener to invoke
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,7 +21,9 @@ import java.util.Map;
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionCache;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 
@@ -39,6 +41,10 @@ public abstract class CachedExpressionEvaluator {
 
 	private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
+	private final SpelExpressionCache expressionCache = new SpelExpressionCache();
+
+	private final StandardEvaluationContext evaluationDelegates = new StandardEvaluationContext();
+
 
 	/**
 	 * Create a new instance with the specified {@link SpelExpressionParser}.
@@ -71,10 +77,23 @@ public abstract class CachedExpressionEvaluator {
 		return this.parameterNameDiscoverer;
 	}
 
+	/**
+	 * Apply the delegates shared by all evaluation contexts of this evaluator
+	 * to the given context, so that the caches of their property accessors and
+	 * method resolvers are reused across evaluations.
+	 * @param evaluationContext a newly created evaluation context
+	 * @since 5.0.17
+	 * @see StandardEvaluationContext#applyDelegatesTo
+	 */
+	protected void applyDelegatesTo(StandardEvaluationContext evaluationContext) {
+		this.evaluationDelegates.applyDelegatesTo(evaluationContext);
+	}
+
 
 	/**
 	 * Return the {@link Expression} for the specified SpEL value
-	 * <p>Parse the expression if it hasn't been already.
+	 * <p>Parse the expression if it hasn't been already, reusing the syntax tree
+	 * parsed for another element of this evaluator if it is still cached.
 	 * @param cache the cache to use
 	 * @param elementKey the element on which the expression is defined
 	 * @param expression the expression to parse
@@ -85,7 +104,7 @@ public abstract class CachedExpressionEvaluator {
 		ExpressionKey expressionKey = createKey(elementKey, expression);
 		Expression expr = cache.get(expressionKey);
 		if (expr == null) {
-			expr = getParser().parseExpression(expression);
+			expr = this.expressionCache.parseExpression(getParser(), expression);
 			cache.put(expressionKey, expr);
 		}
 		return expr;
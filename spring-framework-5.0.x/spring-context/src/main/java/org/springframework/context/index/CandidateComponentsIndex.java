@@ -17,6 +17,7 @@
 package org.springframework.context.index;
 
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
@@ -26,6 +27,7 @@ import org.springframework.util.AntPathMatcher;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
 
 /**
  * Provide access to the candidates that are defined in {@code META-INF/spring.components}.
@@ -43,6 +45,14 @@ import org.springframework.util.MultiValueMap;
  * not a rule. Similarly, the {@code stereotype} is usually the fully qualified name of
  * a target type but it can be any marker really.
  *
+ * <p>As of 5.0.17, the index also takes the type details into account that are
+ * defined in {@code META-INF/spring.components.details}: all types of a module
+ * with their annotations (including meta-annotations) and supertypes, which are
+ * registered as additional stereotypes, as well as their conditions, profiles,
+ * {@code @Bean} methods and imports. If every module provides such details, the
+ * index is {@linkplain #isComplete() complete}: all its types are registered for
+ * the {@code java.lang.Object} stereotype.
+ *
  * @author Stephane Nicoll
  * @since 5.0
  */
@@ -52,12 +62,23 @@ public class CandidateComponentsIndex {
 
 	private final MultiValueMap<String, Entry> index;
 
+	private final MultiValueMap<String, String> details;
+
+	private final boolean complete;
+
 
 	CandidateComponentsIndex(List<Properties> content) {
+		this(content, Collections.emptyList(), false);
+	}
+
+	CandidateComponentsIndex(List<Properties> content, List<Properties> details, boolean complete) {
 		this.index = parseIndex(content);
+		this.details = parseDetails(details, this.index);
+		this.complete = complete;
 	}
 
 
+
 	/**
 	 * Return the candidate types that are associated with the specified stereotype.
 	 * @param basePackage the package to check for candidates
@@ -76,6 +97,74 @@ public class CandidateComponentsIndex {
 		return Collections.emptySet();
 	}
 
+	/**
+	 * Determine whether this index covers all types of the indexed modules,
+	 * rather than just the candidates for specific stereotypes. A complete
+	 * index provides a superset of the types that any type filter may match:
+	 * through the annotation or supertype names, or through the
+	 * {@code java.lang.Object} stereotype otherwise.
+	 * @since 5.0.17
+	 */
+	public boolean isComplete() {
+		return this.complete;
+	}
+
+	/**
+	 * Return the {@link org.springframework.context.annotation.Condition}
+	 * classes that the specified type declares, directly or through
+	 * meta-annotations such as {@code @Profile}.
+	 * @param type the fully qualified name of the type
+	 * @return the condition class names (empty if none or not indexed)
+	 * @since 5.0.17
+	 */
+	public Set<String> getConditionTypes(String type) {
+		return getDetails(type, "conditions");
+	}
+
+	/**
+	 * Return the profiles that the specified type declares.
+	 * @param type the fully qualified name of the type
+	 * @return the profile expressions (empty if none or not indexed)
+	 * @since 5.0.17
+	 */
+	public Set<String> getProfiles(String type) {
+		return getDetails(type, "profiles");
+	}
+
+	/**
+	 * Return the {@code @Bean} methods that the specified type declares.
+	 * <p>Overloaded methods share a name: the return types of all of them
+	 * are listed for it, in declaration order.
+	 * @param type the fully qualified name of the type
+	 * @return the method names, mapped to the names of their return types
+	 * (empty if none or not indexed)
+	 * @since 5.0.17
+	 */
+	public MultiValueMap<String, String> getBeanMethods(String type) {
+		MultiValueMap<String, String> beanMethods = new LinkedMultiValueMap<>();
+		for (String beanMethod : getDetails(type, "beans")) {
+			int separator = beanMethod.indexOf(':');
+			beanMethods.add(beanMethod.substring(0, separator), beanMethod.substring(separator + 1));
+		}
+		return beanMethods;
+	}
+
+	/**
+	 * Return the classes that the specified type imports, directly or through
+	 * meta-annotations such as {@code @Enable*} annotations.
+	 * @param type the fully qualified name of the type
+	 * @return the imported class names (empty if none or not indexed)
+	 * @since 5.0.17
+	 */
+	public Set<String> getImportedTypes(String type) {
+		return getDetails(type, "imports");
+	}
+
+	private Set<String> getDetails(String type, String attribute) {
+		List<String> values = this.details.get(type + '#' + attribute);
+		return (values != null ? new LinkedHashSet<>(values) : Collections.emptySet());
+	}
+
 	private static MultiValueMap<String, Entry> parseIndex(List<Properties> content) {
 		MultiValueMap<String, Entry> index = new LinkedMultiValueMap<>();
 		for (Properties entry : content) {
@@ -89,6 +178,43 @@ public class CandidateComponentsIndex {
 		return index;
 	}
 
+	private static MultiValueMap<String, String> parseDetails(
+			List<Properties> content, MultiValueMap<String, Entry> index) {
+
+		MultiValueMap<String, String> details = new LinkedMultiValueMap<>();
+		for (Properties entry : content) {
+			entry.forEach((key, values) -> {
+				String property = (String) key;
+				int separator = property.lastIndexOf('#');
+				if (separator == -1) {
+					return;
+				}
+				String type = property.substring(0, separator);
+				String attribute = property.substring(separator + 1);
+				String[] elements = StringUtils.commaDelimitedListToStringArray((String) values);
+				if ("annotations".equals(attribute)) {
+					for (String annotation : elements) {
+						index.add(annotation, new Entry(type));
+					}
+				}
+				else if ("supertypes".equals(attribute)) {
+					// Each type is assignable to itself, to its supertypes and to Object
+					index.add(type, new Entry(type));
+					index.add(Object.class.getName(), new Entry(type));
+					for (String supertype : elements) {
+						index.add(supertype, new Entry(type));
+					}
+				}
+				else {
+					for (String element : elements) {
+						details.add(property, element);
+					}
+				}
+			});
+		}
+		return details;
+	}
+
 	private static class Entry {
 		private final String type;
 		private final String packageName;
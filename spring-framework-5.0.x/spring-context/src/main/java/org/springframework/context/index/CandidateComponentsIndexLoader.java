@@ -20,8 +20,10 @@ import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.logging.Log;
@@ -47,6 +49,14 @@ public class CandidateComponentsIndexLoader {
 	 */
 	public static final String COMPONENTS_RESOURCE_LOCATION = "META-INF/spring.components";
 
+	/**
+	 * The location to look for type details, written by the indexer next to
+	 * {@value #COMPONENTS_RESOURCE_LOCATION} for all types of a module.
+	 * <p>Can be present in multiple JAR files.
+	 * @since 5.0.17
+	 */
+	public static final String DETAILS_RESOURCE_LOCATION = "META-INF/spring.components.details";
+
 	/**
 	 * System property that instructs Spring to ignore the index, i.e.
 	 * to always return {@code null} from {@link #loadIndex(ClassLoader)}.
@@ -97,16 +107,38 @@ public class CandidateComponentsIndexLoader {
 				return null;
 			}
 			List<Properties> result = new ArrayList<>();
+			List<Properties> details = new ArrayList<>();
+			Set<String> detailsLocations = new HashSet<>();
+			boolean complete = true;
+			String detailsFileName = DETAILS_RESOURCE_LOCATION.substring(DETAILS_RESOURCE_LOCATION.lastIndexOf('/') + 1);
 			while (urls.hasMoreElements()) {
 				URL url = urls.nextElement();
 				Properties properties = PropertiesLoaderUtils.loadProperties(new UrlResource(url));
 				result.add(properties);
+				// The index only covers all types if every module provides its details
+				UrlResource detailsResource = new UrlResource(new URL(url, detailsFileName));
+				if (detailsResource.exists()) {
+					details.add(PropertiesLoaderUtils.loadProperties(detailsResource));
+					detailsLocations.add(detailsResource.getURL().toString());
+				}
+				else {
+					complete = false;
+				}
+			}
+			// Modules without any stereotypes only provide details
+			Enumeration<URL> detailsUrls = classLoader.getResources(DETAILS_RESOURCE_LOCATION);
+			while (detailsUrls.hasMoreElements()) {
+				URL url = detailsUrls.nextElement();
+				if (detailsLocations.add(url.toString())) {
+					details.add(PropertiesLoaderUtils.loadProperties(new UrlResource(url)));
+				}
 			}
 			if (logger.isDebugEnabled()) {
-				logger.debug("Loaded " + result.size() + "] index(es)");
+				logger.debug("Loaded " + result.size() + "] index(es) and " + details.size() + " type details " +
+						(complete ? "covering all types" : "not covering all types"));
 			}
 			int totalCount = result.stream().mapToInt(Properties::size).sum();
-			return (totalCount > 0 ? new CandidateComponentsIndex(result) : null);
+			return (totalCount > 0 ? new CandidateComponentsIndex(result, details, complete) : null);
 		}
 		catch (IOException ex) {
 			throw new IllegalStateException("Unable to load indexes from location [" +
@@ -390,10 +390,8 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 			applicationEvent = (ApplicationEvent) event;
 		}
 		else {
+			// The multicaster resolves the default event type if necessary
 			applicationEvent = new PayloadApplicationEvent<>(this, event);
-			if (eventType == null) {
-				eventType = ((PayloadApplicationEvent<?>) applicationEvent).getResolvableType();
-			}
 		}
 
 		// Multicast right now if possible - or lazily once the multicaster is initialized
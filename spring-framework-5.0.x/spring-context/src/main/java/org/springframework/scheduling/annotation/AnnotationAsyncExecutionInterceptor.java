@@ -17,12 +17,18 @@
 package org.springframework.scheduling.annotation;
 
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 
 import org.springframework.aop.interceptor.AsyncExecutionInterceptor;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
 
 /**
  * Specialization of {@link AsyncExecutionInterceptor} that delegates method execution to
@@ -39,6 +45,14 @@ import org.springframework.lang.Nullable;
  */
 public class AnnotationAsyncExecutionInterceptor extends AsyncExecutionInterceptor {
 
+	private final AsyncExpressionEvaluator evaluator = new AsyncExpressionEvaluator();
+
+	private final Map<Method, String> shardingKeyExpressions = new ConcurrentHashMap<>(16);
+
+	@Nullable
+	private BeanFactory beanFactory;
+
+
 	/**
 	 * Create a new {@code AnnotationAsyncExecutionInterceptor} with the given executor
 	 * and a simple {@link AsyncUncaughtExceptionHandler}.
@@ -64,6 +78,13 @@ public class AnnotationAsyncExecutionInterceptor extends AsyncExecutionIntercept
 	}
 
 
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) {
+		super.setBeanFactory(beanFactory);
+		this.beanFactory = beanFactory;
+	}
+
+
 	/**
 	 * Return the qualifier or bean name of the executor to be used when executing the
 	 * given method, specified via {@link Async#value} at the method or declaring
@@ -87,4 +108,28 @@ public class AnnotationAsyncExecutionInterceptor extends AsyncExecutionIntercept
 		return (async != null ? async.value() : null);
 	}
 
+	/**
+	 * Evaluate the {@link Async#shardingKey()} expression specified at the method
+	 * or declaring class level, if any, against the invocation arguments.
+	 * @since 5.0.17
+	 * @see Async#shardingKey()
+	 */
+	@Override
+	@Nullable
+	protected Object getShardingKey(Method method, @Nullable Object target, Object[] args) {
+		String keyExpression = this.shardingKeyExpressions.computeIfAbsent(method, key -> {
+			Async async = AnnotatedElementUtils.findMergedAnnotation(key, Async.class);
+			if (async == null) {
+				async = AnnotatedElementUtils.findMergedAnnotation(key.getDeclaringClass(), Async.class);
+			}
+			return (async != null ? async.shardingKey() : "");
+		});
+		if (!StringUtils.hasText(keyExpression)) {
+			return null;
+		}
+		Class<?> targetClass = (target != null ? AopUtils.getTargetClass(target) : method.getDeclaringClass());
+		AnnotatedElementKey methodKey = new AnnotatedElementKey(method, targetClass);
+		return this.evaluator.shardingKey(keyExpression, method, methodKey, target, args, this.beanFactory);
+	}
+
 }
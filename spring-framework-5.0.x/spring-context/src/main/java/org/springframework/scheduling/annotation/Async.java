@@ -67,4 +67,21 @@ public @interface Async {
 	 */
 	String value() default "";
 
+	/**
+	 * Spring Expression Language (SpEL) expression computing the sharding key of an
+	 * invocation, for example {@code "#order.customerId"}.
+	 * <p>Invocations with equal (non-null) keys are executed one at a time, in the
+	 * order of submission, on one of a fixed number of serial lanes of the target
+	 * executor, while invocations mapped to different lanes run in parallel. This
+	 * allows for per-key ordering without explicit locking in the target method.
+	 * <p>The expression is evaluated against the invocation arguments, available
+	 * as {@code #root.args}, by index ({@code #p0}, {@code #a0}) or by parameter
+	 * name. The target method and instance are exposed as {@code #root.method}
+	 * and {@code #root.target}.
+	 * <p>Default is {@code ""}, meaning that invocations are not ordered.
+	 * @since 5.0.17
+	 * @see AsyncAnnotationBeanPostProcessor#setShardCount(int)
+	 */
+	String shardingKey() default "";
+
 }
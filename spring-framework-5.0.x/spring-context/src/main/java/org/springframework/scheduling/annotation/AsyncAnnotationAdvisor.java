@@ -25,6 +25,7 @@ import java.util.concurrent.Executor;
 import org.aopalliance.aop.Advice;
 
 import org.springframework.aop.Pointcut;
+import org.springframework.aop.interceptor.AsyncExecutionAspectSupport;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.aop.interceptor.SimpleAsyncUncaughtExceptionHandler;
 import org.springframework.aop.support.AbstractPointcutAdvisor;
@@ -123,6 +124,18 @@ public class AsyncAnnotationAdvisor extends AbstractPointcutAdvisor implements B
 		this.pointcut = buildPointcut(asyncAnnotationTypes);
 	}
 
+	/**
+	 * Set the number of serial lanes per executor for invocations that declare
+	 * a {@link Async#shardingKey() sharding key}.
+	 * @since 5.0.17
+	 * @see AsyncExecutionAspectSupport#setShardCount(int)
+	 */
+	public void setShardCount(int shardCount) {
+		if (this.advice instanceof AsyncExecutionAspectSupport) {
+			((AsyncExecutionAspectSupport) this.advice).setShardCount(shardCount);
+		}
+	}
+
 	/**
 	 * Set the {@code BeanFactory} to be used when looking up executors by qualifier.
 	 */
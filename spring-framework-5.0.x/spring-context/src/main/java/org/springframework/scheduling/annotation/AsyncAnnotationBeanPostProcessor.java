@@ -84,6 +84,9 @@ public class AsyncAnnotationBeanPostProcessor extends AbstractBeanFactoryAwareAd
 	@Nullable
 	private AsyncUncaughtExceptionHandler exceptionHandler;
 
+	@Nullable
+	private Integer shardCount;
+
 
 	public AsyncAnnotationBeanPostProcessor() {
 		setBeforeExistingAdvisors(true);
@@ -127,6 +130,18 @@ public class AsyncAnnotationBeanPostProcessor extends AbstractBeanFactoryAwareAd
 		this.exceptionHandler = exceptionHandler;
 	}
 
+	/**
+	 * Set the number of serial lanes per executor for invocations that declare
+	 * a {@link Async#shardingKey() sharding key}. Invocations with equal keys
+	 * always share a lane, so a higher count lets more keys proceed in parallel.
+	 * <p>Default is {@link AnnotationAsyncExecutionInterceptor#DEFAULT_SHARD_COUNT}.
+	 * @since 5.0.17
+	 */
+	public void setShardCount(int shardCount) {
+		Assert.isTrue(shardCount > 0, "'shardCount' must be greater than 0");
+		this.shardCount = shardCount;
+	}
+
 
 	@Override
 	public void setBeanFactory(BeanFactory beanFactory) {
@@ -136,6 +151,9 @@ public class AsyncAnnotationBeanPostProcessor extends AbstractBeanFactoryAwareAd
 		if (this.asyncAnnotationType != null) {
 			advisor.setAsyncAnnotationType(this.asyncAnnotationType);
 		}
+		if (this.shardCount != null) {
+			advisor.setShardCount(this.shardCount);
+		}
 		advisor.setBeanFactory(beanFactory);
 		this.advisor = advisor;
 	}
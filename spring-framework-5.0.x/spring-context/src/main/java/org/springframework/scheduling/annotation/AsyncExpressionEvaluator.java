@@ -0,0 +1,93 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.annotation;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.context.expression.AnnotatedElementKey;
+import org.springframework.context.expression.BeanFactoryResolver;
+import org.springframework.context.expression.CachedExpressionEvaluator;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.lang.Nullable;
+
+/**
+ * Utility class handling the SpEL expression parsing for {@link Async#shardingKey()}.
+ * Meant to be used as a reusable, thread-safe component.
+ *
+ * @since 5.0.17
+ * @see CachedExpressionEvaluator
+ */
+class AsyncExpressionEvaluator extends CachedExpressionEvaluator {
+
+	private final Map<ExpressionKey, Expression> shardingKeyCache = new ConcurrentHashMap<>(64);
+
+
+	/**
+	 * Evaluate the specified sharding key expression for the given invocation.
+	 */
+	@Nullable
+	public Object shardingKey(String keyExpression, Method method, AnnotatedElementKey methodKey,
+			@Nullable Object target, Object[] args, @Nullable BeanFactory beanFactory) {
+
+		AsyncExpressionRootObject root = new AsyncExpressionRootObject(method, target, args);
+		MethodBasedEvaluationContext evaluationContext = new MethodBasedEvaluationContext(
+				root, method, args, getParameterNameDiscoverer());
+		applyDelegatesTo(evaluationContext);
+		if (beanFactory != null) {
+			evaluationContext.setBeanResolver(new BeanFactoryResolver(beanFactory));
+		}
+		return getExpression(this.shardingKeyCache, methodKey, keyExpression).getValue(evaluationContext);
+	}
+
+
+	/**
+	 * Root object used during the evaluation of a sharding key expression.
+	 */
+	static class AsyncExpressionRootObject {
+
+		private final Method method;
+
+		@Nullable
+		private final Object target;
+
+		private final Object[] args;
+
+		public AsyncExpressionRootObject(Method method, @Nullable Object target, Object[] args) {
+			this.method = method;
+			this.target = target;
+			this.args = args;
+		}
+
+		public Method getMethod() {
+			return this.method;
+		}
+
+		@Nullable
+		public Object getTarget() {
+			return this.target;
+		}
+
+		public Object[] getArgs() {
+			return this.args;
+		}
+	}
+
+}
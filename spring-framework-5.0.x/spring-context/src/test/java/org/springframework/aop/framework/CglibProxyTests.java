@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,8 @@ import org.springframework.aop.MethodMatcher;
 import org.springframework.aop.Pointcut;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcutAdvisor;
+import org.springframework.cglib.proxy.Factory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextException;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
@@ -395,6 +397,23 @@ public class CglibProxyTests extends AbstractAopProxyTests implements Serializab
 		assertTrue(proxy.doWithVarargs(MyEnum.A, MyOtherEnum.C));
 	}
 
+	@Test
+	public void testFrozenProxyWithStaticTargetUsesFixedChains() {
+		NopInterceptor interceptor = new NopInterceptor();
+		NameMatchMethodPointcutAdvisor advisor = new NameMatchMethodPointcutAdvisor(interceptor);
+		advisor.setMappedName("getName");
+		MyBean target = new MyBean();
+		target.setName("myBean");
+		ProxyFactory proxyFactory = new ProxyFactory(target);
+		proxyFactory.addAdvisor(advisor);
+		proxyFactory.setFrozen(true);
+		MyBean proxy = (MyBean) proxyFactory.getProxy();
+		assertEquals("myBean", proxy.getName());
+		assertEquals(1, interceptor.getCount());
+		// The main callbacks plus a fixed chain callback for the single advised method
+		assertEquals(8, ((Factory) proxy).getCallbacks().length);
+	}
+
 
 	public static class MyBean {
 
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+/**
+ * Runs the {@link CglibProxyTests} against proxies with
+ * {@link ProxyConfig#setPrecompileInvokers precompiled invokers}.
+ */
+@SuppressWarnings("serial")
+public class PrecompiledCglibProxyTests extends CglibProxyTests {
+
+	@Override
+	protected Object createProxy(ProxyCreatorSupport as) {
+		as.setPrecompileInvokers(true);
+		return super.createProxy(as);
+	}
+
+	@Override
+	protected AopProxy createAopProxy(AdvisedSupport as) {
+		as.setPrecompileInvokers(true);
+		return super.createAopProxy(as);
+	}
+
+}
@@ -16,7 +16,10 @@
 
 package org.springframework.cache;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -103,6 +106,42 @@ public abstract class AbstractCacheTests<T extends Cache> {
 		cache.put(key, value);
 	}
 
+	@Test
+	public void testCachePutAllGetAll() {
+		T cache = getCache();
+
+		String key1 = createRandomKey();
+		String key2 = createRandomKey();
+		String key3 = createRandomKey();
+		Map<Object, Object> entries = new LinkedHashMap<>();
+		entries.put(key1, "enescu");
+		entries.put(key2, null);
+
+		assertTrue(cache.getAll(Arrays.asList(key1, key2, key3)).isEmpty());
+		cache.putAll(entries);
+		Map<Object, Cache.ValueWrapper> result = cache.getAll(Arrays.asList(key1, key2, key3));
+		assertEquals(2, result.size());
+		assertEquals("enescu", result.get(key1).get());
+		assertNull(result.get(key2).get());
+		assertFalse(result.containsKey(key3));
+	}
+
+	@Test
+	public void testCacheEvictAll() {
+		T cache = getCache();
+
+		String key1 = createRandomKey();
+		String key2 = createRandomKey();
+		String key3 = createRandomKey();
+		cache.put(key1, "enescu");
+		cache.put(key2, "vlaicu");
+		cache.put(key3, "george");
+		cache.evictAll(Arrays.asList(key1, key2));
+		assertNull(cache.get(key1));
+		assertNull(cache.get(key2));
+		assertEquals("george", cache.get(key3).get());
+	}
+
 	@Test
 	public void testCacheClear() throws Exception {
 		T cache = getCache();
@@ -159,6 +159,12 @@ public class AnnotationCacheOperationSourceTests {
 		getOps(AnnotatedClass.class, "invalidKeyAndKeyGeneratorSet");
 	}
 
+	@Test
+	public void keyAndBatchCannotBeSetTogether() {
+		this.exception.expect(IllegalStateException.class);
+		getOps(AnnotatedClass.class, "invalidKeyAndBatchSet");
+	}
+
 	@Test
 	public void customCacheManager() {
 		Collection<CacheOperation> ops = getOps(AnnotatedClass.class, "customCacheManager", 1);
@@ -375,6 +381,10 @@ public class AnnotationCacheOperationSourceTests {
 		public void invalidKeyAndKeyGeneratorSet() {
 		}
 
+		@Cacheable(cacheNames = "test", key = "#root.methodName", batch = true)
+		public void invalidKeyAndBatchSet() {
+		}
+
 		@CacheableFooCustomCacheManager
 		public void customCacheManagerInherited() {
 		}
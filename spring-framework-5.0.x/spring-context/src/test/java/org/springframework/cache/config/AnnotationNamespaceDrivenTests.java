@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -72,4 +72,11 @@ public class AnnotationNamespaceDrivenTests extends AbstractCacheAnnotationTests
 		assertSame(this.ctx.getBean("errorHandler", CacheErrorHandler.class), ci.getErrorHandler());
 	}
 
+	@Test
+	public void testRefreshExecutor() {
+		CacheInterceptor ci = this.ctx.getBean(
+				"org.springframework.cache.interceptor.CacheInterceptor#0", CacheInterceptor.class);
+		assertSame(this.ctx.getBean("refreshExecutor"), ci.getRefreshExecutor());
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.cache.config;
 
+import java.util.concurrent.Executor;
+
 import org.junit.Test;
 
 import org.springframework.beans.factory.BeanCreationException;
@@ -35,6 +37,7 @@ import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SyncTaskExecutor;
 
 import static org.junit.Assert.*;
 
@@ -65,6 +68,12 @@ public class EnableCachingTests extends AbstractCacheAnnotationTests {
 		assertSame(this.ctx.getBean("errorHandler", CacheErrorHandler.class), ci.getErrorHandler());
 	}
 
+	@Test
+	public void testRefreshExecutor() {
+		CacheInterceptor ci = this.ctx.getBean(CacheInterceptor.class);
+		assertSame(this.ctx.getBean("refreshExecutor", Executor.class), ci.getRefreshExecutor());
+	}
+
 	@Test
 	public void singleCacheManagerBean() {
 		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
@@ -169,6 +178,12 @@ public class EnableCachingTests extends AbstractCacheAnnotationTests {
 			return new SimpleCacheErrorHandler();
 		}
 
+		@Override
+		@Bean
+		public Executor refreshExecutor() {
+			return new SyncTaskExecutor();
+		}
+
 		@Bean
 		public KeyGenerator customKeyGenerator() {
 			return new SomeCustomKeyGenerator();
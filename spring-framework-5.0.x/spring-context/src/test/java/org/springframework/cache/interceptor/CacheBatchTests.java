@@ -0,0 +1,218 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.CacheTestUtils;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.CachingConfigurerSupport;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link Cacheable#batch() batch} cache operations.
+ */
+public class CacheBatchTests {
+
+	private ConfigurableApplicationContext context;
+
+	private Cache cache;
+
+	private BatchService service;
+
+
+	@Before
+	public void setUp() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.cache = this.context.getBean(CacheManager.class).getCache("testCache");
+		this.service = this.context.getBean(BatchService.class);
+	}
+
+	@After
+	public void closeContext() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+
+	@Test
+	public void missesAreLoadedInSingleInvocation() {
+		Map<Long, String> first = this.service.findAll(Arrays.asList(1L, 2L, 3L));
+		assertEquals(Arrays.asList(1L, 2L, 3L), new ArrayList<>(first.keySet()));
+		assertEquals(Collections.singletonList(Arrays.asList(1L, 2L, 3L)), this.service.getInvocations());
+		assertEquals("name-2", this.cache.get(2L).get());
+
+		Map<Long, String> second = this.service.findAll(Arrays.asList(5L, 2L, 4L, 3L));
+		assertEquals(Arrays.asList(5L, 2L, 4L, 3L), new ArrayList<>(second.keySet()));
+		assertEquals("name-5", second.get(5L));
+		assertEquals("name-2", second.get(2L));
+		assertEquals(Arrays.asList(5L, 4L), this.service.getInvocations().get(1));
+	}
+
+	@Test
+	public void allHitsSkipInvocation() {
+		this.cache.put(1L, "cached-1");
+		this.cache.put(2L, "cached-2");
+		Map<Long, String> result = this.service.findAll(Arrays.asList(1L, 2L));
+		assertEquals("cached-1", result.get(1L));
+		assertEquals("cached-2", result.get(2L));
+		assertTrue(this.service.getInvocations().isEmpty());
+	}
+
+	@Test
+	public void missingEntriesAreNotCached() {
+		Map<Long, String> result = this.service.findAll(Arrays.asList(1L, -1L));
+		assertEquals(1, result.size());
+		assertNull(this.cache.get(-1L));
+
+		this.service.findAll(Collections.singletonList(-1L));
+		assertEquals(2, this.service.getInvocations().size());
+	}
+
+	@Test
+	public void unlessIsEvaluatedPerValue() {
+		Map<Long, String> result = this.service.findAllUnlessBlank(Arrays.asList(1L, 0L));
+		assertEquals("", result.get(0L));
+		assertNotNull(this.cache.get(1L));
+		assertNull(this.cache.get(0L));
+	}
+
+	@Test
+	public void conditionBypassesCaching() {
+		this.cache.put(1L, "cached-1");
+		Map<Long, String> result = this.service.findAllWithCondition(Arrays.asList(1L, 2L), false);
+		assertEquals("name-1", result.get(1L));
+		assertEquals(Arrays.asList(1L, 2L), this.service.getInvocations().get(0));
+	}
+
+	@Test
+	public void keyIncludesOtherArguments() {
+		this.service.findAllWithCondition(Arrays.asList(1L, 2L), true);
+		assertNotNull(this.cache.get(new SimpleKey(1L, true)));
+		assertNull(this.cache.get(1L));
+	}
+
+	@Test
+	public void setParameterIsInvokedWithSet() {
+		Set<Long> ids = new LinkedHashSet<>(Arrays.asList(3L, 4L));
+		this.cache.put(3L, "cached-3");
+		Map<Long, String> result = this.service.findAllBySet(ids);
+		assertEquals(2, result.size());
+		assertEquals(Collections.singleton(4L), this.service.getInvocations().get(0));
+		// The original argument is restored after the invocation
+		assertEquals(2, ids.size());
+	}
+
+	@Test
+	public void severalCollectionParameters() {
+		try {
+			this.service.findAllInvalid(Collections.singletonList(1L), Collections.singletonList(2L));
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			assertTrue(ex.getMessage().contains("@Cacheable(batch=true) requires a single Collection parameter"));
+		}
+	}
+
+
+	static class BatchService {
+
+		private final List<Collection<Long>> invocations = new ArrayList<>();
+
+		public List<Collection<Long>> getInvocations() {
+			return this.invocations;
+		}
+
+		@Cacheable(cacheNames = "testCache", batch = true)
+		public Map<Long, String> findAll(List<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", batch = true, unless = "#result.isEmpty()")
+		public Map<Long, String> findAllUnlessBlank(List<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", batch = true, condition = "#cached")
+		public Map<Long, String> findAllWithCondition(Collection<Long> ids, boolean cached) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", batch = true)
+		public Map<Long, String> findAllBySet(Set<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", batch = true)
+		public Map<Long, String> findAllInvalid(List<Long> ids, List<Long> otherIds) {
+			return load(ids);
+		}
+
+		private Map<Long, String> load(Collection<Long> ids) {
+			this.invocations.add(ids);
+			Map<Long, String> result = new LinkedHashMap<>();
+			for (Long id : ids) {
+				if (id > 0) {
+					result.put(id, "name-" + id);
+				}
+				else if (id == 0) {
+					result.put(id, "");
+				}
+			}
+			return result;
+		}
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config extends CachingConfigurerSupport {
+
+		@Override
+		@Bean
+		public CacheManager cacheManager() {
+			return CacheTestUtils.createSimpleCacheManager("testCache");
+		}
+
+		@Bean
+		public BatchService batchService() {
+			return new BatchService();
+		}
+	}
+
+}
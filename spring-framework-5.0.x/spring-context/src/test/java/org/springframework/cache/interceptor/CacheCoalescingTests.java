@@ -0,0 +1,341 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.CacheTestUtils;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.CachingConfigurerSupport;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the coalescing of concurrent loads and the refresh-ahead of
+ * {@link Cacheable#sync() synchronized} cache operations.
+ */
+public class CacheCoalescingTests {
+
+	private ConfigurableApplicationContext context;
+
+	private CacheManager cacheManager;
+
+	private CoalescingService service;
+
+
+	@Before
+	public void setUp() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.cacheManager = this.context.getBean(CacheManager.class);
+		this.service = this.context.getBean(CoalescingService.class);
+	}
+
+	@After
+	public void closeContext() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+
+	@Test
+	public void severalCachesSync() {
+		Object first = this.service.severalCaches("key");
+		assertEquals(first, this.service.severalCaches("key"));
+		assertEquals(1, this.service.getInvocations());
+		assertCachedValue("testCache", "key", first);
+		assertCachedValue("anotherTestCache", "key", first);
+	}
+
+	@Test
+	public void severalCachesWithResolvedSync() {
+		Object first = this.service.severalCachesWithResolver("key");
+		assertEquals(first, this.service.severalCachesWithResolver("key"));
+		assertEquals(1, this.service.getInvocations());
+		assertCachedValue("testCache", "key", first);
+		assertCachedValue("anotherTestCache", "key", first);
+	}
+
+	@Test
+	public void concurrentMissesShareSingleLoad() throws Exception {
+		int callers = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(callers);
+		try {
+			List<Future<Object>> results = new ArrayList<>();
+			for (int i = 0; i < callers; i++) {
+				results.add(executor.submit(() -> this.service.blockingLoad("key")));
+			}
+			assertTrue(this.service.getLoadStarted().await(5, TimeUnit.SECONDS));
+			// Give the other callers a chance to join the in-flight load
+			Thread.sleep(100);
+			this.service.getLoadReleased().countDown();
+			for (Future<Object> result : results) {
+				assertEquals(0, result.get(5, TimeUnit.SECONDS));
+			}
+			assertEquals(1, this.service.getInvocations());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void failedLoadIsNotCached() {
+		try {
+			this.service.failingLoad("key");
+			fail("Should have thrown UnsupportedOperationException");
+		}
+		catch (UnsupportedOperationException ex) {
+			assertEquals("Expected failure 0", ex.getMessage());
+		}
+		assertNull(this.cacheManager.getCache("testCache").get("key"));
+		try {
+			this.service.failingLoad("key");
+			fail("Should have thrown UnsupportedOperationException");
+		}
+		catch (UnsupportedOperationException ex) {
+			assertEquals("Expected failure 1", ex.getMessage());
+		}
+	}
+
+	@Test
+	public void completableFutureSharesInFlightLoad() {
+		CompletableFuture<Object> first = this.service.futureLoad("key");
+		CompletableFuture<Object> second = this.service.futureLoad("key");
+		assertEquals(1, this.service.getInvocations());
+		assertFalse(first.isDone());
+		assertFalse(second.isDone());
+
+		this.service.getPendingFuture().complete("value");
+		assertEquals("value", first.join());
+		assertEquals("value", second.join());
+		assertCachedValue("testCache", "key", "value");
+
+		CompletableFuture<Object> third = this.service.futureLoad("key");
+		assertTrue(third.isDone());
+		assertEquals("value", third.join());
+		assertEquals(1, this.service.getInvocations());
+	}
+
+	@Test
+	public void completableFutureFailureIsNotCached() {
+		CompletableFuture<Object> first = this.service.futureLoad("key");
+		this.service.getPendingFuture().completeExceptionally(new IllegalStateException("Expected"));
+		assertTrue(first.isCompletedExceptionally());
+		assertNull(this.cacheManager.getCache("testCache").get("key"));
+
+		this.service.futureLoad("key");
+		assertEquals(2, this.service.getInvocations());
+	}
+
+	@Test
+	public void monoSharesInFlightLoad() {
+		Mono<Object> first = this.service.monoLoad("key");
+		Mono<Object> second = this.service.monoLoad("key");
+		assertEquals(1, this.service.getInvocations());
+
+		this.service.getPendingFuture().complete("value");
+		assertEquals("value", first.block());
+		assertEquals("value", second.block());
+		assertCachedValue("testCache", "key", "value");
+
+		assertEquals("value", this.service.monoLoad("key").block());
+		assertEquals(1, this.service.getInvocations());
+	}
+
+	@Test
+	public void completableFutureIsCachedAsIsByDefault() {
+		this.context.getBean(CacheInterceptor.class).setUnwrapAsyncResults(false);
+		CompletableFuture<Object> first = this.service.futureLoad("key");
+		assertSame(first, this.service.futureLoad("key"));
+		assertEquals(1, this.service.getInvocations());
+		assertCachedValue("testCache", "key", first);
+	}
+
+	@Test
+	public void refreshAheadServesStaleValue() {
+		assertEquals(0, this.service.refreshingLoad("key"));
+		assertEquals(1, this.service.getInvocations());
+
+		// Every hit is due for a refresh: the stale value is returned while reloading
+		assertEquals(0, this.service.refreshingLoad("key"));
+		assertEquals(2, this.service.getInvocations());
+		assertCachedValue("testCache", "key", 1);
+
+		assertEquals(1, this.service.refreshingLoad("key"));
+		assertEquals(3, this.service.getInvocations());
+	}
+
+	@Test
+	public void refreshAheadOnRefreshExecutor() {
+		List<Runnable> refreshes = new ArrayList<>();
+		this.context.getBean(CacheInterceptor.class).setRefreshExecutor(refreshes::add);
+		assertEquals(0, this.service.refreshingLoad("key"));
+		assertEquals(0, this.service.refreshingLoad("key"));
+		assertEquals(0, this.service.refreshingLoad("key"));
+		assertEquals(1, this.service.getInvocations());
+		assertEquals(1, refreshes.size());
+
+		refreshes.get(0).run();
+		assertEquals(2, this.service.getInvocations());
+		assertEquals(1, this.service.refreshingLoad("key"));
+	}
+
+	@Test
+	public void refreshAheadDisabledWithoutExecutor() {
+		this.context.getBean(CacheInterceptor.class).setRefreshExecutor(null);
+		assertEquals(0, this.service.refreshingLoad("key"));
+		assertEquals(0, this.service.refreshingLoad("key"));
+		assertEquals(1, this.service.getInvocations());
+	}
+
+	@Test
+	public void refreshAheadNotDueYet() {
+		assertEquals(0, this.service.lazilyRefreshingLoad("key"));
+		assertEquals(0, this.service.lazilyRefreshingLoad("key"));
+		assertEquals(1, this.service.getInvocations());
+	}
+
+	private void assertCachedValue(String cacheName, Object key, Object value) {
+		Cache.ValueWrapper wrapper = this.cacheManager.getCache(cacheName).get(key);
+		assertNotNull("No entry for '" + key + "' in cache '" + cacheName + "'", wrapper);
+		assertEquals(value, wrapper.get());
+	}
+
+
+	static class CoalescingService {
+
+		private final AtomicInteger invocations = new AtomicInteger();
+
+		private final CountDownLatch loadStarted = new CountDownLatch(1);
+
+		private final CountDownLatch loadReleased = new CountDownLatch(1);
+
+		private final CompletableFuture<Object> pendingFuture = new CompletableFuture<>();
+
+		public int getInvocations() {
+			return this.invocations.get();
+		}
+
+		public CountDownLatch getLoadStarted() {
+			return this.loadStarted;
+		}
+
+		public CountDownLatch getLoadReleased() {
+			return this.loadReleased;
+		}
+
+		public CompletableFuture<Object> getPendingFuture() {
+			return this.pendingFuture;
+		}
+
+		@Cacheable(cacheNames = {"testCache", "anotherTestCache"}, sync = true)
+		public Object severalCaches(Object arg1) {
+			return this.invocations.getAndIncrement();
+		}
+
+		@Cacheable(cacheResolver = "testCacheResolver", sync = true)
+		public Object severalCachesWithResolver(Object arg1) {
+			return this.invocations.getAndIncrement();
+		}
+
+		@Cacheable(cacheNames = {"testCache", "anotherTestCache"}, sync = true)
+		public Object blockingLoad(Object arg1) throws InterruptedException {
+			this.loadStarted.countDown();
+			this.loadReleased.await(5, TimeUnit.SECONDS);
+			return this.invocations.getAndIncrement();
+		}
+
+		@Cacheable(cacheNames = {"testCache", "anotherTestCache"}, sync = true)
+		public Object failingLoad(Object arg1) {
+			throw new UnsupportedOperationException("Expected failure " + this.invocations.getAndIncrement());
+		}
+
+		@Cacheable(cacheNames = "testCache", sync = true)
+		public CompletableFuture<Object> futureLoad(Object arg1) {
+			this.invocations.incrementAndGet();
+			return this.pendingFuture;
+		}
+
+		@Cacheable(cacheNames = "testCache", sync = true)
+		public Mono<Object> monoLoad(Object arg1) {
+			this.invocations.incrementAndGet();
+			return Mono.fromFuture(this.pendingFuture);
+		}
+
+		@Cacheable(cacheNames = "testCache", sync = true, refreshAfter = 0)
+		public Object refreshingLoad(Object arg1) {
+			return this.invocations.getAndIncrement();
+		}
+
+		@Cacheable(cacheNames = "testCache", sync = true, refreshAfter = 60000)
+		public Object lazilyRefreshingLoad(Object arg1) {
+			return this.invocations.getAndIncrement();
+		}
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config extends CachingConfigurerSupport {
+
+		@Override
+		@Bean
+		public CacheManager cacheManager() {
+			return CacheTestUtils.createSimpleCacheManager("testCache", "anotherTestCache");
+		}
+
+		@Bean
+		public CacheResolver testCacheResolver() {
+			return new NamedCacheResolver(cacheManager(), "testCache", "anotherTestCache");
+		}
+
+		@Override
+		public Executor refreshExecutor() {
+			// Refresh synchronously for deterministic assertions
+			return Runnable::run;
+		}
+
+		@Bean
+		public CoalescingService coalescingService(CacheInterceptor cacheInterceptor) {
+			cacheInterceptor.setUnwrapAsyncResults(true);
+			return new CoalescingService();
+		}
+	}
+
+}
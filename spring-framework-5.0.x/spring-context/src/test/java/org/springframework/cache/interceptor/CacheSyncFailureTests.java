@@ -72,17 +72,10 @@ public class CacheSyncFailureTests {
 	}
 
 	@Test
-	public void severalCachesSync() {
+	public void refreshAfterWithoutSync() {
 		this.thrown.expect(IllegalStateException.class);
-		this.thrown.expectMessage("@Cacheable(sync=true) only allows a single cache");
-		this.simpleService.severalCachesSync("key");
-	}
-
-	@Test
-	public void severalCachesWithResolvedSync() {
-		this.thrown.expect(IllegalStateException.class);
-		this.thrown.expectMessage("@Cacheable(sync=true) only allows a single cache");
-		this.simpleService.severalCachesWithResolvedSync("key");
+		this.thrown.expectMessage("@Cacheable(refreshAfter) requires sync=true");
+		this.simpleService.refreshAfterWithoutSync("key");
 	}
 
 	@Test
@@ -109,13 +102,8 @@ public class CacheSyncFailureTests {
 			return this.counter.getAndIncrement();
 		}
 
-		@Cacheable(cacheNames = {"testCache", "anotherTestCache"}, sync = true)
-		public Object severalCachesSync(Object arg1) {
-			return this.counter.getAndIncrement();
-		}
-
-		@Cacheable(cacheResolver = "testCacheResolver", sync = true)
-		public Object severalCachesWithResolvedSync(Object arg1) {
+		@Cacheable(cacheNames = "testCache", refreshAfter = 1000)
+		public Object refreshAfterWithoutSync(Object arg1) {
 			return this.counter.getAndIncrement();
 		}
 
@@ -144,11 +132,6 @@ public class CacheSyncFailureTests {
 			return CacheTestUtils.createSimpleCacheManager("testCache", "anotherTestCache");
 		}
 
-		@Bean
-		public CacheResolver testCacheResolver() {
-			return new NamedCacheResolver(cacheManager(), "testCache", "anotherTestCache");
-		}
-
 		@Bean
 		public SimpleService simpleService() {
 			return new SimpleService();
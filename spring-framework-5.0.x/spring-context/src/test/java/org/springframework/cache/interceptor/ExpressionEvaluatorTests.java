@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -140,6 +140,41 @@ public class ExpressionEvaluatorTests {
 		assertThat(value, is(String.class.getName()));
 	}
 
+	@Test
+	public void bindKeyToArgument() {
+		Method method = ReflectionUtils.findMethod(AnnotatedClass.class, "multipleCaching", Object.class, Object.class);
+		Object[] args = new Object[] {"first", "second"};
+		assertEquals("second", this.eval.bindKey("#b", method).resolve(args));
+		assertEquals("second", this.eval.bindKey("#p1", method).resolve(args));
+		assertEquals("first", this.eval.bindKey("#a0", method).resolve(args));
+		assertEquals("second", this.eval.bindKey(" #root.args[1] ", method).resolve(args));
+	}
+
+	@Test
+	public void bindKeyToArgumentProperty() {
+		Method method = ReflectionUtils.findMethod(AnnotatedClass.class, "multipleCaching", Object.class, Object.class);
+		ArgumentKeyExpression key = this.eval.bindKey("#a.bytes.length", method);
+		assertNotNull(key);
+		for (int i = 0; i < 5; i++) {
+			assertEquals(3, key.resolve(new Object[] {"abc", null}));
+		}
+		assertFalse(key.canResolve(new Object[] {null, "abc"}));
+		assertTrue(this.eval.bindKey("#b", method).canResolve(new Object[] {"abc", null}));
+	}
+
+	@Test
+	public void bindKeyNotPossible() {
+		Method method = ReflectionUtils.findMethod(AnnotatedClass.class, "multipleCaching", Object.class, Object.class);
+		assertNull(this.eval.bindKey("#a + #b", method));
+		assertNull(this.eval.bindKey("#c", method));
+		assertNull(this.eval.bindKey("#p2", method));
+		assertNull(this.eval.bindKey("#result", method));
+		assertNull(this.eval.bindKey("#a.toString()", method));
+		assertNull(this.eval.bindKey("#root.methodName", method));
+		Method varArgsMethod = ReflectionUtils.findMethod(AnnotatedClass.class, "varArgs", Object[].class);
+		assertNull(this.eval.bindKey("#p0", varArgsMethod));
+	}
+
 	private EvaluationContext createEvaluationContext(Object result) {
 		return createEvaluationContext(result, null);
 	}
@@ -160,6 +195,9 @@ public class ExpressionEvaluatorTests {
 		@Caching(cacheable = { @Cacheable(value = "test", key = "#a"), @Cacheable(value = "test", key = "#b") })
 		public void multipleCaching(Object a, Object b) {
 		}
+
+		public void varArgs(Object... values) {
+		}
 	}
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.cache.interceptor;
 
+import java.util.Arrays;
+
 import org.junit.Test;
 
 import static org.hamcrest.Matchers.*;
@@ -111,6 +113,14 @@ public class SimpleKeyGeneratorTests {
 		assertThat(k1, not(equalTo(k3)));
 	}
 
+	@Test
+	public void hashCodeIsDeepHashCode() {
+		Object[] flat = new Object[] {"a", null, 1};
+		Object[] nested = new Object[] {"a", new int[] {1, 2}, new String[] {"b"}};
+		assertThat(generateKey(flat).hashCode(), equalTo(Arrays.deepHashCode(flat)));
+		assertThat(generateKey(nested).hashCode(), equalTo(Arrays.deepHashCode(nested)));
+	}
+
 
 	private Object generateKey(Object[] arguments) {
 		return this.generator.generate(null, null, arguments);
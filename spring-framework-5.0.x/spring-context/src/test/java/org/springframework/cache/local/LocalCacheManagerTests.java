@@ -0,0 +1,113 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.local;
+
+import java.time.Duration;
+
+import org.junit.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link LocalCacheManager}.
+ *
+ * @since 5.0.17
+ */
+public class LocalCacheManagerTests {
+
+	@Test
+	public void testDynamicMode() {
+		CacheManager cm = new LocalCacheManager();
+		Cache cache1 = cm.getCache("c1");
+		assertTrue(cache1 instanceof LocalCache);
+		Cache cache1again = cm.getCache("c1");
+		assertSame(cache1again, cache1);
+		Cache cache2 = cm.getCache("c2");
+		assertTrue(cache2 instanceof LocalCache);
+		Cache cache2again = cm.getCache("c2");
+		assertSame(cache2again, cache2);
+
+		cache1.put("key1", "value1");
+		assertEquals("value1", cache1.get("key1").get());
+		cache1.put("key2", 2);
+		assertEquals(2, cache1.get("key2").get());
+		cache1.put("key3", null);
+		assertNull(cache1.get("key3").get());
+		cache1.evict("key3");
+		assertNull(cache1.get("key3"));
+
+		assertEquals("value1", cache1.putIfAbsent("key1", "value1x").get());
+		assertEquals("value1", cache1.get("key1").get());
+		assertNull(cache1.putIfAbsent("key3", null));
+		assertNull(cache1.putIfAbsent("key3", null).get());
+		cache1.evict("key3");
+		assertNull(cache1.get("key3"));
+	}
+
+	@Test
+	public void testStaticMode() {
+		LocalCacheManager cm = new LocalCacheManager("c1", "c2");
+		Cache cache1 = cm.getCache("c1");
+		assertTrue(cache1 instanceof LocalCache);
+		Cache cache2 = cm.getCache("c2");
+		assertTrue(cache2 instanceof LocalCache);
+		assertNull(cm.getCache("c3"));
+
+		cm.setAllowNullValues(false);
+		Cache cache1x = cm.getCache("c1");
+		assertTrue(cache1x instanceof LocalCache);
+		assertTrue(cache1x != cache1);
+		assertNull(cm.getCache("c3"));
+	}
+
+	@Test
+	public void testCacheConfiguration() {
+		LocalCacheManager cm = new LocalCacheManager("c1");
+		cm.setMaximumSize(50);
+		cm.setExpireAfterWrite(Duration.ofMinutes(1));
+		cm.setRecordStats(true);
+
+		LocalCache cache1 = (LocalCache) cm.getCache("c1");
+		assertEquals(50, cache1.getNativeCache().getMaximum());
+		assertTrue(cache1.getNativeCache().isRecordStats());
+		for (int i = 0; i < 500; i++) {
+			cache1.put(i, i);
+		}
+		cache1.getNativeCache().cleanUp();
+		assertEquals(50, cache1.getNativeCache().getEstimatedSize());
+		assertEquals(450, cache1.getStatistics().getEvictionCount());
+	}
+
+	@Test
+	public void testWeightedCacheConfiguration() {
+		LocalCacheManager cm = new LocalCacheManager();
+		cm.setMaximumWeight(100);
+		cm.setWeigher((key, value) -> ((String) value).length());
+
+		LocalCache cache1 = (LocalCache) cm.getCache("c1");
+		for (int i = 0; i < 100; i++) {
+			cache1.put(i, "0123456789");
+		}
+		cache1.getNativeCache().cleanUp();
+		assertEquals(100, cache1.getNativeCache().getWeightedSize());
+		assertEquals(10, cache1.getNativeCache().getEstimatedSize());
+	}
+
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.local;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link LocalCacheStore}.
+ *
+ * @since 5.0.17
+ */
+public class LocalCacheStoreTests {
+
+	private final AtomicLong ticker = new AtomicLong();
+
+
+	@Test
+	public void boundedBySize() {
+		LocalCacheStore store = LocalCacheStore.builder().maximumSize(10).recordStats(true).build();
+		for (int i = 0; i < 100; i++) {
+			store.put(i, "value" + i);
+		}
+		store.cleanUp();
+		assertEquals(10, store.getEstimatedSize());
+		assertEquals(10, store.getWeightedSize());
+		assertEquals(90, store.getStatistics().getEvictionCount());
+		assertEquals(90, store.getStatistics().getEvictionWeight());
+	}
+
+	@Test
+	public void boundedByWeight() {
+		LocalCacheStore store = LocalCacheStore.builder()
+				.maximumWeight(20).weigher((key, value) -> (Integer) value).build();
+		store.put("a", 5);
+		store.put("b", 5);
+		store.put("c", 5);
+		store.cleanUp();
+		assertEquals(15, store.getWeightedSize());
+
+		store.put("a", 11);
+		store.cleanUp();
+		assertEquals(2, store.getEstimatedSize());
+		assertTrue(store.getWeightedSize() <= 20);
+
+		store.put("huge", 50);
+		store.cleanUp();
+		assertNull(store.get("huge"));
+	}
+
+	@Test
+	public void frequentlyUsedEntriesSurviveScan() {
+		LocalCacheStore store = LocalCacheStore.builder().maximumSize(100).build();
+		for (int i = 0; i < 100; i++) {
+			store.put("hot" + i, i);
+		}
+		for (int round = 0; round < 5; round++) {
+			for (int i = 0; i < 100; i++) {
+				store.get("hot" + i);
+			}
+			store.cleanUp();
+		}
+		for (int i = 0; i < 1000; i++) {
+			store.put("cold" + i, i);
+		}
+		store.cleanUp();
+
+		int retained = 0;
+		for (int i = 0; i < 100; i++) {
+			if (store.get("hot" + i) != null) {
+				retained++;
+			}
+		}
+		assertTrue("Only " + retained + " hot entries retained", retained >= 90);
+		assertEquals(100, store.getEstimatedSize());
+	}
+
+	@Test
+	public void expireAfterWrite() {
+		LocalCacheStore store = LocalCacheStore.builder()
+				.expireAfterWrite(Duration.ofNanos(100)).ticker(this.ticker::get).recordStats(true).build();
+		store.put("key", "value");
+		this.ticker.addAndGet(50);
+		assertEquals("value", store.get("key"));
+		this.ticker.addAndGet(50);
+		assertNull(store.get("key"));
+		store.cleanUp();
+		assertEquals(0, store.getEstimatedSize());
+		assertEquals(1, store.getStatistics().getEvictionCount());
+	}
+
+	@Test
+	public void expireAfterWriteRefreshedByUpdate() {
+		LocalCacheStore store = LocalCacheStore.builder()
+				.expireAfterWrite(Duration.ofNanos(100)).ticker(this.ticker::get).build();
+		store.put("key", "value1");
+		store.put("other", "value");
+		this.ticker.addAndGet(60);
+		store.put("key", "value2");
+		this.ticker.addAndGet(60);
+		store.cleanUp();
+		assertEquals("value2", store.get("key"));
+		assertNull(store.get("other"));
+		assertEquals(1, store.getEstimatedSize());
+	}
+
+	@Test
+	public void expireAfterAccess() {
+		LocalCacheStore store = LocalCacheStore.builder()
+				.expireAfterAccess(Duration.ofNanos(100)).ticker(this.ticker::get).build();
+		store.put("key", "value");
+		store.put("other", "value");
+		for (int i = 0; i < 5; i++) {
+			this.ticker.addAndGet(60);
+			assertEquals("value", store.get("key"));
+		}
+		store.cleanUp();
+		assertEquals(1, store.getEstimatedSize());
+		assertNull(store.get("other"));
+		this.ticker.addAndGet(100);
+		assertNull(store.get("key"));
+	}
+
+	@Test
+	public void computeIfAbsent() {
+		LocalCacheStore store = LocalCacheStore.builder().maximumSize(10).build();
+		AtomicInteger counter = new AtomicInteger();
+		assertEquals(1, store.computeIfAbsent("key", key -> counter.incrementAndGet()));
+		assertEquals(1, store.computeIfAbsent("key", key -> counter.incrementAndGet()));
+		assertNull(store.computeIfAbsent("other", key -> null));
+		assertNull(store.get("other"));
+		assertEquals(1, counter.get());
+	}
+
+	@Test
+	public void computeIfAbsentReplacesExpiredEntry() {
+		LocalCacheStore store = LocalCacheStore.builder()
+				.expireAfterWrite(Duration.ofNanos(100)).ticker(this.ticker::get).build();
+		store.put("key", "value1");
+		this.ticker.addAndGet(100);
+		assertEquals("value2", store.computeIfAbsent("key", key -> "value2"));
+		assertEquals("value2", store.putIfAbsent("key", "value3"));
+		store.cleanUp();
+		assertEquals(1, store.getEstimatedSize());
+	}
+
+	@Test
+	public void removeAndClear() {
+		LocalCacheStore store = LocalCacheStore.builder().maximumSize(10).build();
+		store.put("a", "1");
+		store.put("b", "2");
+		store.remove("a");
+		assertNull(store.get("a"));
+		store.cleanUp();
+		assertEquals(1, store.getWeightedSize());
+		store.clear();
+		assertNull(store.get("b"));
+		assertEquals(0, store.getEstimatedSize());
+		assertEquals(0, store.getWeightedSize());
+	}
+
+	@Test
+	public void concurrentAccess() throws Exception {
+		LocalCacheStore store = LocalCacheStore.builder().maximumSize(100).build();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				futures.add(executor.submit(() -> {
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					for (int i = 0; i < 20000; i++) {
+						int key = random.nextInt(1000);
+						switch (random.nextInt(4)) {
+							case 0:
+								store.put(key, key);
+								break;
+							case 1:
+								store.remove(key);
+								break;
+							case 2:
+								assertEquals(key, store.computeIfAbsent(key, k -> k));
+								break;
+							default:
+								Object value = store.get(key);
+								assertTrue(value == null || value.equals(key));
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		store.cleanUp();
+		assertTrue(store.getEstimatedSize() <= 100);
+		assertEquals(store.getEstimatedSize(), store.getWeightedSize());
+	}
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.local;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cache.AbstractValueAdaptingCacheTests;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link LocalCache}.
+ *
+ * @since 5.0.17
+ */
+public class LocalCacheTests extends AbstractValueAdaptingCacheTests<LocalCache> {
+
+	private LocalCacheStore nativeCache;
+
+	private LocalCache cache;
+
+	private LocalCache cacheNoNull;
+
+
+	@Before
+	public void setUp() {
+		this.nativeCache = LocalCacheStore.builder().maximumSize(100).recordStats(true).build();
+		this.cache = new LocalCache(CACHE_NAME, this.nativeCache);
+		this.cacheNoNull = new LocalCache(CACHE_NAME_NO_NULL, LocalCacheStore.builder().build(), false);
+	}
+
+	@Override
+	protected LocalCache getCache() {
+		return getCache(true);
+	}
+
+	@Override
+	protected LocalCache getCache(boolean allowNull) {
+		return (allowNull ? this.cache : this.cacheNoNull);
+	}
+
+	@Override
+	protected LocalCacheStore getNativeCache() {
+		return this.nativeCache;
+	}
+
+	@Test
+	public void putIfAbsentReturnsExistingValue() {
+		assertNull(this.cache.putIfAbsent("key", "value1"));
+		assertEquals("value1", this.cache.putIfAbsent("key", "value2").get());
+		assertEquals("value1", this.cache.get("key").get());
+	}
+
+	@Test
+	public void statistics() {
+		this.cache.put("key", "value");
+		this.cache.get("key");
+		this.cache.get("other");
+		this.cache.get("other", () -> "loaded");
+
+		LocalCacheStatistics statistics = this.cache.getStatistics();
+		assertEquals(1, statistics.getHitCount());
+		assertEquals(2, statistics.getMissCount());
+		assertEquals(2, statistics.getPutCount());
+		assertEquals(3, statistics.getRequestCount());
+	}
+
+}
@@ -74,6 +74,10 @@ public class ClassPathScanningCandidateComponentProviderTests {
 			ClassPathScanningCandidateComponentProviderTests.class.getClassLoader(),
 			new ClassPathResource("spring.components", NamedComponent.class));
 
+	private static final ClassLoader TEST_COMPLETE_CLASSLOADER = CandidateComponentsTestClassLoader.index(
+			ClassPathScanningCandidateComponentProviderTests.class.getClassLoader(),
+			new ClassPathResource("complete/spring.components", NamedComponent.class));
+
 
 	@Test
 	public void defaultsWithScan() {
@@ -254,6 +258,30 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		assertBeanDefinitionType(candidates, ScannedGenericBeanDefinition.class);
 	}
 
+	@Test
+	public void customNotSupportedIncludeFilterWithCompleteIndex() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(false);
+		provider.setResourceLoader(new DefaultResourceLoader(TEST_COMPLETE_CLASSLOADER));
+		provider.addIncludeFilter(new AssignableTypeFilter(FooDao.class));
+		Set<BeanDefinition> candidates = provider.findCandidateComponents(TEST_BASE_PACKAGE);
+		assertTrue(containsBeanClass(candidates, StubFooDao.class));
+		assertEquals(1, candidates.size());
+		assertBeanDefinitionType(candidates, AnnotatedGenericBeanDefinition.class);
+	}
+
+	@Test
+	public void customRegexIncludeFilterWithCompleteIndex() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(false);
+		provider.setResourceLoader(new DefaultResourceLoader(TEST_COMPLETE_CLASSLOADER));
+		provider.addIncludeFilter(new RegexPatternTypeFilter(Pattern.compile(TEST_BASE_PACKAGE + ".*Named.*")));
+		Set<BeanDefinition> candidates = provider.findCandidateComponents(TEST_BASE_PACKAGE);
+		assertTrue(containsBeanClass(candidates, DefaultNamedComponent.class));
+		assertTrue(containsBeanClass(candidates, NamedComponent.class));
+		assertTrue(containsBeanClass(candidates, NamedStubDao.class));
+		assertEquals(3, candidates.size());
+		assertBeanDefinitionType(candidates, AnnotatedGenericBeanDefinition.class);
+	}
+
 	@Test
 	public void excludeFilterWithScan() {
 		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
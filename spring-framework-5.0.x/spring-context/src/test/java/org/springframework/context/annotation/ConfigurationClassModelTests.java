@@ -0,0 +1,298 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.aop.scope.ScopedObject;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.SpringProperties;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.tests.sample.beans.TestBean;
+import org.springframework.util.ClassUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ConfigurationClassModel} and {@link ConfigurationClassModelGenerator}.
+ *
+ * @since 5.0.17
+ */
+public class ConfigurationClassModelTests {
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+	@After
+	public void resetCondition() {
+		ToggleCondition.matches = true;
+		SpringProperties.setProperty(ConfigurationClassModel.ENABLE_MODEL, null);
+	}
+
+
+	@Test
+	public void modelIsRecorded() throws Exception {
+		ConfigurationClassModel model = roundTrip(generate(RootConfig.class));
+		assertTrue(model.getBeanDefinitionNames().contains("testBean"));
+		assertTrue(model.getBeanDefinitionNames().contains("conditionalBean"));
+		assertTrue(model.getBeanDefinitionNames().contains(ImportedConfig.class.getName()));
+		assertFalse(model.getBeanDefinitionNames().contains("rootConfig"));
+	}
+
+	@Test
+	public void modelIsAppliedInsteadOfParsing() throws Exception {
+		ConfigurationClassModel model = roundTrip(generate(RootConfig.class));
+		// Would exclude the conditional bean if configuration classes got parsed
+		ToggleCondition.matches = false;
+
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ctx.setConfigurationModel(model);
+		ctx.register(RootConfig.class);
+		ctx.refresh();
+
+		assertTrue(ctx.containsBean("conditionalBean"));
+		assertEquals("p2TestBean", ctx.getBean("testBean", TestBean.class).getName());
+		assertSame(ctx.getBean("namedBean"), ctx.getBean("aliasBean"));
+		assertTrue(ClassUtils.isCglibProxy(ctx.getBean(RootConfig.class)));
+		assertSame(ctx.getBean("testBean"), ctx.getBean(RootConfig.class).testBean("other"));
+
+		Object scoped = ctx.getBean("scopedBean");
+		assertTrue(AopUtils.isCglibProxy(scoped));
+		assertTrue(scoped instanceof ScopedObject);
+		assertSame(scoped, ctx.getBean(TestBeanHolder.class).scopedBean);
+
+		AnnotationMetadata importMetadata = ctx.getBean(ImportedConfig.class).importMetadata;
+		assertNotNull(importMetadata);
+		assertEquals(RootConfig.class.getName(), importMetadata.getClassName());
+		assertEquals("imported", ctx.getBean("importedBean"));
+		ctx.close();
+	}
+
+	@Test
+	public void modelIsIgnoredForDifferentClasses() throws Exception {
+		ConfigurationClassModel model = generate(RootConfig.class);
+
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ctx.setConfigurationModel(model);
+		ctx.register(ImportedConfig.class);
+		ctx.refresh();
+
+		assertTrue(ctx.containsBean("importedBean"));
+		assertFalse(ctx.containsBean("testBean"));
+		ctx.close();
+	}
+
+	@Test
+	public void modelIsIgnoredForDifferentProfiles() throws Exception {
+		ConfigurationClassModel model = generate(RootConfig.class);
+		ToggleCondition.matches = false;
+
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ctx.setConfigurationModel(model);
+		ctx.getEnvironment().setActiveProfiles("other");
+		ctx.register(RootConfig.class);
+		ctx.refresh();
+
+		assertTrue(ctx.containsBean("testBean"));
+		assertFalse(ctx.containsBean("conditionalBean"));
+		ctx.close();
+	}
+
+	@Test
+	public void modelIsDetectedOnlyIfEnabled() throws Exception {
+		File root = this.temporaryFolder.newFolder();
+		File file = new File(root, ConfigurationClassModel.MODEL_LOCATION);
+		assertTrue(file.getParentFile().mkdirs());
+		try (OutputStream out = new FileOutputStream(file)) {
+			generate(RootConfig.class).writeTo(out);
+		}
+		ClassLoader classLoader = new URLClassLoader(new URL[] {root.toURI().toURL()}, getClass().getClassLoader());
+		// Would exclude the conditional bean if configuration classes got parsed
+		ToggleCondition.matches = false;
+
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ctx.setClassLoader(classLoader);
+		ctx.register(RootConfig.class);
+		ctx.refresh();
+		assertFalse(ctx.containsBean("conditionalBean"));
+		ctx.close();
+
+		SpringProperties.setFlag(ConfigurationClassModel.ENABLE_MODEL);
+		ctx = new AnnotationConfigApplicationContext();
+		ctx.setClassLoader(classLoader);
+		ctx.register(RootConfig.class);
+		ctx.refresh();
+		assertTrue(ctx.containsBean("conditionalBean"));
+		ctx.close();
+	}
+
+	@Test
+	public void modelIsReadWithGivenClassLoader() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		generate(TargetTypeConfig.class).writeTo(out);
+		Set<String> loadedClassNames = new HashSet<>();
+		ClassLoader classLoader = new ClassLoader(getClass().getClassLoader()) {
+			@Override
+			public Class<?> loadClass(String name) throws ClassNotFoundException {
+				loadedClassNames.add(name);
+				return super.loadClass(name);
+			}
+		};
+
+		ConfigurationClassModel.readFrom(new ByteArrayInputStream(out.toByteArray()), classLoader);
+		assertTrue(loadedClassNames.contains(TestBean.class.getName()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unsupportedBeanDefinitionIsRejected() {
+		generate(RegistrarConfig.class);
+	}
+
+
+	private ConfigurationClassModel generate(Class<?>... annotatedClasses) {
+		return new ConfigurationClassModelGenerator(getClass().getClassLoader()).generate(annotatedClasses);
+	}
+
+	private ConfigurationClassModel roundTrip(ConfigurationClassModel model) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		model.writeTo(out);
+		return ConfigurationClassModel.readFrom(new ByteArrayInputStream(out.toByteArray()));
+	}
+
+
+	@Configuration
+	@Import(ImportedConfig.class)
+	@PropertySource("classpath:org/springframework/context/annotation/p2.properties")
+	static class RootConfig {
+
+		@Bean
+		public TestBean testBean(@Value("${testbean.name}") String name) {
+			return new TestBean(name);
+		}
+
+		@Bean({"namedBean", "aliasBean"})
+		public TestBean namedBean() {
+			return new TestBean();
+		}
+
+		@Bean
+		@Scope(value = "prototype", proxyMode = ScopedProxyMode.TARGET_CLASS)
+		public TestBean scopedBean() {
+			return new TestBean();
+		}
+
+		@Bean
+		public TestBeanHolder testBeanHolder(TestBean scopedBean) {
+			return new TestBeanHolder(scopedBean);
+		}
+
+		@Bean
+		@Conditional(ToggleCondition.class)
+		public String conditionalBean() {
+			return "conditional";
+		}
+	}
+
+
+	@Configuration
+	static class ImportedConfig implements ImportAware {
+
+		AnnotationMetadata importMetadata;
+
+		@Override
+		public void setImportMetadata(AnnotationMetadata importMetadata) {
+			this.importMetadata = importMetadata;
+		}
+
+		@Bean
+		public String importedBean() {
+			return "imported";
+		}
+	}
+
+
+	static class TestBeanHolder {
+
+		final TestBean scopedBean;
+
+		TestBeanHolder(TestBean scopedBean) {
+			this.scopedBean = scopedBean;
+		}
+	}
+
+
+	static class ToggleCondition implements Condition {
+
+		static volatile boolean matches = true;
+
+		@Override
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			return matches && !context.getEnvironment().acceptsProfiles("other");
+		}
+	}
+
+
+	@Configuration
+	@Import(SupplierRegistrar.class)
+	static class RegistrarConfig {
+	}
+
+
+	static class SupplierRegistrar implements ImportBeanDefinitionRegistrar {
+
+		@Override
+		public void registerBeanDefinitions(AnnotationMetadata importingClassMetadata, BeanDefinitionRegistry registry) {
+			registry.registerBeanDefinition("supplied", new RootBeanDefinition(TestBean.class, TestBean::new));
+		}
+	}
+
+
+	@Configuration
+	@Import(TargetTypeRegistrar.class)
+	static class TargetTypeConfig {
+	}
+
+
+	static class TargetTypeRegistrar implements ImportBeanDefinitionRegistrar {
+
+		@Override
+		public void registerBeanDefinitions(AnnotationMetadata importingClassMetadata, BeanDefinitionRegistry registry) {
+			RootBeanDefinition bd = new RootBeanDefinition();
+			bd.setTargetType(TestBean.class);
+			registry.registerBeanDefinition("typed", bd);
+		}
+	}
+
+}
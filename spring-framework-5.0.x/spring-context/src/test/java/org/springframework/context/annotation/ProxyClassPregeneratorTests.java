@@ -0,0 +1,181 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.interceptor.DebugInterceptor;
+import org.springframework.cglib.core.GeneratedClassCache;
+import org.springframework.core.OverridingClassLoader;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.FileSystemUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ProxyClassPregenerator} and the use of a
+ * {@link GeneratedClassCache} by CGLIB-based proxies.
+ *
+ * @since 5.0.17
+ */
+public class ProxyClassPregeneratorTests {
+
+	private File directory;
+
+	private RecordingClassCache cache;
+
+
+	@Before
+	public void setup() throws Exception {
+		this.directory = Files.createTempDirectory("proxies").toFile();
+		this.cache = new RecordingClassCache(this.directory.getPath());
+	}
+
+	@After
+	public void cleanup() {
+		GeneratedClassCache.setSharedInstance(null);
+		FileSystemUtils.deleteRecursively(this.directory);
+	}
+
+
+	@Test
+	public void configurationClassIsPregenerated() throws Exception {
+		ProxyClassPregenerator.pregenerate(this.cache, Config.class.getName());
+
+		// The enhanced class, plus the FastClasses generated for its method proxies
+		assertEquals(3, this.cache.stored.size());
+		String className = this.cache.stored.get(0);
+		assertTrue(className.startsWith(Config.class.getName() + "$$EnhancerBySpringCGLIB$$"));
+		for (String storedClassName : this.cache.stored) {
+			assertTrue(storedClassName.startsWith(Config.class.getName()));
+			assertTrue(storedClassName.endsWith(className.substring(className.lastIndexOf('$'))));
+			assertTrue(new File(this.directory,
+					ClassUtils.convertClassNameToResourcePath(storedClassName) + ".class").isFile());
+		}
+		assertNull(GeneratedClassCache.getSharedInstance());
+	}
+
+	@Test
+	public void cglibProxyClassIsReusedAcrossClassLoaders() throws Exception {
+		GeneratedClassCache.setSharedInstance(this.cache);
+
+		Class<?> firstProxyClass = createProxy(new TargetClassLoader()).getClass();
+		assertFalse(this.cache.stored.isEmpty());
+		assertEquals(firstProxyClass.getName(), this.cache.stored.get(0));
+		assertTrue(this.cache.loaded.isEmpty());
+
+		Class<?> secondProxyClass = createProxy(new TargetClassLoader()).getClass();
+		assertNotSame(firstProxyClass, secondProxyClass);
+		assertEquals(firstProxyClass.getName(), secondProxyClass.getName());
+		assertEquals(this.cache.stored, this.cache.loaded);
+	}
+
+	@Test
+	public void cglibProxyClassIsNotCachedWithoutSharedInstance() throws Exception {
+		createProxy(new TargetClassLoader());
+		assertTrue(this.cache.stored.isEmpty());
+		assertEquals(0, this.directory.list().length);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void readOnlyCacheCannotBePopulated() throws Exception {
+		GeneratedClassCache readOnlyCache = new GeneratedClassCache("classpath:proxies");
+		assertTrue(readOnlyCache.isReadOnly());
+		ProxyClassPregenerator.pregenerate(readOnlyCache, Config.class.getName());
+	}
+
+	private Object createProxy(ClassLoader classLoader) throws Exception {
+		Class<?> targetClass = classLoader.loadClass(Target.class.getName());
+		assertSame(classLoader, targetClass.getClassLoader());
+		ProxyFactory proxyFactory = new ProxyFactory(targetClass.newInstance());
+		proxyFactory.setProxyTargetClass(true);
+		proxyFactory.addAdvice(new DebugInterceptor());
+		Object proxy = proxyFactory.getProxy(classLoader);
+		assertEquals("target", proxy.toString());
+		return proxy;
+	}
+
+
+	@Configuration
+	static class Config {
+
+		@Bean
+		public Target target() {
+			return new Target();
+		}
+	}
+
+
+	public static class Target {
+
+		@Override
+		public String toString() {
+			return "target";
+		}
+	}
+
+
+	private static class TargetClassLoader extends OverridingClassLoader {
+
+		public TargetClassLoader() {
+			super(ProxyClassPregeneratorTests.class.getClassLoader());
+		}
+
+		@Override
+		protected boolean isEligibleForOverriding(String className) {
+			return Target.class.getName().equals(className);
+		}
+	}
+
+
+	private static class RecordingClassCache extends GeneratedClassCache {
+
+		final List<String> loaded = new ArrayList<>();
+
+		final List<String> stored = new ArrayList<>();
+
+		public RecordingClassCache(String location) {
+			super(location);
+		}
+
+		@Override
+		@Nullable
+		public byte[] load(String className, @Nullable ClassLoader classLoader) {
+			byte[] bytecode = super.load(className, classLoader);
+			if (bytecode != null) {
+				this.loaded.add(className);
+			}
+			return bytecode;
+		}
+
+		@Override
+		public void store(String className, byte[] bytecode) {
+			super.store(className, bytecode);
+			this.stored.add(className);
+		}
+	}
+
+}
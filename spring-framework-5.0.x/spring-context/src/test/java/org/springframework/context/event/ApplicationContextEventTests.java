@@ -321,6 +321,35 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		context.close();
 	}
 
+	@Test
+	public void listenersInApplicationContextWithDispatchCache() {
+		StaticApplicationContext context = new StaticApplicationContext();
+		context.registerBeanDefinition("listener", new RootBeanDefinition(MyPayloadListener.class));
+		context.refresh();
+
+		MyPayloadListener listener = context.getBean("listener", MyPayloadListener.class);
+		context.publishEvent("event1");
+		context.publishEvent(2);
+		context.publishEvent("event3");
+		assertTrue(listener.seenPayloads.contains("event1"));
+		assertTrue(listener.seenPayloads.contains(2));
+		assertTrue(listener.seenPayloads.contains("event3"));
+
+		AbstractApplicationEventMulticaster multicaster = context.getBean(AbstractApplicationEventMulticaster.class);
+		assertEquals(2, multicaster.payloadDispatchCache.size());
+		assertEquals(1, multicaster.eventDispatchCache.size());
+
+		MyOrderedListener1 addedListener = new MyOrderedListener1();
+		context.addApplicationListener(addedListener);
+		assertEquals(0, multicaster.payloadDispatchCache.size());
+		assertEquals(0, multicaster.eventDispatchCache.size());
+		context.publishEvent("event4");
+		assertTrue(listener.seenPayloads.contains("event4"));
+		assertEquals(1, addedListener.seenEvents.size());
+
+		context.close();
+	}
+
 	@Test
 	public void listenersInApplicationContextWithNestedChild() {
 		StaticApplicationContext context = new StaticApplicationContext();
@@ -306,6 +306,19 @@ public class ApplicationListenerMethodAdapterTests extends AbstractApplicationEv
 		verify(this.sampleEvents, times(2)).handleStringOrInteger();
 	}
 
+	@Test
+	public void invokeListenerWithCustomArgumentResolution() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "handleString", String.class);
+		ApplicationListenerMethodAdapter listener = new StaticApplicationListenerMethodAdapter(method, this.sampleEvents) {
+			@Override
+			protected Object[] resolveArguments(ApplicationEvent event) {
+				return new Object[] {"custom"};
+			}
+		};
+		listener.onApplicationEvent(new PayloadApplicationEvent<>(this, "test"));
+		verify(this.sampleEvents, times(1)).handleString("custom");
+	}
+
 	@Test
 	public void beanInstanceRetrievedAtEveryInvocation() {
 		Method method = ReflectionUtils.findMethod(
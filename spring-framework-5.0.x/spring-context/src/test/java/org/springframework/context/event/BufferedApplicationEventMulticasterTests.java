@@ -0,0 +1,340 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.BufferedApplicationEventMulticaster.OverflowPolicy;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BufferedApplicationEventMulticaster}.
+ *
+ * @since 5.0.17
+ */
+public class BufferedApplicationEventMulticasterTests {
+
+	private final BufferedApplicationEventMulticaster multicaster = new BufferedApplicationEventMulticaster();
+
+	private final List<Runnable> tasks = new LinkedList<>();
+
+	private ExecutorService executorService;
+
+
+	@After
+	public void shutdown() {
+		if (this.executorService != null) {
+			this.executorService.shutdownNow();
+		}
+	}
+
+
+	@Test
+	public void eventsAreDispatchedInOrderPerListener() throws Exception {
+		this.executorService = Executors.newFixedThreadPool(4);
+		this.multicaster.setTaskExecutor(this.executorService);
+		this.multicaster.setBatchSize(8);
+		List<RecordingListener> listeners = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			RecordingListener listener = new RecordingListener(500);
+			this.multicaster.addApplicationListener(listener);
+			listeners.add(listener);
+		}
+
+		for (int i = 0; i < 500; i++) {
+			this.multicaster.multicastEvent(new TestEvent(i));
+		}
+		for (RecordingListener listener : listeners) {
+			assertTrue(listener.latch.await(10, TimeUnit.SECONDS));
+			for (int i = 0; i < 500; i++) {
+				assertEquals(i, listener.events.get(i).getSource());
+			}
+		}
+		assertEquals(1500, this.multicaster.getDispatchedCount());
+		assertEquals(0, this.multicaster.getDroppedCount());
+		assertTrue(this.multicaster.getMaxDispatchLatency() >= this.multicaster.getAverageDispatchLatency());
+	}
+
+	@Test
+	public void eventsAreQueuedUntilProcessed() {
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		RecordingListener listener = new RecordingListener(3);
+		this.multicaster.addApplicationListener(listener);
+
+		publish(1, 2, 3);
+		assertEquals(1, this.tasks.size());
+		assertEquals(3, this.multicaster.getQueueDepth());
+		assertEquals(3, this.multicaster.getQueueDepth(listener));
+		assertTrue(listener.events.isEmpty());
+
+		runTasks();
+		assertEquals(Arrays.asList(1, 2, 3), listener.getSources());
+		assertEquals(0, this.multicaster.getQueueDepth());
+		assertEquals(3, this.multicaster.getDispatchedCount());
+	}
+
+	@Test
+	public void batchesYieldToOtherTasks() {
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		this.multicaster.setBatchSize(2);
+		RecordingListener listener = new RecordingListener(5);
+		this.multicaster.addApplicationListener(listener);
+
+		publish(1, 2, 3, 4, 5);
+		this.tasks.remove(0).run();
+		assertEquals(Arrays.asList(1, 2), listener.getSources());
+		assertEquals(1, this.tasks.size());
+		runTasks();
+		assertEquals(Arrays.asList(1, 2, 3, 4, 5), listener.getSources());
+	}
+
+	@Test
+	public void dropOldestOverflowPolicy() {
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		this.multicaster.setQueueCapacity(2);
+		this.multicaster.setOverflowPolicy(OverflowPolicy.DROP_OLDEST);
+		RecordingListener listener = new RecordingListener(2);
+		this.multicaster.addApplicationListener(listener);
+
+		publish(1, 2, 3, 4, 5);
+		assertEquals(2, this.multicaster.getQueueDepth());
+		assertEquals(3, this.multicaster.getDroppedCount());
+		runTasks();
+		assertEquals(Arrays.asList(4, 5), listener.getSources());
+	}
+
+	@Test
+	public void callerRunsOverflowPolicy() {
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		this.multicaster.setQueueCapacity(2);
+		this.multicaster.setOverflowPolicy(OverflowPolicy.CALLER_RUNS);
+		RecordingListener listener = new RecordingListener(4);
+		this.multicaster.addApplicationListener(listener);
+
+		publish(1, 2, 3);
+		assertEquals(Arrays.asList(1, 2, 3), listener.getSources());
+		assertEquals(1, this.multicaster.getCallerRunsCount());
+		publish(4);
+		runTasks();
+		assertEquals(Arrays.asList(1, 2, 3, 4), listener.getSources());
+		assertEquals(0, this.multicaster.getDroppedCount());
+	}
+
+	@Test
+	public void blockOverflowPolicy() throws Exception {
+		this.executorService = Executors.newSingleThreadExecutor();
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		this.multicaster.setQueueCapacity(2);
+		RecordingListener listener = new RecordingListener(3);
+		this.multicaster.addApplicationListener(listener);
+
+		publish(1, 2);
+		CountDownLatch published = new CountDownLatch(1);
+		this.executorService.execute(() -> {
+			publish(3);
+			published.countDown();
+		});
+		assertFalse(published.await(200, TimeUnit.MILLISECONDS));
+		runTasks();
+		assertTrue(published.await(10, TimeUnit.SECONDS));
+		runTasks();
+		assertEquals(Arrays.asList(1, 2, 3), listener.getSources());
+	}
+
+	@Test
+	public void listenerExceptionDoesNotStopQueue() {
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		RecordingListener listener = new RecordingListener(2);
+		this.multicaster.addApplicationListener(event -> {
+			throw new IllegalStateException("Test exception");
+		});
+		this.multicaster.addApplicationListener(listener);
+
+		publish(1, 2);
+		runTasks();
+		assertEquals(Arrays.asList(1, 2), listener.getSources());
+	}
+
+	@Test
+	public void rejectedEventIsNotQueued() {
+		AtomicBoolean rejecting = new AtomicBoolean(true);
+		this.multicaster.setTaskExecutor(task -> {
+			if (rejecting.get()) {
+				throw new RejectedExecutionException("Test rejection");
+			}
+			this.tasks.add(task);
+		});
+		RecordingListener listener = new RecordingListener(1);
+		this.multicaster.addApplicationListener(listener);
+
+		try {
+			publish(1);
+			fail("Should have thrown RejectedExecutionException");
+		}
+		catch (RejectedExecutionException ex) {
+			// expected
+		}
+		assertEquals(0, this.multicaster.getQueueDepth());
+
+		rejecting.set(false);
+		publish(2);
+		runTasks();
+		assertEquals(Arrays.asList(2), listener.getSources());
+	}
+
+	@Test
+	public void rejectedBatchIsProcessedInCurrentThread() {
+		AtomicBoolean rejecting = new AtomicBoolean(false);
+		this.multicaster.setTaskExecutor(task -> {
+			if (rejecting.get()) {
+				throw new RejectedExecutionException("Test rejection");
+			}
+			this.tasks.add(task);
+		});
+		this.multicaster.setBatchSize(2);
+		RecordingListener listener = new RecordingListener(5);
+		this.multicaster.addApplicationListener(listener);
+
+		publish(1, 2, 3, 4, 5);
+		rejecting.set(true);
+		runTasks();
+		assertEquals(Arrays.asList(1, 2, 3, 4, 5), listener.getSources());
+		assertEquals(0, this.multicaster.getQueueDepth());
+	}
+
+	@Test
+	public void taskIsSubmittedWithoutHoldingQueueLock() throws Exception {
+		this.executorService = Executors.newSingleThreadExecutor();
+		Callable<Integer> queueDepth = this.multicaster::getQueueDepth;
+		List<Integer> queueDepths = new ArrayList<>();
+		this.multicaster.setTaskExecutor(task -> {
+			try {
+				// Would time out if the queue were still locked by the publisher
+				queueDepths.add(this.executorService.submit(queueDepth).get(10, TimeUnit.SECONDS));
+			}
+			catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+			this.tasks.add(task);
+		});
+		this.multicaster.setBatchSize(1);
+		RecordingListener listener = new RecordingListener(2);
+		this.multicaster.addApplicationListener(listener);
+
+		publish(1, 2);
+		runTasks();
+		assertEquals(Arrays.asList(1, 1), queueDepths);
+		assertEquals(Arrays.asList(1, 2), listener.getSources());
+	}
+
+	@Test
+	public void inlineResubmissionDoesNotRecurse() {
+		AtomicBoolean inline = new AtomicBoolean(false);
+		this.multicaster.setTaskExecutor(task -> {
+			if (inline.get()) {
+				task.run();
+			}
+			else {
+				this.tasks.add(task);
+			}
+		});
+		this.multicaster.setBatchSize(1);
+		List<Integer> stackDepths = new ArrayList<>();
+		this.multicaster.addApplicationListener((ApplicationListener<TestEvent>) event ->
+				stackDepths.add(Thread.currentThread().getStackTrace().length));
+
+		publish(1, 2, 3, 4, 5);
+		inline.set(true);
+		runTasks();
+		assertEquals(5, stackDepths.size());
+		assertEquals(stackDepths.get(0), stackDepths.get(4));
+		assertEquals(0, this.multicaster.getQueueDepth());
+	}
+
+	@Test
+	public void synchronousWithoutTaskExecutor() {
+		RecordingListener listener = new RecordingListener(1);
+		this.multicaster.addApplicationListener(listener);
+		publish(1);
+		assertEquals(Arrays.asList(1), listener.getSources());
+		assertEquals(0, this.multicaster.getDispatchedCount());
+	}
+
+
+	private void publish(int... sources) {
+		for (int source : sources) {
+			this.multicaster.multicastEvent(new TestEvent(source));
+		}
+	}
+
+	private void runTasks() {
+		while (!this.tasks.isEmpty()) {
+			this.tasks.remove(0).run();
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	private static class TestEvent extends ApplicationEvent {
+
+		public TestEvent(int source) {
+			super(source);
+		}
+	}
+
+
+	private static class RecordingListener implements ApplicationListener<TestEvent> {
+
+		private final List<TestEvent> events = new CopyOnWriteArrayList<>();
+
+		private final CountDownLatch latch;
+
+		public RecordingListener(int expectedEvents) {
+			this.latch = new CountDownLatch(expectedEvents);
+		}
+
+		@Override
+		public void onApplicationEvent(TestEvent event) {
+			this.events.add(event);
+			this.latch.countDown();
+		}
+
+		public List<Object> getSources() {
+			List<Object> sources = new ArrayList<>();
+			this.events.forEach(event -> sources.add(event.getSource()));
+			return sources;
+		}
+	}
+
+}
@@ -84,6 +84,45 @@ public class CandidateComponentsIndexLoaderTests {
 		assertThat(components, hasSize(0));
 	}
 
+	@Test
+	public void loadIndexWithDetails() {
+		CandidateComponentsIndex index = CandidateComponentsIndexLoader.loadIndex(
+				CandidateComponentsTestClassLoader.index(getClass().getClassLoader(),
+						new ClassPathResource("details/spring.components", getClass())));
+		assertTrue(index.isComplete());
+		assertThat(index.getCandidateTypes("org.springframework", "foo"),
+				contains("org.springframework.context.index.Sample1"));
+		assertThat(index.getCandidateTypes("org.springframework", "org.springframework.context.index.Base"),
+				containsInAnyOrder("org.springframework.context.index.Sample1", "org.springframework.context.index.Sample2"));
+		assertThat(index.getCandidateTypes("org.springframework", Object.class.getName()),
+				containsInAnyOrder("org.springframework.context.index.Sample1", "org.springframework.context.index.Sample2"));
+		assertThat(index.getProfiles("org.springframework.context.index.Sample1"), contains("dev", "test"));
+		assertThat(index.getImportedTypes("org.springframework.context.index.Sample1"),
+				contains("org.springframework.context.index.Sample3"));
+		assertEquals("org.springframework.context.index.Sample2",
+				index.getBeanMethods("org.springframework.context.index.Sample1").get("first"));
+	}
+
+	@Test
+	public void loadIndexWithoutDetails() {
+		CandidateComponentsIndex index = CandidateComponentsIndexLoader.loadIndex(
+				CandidateComponentsTestClassLoader.index(getClass().getClassLoader(),
+						new ClassPathResource("spring.components", getClass())));
+		assertFalse(index.isComplete());
+		assertThat(index.getCandidateTypes("org.springframework", Object.class.getName()), hasSize(0));
+	}
+
+	@Test
+	public void loadIndexWithPartialDetails() {
+		CandidateComponentsIndex index = CandidateComponentsIndexLoader.loadIndex(
+				CandidateComponentsTestClassLoader.index(getClass().getClassLoader(),
+						new ClassPathResource("spring.components", getClass()),
+						new ClassPathResource("details/spring.components", getClass())));
+		assertFalse(index.isComplete());
+		assertThat(index.getCandidateTypes("org.springframework", "org.springframework.context.index.Base"),
+				hasSize(2));
+	}
+
 	@Test
 	public void loadIndexNoSpringComponentsResource() {
 		CandidateComponentsIndex index = CandidateComponentsIndexLoader.loadIndex(
@@ -77,6 +77,45 @@ public class CandidateComponentsIndexTests {
 				contains("com.example.Foo"));
 	}
 
+	@Test
+	public void detailsRegisterAdditionalStereotypes() {
+		Properties details = new Properties();
+		details.put("com.example.service.Five#annotations", "com.example.Meta,service");
+		details.put("com.example.service.Five#supertypes", "com.example.Base");
+		CandidateComponentsIndex index = new CandidateComponentsIndex(
+				Collections.singletonList(createSampleProperties()), Collections.singletonList(details), true);
+		assertTrue(index.isComplete());
+		assertThat(index.getCandidateTypes("com.example", "com.example.Meta"), contains("com.example.service.Five"));
+		assertThat(index.getCandidateTypes("com.example", "com.example.Base"), contains("com.example.service.Five"));
+		assertThat(index.getCandidateTypes("com.example", "com.example.service.Five"),
+				contains("com.example.service.Five"));
+		assertThat(index.getCandidateTypes("com.example", Object.class.getName()), contains("com.example.service.Five"));
+		assertThat(index.getCandidateTypes("com.example.service", "service"), containsInAnyOrder(
+				"com.example.service.One", "com.example.service.sub.Two", "com.example.service.Three",
+				"com.example.service.Five"));
+	}
+
+	@Test
+	public void detailsExposeConfigurationAttributes() {
+		Properties details = new Properties();
+		details.put("com.example.Config#supertypes", "");
+		details.put("com.example.Config#profiles", "dev");
+		details.put("com.example.Config#conditions", "com.example.FooCondition");
+		details.put("com.example.Config#beans", "foo:com.example.Foo,bar:java.lang.String,foo:com.example.Bar");
+		details.put("com.example.Config#imports", "com.example.Other");
+		CandidateComponentsIndex index = new CandidateComponentsIndex(
+				Collections.emptyList(), Collections.singletonList(details), false);
+		assertFalse(index.isComplete());
+		assertThat(index.getProfiles("com.example.Config"), contains("dev"));
+		assertThat(index.getConditionTypes("com.example.Config"), contains("com.example.FooCondition"));
+		assertThat(index.getImportedTypes("com.example.Config"), contains("com.example.Other"));
+		assertThat(index.getBeanMethods("com.example.Config").get("foo"),
+				contains("com.example.Foo", "com.example.Bar"));
+		assertThat(index.getBeanMethods("com.example.Config").get("bar"), contains("java.lang.String"));
+		assertThat(index.getProfiles("com.example.Other"), hasSize(0));
+		assertEquals(0, index.getBeanMethods("com.example.Other").size());
+	}
+
 	private static Properties createProperties(String key, String stereotypes) {
 		Properties properties = new Properties();
 		properties.put(key, String.join(",", stereotypes));
@@ -58,6 +58,24 @@ public class AnnotationAsyncExecutionInterceptorTests {
 		}
 	}
 
+	@Test
+	@SuppressWarnings("unused")
+	public void testGetShardingKey() throws SecurityException, NoSuchMethodException {
+		AnnotationAsyncExecutionInterceptor i = new AnnotationAsyncExecutionInterceptor(null);
+		{ // method level, by parameter index
+			class C { @Async(shardingKey = "#p0.length()") void m(String s) { } }
+			assertThat(i.getShardingKey(C.class.getDeclaredMethod("m", String.class), new C(), new Object[] {"abc"}), is(3));
+		}
+		{ // class level, from root object
+			@Async(shardingKey = "#root.args[1]") class C { void m(String s, Integer n) { } }
+			assertThat(i.getShardingKey(C.class.getDeclaredMethod("m", String.class, Integer.class), new C(), new Object[] {"abc", 7}), is(7));
+		}
+		{ // no sharding key
+			class C { @Async void m(String s) { } }
+			assertThat(i.getShardingKey(C.class.getDeclaredMethod("m", String.class), new C(), new Object[] {"abc"}), is(nullValue()));
+		}
+	}
+
 	@Async("qMeta")
 	@Retention(RetentionPolicy.RUNTIME)
 	@interface MyAsync { }
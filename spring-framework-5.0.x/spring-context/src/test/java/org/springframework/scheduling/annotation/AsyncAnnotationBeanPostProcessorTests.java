@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,10 @@
 package org.springframework.scheduling.annotation;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
@@ -26,6 +30,7 @@ import java.util.concurrent.TimeUnit;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.junit.Test;
 
+import org.springframework.aop.framework.Advised;
 import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.aop.support.AopUtils;
@@ -38,6 +43,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.support.GenericXmlApplicationContext;
 import org.springframework.context.support.StaticApplicationContext;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.concurrent.ListenableFuture;
@@ -267,6 +273,78 @@ public class AsyncAnnotationBeanPostProcessorTests {
 		}
 	}
 
+	@Test
+	public void invokedInOrderPerShardingKey() throws Exception {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(8);
+		executor.afterPropertiesSet();
+		StaticApplicationContext context = new StaticApplicationContext();
+		BeanDefinition processorDefinition = new RootBeanDefinition(AsyncAnnotationBeanPostProcessor.class);
+		processorDefinition.getPropertyValues().add("executor", executor);
+		processorDefinition.getPropertyValues().add("shardCount", 4);
+		context.registerBeanDefinition("postProcessor", processorDefinition);
+		context.registerBeanDefinition("target", new RootBeanDefinition(ShardedTestBean.class));
+		context.refresh();
+
+		ShardedTestBean testBean = context.getBean("target", ShardedTestBean.class);
+		assertTrue(AopUtils.isAopProxy(testBean));
+		List<Future<Object>> futures = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			futures.add(testBean.process("customer" + (i % 10), i));
+		}
+		for (Future<Object> future : futures) {
+			future.get(10, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+		assertTrue(executor.getThreadPoolExecutor().awaitTermination(10, TimeUnit.SECONDS));
+
+		ShardedTestBean target = (ShardedTestBean) ((Advised) testBean).getTargetSource().getTarget();
+		assertEquals(10, target.invocations.size());
+		target.invocations.forEach((customer, values) -> {
+			assertEquals(20, values.size());
+			for (int i = 1; i < values.size(); i++) {
+				assertTrue(values.get(i - 1) < values.get(i));
+			}
+		});
+		context.close();
+	}
+
+	@Test
+	public void shardedInvocationsCompleteWhenExecutorStopsAccepting() throws Exception {
+		RecordingExecutor executor = new RecordingExecutor();
+		StaticApplicationContext context = new StaticApplicationContext();
+		BeanDefinition processorDefinition = new RootBeanDefinition(AsyncAnnotationBeanPostProcessor.class);
+		processorDefinition.getPropertyValues().add("executor", executor);
+		context.registerBeanDefinition("postProcessor", processorDefinition);
+		context.registerBeanDefinition("target", new RootBeanDefinition(ShardedTestBean.class));
+		context.refresh();
+
+		ShardedTestBean testBean = context.getBean("target", ShardedTestBean.class);
+		List<Future<Object>> futures = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			futures.add(testBean.process("customer", i));
+		}
+		assertEquals(1, executor.tasks.size());
+		executor.rejecting = true;
+		executor.tasks.remove(0).run();
+
+		for (int i = 0; i < futures.size(); i++) {
+			assertEquals(i, futures.get(i).get(0, TimeUnit.SECONDS));
+		}
+		try {
+			testBean.process("customer", 3);
+			fail("Should have thrown TaskRejectedException");
+		}
+		catch (TaskRejectedException ex) {
+			// expected
+		}
+		executor.rejecting = false;
+		Future<Object> future = testBean.process("customer", 4);
+		executor.tasks.remove(0).run();
+		assertEquals(4, future.get(0, TimeUnit.SECONDS));
+		context.close();
+	}
+
 	private ConfigurableApplicationContext initContext(BeanDefinition asyncAnnotationBeanPostProcessorDefinition) {
 		StaticApplicationContext context = new StaticApplicationContext();
 		BeanDefinition targetDefinition = new RootBeanDefinition(TestBean.class);
@@ -342,6 +420,20 @@ public class AsyncAnnotationBeanPostProcessorTests {
 	}
 
 
+	public static class ShardedTestBean {
+
+		private final Map<String, List<Integer>> invocations = new ConcurrentHashMap<>();
+
+		@Async(shardingKey = "#customer")
+		public Future<Object> process(String customer, int sequence) {
+			List<Integer> values = this.invocations.computeIfAbsent(customer, key -> new ArrayList<>());
+			values.add(sequence);
+			Thread.yield();
+			return new AsyncResult<>(sequence);
+		}
+	}
+
+
 	private static class DirectExecutor implements Executor {
 
 		@Override
@@ -351,6 +443,22 @@ public class AsyncAnnotationBeanPostProcessorTests {
 	}
 
 
+	private static class RecordingExecutor implements Executor {
+
+		private final List<Runnable> tasks = new ArrayList<>();
+
+		private boolean rejecting;
+
+		@Override
+		public void execute(Runnable r) {
+			if (this.rejecting) {
+				throw new TaskRejectedException("Not accepting tasks");
+			}
+			this.tasks.add(r);
+		}
+	}
+
+
 	@Configuration
 	@EnableAsync
 	static class ConfigWithExceptionHandler extends AsyncConfigurerSupport {
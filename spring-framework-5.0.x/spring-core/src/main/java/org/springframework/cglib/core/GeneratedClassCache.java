@@ -0,0 +1,418 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cglib.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.ClassReader;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.core.SpringProperties;
+import org.springframework.core.SpringVersion;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.ResourceUtils;
+
+/**
+ * Persistent cache for the bytecode of CGLIB-generated classes, avoiding the
+ * generation of the same proxy classes on every start of an application, or for
+ * every application context created by a test suite.
+ *
+ * <p>A generator computes a {@link #newKey key} from everything the bytecode of a
+ * class depends on, typically the bytecode of the superclass and interfaces plus
+ * the callback assigned to each method, and generates the class with the
+ * {@link #getNamingPolicy naming policy} and {@link #getStrategy strategy} of this
+ * cache. The class name then reflects the key, and the bytecode of an existing
+ * class with that name is reused instead of being generated again.
+ *
+ * <p>Bytecode is stored in a directory, using the layout of a class path entry.
+ * A directory populated at build time, e.g. by running the application contexts
+ * once against an output directory, can therefore be packaged along with the
+ * application and used as a read-only cache from the class path at runtime,
+ * through a {@code "classpath:"} location.
+ *
+ * <p>The {@link #getSharedInstance() shared instance} is configured through the
+ * {@value #CACHE_LOCATION_PROPERTY_NAME} property, either as a JVM system
+ * property or in a {@code spring.properties} file in the root of the classpath.
+ * Generated classes are not cached unless that property is set.
+ *
+ * @since 5.0.17
+ * @see SpringProperties
+ */
+public class GeneratedClassCache {
+
+	/**
+	 * System property that points to the location of the shared cache:
+	 * a directory to read and write bytecode from and to, or a {@code "classpath:"}
+	 * location for read-only access to bytecode packaged along with the application.
+	 */
+	public static final String CACHE_LOCATION_PROPERTY_NAME = "spring.cglib.cacheLocation";
+
+	private static final String CLASS_FILE_SUFFIX = ".class";
+
+	private static final Log logger = LogFactory.getLog(GeneratedClassCache.class);
+
+	private static final Map<Class<?>, String> classDigests = new ConcurrentReferenceHashMap<>(256);
+
+	@Nullable
+	private static volatile GeneratedClassCache sharedInstance;
+
+	private static volatile boolean sharedInstanceResolved;
+
+
+	@Nullable
+	private final File directory;
+
+	@Nullable
+	private final String classpathLocation;
+
+
+	/**
+	 * Create a new cache for the given location.
+	 * @param location a directory, or a {@code "classpath:"} location
+	 * for read-only access to class path resources
+	 */
+	public GeneratedClassCache(String location) {
+		if (location.startsWith(ResourceUtils.CLASSPATH_URL_PREFIX)) {
+			String path = location.substring(ResourceUtils.CLASSPATH_URL_PREFIX.length());
+			if (path.startsWith("/")) {
+				path = path.substring(1);
+			}
+			this.classpathLocation = (path.isEmpty() || path.endsWith("/") ? path : path + "/");
+			this.directory = null;
+		}
+		else {
+			this.directory = new File(location);
+			this.classpathLocation = null;
+		}
+	}
+
+
+	/**
+	 * Return whether this cache only reads bytecode from the class path.
+	 */
+	public boolean isReadOnly() {
+		return (this.directory == null);
+	}
+
+	/**
+	 * Create a new key for a class generated by the given generator.
+	 * @param generatorType the type of component generating the class
+	 * @return the key, to be completed by the generator
+	 */
+	public Key newKey(Class<?> generatorType) {
+		return new Key(generatorType);
+	}
+
+	/**
+	 * Return a naming policy that derives the names of generated classes
+	 * from the given key.
+	 * @param key the complete key
+	 * @return the naming policy for the generated class
+	 */
+	public NamingPolicy getNamingPolicy(String key) {
+		return new KeyNamingPolicy(key);
+	}
+
+	/**
+	 * Return a strategy that reuses the cached bytecode of a class
+	 * named by a {@link #getNamingPolicy key naming policy}, or generates
+	 * the class through the given strategy and caches its bytecode.
+	 * @param strategy the strategy generating the bytecode on a cache miss
+	 * @param classLoader the ClassLoader to read class path resources from
+	 * @return the caching strategy
+	 */
+	public GeneratorStrategy getStrategy(GeneratorStrategy strategy, @Nullable ClassLoader classLoader) {
+		return new CachingGeneratorStrategy(strategy, classLoader);
+	}
+
+	/**
+	 * Read the cached bytecode for the given class.
+	 * @param className the name of the generated class
+	 * @param classLoader the ClassLoader to read class path resources from
+	 * @return the bytecode, or {@code null} if not cached
+	 */
+	@Nullable
+	public byte[] load(String className, @Nullable ClassLoader classLoader) {
+		String resourcePath = ClassUtils.convertClassNameToResourcePath(className) + CLASS_FILE_SUFFIX;
+		try {
+			if (this.directory != null) {
+				File file = new File(this.directory, resourcePath);
+				return (file.isFile() ? FileCopyUtils.copyToByteArray(file) : null);
+			}
+			ClassLoader classLoaderToUse = (classLoader != null ? classLoader : ClassUtils.getDefaultClassLoader());
+			InputStream is = (classLoaderToUse != null ?
+					classLoaderToUse.getResourceAsStream(this.classpathLocation + resourcePath) :
+					ClassLoader.getSystemResourceAsStream(this.classpathLocation + resourcePath));
+			return (is != null ? FileCopyUtils.copyToByteArray(is) : null);
+		}
+		catch (IOException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Could not read cached bytecode for class [" + className + "]", ex);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Store the bytecode of the given class, unless this cache is read-only.
+	 * @param className the name of the generated class
+	 * @param bytecode the bytecode of the class
+	 */
+	public void store(String className, byte[] bytecode) {
+		if (this.directory == null) {
+			return;
+		}
+		File file = new File(this.directory, ClassUtils.convertClassNameToResourcePath(className) + CLASS_FILE_SUFFIX);
+		try {
+			Path parent = file.getParentFile().toPath();
+			Files.createDirectories(parent);
+			// Write to a temporary file first, so that concurrent readers never see partial content
+			Path tempFile = Files.createTempFile(parent, file.getName(), ".tmp");
+			Files.write(tempFile, bytecode);
+			Files.move(tempFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Could not write cached bytecode for class [" + className + "] to " + file, ex);
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "GeneratedClassCache [" + (this.directory != null ? this.directory :
+				ResourceUtils.CLASSPATH_URL_PREFIX + this.classpathLocation) + "]";
+	}
+
+
+	/**
+	 * Return the shared cache, as configured through the
+	 * {@value #CACHE_LOCATION_PROPERTY_NAME} property.
+	 * @return the shared cache, or {@code null} if none is configured
+	 */
+	@Nullable
+	public static GeneratedClassCache getSharedInstance() {
+		if (!sharedInstanceResolved) {
+			String location = SpringProperties.getProperty(CACHE_LOCATION_PROPERTY_NAME);
+			if (location != null && !location.isEmpty()) {
+				sharedInstance = new GeneratedClassCache(location);
+			}
+			sharedInstanceResolved = true;
+		}
+		return sharedInstance;
+	}
+
+	/**
+	 * Programmatically set the shared cache, overriding the
+	 * {@value #CACHE_LOCATION_PROPERTY_NAME} property, e.g. for
+	 * generating the classes of an application at build time.
+	 * @param cache the shared cache, or {@code null} for none
+	 */
+	public static void setSharedInstance(@Nullable GeneratedClassCache cache) {
+		sharedInstance = cache;
+		sharedInstanceResolved = true;
+	}
+
+	@Nullable
+	private static String getClassDigest(Class<?> clazz) {
+		String digest = classDigests.get(clazz);
+		if (digest == null) {
+			ClassLoader classLoader = clazz.getClassLoader();
+			if (classLoader == null) {
+				// Core JDK classes only change along with the JDK itself
+				digest = System.getProperty("java.version");
+			}
+			else {
+				String resourcePath = ClassUtils.convertClassNameToResourcePath(clazz.getName()) + CLASS_FILE_SUFFIX;
+				try (InputStream is = classLoader.getResourceAsStream(resourcePath)) {
+					if (is == null) {
+						// Generated at runtime itself, or from an unusual ClassLoader
+						return null;
+					}
+					digest = DigestUtils.md5DigestAsHex(is);
+				}
+				catch (IOException ex) {
+					return null;
+				}
+			}
+			classDigests.put(clazz, digest);
+		}
+		return digest;
+	}
+
+
+	/**
+	 * Builder for the key of a generated class.
+	 */
+	public static final class Key {
+
+		private final StringBuilder content = new StringBuilder(1024);
+
+		private boolean cacheable = true;
+
+		private Key(Class<?> generatorType) {
+			add(generatorType.getName());
+			add(SpringVersion.getVersion());
+			addClass(Enhancer.class);
+		}
+
+		/**
+		 * Add the given value, e.g. a setting of the generator.
+		 * @param value the value to add
+		 * @return this key
+		 */
+		public Key add(@Nullable Object value) {
+			this.content.append(value).append('\n');
+			return this;
+		}
+
+		/**
+		 * Add the given class, including the bytecode of its superclasses
+		 * and interfaces. Classes whose bytecode is not available, such as
+		 * classes generated at runtime, make the key uncacheable.
+		 * @param clazz the class to add
+		 * @return this key
+		 */
+		public Key addClass(Class<?> clazz) {
+			Class<?> current = clazz;
+			while (current != null && current != Object.class) {
+				addClassDigest(current);
+				current = current.getSuperclass();
+			}
+			for (Class<?> ifc : ClassUtils.getAllInterfacesForClassAsSet(clazz)) {
+				addClassDigest(ifc);
+			}
+			return this;
+		}
+
+		private void addClassDigest(Class<?> clazz) {
+			String digest = getClassDigest(clazz);
+			if (digest == null) {
+				this.cacheable = false;
+			}
+			add(clazz.getName() + '=' + digest);
+		}
+
+		/**
+		 * Build the key.
+		 * @return the key, or {@code null} if the generated class is not cacheable
+		 */
+		@Nullable
+		public String build() {
+			if (!this.cacheable) {
+				return null;
+			}
+			return DigestUtils.md5DigestAsHex(this.content.toString().getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+
+	/**
+	 * Naming policy that uses the key in place of the hash code of the
+	 * generator's in-memory key, resulting in the same name on every start.
+	 */
+	private static class KeyNamingPolicy extends SpringNamingPolicy {
+
+		private final String key;
+
+		public KeyNamingPolicy(String key) {
+			this.key = key;
+		}
+
+		@Override
+		public String getClassName(@Nullable String prefix, String source, Object key, Predicate names) {
+			if (prefix == null) {
+				prefix = "org.springframework.cglib.empty.Object";
+			}
+			else if (prefix.startsWith("java")) {
+				prefix = "$" + prefix;
+			}
+			String base = prefix + "$$" + source.substring(source.lastIndexOf('.') + 1) +
+					getTag() + "$$" + this.key;
+			String attempt = base;
+			int index = 2;
+			while (names.evaluate(attempt)) {
+				attempt = base + "_" + index++;
+			}
+			return attempt;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return (this == other || (other instanceof KeyNamingPolicy &&
+					this.key.equals(((KeyNamingPolicy) other).key)));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.key.hashCode();
+		}
+	}
+
+
+	/**
+	 * Strategy that reuses cached bytecode for the class name reserved
+	 * by the generator, generating and caching the bytecode otherwise.
+	 */
+	private class CachingGeneratorStrategy implements GeneratorStrategy {
+
+		private final GeneratorStrategy strategy;
+
+		@Nullable
+		private final ClassLoader classLoader;
+
+		public CachingGeneratorStrategy(GeneratorStrategy strategy, @Nullable ClassLoader classLoader) {
+			this.strategy = strategy;
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		public byte[] generate(ClassGenerator cg) throws Exception {
+			String className = (cg instanceof AbstractClassGenerator ?
+					((AbstractClassGenerator) cg).getClassName() : null);
+			if (className == null) {
+				return this.strategy.generate(cg);
+			}
+			byte[] bytecode = load(className, this.classLoader);
+			if (bytecode != null) {
+				if (className.equals(new ClassReader(bytecode).getClassName().replace('/', '.'))) {
+					if (logger.isTraceEnabled()) {
+						logger.trace("Using cached bytecode for class [" + className + "]");
+					}
+					return bytecode;
+				}
+			}
+			bytecode = this.strategy.generate(cg);
+			store(className, bytecode);
+			return bytecode;
+		}
+	}
+
+}
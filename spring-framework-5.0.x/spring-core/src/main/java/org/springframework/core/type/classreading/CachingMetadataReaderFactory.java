@@ -44,6 +44,10 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	@Nullable
 	private Map<Resource, MetadataReader> metadataReaderCache;
 
+	/** Persistent metadata cache, if any */
+	@Nullable
+	private PersistentMetadataCache persistentCache = PersistentMetadataCache.getDefaultInstance();
+
 
 	/**
 	 * Create a new CachingMetadataReaderFactory for the default class loader,
@@ -114,13 +118,35 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	}
 
 
+	/**
+	 * Specify a {@link PersistentMetadataCache} to consult for metadata that is
+	 * not locally cached yet, e.g. a shared instance obtained through
+	 * {@link PersistentMetadataCache#forFile}.
+	 * <p>Default is the shared instance configured through the
+	 * {@link PersistentMetadataCache#CACHE_FILE_PROPERTY_NAME} property, if any.
+	 * @since 5.0.17
+	 */
+	public void setPersistentCache(@Nullable PersistentMetadataCache persistentCache) {
+		this.persistentCache = persistentCache;
+	}
+
+	/**
+	 * Return the {@link PersistentMetadataCache} in use, if any.
+	 * @since 5.0.17
+	 */
+	@Nullable
+	public PersistentMetadataCache getPersistentCache() {
+		return this.persistentCache;
+	}
+
+
 	@Override
 	public MetadataReader getMetadataReader(Resource resource) throws IOException {
 		if (this.metadataReaderCache instanceof ConcurrentMap) {
 			// No synchronization necessary...
 			MetadataReader metadataReader = this.metadataReaderCache.get(resource);
 			if (metadataReader == null) {
-				metadataReader = super.getMetadataReader(resource);
+				metadataReader = readMetadataReader(resource);
 				this.metadataReaderCache.put(resource, metadataReader);
 			}
 			return metadataReader;
@@ -129,15 +155,23 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 			synchronized (this.metadataReaderCache) {
 				MetadataReader metadataReader = this.metadataReaderCache.get(resource);
 				if (metadataReader == null) {
-					metadataReader = super.getMetadataReader(resource);
+					metadataReader = readMetadataReader(resource);
 					this.metadataReaderCache.put(resource, metadataReader);
 				}
 				return metadataReader;
 			}
 		}
 		else {
-			return super.getMetadataReader(resource);
+			return readMetadataReader(resource);
+		}
+	}
+
+	private MetadataReader readMetadataReader(Resource resource) throws IOException {
+		PersistentMetadataCache persistentCache = this.persistentCache;
+		if (persistentCache != null) {
+			return persistentCache.getMetadataReader(resource, getResourceLoader().getClassLoader());
 		}
+		return super.getMetadataReader(resource);
 	}
 
 	/**
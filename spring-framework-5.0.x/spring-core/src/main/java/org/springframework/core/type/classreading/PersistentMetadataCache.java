@@ -0,0 +1,866 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.AnnotationVisitor;
+import org.springframework.asm.ClassReader;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.SpringAsmInfo;
+import org.springframework.asm.Type;
+import org.springframework.core.NestedIOException;
+import org.springframework.core.SpringProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.FileCopyUtils;
+
+/**
+ * Persistent cache for class metadata, shared across {@link CachingMetadataReaderFactory}
+ * instances within a JVM as well as across restarts of an application.
+ *
+ * <p>Rather than complete class files, the cache stores the parts of a class file
+ * that a {@link MetadataReader} exposes: class name and modifiers, superclass and
+ * interfaces, enclosing and member classes, as well as class and method annotations
+ * with their raw attribute values. Entries are keyed by a hash of the class file
+ * content and get replayed into a regular {@link AnnotationMetadataReadingVisitor},
+ * so meta-annotations, attribute defaults and enum constants are still resolved
+ * against the current class loader.
+ *
+ * <p>The cache file is memory-mapped on startup. Each class file resource is
+ * recorded along with its last-modified timestamp and content length: unchanged
+ * resources are served without reading their class file at all, whereas touched
+ * resources (e.g. in a rebuilt jar) are read and hashed but only get parsed
+ * if their content has actually changed.
+ *
+ * <p>A shared instance for a specific file is available through {@link #forFile};
+ * the "spring.metadata-cache.file" property (a system property or an entry in a
+ * {@code spring.properties} file) makes every {@link CachingMetadataReaderFactory}
+ * use the shared instance for the given file. New entries are written back on
+ * JVM shutdown for shared instances, or explicitly through {@link #save()}.
+ *
+ * @since 5.0.17
+ * @see CachingMetadataReaderFactory#setPersistentCache
+ */
+public class PersistentMetadataCache {
+
+	/**
+	 * System property that specifies the file of a shared persistent metadata
+	 * cache to be used by all {@link CachingMetadataReaderFactory} instances.
+	 * <p>The default is none, i.e. no persistent metadata caching.
+	 */
+	public static final String CACHE_FILE_PROPERTY_NAME = "spring.metadata-cache.file";
+
+	private static final int MAGIC = 0x534D4300;
+
+	private static final int VERSION = 1;
+
+	private static final int END = 0;
+
+	private static final int OUTER_CLASS = 1;
+
+	private static final int INNER_CLASS = 2;
+
+	private static final int ANNOTATION = 3;
+
+	private static final int METHOD = 4;
+
+	private static final int VALUE = 1;
+
+	private static final int ENUM = 2;
+
+	private static final int NESTED_ANNOTATION = 3;
+
+	private static final int ARRAY = 4;
+
+	private static final Log logger = LogFactory.getLog(PersistentMetadataCache.class);
+
+	private static final Map<File, PersistentMetadataCache> sharedInstances = new ConcurrentHashMap<>(4);
+
+
+	private final File file;
+
+	private final Map<String, ResourceEntry> resourceEntries = new ConcurrentHashMap<>(256);
+
+	private final Map<ContentHash, ByteBuffer> contents = new ConcurrentHashMap<>(256);
+
+	private volatile boolean modified;
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	private final AtomicLong bytesRead = new AtomicLong();
+
+
+	/**
+	 * Create a new PersistentMetadataCache for the given file,
+	 * loading existing entries from it if present.
+	 * @param file the cache file
+	 * @see #forFile
+	 */
+	public PersistentMetadataCache(File file) {
+		Assert.notNull(file, "File must not be null");
+		this.file = file;
+		load();
+	}
+
+
+	/**
+	 * Return the file that this cache has been created for.
+	 */
+	public final File getFile() {
+		return this.file;
+	}
+
+	/**
+	 * Return the number of metadata readers served from cached entries.
+	 */
+	public long getHitCount() {
+		return this.hitCount.get();
+	}
+
+	/**
+	 * Return the number of metadata readers that required parsing a class file.
+	 */
+	public long getMissCount() {
+		return this.missCount.get();
+	}
+
+	/**
+	 * Return the number of class file bytes read, either for parsing them or
+	 * for checking the content hash of a resource that changed its timestamp.
+	 */
+	public long getBytesRead() {
+		return this.bytesRead.get();
+	}
+
+	/**
+	 * Return the number of class file resources currently known to this cache.
+	 */
+	public int getResourceCount() {
+		return this.resourceEntries.size();
+	}
+
+
+	/**
+	 * Obtain a {@link MetadataReader} for the given class file resource,
+	 * served from this cache if possible.
+	 * @param resource the class file resource
+	 * @param classLoader the ClassLoader to resolve annotation types with
+	 * @return the MetadataReader for the given resource
+	 * @throws IOException in case of I/O failure
+	 */
+	public MetadataReader getMetadataReader(Resource resource, @Nullable ClassLoader classLoader) throws IOException {
+		String key;
+		try {
+			key = resource.getURL().toString();
+		}
+		catch (IOException ex) {
+			// Not identifiable across restarts: no persistent caching
+			this.missCount.incrementAndGet();
+			return new SimpleMetadataReader(resource, classLoader);
+		}
+
+		long lastModified = -1;
+		long contentLength = -1;
+		try {
+			lastModified = resource.lastModified();
+			contentLength = resource.contentLength();
+		}
+		catch (IOException ex) {
+			// No fingerprint available: always check the content hash below
+		}
+
+		ByteBuffer content = null;
+		ResourceEntry entry = this.resourceEntries.get(key);
+		if (entry != null && lastModified > 0 &&
+				entry.lastModified == lastModified && entry.contentLength == contentLength) {
+			content = this.contents.get(entry.hash);
+		}
+		if (content != null) {
+			this.hitCount.incrementAndGet();
+		}
+		else {
+			byte[] bytes = FileCopyUtils.copyToByteArray(resource.getInputStream());
+			this.bytesRead.addAndGet(bytes.length);
+			ContentHash hash = new ContentHash(DigestUtils.md5Digest(bytes));
+			content = this.contents.get(hash);
+			if (content != null) {
+				this.hitCount.incrementAndGet();
+			}
+			else {
+				this.missCount.incrementAndGet();
+				content = ByteBuffer.wrap(record(bytes, resource));
+				this.contents.put(hash, content);
+			}
+			this.resourceEntries.put(key, new ResourceEntry(lastModified, contentLength, hash));
+			this.modified = true;
+		}
+
+		AnnotationMetadataReadingVisitor visitor = new AnnotationMetadataReadingVisitor(classLoader);
+		replay(new DataInputStream(new ByteBufferInputStream(content.duplicate())), visitor);
+		return new SimpleMetadataReader(resource, visitor);
+	}
+
+	/**
+	 * Write the current entries back to the cache file, if modified.
+	 * <p>The file is replaced atomically, so concurrent readers of the
+	 * previous file (e.g. other JVMs starting up) remain unaffected.
+	 * @throws IOException in case of I/O failure
+	 */
+	public synchronized void save() throws IOException {
+		if (!this.modified) {
+			return;
+		}
+		this.modified = false;
+
+		Map<String, ResourceEntry> entries = new LinkedHashMap<>(this.resourceEntries);
+		Map<ContentHash, ByteBuffer> usedContents = new LinkedHashMap<>(entries.size());
+		entries.values().removeIf(entry -> {
+			ByteBuffer content = this.contents.get(entry.hash);
+			if (content == null) {
+				return true;
+			}
+			usedContents.put(entry.hash, content);
+			return false;
+		});
+
+		File targetFile = this.file.getAbsoluteFile();
+		File parent = targetFile.getParentFile();
+		if (parent != null) {
+			Files.createDirectories(parent.toPath());
+		}
+		File tempFile = File.createTempFile(targetFile.getName(), ".tmp", parent);
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+					Files.newOutputStream(tempFile.toPath())))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(entries.size());
+				for (Map.Entry<String, ResourceEntry> entry : entries.entrySet()) {
+					out.writeUTF(entry.getKey());
+					out.writeLong(entry.getValue().lastModified);
+					out.writeLong(entry.getValue().contentLength);
+					entry.getValue().hash.writeTo(out);
+				}
+				out.writeInt(usedContents.size());
+				for (Map.Entry<ContentHash, ByteBuffer> entry : usedContents.entrySet()) {
+					ByteBuffer content = entry.getValue().duplicate();
+					byte[] bytes = new byte[content.remaining()];
+					content.get(bytes);
+					entry.getKey().writeTo(out);
+					out.writeInt(bytes.length);
+					out.write(bytes);
+				}
+			}
+			Files.move(tempFile.toPath(), targetFile.toPath(),
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException ex) {
+			this.modified = true;
+			Files.deleteIfExists(tempFile.toPath());
+			throw ex;
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Saved " + entries.size() + " class metadata entries to " + targetFile + ": " + this);
+		}
+	}
+
+	private void load() {
+		if (!this.file.isFile() || this.file.length() == 0) {
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(this.file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			DataInputStream in = new DataInputStream(new ByteBufferInputStream(buffer));
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				if (logger.isInfoEnabled()) {
+					logger.info("Ignoring metadata cache file with unknown format: " + this.file);
+				}
+				return;
+			}
+			int resourceCount = in.readInt();
+			Map<String, ResourceEntry> entries = new LinkedHashMap<>(resourceCount * 2);
+			for (int i = 0; i < resourceCount; i++) {
+				String key = in.readUTF();
+				entries.put(key, new ResourceEntry(in.readLong(), in.readLong(), ContentHash.readFrom(in)));
+			}
+			int contentCount = in.readInt();
+			Map<ContentHash, ByteBuffer> contents = new LinkedHashMap<>(contentCount * 2);
+			for (int i = 0; i < contentCount; i++) {
+				ContentHash hash = ContentHash.readFrom(in);
+				int length = in.readInt();
+				ByteBuffer content = buffer.duplicate();
+				content.limit(buffer.position() + length);
+				contents.put(hash, content.slice());
+				buffer.position(buffer.position() + length);
+			}
+			this.resourceEntries.putAll(entries);
+			this.contents.putAll(contents);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Loaded " + resourceCount + " class metadata entries from " + this.file);
+			}
+		}
+		catch (IOException | RuntimeException ex) {
+			if (logger.isWarnEnabled()) {
+				logger.warn("Ignoring unreadable metadata cache file " + this.file + ": " + ex);
+			}
+		}
+	}
+
+	private void saveOnShutdown() {
+		try {
+			save();
+		}
+		catch (IOException ex) {
+			if (logger.isWarnEnabled()) {
+				logger.warn("Could not save metadata cache file " + this.file + ": " + ex);
+			}
+		}
+	}
+
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [" + this.file + "]: " + getHitCount() + " hits, " +
+				getMissCount() + " misses, " + getBytesRead() + " bytes read";
+	}
+
+
+	/**
+	 * Return the shared instance for the given cache file, saving its
+	 * entries on JVM shutdown.
+	 * @param file the cache file
+	 * @return the shared PersistentMetadataCache (never {@code null})
+	 */
+	public static PersistentMetadataCache forFile(File file) {
+		Assert.notNull(file, "File must not be null");
+		return sharedInstances.computeIfAbsent(file.getAbsoluteFile(), key -> {
+			PersistentMetadataCache cache = new PersistentMetadataCache(key);
+			Runtime.getRuntime().addShutdownHook(new Thread(cache::saveOnShutdown, "metadata-cache-save"));
+			return cache;
+		});
+	}
+
+	/**
+	 * Return the shared instance for the file specified through the
+	 * {@link #CACHE_FILE_PROPERTY_NAME} property, if any.
+	 * @return the shared PersistentMetadataCache, or {@code null} if none configured
+	 */
+	@Nullable
+	public static PersistentMetadataCache getDefaultInstance() {
+		String location = SpringProperties.getProperty(CACHE_FILE_PROPERTY_NAME);
+		return (location != null ? forFile(new File(location)) : null);
+	}
+
+
+	private static byte[] record(byte[] classFile, Resource resource) throws IOException {
+		ClassReader classReader;
+		try {
+			classReader = new ClassReader(classFile);
+		}
+		catch (IllegalArgumentException ex) {
+			throw new NestedIOException("ASM ClassReader failed to parse class file - " +
+					"probably due to a new Java class file version that isn't supported yet: " + resource, ex);
+		}
+		ByteArrayOutputStream bos = new ByteArrayOutputStream(256);
+		DataOutputStream out = new DataOutputStream(bos);
+		try {
+			classReader.accept(new RecordingClassVisitor(out), ClassReader.SKIP_DEBUG);
+		}
+		catch (UncheckedIOException ex) {
+			throw ex.getCause();
+		}
+		return bos.toByteArray();
+	}
+
+	private static void replay(DataInput in, ClassVisitor visitor) throws IOException {
+		int version = in.readInt();
+		int access = in.readInt();
+		String name = in.readUTF();
+		String superName = readNullableUTF(in);
+		String[] interfaces = new String[in.readUnsignedShort()];
+		for (int i = 0; i < interfaces.length; i++) {
+			interfaces[i] = in.readUTF();
+		}
+		visitor.visit(version, access, name, null, superName, interfaces);
+
+		int tag;
+		while ((tag = in.readUnsignedByte()) != END) {
+			switch (tag) {
+				case OUTER_CLASS:
+					visitor.visitOuterClass(in.readUTF(), null, null);
+					break;
+				case INNER_CLASS:
+					visitor.visitInnerClass(in.readUTF(), readNullableUTF(in), readNullableUTF(in), in.readInt());
+					break;
+				case ANNOTATION:
+					String desc = in.readUTF();
+					replayAnnotation(in, visitor.visitAnnotation(desc, in.readBoolean()));
+					break;
+				case METHOD:
+					MethodVisitor mv = visitor.visitMethod(in.readInt(), in.readUTF(), in.readUTF(), null, null);
+					while (in.readUnsignedByte() != END) {
+						String methodAnnotationDesc = in.readUTF();
+						boolean visible = in.readBoolean();
+						replayAnnotation(in, (mv != null ? mv.visitAnnotation(methodAnnotationDesc, visible) : null));
+					}
+					if (mv != null) {
+						mv.visitEnd();
+					}
+					break;
+				default:
+					throw new IllegalStateException("Corrupt metadata cache entry: unknown tag " + tag);
+			}
+		}
+		visitor.visitEnd();
+	}
+
+	private static void replayAnnotation(DataInput in, @Nullable AnnotationVisitor visitor) throws IOException {
+		int tag;
+		while ((tag = in.readUnsignedByte()) != END) {
+			String name = readNullableUTF(in);
+			switch (tag) {
+				case VALUE:
+					Object value = readValue(in);
+					if (visitor != null) {
+						visitor.visit(name, value);
+					}
+					break;
+				case ENUM:
+					String desc = in.readUTF();
+					String enumValue = in.readUTF();
+					if (visitor != null) {
+						visitor.visitEnum(name, desc, enumValue);
+					}
+					break;
+				case NESTED_ANNOTATION:
+					String nestedDesc = in.readUTF();
+					replayAnnotation(in, (visitor != null ? visitor.visitAnnotation(name, nestedDesc) : null));
+					break;
+				case ARRAY:
+					replayAnnotation(in, (visitor != null ? visitor.visitArray(name) : null));
+					break;
+				default:
+					throw new IllegalStateException("Corrupt metadata cache entry: unknown tag " + tag);
+			}
+		}
+		if (visitor != null) {
+			visitor.visitEnd();
+		}
+	}
+
+	private static void writeValue(DataOutput out, Object value) throws IOException {
+		if (value instanceof String) {
+			out.writeByte('s');
+			out.writeUTF((String) value);
+		}
+		else if (value instanceof Type) {
+			out.writeByte('T');
+			out.writeUTF(((Type) value).getDescriptor());
+		}
+		else if (value instanceof Boolean) {
+			out.writeByte('Z');
+			out.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Byte) {
+			out.writeByte('B');
+			out.writeByte((Byte) value);
+		}
+		else if (value instanceof Character) {
+			out.writeByte('C');
+			out.writeChar((Character) value);
+		}
+		else if (value instanceof Short) {
+			out.writeByte('S');
+			out.writeShort((Short) value);
+		}
+		else if (value instanceof Integer) {
+			out.writeByte('I');
+			out.writeInt((Integer) value);
+		}
+		else if (value instanceof Long) {
+			out.writeByte('J');
+			out.writeLong((Long) value);
+		}
+		else if (value instanceof Float) {
+			out.writeByte('F');
+			out.writeFloat((Float) value);
+		}
+		else if (value instanceof Double) {
+			out.writeByte('D');
+			out.writeDouble((Double) value);
+		}
+		else if (value.getClass().isArray()) {
+			// Primitive arrays, as passed by ASM for non-empty array attributes
+			out.writeByte('[');
+			int length = Array.getLength(value);
+			out.writeByte(Type.getType(value.getClass().getComponentType()).getDescriptor().charAt(0));
+			out.writeInt(length);
+			for (int i = 0; i < length; i++) {
+				writeValue(out, Array.get(value, i));
+			}
+		}
+		else {
+			throw new IllegalArgumentException("Unsupported annotation value type: " + value.getClass().getName());
+		}
+	}
+
+	private static Object readValue(DataInput in) throws IOException {
+		int type = in.readUnsignedByte();
+		switch (type) {
+			case 's':
+				return in.readUTF();
+			case 'T':
+				return Type.getType(in.readUTF());
+			case 'Z':
+				return in.readBoolean();
+			case 'B':
+				return in.readByte();
+			case 'C':
+				return in.readChar();
+			case 'S':
+				return in.readShort();
+			case 'I':
+				return in.readInt();
+			case 'J':
+				return in.readLong();
+			case 'F':
+				return in.readFloat();
+			case 'D':
+				return in.readDouble();
+			case '[':
+				Class<?> componentType = primitiveType(in.readUnsignedByte());
+				int length = in.readInt();
+				Object array = Array.newInstance(componentType, length);
+				for (int i = 0; i < length; i++) {
+					Array.set(array, i, readValue(in));
+				}
+				return array;
+			default:
+				throw new IllegalStateException("Corrupt metadata cache entry: unknown value type " + type);
+		}
+	}
+
+	private static Class<?> primitiveType(int descriptor) {
+		switch (descriptor) {
+			case 'Z': return boolean.class;
+			case 'B': return byte.class;
+			case 'C': return char.class;
+			case 'S': return short.class;
+			case 'I': return int.class;
+			case 'J': return long.class;
+			case 'F': return float.class;
+			case 'D': return double.class;
+			default: throw new IllegalStateException("Corrupt metadata cache entry: unknown array type " + descriptor);
+		}
+	}
+
+	private static void writeNullableUTF(DataOutput out, @Nullable String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	@Nullable
+	private static String readNullableUTF(DataInput in) throws IOException {
+		return (in.readBoolean() ? in.readUTF() : null);
+	}
+
+
+	/**
+	 * Fingerprint of a class file resource, pointing to its content.
+	 */
+	private static final class ResourceEntry {
+
+		final long lastModified;
+
+		final long contentLength;
+
+		final ContentHash hash;
+
+		ResourceEntry(long lastModified, long contentLength, ContentHash hash) {
+			this.lastModified = lastModified;
+			this.contentLength = contentLength;
+			this.hash = hash;
+		}
+	}
+
+
+	/**
+	 * MD5 hash of class file content.
+	 */
+	private static final class ContentHash {
+
+		private final byte[] digest;
+
+		ContentHash(byte[] digest) {
+			this.digest = digest;
+		}
+
+		void writeTo(DataOutput out) throws IOException {
+			out.write(this.digest);
+		}
+
+		static ContentHash readFrom(DataInput in) throws IOException {
+			byte[] digest = new byte[16];
+			in.readFully(digest);
+			return new ContentHash(digest);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return (this == other || (other instanceof ContentHash &&
+					Arrays.equals(this.digest, ((ContentHash) other).digest)));
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(this.digest);
+		}
+	}
+
+
+	/**
+	 * InputStream view of a ByteBuffer, advancing its position.
+	 */
+	private static final class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return (this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1);
+		}
+
+		@Override
+		public int read(byte[] bytes, int off, int len) {
+			if (!this.buffer.hasRemaining()) {
+				return -1;
+			}
+			int count = Math.min(len, this.buffer.remaining());
+			this.buffer.get(bytes, off, count);
+			return count;
+		}
+	}
+
+
+	/**
+	 * ClassVisitor recording the events that metadata reading visitors
+	 * are interested in, for replaying them later on.
+	 */
+	private static final class RecordingClassVisitor extends ClassVisitor {
+
+		private final DataOutputStream out;
+
+		RecordingClassVisitor(DataOutputStream out) {
+			super(SpringAsmInfo.ASM_VERSION);
+			this.out = out;
+		}
+
+		@Override
+		public void visit(int version, int access, String name, String signature,
+				@Nullable String superName, String[] interfaces) {
+
+			write(() -> {
+				this.out.writeInt(version);
+				this.out.writeInt(access);
+				this.out.writeUTF(name);
+				writeNullableUTF(this.out, superName);
+				this.out.writeShort(interfaces.length);
+				for (String ifc : interfaces) {
+					this.out.writeUTF(ifc);
+				}
+			});
+		}
+
+		@Override
+		public void visitOuterClass(String owner, String name, String desc) {
+			write(() -> {
+				this.out.writeByte(OUTER_CLASS);
+				this.out.writeUTF(owner);
+			});
+		}
+
+		@Override
+		public void visitInnerClass(String name, @Nullable String outerName, String innerName, int access) {
+			if (outerName != null) {
+				write(() -> {
+					this.out.writeByte(INNER_CLASS);
+					this.out.writeUTF(name);
+					writeNullableUTF(this.out, outerName);
+					writeNullableUTF(this.out, innerName);
+					this.out.writeInt(access);
+				});
+			}
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+			write(() -> {
+				this.out.writeByte(ANNOTATION);
+				this.out.writeUTF(desc);
+				this.out.writeBoolean(visible);
+			});
+			return new RecordingAnnotationVisitor(this.out);
+		}
+
+		@Override
+		public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+			return new MethodVisitor(SpringAsmInfo.ASM_VERSION) {
+
+				private boolean annotated;
+
+				@Override
+				public AnnotationVisitor visitAnnotation(String annotationDesc, boolean visible) {
+					write(() -> {
+						// Only annotated methods are of interest for metadata
+						if (!this.annotated) {
+							out.writeByte(METHOD);
+							out.writeInt(access);
+							out.writeUTF(name);
+							out.writeUTF(desc);
+							this.annotated = true;
+						}
+						out.writeByte(ANNOTATION);
+						out.writeUTF(annotationDesc);
+						out.writeBoolean(visible);
+					});
+					return new RecordingAnnotationVisitor(out);
+				}
+
+				@Override
+				public void visitEnd() {
+					if (this.annotated) {
+						write(() -> out.writeByte(END));
+					}
+				}
+			};
+		}
+
+		@Override
+		public void visitEnd() {
+			write(() -> this.out.writeByte(END));
+		}
+
+		static void write(IOAction action) {
+			try {
+				action.run();
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+	}
+
+
+	/**
+	 * AnnotationVisitor recording attribute values, nested annotations and arrays.
+	 */
+	private static final class RecordingAnnotationVisitor extends AnnotationVisitor {
+
+		private final DataOutputStream out;
+
+		RecordingAnnotationVisitor(DataOutputStream out) {
+			super(SpringAsmInfo.ASM_VERSION);
+			this.out = out;
+		}
+
+		@Override
+		public void visit(@Nullable String name, Object value) {
+			RecordingClassVisitor.write(() -> {
+				this.out.writeByte(VALUE);
+				writeNullableUTF(this.out, name);
+				writeValue(this.out, value);
+			});
+		}
+
+		@Override
+		public void visitEnum(@Nullable String name, String desc, String value) {
+			RecordingClassVisitor.write(() -> {
+				this.out.writeByte(ENUM);
+				writeNullableUTF(this.out, name);
+				this.out.writeUTF(desc);
+				this.out.writeUTF(value);
+			});
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(@Nullable String name, String desc) {
+			RecordingClassVisitor.write(() -> {
+				this.out.writeByte(NESTED_ANNOTATION);
+				writeNullableUTF(this.out, name);
+				this.out.writeUTF(desc);
+			});
+			return new RecordingAnnotationVisitor(this.out);
+		}
+
+		@Override
+		public AnnotationVisitor visitArray(@Nullable String name) {
+			RecordingClassVisitor.write(() -> {
+				this.out.writeByte(ARRAY);
+				writeNullableUTF(this.out, name);
+			});
+			return new RecordingAnnotationVisitor(this.out);
+		}
+
+		@Override
+		public void visitEnd() {
+			RecordingClassVisitor.write(() -> this.out.writeByte(END));
+		}
+	}
+
+
+	@FunctionalInterface
+	private interface IOAction {
+
+		void run() throws IOException;
+	}
+
+}
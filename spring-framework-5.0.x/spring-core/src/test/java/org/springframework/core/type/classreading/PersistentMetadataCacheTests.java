@@ -0,0 +1,260 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.File;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.ObjectUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link PersistentMetadataCache}.
+ *
+ * @since 5.0.17
+ */
+public class PersistentMetadataCacheTests {
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+
+	@Test
+	public void cachedMetadataMatchesParsedMetadata() throws Exception {
+		PersistentMetadataCache cache = new PersistentMetadataCache(this.folder.newFile());
+		ClassLoader classLoader = getClass().getClassLoader();
+		for (String className : new String[] {
+				"org.springframework.core.type.AnnotationMetadataTests$AnnotatedComponent",
+				"org.springframework.core.type.AnnotationMetadataTests$ComposedConfigurationWithAttributeOverridesClass",
+				"org.springframework.core.type.AnnotationMetadataTests$SpecialAttr",
+				"org.springframework.core.type.AnnotationMetadataTests",
+				PrimitiveArrayComponent.class.getName(), MemberInterface.class.getName()}) {
+
+			Resource resource = new ClassPathResource(className.replace('.', '/') + ".class");
+			AnnotationMetadata expected = new SimpleMetadataReader(resource, classLoader).getAnnotationMetadata();
+			AnnotationMetadata cached = cache.getMetadataReader(resource, classLoader).getAnnotationMetadata();
+			assertMetadataEquals(expected, cached);
+		}
+		assertEquals(6, cache.getMissCount());
+	}
+
+	@Test
+	public void unchangedResourceIsServedWithoutReading() throws Exception {
+		File cacheFile = new File(this.folder.getRoot(), "cache/metadata.bin");
+		Resource resource = copyClassFile(PrimitiveArrayComponent.class);
+
+		PersistentMetadataCache cache = new PersistentMetadataCache(cacheFile);
+		cache.getMetadataReader(resource, null);
+		assertEquals(1, cache.getMissCount());
+		assertEquals(resource.contentLength(), cache.getBytesRead());
+		cache.save();
+
+		cache = new PersistentMetadataCache(cacheFile);
+		assertEquals(1, cache.getResourceCount());
+		AnnotationMetadata metadata = cache.getMetadataReader(resource, null).getAnnotationMetadata();
+		assertEquals(PrimitiveArrayComponent.class.getName(), metadata.getClassName());
+		assertTrue(metadata.hasAnnotation(PrimitiveArrays.class.getName()));
+		assertEquals(1, cache.getHitCount());
+		assertEquals(0, cache.getMissCount());
+		assertEquals(0, cache.getBytesRead());
+	}
+
+	@Test
+	public void touchedResourceIsVerifiedByContentHash() throws Exception {
+		File cacheFile = this.folder.newFile();
+		Resource resource = copyClassFile(PrimitiveArrayComponent.class);
+		PersistentMetadataCache cache = new PersistentMetadataCache(cacheFile);
+		cache.getMetadataReader(resource, null);
+		cache.save();
+
+		File classFile = resource.getFile();
+		assertTrue(classFile.setLastModified(classFile.lastModified() + TimeUnit.MINUTES.toMillis(1)));
+		cache = new PersistentMetadataCache(cacheFile);
+		cache.getMetadataReader(resource, null);
+		assertEquals(1, cache.getHitCount());
+		assertEquals(0, cache.getMissCount());
+		assertEquals(classFile.length(), cache.getBytesRead());
+
+		cache.getMetadataReader(resource, null);
+		assertEquals(2, cache.getHitCount());
+		assertEquals(classFile.length(), cache.getBytesRead());
+	}
+
+	@Test
+	public void changedResourceIsParsedAgain() throws Exception {
+		File cacheFile = this.folder.newFile();
+		Resource resource = copyClassFile(PrimitiveArrayComponent.class);
+		PersistentMetadataCache cache = new PersistentMetadataCache(cacheFile);
+		cache.getMetadataReader(resource, null);
+		cache.save();
+
+		File classFile = resource.getFile();
+		long lastModified = classFile.lastModified();
+		FileCopyUtils.copy(readClassFile(MemberInterface.class), classFile);
+		assertTrue(classFile.setLastModified(lastModified + TimeUnit.MINUTES.toMillis(1)));
+		cache = new PersistentMetadataCache(cacheFile);
+		AnnotationMetadata metadata = cache.getMetadataReader(resource, null).getAnnotationMetadata();
+		assertEquals(MemberInterface.class.getName(), metadata.getClassName());
+		assertEquals(0, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	public void unreadableCacheFileIsIgnored() throws Exception {
+		File cacheFile = this.folder.newFile();
+		FileCopyUtils.copy(new byte[] {1, 2, 3}, cacheFile);
+		PersistentMetadataCache cache = new PersistentMetadataCache(cacheFile);
+		assertEquals(0, cache.getResourceCount());
+		cache.getMetadataReader(copyClassFile(PrimitiveArrayComponent.class), null);
+		cache.save();
+		assertEquals(1, new PersistentMetadataCache(cacheFile).getResourceCount());
+	}
+
+	@Test
+	public void cacheIsSharedAcrossMetadataReaderFactories() throws Exception {
+		PersistentMetadataCache cache = new PersistentMetadataCache(this.folder.newFile());
+		Resource resource = copyClassFile(PrimitiveArrayComponent.class);
+		for (int i = 0; i < 2; i++) {
+			CachingMetadataReaderFactory metadataReaderFactory = new CachingMetadataReaderFactory();
+			metadataReaderFactory.setPersistentCache(cache);
+			metadataReaderFactory.getMetadataReader(resource);
+			metadataReaderFactory.getMetadataReader(resource);
+		}
+		assertEquals(1, cache.getMissCount());
+		assertEquals(1, cache.getHitCount());
+	}
+
+
+	private Resource copyClassFile(Class<?> clazz) throws Exception {
+		File file = new File(this.folder.getRoot(), "classes/" + clazz.getName().replace('.', '/') + ".class");
+		assertTrue(file.getParentFile().mkdirs());
+		FileCopyUtils.copy(readClassFile(clazz), file);
+		return new FileSystemResource(file);
+	}
+
+	private static byte[] readClassFile(Class<?> clazz) throws Exception {
+		String resourcePath = clazz.getName().replace('.', '/') + ".class";
+		return FileCopyUtils.copyToByteArray(new ClassPathResource(resourcePath).getInputStream());
+	}
+
+	private static void assertMetadataEquals(AnnotationMetadata expected, AnnotationMetadata actual) {
+		assertEquals(expected.getClassName(), actual.getClassName());
+		assertEquals(expected.isInterface(), actual.isInterface());
+		assertEquals(expected.isAnnotation(), actual.isAnnotation());
+		assertEquals(expected.isAbstract(), actual.isAbstract());
+		assertEquals(expected.isFinal(), actual.isFinal());
+		assertEquals(expected.isIndependent(), actual.isIndependent());
+		assertEquals(expected.getEnclosingClassName(), actual.getEnclosingClassName());
+		assertEquals(expected.getSuperClassName(), actual.getSuperClassName());
+		assertArrayEquals(expected.getInterfaceNames(), actual.getInterfaceNames());
+		assertArrayEquals(expected.getMemberClassNames(), actual.getMemberClassNames());
+
+		assertEquals(expected.getAnnotationTypes(), actual.getAnnotationTypes());
+		Set<String> annotationTypes = new TreeSet<>(expected.getAnnotationTypes());
+		for (String annotationType : expected.getAnnotationTypes()) {
+			assertEquals(expected.getMetaAnnotationTypes(annotationType), actual.getMetaAnnotationTypes(annotationType));
+			annotationTypes.addAll(expected.getMetaAnnotationTypes(annotationType));
+		}
+		for (String annotationType : annotationTypes) {
+			assertEquals(render(expected.getAnnotationAttributes(annotationType)),
+					render(actual.getAnnotationAttributes(annotationType)));
+			assertEquals(render(expected.getAnnotationAttributes(annotationType, true)),
+					render(actual.getAnnotationAttributes(annotationType, true)));
+			Set<MethodMetadata> expectedMethods = expected.getAnnotatedMethods(annotationType);
+			Set<MethodMetadata> actualMethods = actual.getAnnotatedMethods(annotationType);
+			assertEquals(expectedMethods.size(), actualMethods.size());
+			for (MethodMetadata expectedMethod : expectedMethods) {
+				MethodMetadata actualMethod = actualMethods.stream()
+						.filter(method -> method.getMethodName().equals(expectedMethod.getMethodName()))
+						.findFirst().orElseThrow(AssertionError::new);
+				assertEquals(expectedMethod.getReturnTypeName(), actualMethod.getReturnTypeName());
+				assertEquals(expectedMethod.isStatic(), actualMethod.isStatic());
+				assertEquals(render(expectedMethod.getAnnotationAttributes(annotationType)),
+						render(actualMethod.getAnnotationAttributes(annotationType)));
+			}
+		}
+	}
+
+	private static String render(Object value) {
+		if (value instanceof Map) {
+			StringBuilder sb = new StringBuilder("{");
+			((Map<?, ?>) value).forEach((key, element) -> sb.append(key).append('=').append(render(element)).append(';'));
+			return sb.append('}').toString();
+		}
+		if (value instanceof Object[]) {
+			StringBuilder sb = new StringBuilder("[");
+			Arrays.stream((Object[]) value).forEach(element -> sb.append(render(element)).append(';'));
+			return sb.append(']').toString();
+		}
+		if (value != null) {
+			return value.getClass().getName() + ":" + ObjectUtils.nullSafeToString(value);
+		}
+		return "null";
+	}
+
+
+	@Target({ElementType.TYPE, ElementType.METHOD})
+	@Retention(RetentionPolicy.RUNTIME)
+	public @interface PrimitiveArrays {
+
+		int[] ints() default {};
+
+		char[] chars() default {'a'};
+
+		double[] doubles();
+
+		boolean flag() default false;
+
+		long number() default 1L;
+
+		Class<?>[] classes() default {};
+	}
+
+
+	@PrimitiveArrays(ints = {1, 2}, doubles = {}, flag = true, classes = {String.class, int[].class})
+	static class PrimitiveArrayComponent {
+
+		@PrimitiveArrays(doubles = 0.5)
+		static String factory() {
+			return "";
+		}
+	}
+
+
+	interface MemberInterface {
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -83,11 +83,19 @@ public class CodeFlow implements Opcodes {
 	 */
 	private int nextFieldId = 1;
 
+	/**
+	 * Local variables holding the active context objects of nested evaluations,
+	 * such as the current element of a selection or projection. When empty, the
+	 * target passed to the compiled expression method is the active context object.
+	 */
+	private final Deque<Integer> activeContextObjects = new ArrayDeque<>();
+
 	/**
 	 * When code generation requires an intermediate variable within a method,
-	 * this method records the next available variable (variable 0 is 'this').
+	 * this method records the next available variable (variable 0 is 'this',
+	 * variables 1 and 2 are the target and the EvaluationContext).
 	 */
-	private int nextFreeVariableId = 1;
+	private int nextFreeVariableId = 3;
 
 
 	/**
@@ -105,11 +113,45 @@ public class CodeFlow implements Opcodes {
 
 	/**
 	 * Push the byte code to load the target (i.e. what was passed as the first argument
-	 * to CompiledExpression.getValue(target, context))
+	 * to CompiledExpression.getValue(target, context)), or the active context object
+	 * of the nested evaluation currently being generated.
 	 * @param mv the visitor into which the load instruction should be inserted
+	 * @see #pushActiveContextObject(int)
 	 */
 	public void loadTarget(MethodVisitor mv) {
-		mv.visitVarInsn(ALOAD, 1);
+		Integer activeContextObject = this.activeContextObjects.peek();
+		mv.visitVarInsn(ALOAD, (activeContextObject != null ? activeContextObject : 1));
+	}
+
+	/**
+	 * Make the object held in the given local variable the target of subsequent
+	 * {@link #loadTarget} calls, e.g. while generating the code that evaluates
+	 * a selection criteria against each element of a collection.
+	 * @param variableId the local variable holding the active context object
+	 * @since 5.0.17
+	 * @see #nextFreeVariableId()
+	 */
+	public void pushActiveContextObject(int variableId) {
+		this.activeContextObjects.push(variableId);
+	}
+
+	/**
+	 * Make the target passed to the compiled expression method the target of
+	 * subsequent {@link #loadTarget} calls, e.g. while generating the code that
+	 * evaluates an index, which is evaluated against the root object.
+	 * @since 5.0.17
+	 */
+	public void pushRootContextObject() {
+		this.activeContextObjects.push(1);
+	}
+
+	/**
+	 * Restore the active context object in place before the last
+	 * {@link #pushActiveContextObject} or {@link #pushRootContextObject} call.
+	 * @since 5.0.17
+	 */
+	public void popActiveContextObject() {
+		this.activeContextObjects.pop();
 	}
 
 	/**
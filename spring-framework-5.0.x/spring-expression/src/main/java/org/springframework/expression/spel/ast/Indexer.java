@@ -194,10 +194,10 @@ public class Indexer extends SpelNodeImpl {
 	@Override
 	public boolean isCompilable() {
 		if (this.indexedType == IndexedType.ARRAY) {
-			return (this.exitTypeDescriptor != null);
+			return (this.exitTypeDescriptor != null && isIndexCompilable());
 		}
 		else if (this.indexedType == IndexedType.LIST) {
-			return this.children[0].isCompilable();
+			return isIndexCompilable();
 		}
 		else if (this.indexedType == IndexedType.MAP) {
 			return (this.children[0] instanceof PropertyOrFieldReference || this.children[0].isCompilable());
@@ -255,18 +255,13 @@ public class Indexer extends SpelNodeImpl {
 						//depthPlusOne(exitTypeDescriptor)+"Ljava/lang/Object;");
 				insn = AALOAD;
 			}
-			SpelNodeImpl index = this.children[0];
-			cf.enterCompilationScope();
-			index.generateCode(mv, cf);
-			cf.exitCompilationScope();
+			generateIndexCode(mv, cf);
 			mv.visitInsn(insn);
 		}
 
 		else if (this.indexedType == IndexedType.LIST) {
 			mv.visitTypeInsn(CHECKCAST, "java/util/List");
-			cf.enterCompilationScope();
-			this.children[0].generateCode(mv, cf);
-			cf.exitCompilationScope();
+			generateIndexCode(mv, cf);
 			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "get", "(I)Ljava/lang/Object;", true);
 		}
 
@@ -281,7 +276,10 @@ public class Indexer extends SpelNodeImpl {
 			}
 			else {
 				cf.enterCompilationScope();
+				cf.pushRootContextObject();
 				this.children[0].generateCode(mv, cf);
+				CodeFlow.insertBoxIfNecessary(mv, cf.lastDescriptor());
+				cf.popActiveContextObject();
 				cf.exitCompilationScope();
 			}
 			mv.visitMethodInsn(
@@ -318,6 +316,26 @@ public class Indexer extends SpelNodeImpl {
 		cf.pushDescriptor(this.exitTypeDescriptor);
 	}
 
+	/**
+	 * Return whether the index can be compiled to an {@code int} for array or list access.
+	 */
+	private boolean isIndexCompilable() {
+		SpelNodeImpl index = this.children[0];
+		return (index.isCompilable() && CodeFlow.isPrimitiveOrUnboxableSupportedNumber(index.exitTypeDescriptor));
+	}
+
+	/**
+	 * Generate the code for an {@code int} index, evaluated against the root object.
+	 */
+	private void generateIndexCode(MethodVisitor mv, CodeFlow cf) {
+		cf.enterCompilationScope();
+		cf.pushRootContextObject();
+		this.children[0].generateCode(mv, cf);
+		CodeFlow.insertNumericUnboxOrPrimitiveTypeCoercion(mv, cf.lastDescriptor(), 'I');
+		cf.popActiveContextObject();
+		cf.exitCompilationScope();
+	}
+
 	@Override
 	public String toStringAST() {
 		StringBuilder sb = new StringBuilder("[");
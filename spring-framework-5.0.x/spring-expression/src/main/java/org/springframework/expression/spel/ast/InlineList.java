@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -131,11 +131,37 @@ public class InlineList extends SpelNodeImpl {
 	
 	@Override
 	public boolean isCompilable() {
-		return isConstant();
+		if (isConstant()) {
+			return true;
+		}
+		for (SpelNodeImpl child : this.children) {
+			if (!child.isCompilable()) {
+				return false;
+			}
+		}
+		return true;
 	}
 	
 	@Override
 	public void generateCode(MethodVisitor mv, CodeFlow codeflow) {
+		if (!isConstant()) {
+			// Build a new list on each evaluation, each element evaluated in its own scope
+			mv.visitTypeInsn(NEW, "java/util/ArrayList");
+			mv.visitInsn(DUP);
+			mv.visitMethodInsn(INVOKESPECIAL, "java/util/ArrayList", "<init>", "()V", false);
+			for (SpelNodeImpl child : this.children) {
+				mv.visitInsn(DUP);
+				codeflow.enterCompilationScope();
+				child.generateCode(mv, codeflow);
+				CodeFlow.insertBoxIfNecessary(mv, codeflow.lastDescriptor());
+				codeflow.exitCompilationScope();
+				mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "add", "(Ljava/lang/Object;)Z", true);
+				mv.visitInsn(POP);
+			}
+			codeflow.pushDescriptor("Ljava/util/List");
+			return;
+		}
+
 		final String constantFieldName = "inlineList$" + codeflow.nextFieldId();
 		final String className = codeflow.getClassName();
 
@@ -20,8 +20,10 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelNode;
 import org.springframework.lang.Nullable;
@@ -164,4 +166,89 @@ public class InlineMap extends SpelNodeImpl {
 		return (Map<Object, Object>) this.constant.getValue();
 	}
 
+	@Override
+	public boolean isCompilable() {
+		if (isConstant()) {
+			return true;
+		}
+		for (int c = 0; c < this.children.length; c++) {
+			SpelNodeImpl child = this.children[c];
+			if (!(c % 2 == 0 && child instanceof PropertyOrFieldReference) && !child.isCompilable()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow codeflow) {
+		if (!isConstant()) {
+			// Build a new map on each evaluation, each key and value evaluated in its own scope
+			generateMapCode(mv, codeflow, false);
+			codeflow.pushDescriptor("Ljava/util/Map");
+			return;
+		}
+
+		final String constantFieldName = "inlineMap$" + codeflow.nextFieldId();
+		final String className = codeflow.getClassName();
+
+		codeflow.registerNewField((cw, cflow) ->
+				cw.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, constantFieldName, "Ljava/util/Map;", null, null));
+
+		codeflow.registerNewClinit((mVisitor, cflow) -> {
+			generateMapCode(mVisitor, cflow, true);
+			mVisitor.visitFieldInsn(PUTSTATIC, className, constantFieldName, "Ljava/util/Map;");
+		});
+
+		mv.visitFieldInsn(GETSTATIC, className, constantFieldName, "Ljava/util/Map;");
+		codeflow.pushDescriptor("Ljava/util/Map");
+	}
+
+	/**
+	 * Generate the code that builds this map, leaving it on the stack. A constant map
+	 * is built in a static initializer and wrapped like the constant held by this node.
+	 */
+	private void generateMapCode(MethodVisitor mv, CodeFlow codeflow, boolean constant) {
+		mv.visitTypeInsn(NEW, "java/util/LinkedHashMap");
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/util/LinkedHashMap", "<init>", "()V", false);
+		for (int c = 0; c < this.children.length; c++) {
+			mv.visitInsn(DUP);
+			generateEntryCode(this.children[c++], true, mv, codeflow, constant);
+			generateEntryCode(this.children[c], false, mv, codeflow, constant);
+			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "put",
+					"(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", true);
+			mv.visitInsn(POP);
+		}
+		if (constant) {
+			mv.visitMethodInsn(INVOKESTATIC, "java/util/Collections", "unmodifiableMap",
+					"(Ljava/util/Map;)Ljava/util/Map;", false);
+		}
+	}
+
+	private static void generateEntryCode(
+			SpelNodeImpl child, boolean key, MethodVisitor mv, CodeFlow codeflow, boolean constant) {
+
+		if (key && child instanceof PropertyOrFieldReference) {
+			// Unquoted keys are names, not references
+			mv.visitLdcInsn(((PropertyOrFieldReference) child).getName());
+		}
+		else if (constant && child instanceof InlineList) {
+			// Within a static initializer, do not register another clinit adder:
+			// build the nested constant list directly
+			((InlineList) child).generateClinitCode(codeflow.getClassName(), "", mv, codeflow, true);
+			mv.visitMethodInsn(INVOKESTATIC, "java/util/Collections", "unmodifiableList",
+					"(Ljava/util/List;)Ljava/util/List;", false);
+		}
+		else if (constant && child instanceof InlineMap) {
+			((InlineMap) child).generateMapCode(mv, codeflow, true);
+		}
+		else {
+			codeflow.enterCompilationScope();
+			child.generateCode(mv, codeflow);
+			CodeFlow.insertBoxIfNecessary(mv, codeflow.lastDescriptor());
+			codeflow.exitCompilationScope();
+		}
+	}
+
 }
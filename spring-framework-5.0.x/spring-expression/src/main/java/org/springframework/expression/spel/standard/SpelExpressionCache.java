@@ -0,0 +1,265 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel.standard;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.common.CompositeStringExpression;
+import org.springframework.expression.common.LiteralExpression;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.ast.SpelNodeImpl;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Concurrent cache of parsed expressions, bounded by a cache limit beyond which
+ * the least recently parsed expressions are evicted.
+ *
+ * <p>Expressions are cached per expression string, {@link ParserContext} and
+ * {@link SpelParserConfiguration} of the parser, so that a single cache can be
+ * used with several parsers. Expressions parsed by a subclass of
+ * {@link SpelExpressionParser} are only shared with callers of the same parser
+ * instance. Expressions that fail to parse are not cached.
+ *
+ * <p>Only the parsed syntax tree is shared: every call returns a new
+ * {@link Expression} instance, so that the compiled state of an expression
+ * is never shared between callers. Since an evaluated syntax tree may hold on
+ * to the accessors it resolved, a cache is meant to be kept by the component
+ * that uses it rather than in a static field.
+ *
+ * @since 5.0.17
+ * @see SpelExpressionParser
+ */
+public class SpelExpressionCache {
+
+	/** Default maximum number of entries for the expression cache: 1024 */
+	public static final int DEFAULT_CACHE_LIMIT = 1024;
+
+
+	private final int cacheLimit;
+
+	/** Fast access cache for Expressions, returning already cached instances without a global lock */
+	private final Map<ExpressionKey, Expression> expressionAccessCache;
+
+	/** Map from expression key to Expression, synchronized for Expression creation */
+	private final Map<ExpressionKey, Expression> expressionCreationCache;
+
+
+	/**
+	 * Create a new cache with the {@link #DEFAULT_CACHE_LIMIT default cache limit}.
+	 */
+	public SpelExpressionCache() {
+		this(DEFAULT_CACHE_LIMIT);
+	}
+
+	/**
+	 * Create a new cache with the given cache limit.
+	 * @param cacheLimit the maximum number of expressions to cache
+	 */
+	@SuppressWarnings("serial")
+	public SpelExpressionCache(int cacheLimit) {
+		Assert.isTrue(cacheLimit > 0, "Cache limit must be greater than 0");
+		this.cacheLimit = cacheLimit;
+		this.expressionAccessCache = new ConcurrentHashMap<>(cacheLimit);
+		this.expressionCreationCache = new LinkedHashMap<ExpressionKey, Expression>(cacheLimit, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<ExpressionKey, Expression> eldest) {
+				if (size() > getCacheLimit()) {
+					expressionAccessCache.remove(eldest.getKey());
+					return true;
+				}
+				else {
+					return false;
+				}
+			}
+		};
+	}
+
+
+	/**
+	 * Return the maximum number of expressions to cache.
+	 */
+	public int getCacheLimit() {
+		return this.cacheLimit;
+	}
+
+	/**
+	 * Parse the given expression string with the given parser, or create a new
+	 * expression for the syntax tree previously parsed by a parser with the
+	 * same configuration.
+	 * @param parser the parser to use
+	 * @param expressionString the raw expression string to parse
+	 * @return the parsed expression
+	 * @throws ParseException if an exception occurred during parsing
+	 */
+	public Expression parseExpression(SpelExpressionParser parser, String expressionString) throws ParseException {
+		return parseExpression(parser, expressionString, null);
+	}
+
+	/**
+	 * Parse the given expression string with the given parser and parser context,
+	 * or create a new expression for the syntax tree previously parsed by a parser
+	 * with the same configuration and an equivalent parser context.
+	 * @param parser the parser to use
+	 * @param expressionString the raw expression string to parse
+	 * @param context a context for influencing the expression parsing routine
+	 * @return the parsed expression
+	 * @throws ParseException if an exception occurred during parsing
+	 */
+	public Expression parseExpression(SpelExpressionParser parser, String expressionString,
+			@Nullable ParserContext context) throws ParseException {
+
+		ExpressionKey key = new ExpressionKey(parser, expressionString, context);
+		Expression expression = this.expressionAccessCache.get(key);
+		if (expression != null) {
+			Expression copy = copyExpression(expression, parser.getConfiguration());
+			if (copy != null) {
+				return copy;
+			}
+		}
+		// Parse outside of the lock: concurrent parses of the same expression are harmless
+		Expression parsed = (context != null ?
+				parser.parseExpression(expressionString, context) : parser.parseExpression(expressionString));
+		// Cache a copy that is never evaluated, leaving the parsed expression to the caller
+		Expression copy = copyExpression(parsed, parser.getConfiguration());
+		if (copy != null) {
+			synchronized (this.expressionCreationCache) {
+				if (!this.expressionCreationCache.containsKey(key)) {
+					this.expressionAccessCache.put(key, copy);
+					this.expressionCreationCache.put(key, copy);
+				}
+			}
+		}
+		return parsed;
+	}
+
+	/**
+	 * Return the number of cached expressions.
+	 */
+	public int size() {
+		return this.expressionAccessCache.size();
+	}
+
+	/**
+	 * Remove all cached expressions.
+	 */
+	public void clear() {
+		synchronized (this.expressionCreationCache) {
+			this.expressionAccessCache.clear();
+			this.expressionCreationCache.clear();
+		}
+	}
+
+
+	/**
+	 * Create a new expression for the syntax tree of the given expression,
+	 * or return {@code null} if the type of expression is not supported.
+	 */
+	@Nullable
+	private static Expression copyExpression(Expression expression, SpelParserConfiguration configuration) {
+		if (expression instanceof SpelExpression) {
+			SpelExpression spelExpression = (SpelExpression) expression;
+			return new SpelExpression(spelExpression.getExpressionString(),
+					(SpelNodeImpl) spelExpression.getAST(), configuration);
+		}
+		if (expression instanceof LiteralExpression) {
+			return expression;
+		}
+		if (expression instanceof CompositeStringExpression) {
+			Expression[] expressions = ((CompositeStringExpression) expression).getExpressions();
+			Expression[] copies = new Expression[expressions.length];
+			for (int i = 0; i < expressions.length; i++) {
+				copies[i] = copyExpression(expressions[i], configuration);
+				if (copies[i] == null) {
+					return null;
+				}
+			}
+			return new CompositeStringExpression(expression.getExpressionString(), copies);
+		}
+		return null;
+	}
+
+
+	/**
+	 * Key of a parsed expression, including everything the parsing depends on.
+	 */
+	private static final class ExpressionKey {
+
+		/** The parser itself if customized by a subclass, otherwise {@code null} */
+		@Nullable
+		private final SpelExpressionParser customParser;
+
+		private final SpelParserConfiguration configuration;
+
+		private final String expressionString;
+
+		private final boolean template;
+
+		@Nullable
+		private final String prefix;
+
+		@Nullable
+		private final String suffix;
+
+		public ExpressionKey(SpelExpressionParser parser, String expressionString, @Nullable ParserContext context) {
+			Assert.notNull(expressionString, "Expression string must not be null");
+			this.customParser = (parser.getClass() != SpelExpressionParser.class ? parser : null);
+			this.configuration = parser.getConfiguration();
+			this.expressionString = expressionString;
+			this.template = (context != null && context.isTemplate());
+			this.prefix = (this.template ? context.getExpressionPrefix() : null);
+			this.suffix = (this.template ? context.getExpressionSuffix() : null);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof ExpressionKey)) {
+				return false;
+			}
+			ExpressionKey otherKey = (ExpressionKey) other;
+			return (this.expressionString.equals(otherKey.expressionString) &&
+					this.customParser == otherKey.customParser &&
+					this.configuration.equals(otherKey.configuration) &&
+					this.template == otherKey.template &&
+					ObjectUtils.nullSafeEquals(this.prefix, otherKey.prefix) &&
+					ObjectUtils.nullSafeEquals(this.suffix, otherKey.suffix));
+		}
+
+		@Override
+		public int hashCode() {
+			int hashCode = this.expressionString.hashCode();
+			hashCode = 29 * hashCode + this.configuration.hashCode();
+			hashCode = 29 * hashCode + ObjectUtils.nullSafeHashCode(this.prefix);
+			return hashCode;
+		}
+
+		@Override
+		public String toString() {
+			return (this.template ? "template " : "") + "expression \"" + this.expressionString + "\"";
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -276,6 +276,31 @@ public class StandardEvaluationContext implements EvaluationContext {
 		resolver.registerMethodFilter(type, filter);
 	}
 
+	/**
+	 * Apply the internal delegates of this instance to the specified
+	 * {@code evaluationContext}. Typically invoked right after the new context
+	 * instance has been created, in order to reuse the delegates of a template
+	 * context, including the caches of its property accessors and resolvers,
+	 * instead of initializing new ones for each evaluation.
+	 * <p>The variables and the root object are not applied: they remain
+	 * specific to the target context.
+	 * @param evaluationContext the evaluation context to update
+	 * @since 5.0.17
+	 */
+	public void applyDelegatesTo(StandardEvaluationContext evaluationContext) {
+		// Triggers initialization for default delegates
+		evaluationContext.setConstructorResolvers(new ArrayList<>(getConstructorResolvers()));
+		evaluationContext.setMethodResolvers(new ArrayList<>(getMethodResolvers()));
+		evaluationContext.setPropertyAccessors(new ArrayList<>(getPropertyAccessors()));
+		evaluationContext.setTypeLocator(getTypeLocator());
+		evaluationContext.setTypeConverter(getTypeConverter());
+
+		evaluationContext.beanResolver = this.beanResolver;
+		evaluationContext.operatorOverloader = this.operatorOverloader;
+		evaluationContext.reflectiveMethodResolver = this.reflectiveMethodResolver;
+		evaluationContext.typeComparator = this.typeComparator;
+	}
+
 
 	private List<PropertyAccessor> initPropertyAccessors() {
 		List<PropertyAccessor> accessors = this.propertyAccessors;
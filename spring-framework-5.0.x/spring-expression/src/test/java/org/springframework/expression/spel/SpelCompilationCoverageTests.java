@@ -441,6 +441,173 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 		assertEquals("op", o);
 	}
 
+	@Test
+	public void inlineListWithNonConstantElements() throws Exception {
+		StandardEvaluationContext context = new StandardEvaluationContext(new PersonInOtherPackage(42));
+		context.setVariable("name", "abc");
+		expression = parser.parseExpression("{age,#name,{1,2}}");
+		assertEquals("[42, abc, [1, 2]]", expression.getValue(context).toString());
+		assertCanCompile(expression);
+		assertEquals("[42, abc, [1, 2]]", expression.getValue(context).toString());
+	}
+
+	@Test
+	public void inlineMap() throws Exception {
+		expression = parser.parseExpression("{a:'x',b:{1,2},c:{d:3}}");
+		assertEquals("{a=x, b=[1, 2], c={d=3}}", expression.getValue().toString());
+		assertCanCompile(expression);
+		Map<?, ?> map = (Map<?, ?>) expression.getValue();
+		assertEquals("{a=x, b=[1, 2], c={d=3}}", map.toString());
+		assertSame(map, expression.getValue());
+		try {
+			map.clear();
+			fail("Should be unmodifiable");
+		}
+		catch (UnsupportedOperationException ex) {
+			// success
+		}
+
+		expression = parser.parseExpression("{a:'x',b:{1,2}}['b'][1]");
+		assertEquals(2, expression.getValue());
+		assertCanCompile(expression);
+		assertEquals(2, expression.getValue());
+
+		StandardEvaluationContext context = new StandardEvaluationContext(new PersonInOtherPackage(42));
+		context.setVariable("key", "k");
+		expression = parser.parseExpression("{age:age,#key:{1,2},'n':null}");
+		assertEquals("{age=42, k=[1, 2], n=null}", expression.getValue(context).toString());
+		assertCanCompile(expression);
+		assertEquals("{age=42, k=[1, 2], n=null}", expression.getValue(context).toString());
+		assertNotSame(expression.getValue(context), expression.getValue(context));
+	}
+
+	@Test
+	public void selection() throws Exception {
+		List<PersonInOtherPackage> people = new ArrayList<>();
+		people.add(new PersonInOtherPackage(20));
+		people.add(new PersonInOtherPackage(40));
+		people.add(new PersonInOtherPackage(50));
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setVariable("people", people);
+
+		expression = parser.parseExpression("#people.?[age > 30]");
+		assertEquals(people.subList(1, 3), expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals(people.subList(1, 3), expression.getValue(context));
+
+		expression = parser.parseExpression("#people.^[age > 30]");
+		assertSame(people.get(1), expression.getValue(context));
+		assertCanCompile(expression);
+		assertSame(people.get(1), expression.getValue(context));
+
+		expression = parser.parseExpression("#people.$[age > 30]");
+		assertSame(people.get(2), expression.getValue(context));
+		assertCanCompile(expression);
+		assertSame(people.get(2), expression.getValue(context));
+
+		expression = parser.parseExpression("#people.^[age > 60]");
+		assertNull(expression.getValue(context));
+		assertCanCompile(expression);
+		assertNull(expression.getValue(context));
+
+		expression = parser.parseExpression("{1,2,3,4}.?[#this % 2 == 0]");
+		assertEquals("[2, 4]", expression.getValue().toString());
+		assertCanCompile(expression);
+		assertEquals("[2, 4]", expression.getValue().toString());
+
+		// nested selection, #this referring to the innermost element
+		expression = parser.parseExpression("{{1,2},{3,4}}.?[#this.?[#this > 3].size() > 0]");
+		assertEquals("[[3, 4]]", expression.getValue().toString());
+		assertCanCompile(expression);
+		assertEquals("[[3, 4]]", expression.getValue().toString());
+
+		// selection over the root object
+		expression = parser.parseExpression("?[age < 30].size()");
+		assertEquals(1, expression.getValue(people));
+		assertCanCompile(expression);
+		assertEquals(1, expression.getValue(people));
+	}
+
+	@Test
+	public void selectionNotCompilable() throws Exception {
+		// selection over an array results in an array
+		expression = parser.parseExpression("?[#this > 1]");
+		assertEquals(2, ((Integer[]) expression.getValue(new Integer[] {1, 2, 3})).length);
+		assertCantCompile(expression);
+
+		expression = parser.parseExpression("?[value > 1]");
+		assertEquals(1, ((Map<?, ?>) expression.getValue(Collections.singletonMap("a", 2))).size());
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void projection() throws Exception {
+		List<PersonInOtherPackage> people = new ArrayList<>();
+		people.add(new PersonInOtherPackage(20));
+		people.add(new PersonInOtherPackage(40));
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setVariable("people", people);
+
+		expression = parser.parseExpression("#people.![age]");
+		assertEquals("[20, 40]", expression.getValue(context).toString());
+		assertCanCompile(expression);
+		assertEquals("[20, 40]", expression.getValue(context).toString());
+
+		expression = parser.parseExpression("#people.![age * 2].?[#this > 50]");
+		assertEquals("[80]", expression.getValue(context).toString());
+		assertCanCompile(expression);
+		assertEquals("[80]", expression.getValue(context).toString());
+
+		expression = parser.parseExpression("{'a','bc'}.![length()]");
+		assertEquals("[1, 2]", expression.getValue().toString());
+		assertCanCompile(expression);
+		assertEquals("[1, 2]", expression.getValue().toString());
+	}
+
+	@Test
+	public void nullSafeSelectionAndProjection() throws Exception {
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setVariable("numbers", Collections.singletonList(5));
+
+		expression = parser.parseExpression("#numbers?.?[#this > 1]");
+		assertEquals("[5]", expression.getValue(context).toString());
+		assertCanCompile(expression);
+		assertEquals("[5]", expression.getValue(context).toString());
+		context.setVariable("numbers", null);
+		assertNull(expression.getValue(context));
+
+		context.setVariable("numbers", Collections.singletonList(5));
+		expression = parser.parseExpression("#numbers?.![#this * 2]");
+		assertEquals("[10]", expression.getValue(context).toString());
+		assertCanCompile(expression);
+		assertEquals("[10]", expression.getValue(context).toString());
+		context.setVariable("numbers", null);
+		assertNull(expression.getValue(context));
+	}
+
+	@Test
+	public void indexerWithBoxedIndex() throws Exception {
+		StandardEvaluationContext context = new StandardEvaluationContext(new String[] {"a", "b"});
+		context.setVariable("i", 1);
+		context.setVariable("list", Collections.singletonList("x"));
+		context.setVariable("map", Collections.singletonMap(1, "y"));
+
+		expression = parser.parseExpression("[#i]");
+		assertEquals("b", expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals("b", expression.getValue(context));
+
+		expression = parser.parseExpression("#list[#i - 1]");
+		assertEquals("x", expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals("x", expression.getValue(context));
+
+		expression = parser.parseExpression("#map[1]");
+		assertEquals("y", expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals("y", expression.getValue(context));
+	}
+
 	@Test
 	public void intLiteral() throws Exception {
 		expression = parser.parseExpression("42");
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel.standard;
+
+import org.junit.Test;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.common.TemplateParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SpelExpressionCache}.
+ *
+ * @since 5.0.17
+ */
+public class SpelExpressionCacheTests {
+
+	private final SpelExpressionCache cache = new SpelExpressionCache(2);
+
+	private final SpelExpressionParser parser = new SpelExpressionParser();
+
+
+	@Test
+	public void sameSyntaxTreeForSameConfiguration() {
+		Expression expression = this.cache.parseExpression(this.parser, "name.length()");
+		Expression other = this.cache.parseExpression(this.parser, "name.length()");
+		assertNotSame(expression, other);
+		assertSame(ast(other), ast(this.cache.parseExpression(this.parser, "name.length()")));
+		assertSame(ast(other), ast(this.cache.parseExpression(new SpelExpressionParser(), "name.length()")));
+		assertEquals(1, this.cache.size());
+	}
+
+	@Test
+	public void differentSyntaxTreeForDifferentConfiguration() {
+		SpelNode expression = ast(this.cache.parseExpression(this.parser, "name.length()"));
+		SpelExpressionParser compilingParser = new SpelExpressionParser(
+				new SpelParserConfiguration(SpelCompilerMode.IMMEDIATE, getClass().getClassLoader()));
+		assertNotSame(expression, ast(this.cache.parseExpression(compilingParser, "name.length()")));
+		SpelExpressionParser customParser = new SpelExpressionParser() {};
+		this.cache.parseExpression(customParser, "name.length()");
+		SpelNode customExpression = ast(this.cache.parseExpression(customParser, "name.length()"));
+		assertNotSame(expression, customExpression);
+		assertSame(customExpression, ast(this.cache.parseExpression(customParser, "name.length()")));
+		assertNotSame(customExpression,
+				ast(this.cache.parseExpression(new SpelExpressionParser() {}, "name.length()")));
+	}
+
+	@Test
+	public void compiledStateNotShared() {
+		SpelExpressionParser compilingParser = new SpelExpressionParser(
+				new SpelParserConfiguration(SpelCompilerMode.IMMEDIATE, getClass().getClassLoader()));
+		Expression longExpression = this.cache.parseExpression(compilingParser, "#id");
+		Expression stringExpression = this.cache.parseExpression(compilingParser, "#id");
+
+		StandardEvaluationContext longContext = new StandardEvaluationContext();
+		longContext.setVariable("id", 42L);
+		StandardEvaluationContext stringContext = new StandardEvaluationContext();
+		stringContext.setVariable("id", "42");
+		for (int i = 0; i < 3; i++) {
+			assertEquals(42L, longExpression.getValue(longContext));
+			assertEquals("42", stringExpression.getValue(stringContext));
+		}
+	}
+
+	@Test
+	public void differentExpressionForDifferentParserContext() {
+		Expression expression = this.cache.parseExpression(this.parser, "1 + 1");
+		Expression template = this.cache.parseExpression(this.parser, "1 + 1", new TemplateParserContext());
+		assertEquals(2, expression.getValue());
+		assertEquals("1 + 1", template.getValue());
+
+		template = this.cache.parseExpression(this.parser, "#{1 + 1}", new TemplateParserContext());
+		assertEquals("2", template.getValue(String.class));
+		assertEquals("2", this.cache.parseExpression(
+				this.parser, "#{1 + 1}", new TemplateParserContext()).getValue(String.class));
+		Expression composite =
+				this.cache.parseExpression(this.parser, "a#{1 + 1}b", new TemplateParserContext());
+		assertEquals("a2b", composite.getValue());
+		assertEquals("a2b", this.cache.parseExpression(
+				this.parser, "a#{1 + 1}b", new TemplateParserContext()).getValue());
+		Expression otherTemplate =
+				this.cache.parseExpression(this.parser, "#{1 + 1}", new TemplateParserContext("${", "}"));
+		assertEquals("#{1 + 1}", otherTemplate.getValue());
+	}
+
+	@Test
+	public void leastRecentlyParsedExpressionEvicted() {
+		this.cache.parseExpression(this.parser, "1");
+		SpelNode first = ast(this.cache.parseExpression(this.parser, "1"));
+		this.cache.parseExpression(this.parser, "2");
+		SpelNode second = ast(this.cache.parseExpression(this.parser, "2"));
+		this.cache.parseExpression(this.parser, "3");
+		assertEquals(2, this.cache.size());
+		assertNotSame(first, ast(this.cache.parseExpression(this.parser, "1")));
+		assertEquals(2, this.cache.size());
+		assertNotSame(second, ast(this.cache.parseExpression(this.parser, "2")));
+	}
+
+	@Test
+	public void invalidExpressionNotCached() {
+		try {
+			this.cache.parseExpression(this.parser, "name.");
+			fail("Should have thrown ParseException");
+		}
+		catch (ParseException ex) {
+			// expected
+		}
+		assertEquals(0, this.cache.size());
+	}
+
+	@Test
+	public void clear() {
+		this.cache.parseExpression(this.parser, "name");
+		SpelNode expression = ast(this.cache.parseExpression(this.parser, "name"));
+		this.cache.clear();
+		assertEquals(0, this.cache.size());
+		assertNotSame(expression, ast(this.cache.parseExpression(this.parser, "name")));
+	}
+
+	private static SpelNode ast(Expression expression) {
+		return ((SpelExpression) expression).getAST();
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -46,6 +46,31 @@ public class StandardComponentsTests {
 		assertEquals(tl, context.getTypeLocator());
 	}
 
+	@Test
+	public void testApplyDelegatesTo() {
+		StandardEvaluationContext template = new StandardEvaluationContext();
+		template.setBeanResolver((context, beanName) -> beanName);
+		template.setVariable("name", "value");
+		StandardEvaluationContext context = new StandardEvaluationContext("root");
+		template.applyDelegatesTo(context);
+
+		assertEquals(template.getPropertyAccessors(), context.getPropertyAccessors());
+		assertNotSame(template.getPropertyAccessors(), context.getPropertyAccessors());
+		assertSame(template.getPropertyAccessors().get(0), context.getPropertyAccessors().get(0));
+		assertSame(template.getMethodResolvers().get(0), context.getMethodResolvers().get(0));
+		assertSame(template.getConstructorResolvers().get(0), context.getConstructorResolvers().get(0));
+		assertSame(template.getBeanResolver(), context.getBeanResolver());
+		assertSame(template.getTypeLocator(), context.getTypeLocator());
+		assertSame(template.getTypeConverter(), context.getTypeConverter());
+		assertSame(template.getTypeComparator(), context.getTypeComparator());
+		assertSame(template.getOperatorOverloader(), context.getOperatorOverloader());
+		assertEquals("root", context.getRootObject().getValue());
+		assertNull(context.lookupVariable("name"));
+
+		context.addPropertyAccessor(new ReflectivePropertyAccessor());
+		assertEquals(1, template.getPropertyAccessors().size());
+	}
+
 	@Test(expected = EvaluationException.class)
 	public void testStandardOperatorOverloader() throws EvaluationException {
 		OperatorOverloader oo = new StandardOperatorOverloader();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,10 +28,10 @@ import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.PropertyAccessor;
 import org.springframework.expression.TypedValue;
 import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.standard.SpelExpressionCache;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.SimpleEvaluationContext;
 import org.springframework.lang.Nullable;
@@ -79,7 +79,9 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 
 	private volatile boolean selectorHeaderInUse = false;
 
-	private final ExpressionParser expressionParser = new SpelExpressionParser();
+	private final SpelExpressionParser expressionParser = new SpelExpressionParser();
+
+	private final SpelExpressionCache expressionCache = new SpelExpressionCache(DEFAULT_CACHE_LIMIT);
 
 	private final DestinationCache destinationCache = new DestinationCache();
 
@@ -159,7 +161,8 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 			String selector = SimpMessageHeaderAccessor.getFirstNativeHeader(getSelectorHeaderName(), headers);
 			if (selector != null) {
 				try {
-					expression = this.expressionParser.parseExpression(selector);
+					// Sessions commonly subscribe with the same selectors
+					expression = this.expressionCache.parseExpression(this.expressionParser, selector);
 					this.selectorHeaderInUse = true;
 					if (logger.isTraceEnabled()) {
 						logger.trace("Subscription selector: [" + selector + "]");
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,7 @@ import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.ResourceRegion;
 import org.springframework.http.HttpHeaders;
@@ -154,18 +155,7 @@ public class ResourceRegionHttpMessageConverter extends AbstractGenericHttpMessa
 		responseHeaders.add("Content-Range", "bytes " + start + '-' + end + '/' + resourceLength);
 		responseHeaders.setContentLength(rangeLength);
 
-		InputStream in = region.getResource().getInputStream();
-		try {
-			StreamUtils.copyRange(in, outputMessage.getBody(), start, end);
-		}
-		finally {
-			try {
-				in.close();
-			}
-			catch (IOException ex) {
-				// ignore
-			}
-		}
+		copyRange(region.getResource(), outputMessage.getBody(), start, end);
 	}
 
 	private void writeResourceRegionCollection(Collection<ResourceRegion> resourceRegions,
@@ -182,38 +172,48 @@ public class ResourceRegionHttpMessageConverter extends AbstractGenericHttpMessa
 		for (ResourceRegion region : resourceRegions) {
 			long start = region.getPosition();
 			long end = start + region.getCount() - 1;
-			InputStream in = region.getResource().getInputStream();
-			try {
-				// Writing MIME header.
-				println(out);
-				print(out, "--" + boundaryString);
-				println(out);
-				if (contentType != null) {
-					print(out, "Content-Type: " + contentType.toString());
-					println(out);
-				}
-				Long resourceLength = region.getResource().contentLength();
-				end = Math.min(end, resourceLength - 1);
-				print(out, "Content-Range: bytes " + start + '-' + end + '/' + resourceLength);
-				println(out);
+			// Writing MIME header.
+			println(out);
+			print(out, "--" + boundaryString);
+			println(out);
+			if (contentType != null) {
+				print(out, "Content-Type: " + contentType.toString());
 				println(out);
-				// Printing content
-				StreamUtils.copyRange(in, out, start, end);
-			}
-			finally {
-				try {
-					in.close();
-				}
-				catch (IOException ex) {
-					// ignore
-				}
 			}
+			Long resourceLength = region.getResource().contentLength();
+			end = Math.min(end, resourceLength - 1);
+			print(out, "Content-Range: bytes " + start + '-' + end + '/' + resourceLength);
+			println(out);
+			println(out);
+			// Printing content
+			copyRange(region.getResource(), out, start, end);
 		}
 
 		println(out);
 		print(out, "--" + boundaryString + "--");
 	}
 
+	private static void copyRange(Resource resource, OutputStream out, long start, long end) throws IOException {
+		if (resource instanceof ByteArrayResource) {
+			// In-memory content: write the range directly, without intermediate buffer
+			byte[] content = ((ByteArrayResource) resource).getByteArray();
+			out.write(content, (int) start, (int) (end - start + 1));
+			return;
+		}
+		InputStream in = resource.getInputStream();
+		try {
+			StreamUtils.copyRange(in, out, start, end);
+		}
+		finally {
+			try {
+				in.close();
+			}
+			catch (IOException ex) {
+				// ignore
+			}
+		}
+	}
+
 	private static void println(OutputStream os) throws IOException {
 		os.write('\r');
 		os.write('\n');
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,7 @@ import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.web.bind.WebDataBinder;
@@ -41,6 +42,8 @@ import org.springframework.web.method.HandlerMethod;
  * a binder factory to pass to argument resolvers.
  *
  * <p>Use {@link #setHandlerMethodArgumentResolvers} to customize the list of argument resolvers.
+ * A shared {@link HandlerMethodInvocationPlan} may be set through {@link #setInvocationPlan}
+ * in order to skip the lookup of argument resolvers and the reflective method invocation.
  *
  * @author Rossen Stoyanchev
  * @author Juergen Hoeller
@@ -55,6 +58,9 @@ public class InvocableHandlerMethod extends HandlerMethod {
 
 	private ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
+	@Nullable
+	private HandlerMethodInvocationPlan invocationPlan;
+
 
 	/**
 	 * Create an instance from a {@code HandlerMethod}.
@@ -109,6 +115,21 @@ public class InvocableHandlerMethod extends HandlerMethod {
 		this.parameterNameDiscoverer = parameterNameDiscoverer;
 	}
 
+	/**
+	 * Set a precomputed {@link HandlerMethodInvocationPlan} for this handler method.
+	 * <p>The plan is only used for resolving arguments as long as it was created
+	 * with the {@link #setHandlerMethodArgumentResolvers argument resolvers} of
+	 * this handler method.
+	 * @param invocationPlan the plan for the method of this handler method,
+	 * or {@code null} to resolve and invoke without a plan
+	 * @since 5.0.17
+	 */
+	public void setInvocationPlan(@Nullable HandlerMethodInvocationPlan invocationPlan) {
+		Assert.isTrue(invocationPlan == null || invocationPlan.getMethod().equals(getBridgedMethod()),
+				"Invocation plan does not match handler method");
+		this.invocationPlan = invocationPlan;
+	}
+
 
 	/**
 	 * Invoke the method after resolving its argument values in the context of the given request.
@@ -147,6 +168,10 @@ public class InvocableHandlerMethod extends HandlerMethod {
 	private Object[] getMethodArgumentValues(NativeWebRequest request, @Nullable ModelAndViewContainer mavContainer,
 			Object... providedArgs) throws Exception {
 
+		HandlerMethodInvocationPlan plan = this.invocationPlan;
+		if (plan != null && plan.getArgumentResolvers() != this.argumentResolvers) {
+			plan = null;
+		}
 		MethodParameter[] parameters = getMethodParameters();
 		Object[] args = new Object[parameters.length];
 		for (int i = 0; i < parameters.length; i++) {
@@ -156,10 +181,11 @@ public class InvocableHandlerMethod extends HandlerMethod {
 			if (args[i] != null) {
 				continue;
 			}
-			if (this.argumentResolvers.supportsParameter(parameter)) {
+			HandlerMethodArgumentResolver resolver = (plan != null ? plan.getArgumentResolver(i) :
+					this.argumentResolvers.supportsParameter(parameter) ? this.argumentResolvers : null);
+			if (resolver != null) {
 				try {
-					args[i] = this.argumentResolvers.resolveArgument(
-							parameter, mavContainer, request, this.dataBinderFactory);
+					args[i] = resolver.resolveArgument(parameter, mavContainer, request, this.dataBinderFactory);
 					continue;
 				}
 				catch (Exception ex) {
@@ -204,6 +230,15 @@ public class InvocableHandlerMethod extends HandlerMethod {
 	 * Invoke the handler method with the given argument values.
 	 */
 	protected Object doInvoke(Object... args) throws Exception {
+		HandlerMethodInvocationPlan plan = this.invocationPlan;
+		if (plan != null && plan.canInvoke(getBean(), args)) {
+			try {
+				return plan.invoke(getBean(), args);
+			}
+			catch (Throwable ex) {
+				throw unwrapTargetException(ex, args);
+			}
+		}
 		ReflectionUtils.makeAccessible(getBridgedMethod());
 		try {
 			return getBridgedMethod().invoke(getBean(), args);
@@ -215,20 +250,24 @@ public class InvocableHandlerMethod extends HandlerMethod {
 		}
 		catch (InvocationTargetException ex) {
 			// Unwrap for HandlerExceptionResolvers ...
-			Throwable targetException = ex.getTargetException();
-			if (targetException instanceof RuntimeException) {
-				throw (RuntimeException) targetException;
-			}
-			else if (targetException instanceof Error) {
-				throw (Error) targetException;
-			}
-			else if (targetException instanceof Exception) {
-				throw (Exception) targetException;
-			}
-			else {
-				String text = getInvocationErrorMessage("Failed to invoke handler method", args);
-				throw new IllegalStateException(text, targetException);
-			}
+			throw unwrapTargetException(ex.getTargetException(), args);
+		}
+	}
+
+	/**
+	 * Return the exception to propagate for the given exception raised by the
+	 * handler method itself, re-throwing it directly in case of an Error.
+	 */
+	private Exception unwrapTargetException(Throwable targetException, Object[] args) {
+		if (targetException instanceof Exception) {
+			return (Exception) targetException;
+		}
+		else if (targetException instanceof Error) {
+			throw (Error) targetException;
+		}
+		else {
+			String text = getInvocationErrorMessage("Failed to invoke handler method", args);
+			return new IllegalStateException(text, targetException);
 		}
 	}
 
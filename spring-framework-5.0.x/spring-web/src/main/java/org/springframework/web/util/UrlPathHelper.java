@@ -26,9 +26,11 @@ import javax.servlet.http.HttpServletRequest;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -55,6 +57,13 @@ public class UrlPathHelper {
 	 */
 	private static final String WEBSPHERE_URI_ATTRIBUTE = "com.ibm.websphere.servlet.uri_non_decoded";
 
+	/**
+	 * Name of the request attribute that caches the lookup path parsed by
+	 * {@link #getLookupPathContainer}.
+	 * @since 5.0.17
+	 */
+	public static final String PATH_CONTAINER_ATTRIBUTE = UrlPathHelper.class.getName() + ".PATH_CONTAINER";
+
 	private static final Log logger = LogFactory.getLog(UrlPathHelper.class);
 
 	@Nullable
@@ -177,6 +186,42 @@ public class UrlPathHelper {
 		}
 	}
 
+	/**
+	 * Return the mapping lookup path for the given request parsed into a
+	 * {@link PathContainer}, for matching against pre-parsed
+	 * {@link org.springframework.web.util.pattern.PathPattern PathPatterns}.
+	 * <p>The lookup path is determined as by {@link #getLookupPathForRequest}
+	 * but in its encoded form and with ";" (semicolon) content: path segments
+	 * are decoded and path parameters extracted by the {@code PathContainer}.
+	 * The same caveats as for {@link #setUrlDecode urlDecode=false} apply.
+	 * <p>The path is parsed once per request URI and then cached in the
+	 * {@link #PATH_CONTAINER_ATTRIBUTE} request attribute.
+	 * @param request current HTTP request
+	 * @return the parsed lookup path
+	 * @since 5.0.17
+	 */
+	public PathContainer getLookupPathContainer(HttpServletRequest request) {
+		String requestUri = (String) request.getAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE);
+		if (requestUri == null) {
+			requestUri = request.getRequestURI();
+		}
+		Object cached = request.getAttribute(PATH_CONTAINER_ATTRIBUTE);
+		if (cached instanceof ParsedLookupPath) {
+			ParsedLookupPath parsed = (ParsedLookupPath) cached;
+			if (parsed.alwaysUseFullPath == this.alwaysUseFullPath && ObjectUtils.nullSafeEquals(parsed.requestUri, requestUri)) {
+				return parsed.path;
+			}
+		}
+		UrlPathHelper rawPathHelper = new UrlPathHelper();
+		rawPathHelper.setAlwaysUseFullPath(this.alwaysUseFullPath);
+		rawPathHelper.setUrlDecode(false);
+		rawPathHelper.setRemoveSemicolonContent(false);
+		rawPathHelper.setDefaultEncoding(this.defaultEncoding);
+		PathContainer path = PathContainer.parsePath(rawPathHelper.getLookupPathForRequest(request));
+		request.setAttribute(PATH_CONTAINER_ATTRIBUTE, new ParsedLookupPath(requestUri, this.alwaysUseFullPath, path));
+		return path;
+	}
+
 	/**
 	 * Return the path within the servlet mapping for the given request,
 	 * i.e. the part of the request's URL beyond the part that called the servlet,
@@ -605,4 +650,24 @@ public class UrlPathHelper {
 		return !flagToUse;
 	}
 
+
+	/**
+	 * Lookup path parsed for a given request URI.
+	 */
+	private static final class ParsedLookupPath {
+
+		@Nullable
+		private final String requestUri;
+
+		private final boolean alwaysUseFullPath;
+
+		private final PathContainer path;
+
+		public ParsedLookupPath(@Nullable String requestUri, boolean alwaysUseFullPath, PathContainer path) {
+			this.requestUri = requestUri;
+			this.alwaysUseFullPath = alwaysUseFullPath;
+			this.path = path;
+		}
+	}
+
 }
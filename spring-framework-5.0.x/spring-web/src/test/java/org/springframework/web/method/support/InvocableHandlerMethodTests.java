@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -216,10 +216,127 @@ public class InvocableHandlerMethodTests {
 	}
 
 
+	@Test
+	public void resolveArgWithInvocationPlan() throws Exception {
+		StubArgumentResolver intResolver = new StubArgumentResolver(Integer.class, 99);
+		StubArgumentResolver stringResolver = new StubArgumentResolver(String.class, "value");
+
+		HandlerMethodArgumentResolverComposite composite = new HandlerMethodArgumentResolverComposite();
+		composite.addResolver(intResolver);
+		composite.addResolver(stringResolver);
+		HandlerMethodInvocationPlan plan = new HandlerMethodInvocationPlan(handlerMethod, composite);
+		assertSame(intResolver, plan.getArgumentResolver(0));
+		assertSame(stringResolver, plan.getArgumentResolver(1));
+
+		handlerMethod.setHandlerMethodArgumentResolvers(composite);
+		handlerMethod.setInvocationPlan(plan);
+
+		assertEquals("99-value", handlerMethod.invokeForRequest(webRequest, null));
+		assertEquals("2-value", handlerMethod.invokeForRequest(webRequest, null, 2));
+		assertEquals("intArg", intResolver.getResolvedParameters().get(0).getParameterName());
+		assertEquals(1, intResolver.getResolvedParameters().size());
+		assertEquals(2, stringResolver.getResolvedParameters().size());
+	}
+
+	@Test
+	public void resolveArgWithInvocationPlanForOtherResolvers() throws Exception {
+		HandlerMethodArgumentResolverComposite planResolvers = new HandlerMethodArgumentResolverComposite();
+		planResolvers.addResolver(new StubArgumentResolver(Integer.class, 1));
+		planResolvers.addResolver(new StubArgumentResolver(String.class, "plan"));
+		handlerMethod.setInvocationPlan(new HandlerMethodInvocationPlan(handlerMethod, planResolvers));
+
+		HandlerMethodArgumentResolverComposite composite = new HandlerMethodArgumentResolverComposite();
+		composite.addResolver(new StubArgumentResolver(Integer.class, 99));
+		composite.addResolver(new StubArgumentResolver(String.class, "value"));
+		handlerMethod.setHandlerMethodArgumentResolvers(composite);
+
+		assertEquals("99-value", handlerMethod.invokeForRequest(webRequest, null));
+	}
+
+	@Test
+	public void cannotResolveArgWithInvocationPlan() throws Exception {
+		HandlerMethodArgumentResolverComposite composite = new HandlerMethodArgumentResolverComposite();
+		composite.addResolver(new StubArgumentResolver(String.class, "value"));
+		handlerMethod.setHandlerMethodArgumentResolvers(composite);
+		handlerMethod.setInvocationPlan(new HandlerMethodInvocationPlan(handlerMethod, composite));
+
+		try {
+			handlerMethod.invokeForRequest(webRequest, null);
+			fail("Expected exception");
+		}
+		catch (IllegalStateException ex) {
+			assertTrue(ex.getMessage().contains("No suitable resolver for argument 0 of type 'java.lang.Integer'"));
+		}
+	}
+
+	@Test
+	public void illegalArgumentExceptionWithInvocationPlan() throws Exception {
+		HandlerMethodArgumentResolverComposite composite = new HandlerMethodArgumentResolverComposite();
+		composite.addResolver(new StubArgumentResolver(Integer.class, "__invalid__"));
+		composite.addResolver(new StubArgumentResolver(String.class, "value"));
+		handlerMethod.setHandlerMethodArgumentResolvers(composite);
+		handlerMethod.setInvocationPlan(new HandlerMethodInvocationPlan(handlerMethod, composite));
+
+		try {
+			handlerMethod.invokeForRequest(webRequest, null);
+			fail("Expected exception");
+		}
+		catch (IllegalStateException ex) {
+			assertTrue(ex.getCause() instanceof IllegalArgumentException);
+			assertTrue(ex.getMessage().contains("[0] [type=java.lang.String] [value=__invalid__]"));
+		}
+	}
+
+	@Test
+	public void invocationTargetExceptionWithInvocationPlan() throws Exception {
+		Throwable expected = new Exception("error");
+		try {
+			invokeExceptionRaisingHandler(expected, true);
+		}
+		catch (Exception actual) {
+			assertSame(expected, actual);
+		}
+
+		expected = new Error("error");
+		try {
+			invokeExceptionRaisingHandler(expected, true);
+		}
+		catch (Error actual) {
+			assertSame(expected, actual);
+		}
+
+		expected = new Throwable("error");
+		try {
+			invokeExceptionRaisingHandler(expected, true);
+		}
+		catch (IllegalStateException actual) {
+			assertSame(expected, actual.getCause());
+			assertTrue(actual.getMessage().contains("Failed to invoke handler method"));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invocationPlanForOtherMethod() throws Exception {
+		Method method = Handler.class.getDeclaredMethod("handle", double.class);
+		InvocableHandlerMethod otherMethod = new InvocableHandlerMethod(new Handler(), method);
+		handlerMethod.setInvocationPlan(
+				new HandlerMethodInvocationPlan(otherMethod, new HandlerMethodArgumentResolverComposite()));
+	}
+
+
 	private void invokeExceptionRaisingHandler(Throwable expected) throws Exception {
+		invokeExceptionRaisingHandler(expected, false);
+	}
+
+	private void invokeExceptionRaisingHandler(Throwable expected, boolean withInvocationPlan) throws Exception {
 		Method method = ExceptionRaisingHandler.class.getDeclaredMethod("raiseException");
 		Object handler = new ExceptionRaisingHandler(expected);
-		new InvocableHandlerMethod(handler, method).invokeForRequest(webRequest, null);
+		InvocableHandlerMethod hm = new InvocableHandlerMethod(handler, method);
+		if (withInvocationPlan) {
+			hm.setInvocationPlan(
+					new HandlerMethodInvocationPlan(hm, new HandlerMethodArgumentResolverComposite()));
+		}
+		hm.invokeForRequest(webRequest, null);
 		fail("Expected exception");
 	}
 
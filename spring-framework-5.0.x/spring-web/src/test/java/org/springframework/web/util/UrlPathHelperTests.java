@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.io.UnsupportedEncodingException;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import org.springframework.http.server.PathContainer;
 import org.springframework.mock.web.test.MockHttpServletRequest;
 
 import static org.junit.Assert.*;
@@ -84,6 +85,30 @@ public class UrlPathHelperTests {
 		assertEquals("Incorrect path returned", "/main/welcome.html", helper.getLookupPathForRequest(request));
 	}
 
+	@Test
+	public void getLookupPathContainer() {
+		request.setContextPath("/petclinic");
+		request.setServletPath("/main");
+		request.setRequestURI("/petclinic/main/owners/a%2Fb;color=red/pets");
+
+		PathContainer path = helper.getLookupPathContainer(request);
+		assertEquals("/owners/a%2Fb;color=red/pets", path.value());
+		PathContainer.PathSegment segment = (PathContainer.PathSegment) path.elements().get(3);
+		assertEquals("a/b", segment.valueToMatch());
+		assertEquals("red", segment.parameters().getFirst("color"));
+		assertSame(path, helper.getLookupPathContainer(request));
+	}
+
+	@Test
+	public void getLookupPathContainerAfterForward() {
+		request.setRequestURI("/welcome.html");
+		PathContainer path = helper.getLookupPathContainer(request);
+		assertEquals("/welcome.html", path.value());
+
+		request.setRequestURI("/views/welcome.jsp");
+		assertEquals("/views/welcome.jsp", helper.getLookupPathContainer(request).value());
+	}
+
 	// SPR-11101
 
 	@Test
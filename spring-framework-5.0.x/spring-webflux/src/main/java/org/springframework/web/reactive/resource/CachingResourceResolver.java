@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,15 +16,21 @@
 
 package org.springframework.web.reactive.resource;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import reactor.core.publisher.Mono;
 
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 import org.springframework.web.server.ServerWebExchange;
 
 /**
@@ -44,6 +50,8 @@ public class CachingResourceResolver extends AbstractResourceResolver {
 
 	private final Cache cache;
 
+	private final List<String> contentCodings = new ArrayList<>(EncodedResourceResolver.DEFAULT_CODINGS);
+
 
 	public CachingResourceResolver(Cache cache) {
 		Assert.notNull(cache, "Cache is required");
@@ -66,6 +74,28 @@ public class CachingResourceResolver extends AbstractResourceResolver {
 		return this.cache;
 	}
 
+	/**
+	 * Configure the supported content codings from the "Accept-Encoding"
+	 * header for which to cache resolved resources separately, e.g. as
+	 * selected by an {@link EncodedResourceResolver}.
+	 * <p>By default this is set to "br" and "gzip".
+	 * @param codings one or more supported content codings
+	 * @since 5.0.17
+	 */
+	public void setContentCodings(List<String> codings) {
+		Assert.notEmpty(codings, "At least one content coding expected");
+		this.contentCodings.clear();
+		this.contentCodings.addAll(codings);
+	}
+
+	/**
+	 * Return a read-only list with the supported content codings.
+	 * @since 5.0.17
+	 */
+	public List<String> getContentCodings() {
+		return Collections.unmodifiableList(this.contentCodings);
+	}
+
 
 	@Override
 	protected Mono<Resource> resolveResourceInternal(@Nullable ServerWebExchange exchange,
@@ -94,14 +124,26 @@ public class CachingResourceResolver extends AbstractResourceResolver {
 		StringBuilder key = new StringBuilder(RESOLVED_RESOURCE_CACHE_KEY_PREFIX);
 		key.append(requestPath);
 		if (exchange != null) {
-			String encoding = exchange.getRequest().getHeaders().getFirst("Accept-Encoding");
-			if (encoding != null && encoding.contains("gzip")) {
-				key.append("+encoding=gzip");
+			String codingKey = getContentCodingKey(exchange);
+			if (StringUtils.hasText(codingKey)) {
+				key.append("+encoding=").append(codingKey);
 			}
 		}
 		return key.toString();
 	}
 
+	@Nullable
+	private String getContentCodingKey(ServerWebExchange exchange) {
+		String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING);
+		if (!StringUtils.hasText(header)) {
+			return null;
+		}
+		Set<String> accepted = EncodedResourceResolver.getAcceptedCodings(header);
+		return this.contentCodings.stream()
+				.filter(accepted::contains)
+				.collect(Collectors.joining(","));
+	}
+
 	@Override
 	protected Mono<String> resolveUrlPathInternal(String resourceUrlPath,
 			List<? extends Resource> locations, ResourceResolverChain chain) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -156,4 +156,21 @@ public class CachingResourceResolverTests {
 		assertSame(gzResource, this.chain.resolveResource(exchange, file, this.locations).block(TIMEOUT));
 	}
 
+	@Test
+	public void resolveResourceContentCodingsInCacheKey() {
+		String file = "bar.css";
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(file)
+				.header("Accept-Encoding", "gzip, deflate, br;q=0.9, identity"));
+
+		Resource expected = this.chain.resolveResource(exchange, file, this.locations).block(TIMEOUT);
+		String cacheKey = CachingResourceResolver.RESOLVED_RESOURCE_CACHE_KEY_PREFIX + file + "+encoding=br,gzip";
+		assertEquals(expected, this.cache.get(cacheKey).get());
+
+		exchange = MockServerWebExchange.from(MockServerHttpRequest.get(file)
+				.header("Accept-Encoding", "br;q=0, deflate"));
+		expected = this.chain.resolveResource(exchange, file, this.locations).block(TIMEOUT);
+		cacheKey = CachingResourceResolver.RESOLVED_RESOURCE_CACHE_KEY_PREFIX + file;
+		assertEquals(expected, this.cache.get(cacheKey).get());
+	}
+
 }
@@ -0,0 +1,290 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.test.server.MockServerWebExchange;
+import org.springframework.util.StreamUtils;
+
+import static org.junit.Assert.*;
+import static org.springframework.mock.http.server.reactive.test.MockServerHttpRequest.*;
+
+/**
+ * Unit tests for {@link EncodedResourceResolver}.
+ */
+public class EncodedResourceResolverTests {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+	private static final String LARGE_FILE = "encoded.txt";
+
+	private static String largeContent;
+
+
+	private EncodedResourceResolver encodedResolver;
+
+	private ResourceResolverChain resolver;
+
+	private List<Resource> locations;
+
+	private Cache cache;
+
+
+	@BeforeClass
+	public static void createResources() throws IOException {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 200; i++) {
+			builder.append("Line ").append(i).append(" of a compressible text resource\n");
+		}
+		largeContent = builder.toString();
+		createFile(LARGE_FILE, largeContent.getBytes(StandardCharsets.UTF_8));
+		createFile("js/bar.js.br", "brotli".getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void createFile(String filePath, byte[] content) throws IOException {
+		Resource location = new ClassPathResource("test/", EncodedResourceResolverTests.class);
+		Path path = Paths.get(location.getFile().getAbsolutePath(), filePath);
+		Files.deleteIfExists(path);
+		File file = Files.write(path, content).toFile();
+		file.deleteOnExit();
+	}
+
+
+	@Before
+	public void setUp() {
+		this.cache = new ConcurrentMapCache("resourceCache");
+		this.encodedResolver = new EncodedResourceResolver();
+
+		List<ResourceResolver> resolvers = new ArrayList<>();
+		resolvers.add(new CachingResourceResolver(this.cache));
+		resolvers.add(this.encodedResolver);
+		resolvers.add(new PathResourceResolver());
+		this.resolver = new DefaultResourceResolverChain(resolvers);
+
+		this.locations = new ArrayList<>();
+		this.locations.add(new ClassPathResource("test/", getClass()));
+	}
+
+
+	@Test
+	public void resolvePrecompressedFile() throws IOException {
+		MockServerWebExchange exchange = MockServerWebExchange.from(get("").header("Accept-Encoding", "gzip, deflate, br"));
+		Resource resolved = this.resolver.resolveResource(exchange, "js/bar.js", this.locations).block(TIMEOUT);
+
+		assertEquals(new ClassPathResource("test/js/bar.js.br", getClass()).getDescription(), resolved.getDescription());
+		assertEquals("bar.js", resolved.getFilename());
+		HttpHeaders headers = ((HttpResource) resolved).getResponseHeaders();
+		assertEquals("br", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(Collections.singletonList(HttpHeaders.ACCEPT_ENCODING), headers.getVary());
+	}
+
+	@Test
+	public void resolveFileEncodedOnTheFly() throws IOException {
+		MockServerWebExchange exchange = MockServerWebExchange.from(get("").header("Accept-Encoding", "gzip"));
+		Resource resolved = this.resolver.resolveResource(exchange, LARGE_FILE, this.locations).block(TIMEOUT);
+
+		assertEquals(LARGE_FILE, resolved.getFilename());
+		assertTrue(resolved.contentLength() < largeContent.length());
+		HttpHeaders headers = ((HttpResource) resolved).getResponseHeaders();
+		assertEquals("gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(Collections.singletonList(HttpHeaders.ACCEPT_ENCODING), headers.getVary());
+		assertEquals(resolved.contentLength(), this.encodedResolver.getCache().getSize());
+
+		try (InputStream in = new GZIPInputStream(resolved.getInputStream())) {
+			assertEquals(largeContent, StreamUtils.copyToString(in, StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	public void resolveFileEncodedOnTheFlyFromCache() throws IOException {
+		MockServerWebExchange exchange = MockServerWebExchange.from(get("").header("Accept-Encoding", "gzip"));
+		Resource first = this.resolver.resolveResource(exchange, LARGE_FILE, this.locations).block(TIMEOUT);
+		long size = this.encodedResolver.getCache().getSize();
+
+		EncodedResourceResolver otherResolver = new EncodedResourceResolver();
+		otherResolver.setCache(this.encodedResolver.getCache());
+		ResourceResolverChain otherChain = new DefaultResourceResolverChain(
+				Arrays.asList(otherResolver, new PathResourceResolver()));
+		Resource second = otherChain.resolveResource(exchange, LARGE_FILE, this.locations).block(TIMEOUT);
+
+		assertEquals(first.contentLength(), second.contentLength());
+		assertEquals(size, this.encodedResolver.getCache().getSize());
+	}
+
+	@Test
+	public void resolveFileEncodedOnTheFlyAfterEviction() throws IOException {
+		MockServerWebExchange exchange = MockServerWebExchange.from(get("").header("Accept-Encoding", "gzip"));
+		Resource resolved = this.resolver.resolveResource(exchange, LARGE_FILE, this.locations).block(TIMEOUT);
+		this.encodedResolver.getCache().clear();
+
+		try (InputStream in = new GZIPInputStream(resolved.getInputStream())) {
+			assertEquals(largeContent, StreamUtils.copyToString(in, StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	public void resolveWithPreferredContentCoding() throws IOException {
+		this.encodedResolver.registerEncoder(new ContentEncoder() {
+			@Override
+			public String getContentCoding() {
+				return "br";
+			}
+			@Override
+			public byte[] encode(byte[] content) {
+				return "br".getBytes(StandardCharsets.UTF_8);
+			}
+		});
+
+		MockServerWebExchange exchange = MockServerWebExchange.from(get("").header("Accept-Encoding", "gzip, br"));
+		Resource resolved = this.resolver.resolveResource(exchange, LARGE_FILE, this.locations).block(TIMEOUT);
+		assertEquals("br", ((HttpResource) resolved).getResponseHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertEquals("br", StreamUtils.copyToString(resolved.getInputStream(), StandardCharsets.UTF_8));
+
+		exchange = MockServerWebExchange.from(get("").header("Accept-Encoding", "gzip, br;q=0"));
+		resolved = this.resolver.resolveResource(exchange, LARGE_FILE, this.locations).block(TIMEOUT);
+		assertEquals("gzip", ((HttpResource) resolved).getResponseHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+	}
+
+	@Test
+	public void encodeOnTheFlyOffEventLoop() {
+		Thread caller = Thread.currentThread();
+		List<Thread> encodingThreads = new ArrayList<>();
+		this.encodedResolver.registerEncoder(new ContentEncoder() {
+			@Override
+			public String getContentCoding() {
+				return "br";
+			}
+			@Override
+			public byte[] encode(byte[] content) {
+				encodingThreads.add(Thread.currentThread());
+				return "br".getBytes(StandardCharsets.UTF_8);
+			}
+		});
+
+		MockServerWebExchange exchange = MockServerWebExchange.from(get("").header("Accept-Encoding", "br"));
+		this.resolver.resolveResource(exchange, LARGE_FILE, this.locations).block(TIMEOUT);
+
+		assertEquals(1, encodingThreads.size());
+		assertNotSame(caller, encodingThreads.get(0));
+	}
+
+	@Test
+	public void resolveIdentityWithVary() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(get(""));
+		Resource resolved = this.resolver.resolveResource(exchange, LARGE_FILE, this.locations).block(TIMEOUT);
+
+		HttpHeaders headers = ((HttpResource) resolved).getResponseHeaders();
+		assertNull(headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(Collections.singletonList(HttpHeaders.ACCEPT_ENCODING), headers.getVary());
+	}
+
+	@Test
+	public void resolveIdentityIfEncodingIsNotSmaller() throws IOException {
+		MockServerWebExchange exchange = MockServerWebExchange.from(get("").header("Accept-Encoding", "gzip"));
+		Resource resolved = this.resolver.resolveResource(exchange, "bar.css", this.locations).block(TIMEOUT);
+
+		assertEquals(new ClassPathResource("test/bar.css", getClass()).contentLength(), resolved.contentLength());
+		HttpHeaders headers = ((HttpResource) resolved).getResponseHeaders();
+		assertNull(headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(Collections.singletonList(HttpHeaders.ACCEPT_ENCODING), headers.getVary());
+	}
+
+	@Test
+	public void resolveIncompressibleFile() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(get("").header("Accept-Encoding", "gzip"));
+		Resource resolved = this.resolver.resolveResource(exchange, "images/image.png", this.locations).block(TIMEOUT);
+
+		assertFalse(resolved instanceof HttpResource);
+	}
+
+	@Test
+	public void resolveWithoutRequest() {
+		Resource resolved = this.resolver.resolveResource(null, LARGE_FILE, this.locations).block(TIMEOUT);
+
+		assertFalse(resolved instanceof HttpResource);
+	}
+
+	@Test
+	public void resolveFileLargerThanCache() {
+		this.encodedResolver.setCache(new EncodedResourceCache(100));
+
+		MockServerWebExchange exchange = MockServerWebExchange.from(get("").header("Accept-Encoding", "gzip"));
+		Resource resolved = this.resolver.resolveResource(exchange, LARGE_FILE, this.locations).block(TIMEOUT);
+
+		assertNull(((HttpResource) resolved).getResponseHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+	}
+
+	@Test
+	public void varyHeaderNotDuplicated() {
+		HttpHeaders originalHeaders = new HttpHeaders();
+		originalHeaders.setVary(Arrays.asList("accept-encoding", HttpHeaders.ORIGIN));
+		Resource original = new HttpByteArrayResource(new byte[0], originalHeaders);
+		HttpResource resource = new EncodedResourceResolver.EncodedResource(original, original, null);
+
+		assertEquals(Arrays.asList("accept-encoding", HttpHeaders.ORIGIN), resource.getResponseHeaders().getVary());
+	}
+
+	@Test
+	public void getAcceptedCodings() {
+		assertEquals(Collections.emptySet(), EncodedResourceResolver.getAcceptedCodings(null));
+		assertEquals(Collections.emptySet(), EncodedResourceResolver.getAcceptedCodings(""));
+		assertEquals(new ArrayList<>(Arrays.asList("gzip", "deflate", "br")), new ArrayList<>(
+				EncodedResourceResolver.getAcceptedCodings("GZIP, deflate;q=0.5, br;q=1.0, identity;q=0")));
+		assertEquals(new ArrayList<>(Collections.singletonList("deflate")), new ArrayList<>(
+				EncodedResourceResolver.getAcceptedCodings("gzip;q=0.0,deflate, br; q=0")));
+	}
+
+
+	private static class HttpByteArrayResource extends ByteArrayResource implements HttpResource {
+
+		private final HttpHeaders headers;
+
+		public HttpByteArrayResource(byte[] byteArray, HttpHeaders headers) {
+			super(byteArray);
+			this.headers = headers;
+		}
+
+		@Override
+		public HttpHeaders getResponseHeaders() {
+			return this.headers;
+		}
+	}
+
+}
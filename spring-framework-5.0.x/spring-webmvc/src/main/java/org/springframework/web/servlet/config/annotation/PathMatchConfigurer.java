@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package org.springframework.web.servlet.config.annotation;
 import org.springframework.lang.Nullable;
 import org.springframework.util.PathMatcher;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Helps with configuring HandlerMappings path matching options such as trailing
@@ -53,6 +54,12 @@ public class PathMatchConfigurer {
 	@Nullable
 	private PathMatcher pathMatcher;
 
+	@Nullable
+	private Boolean pathIndex;
+
+	@Nullable
+	private PathPatternParser patternParser;
+
 
 	/**
 	 * Whether to use suffix pattern match (".*") when matching patterns to
@@ -110,6 +117,34 @@ public class PathMatchConfigurer {
 		return this;
 	}
 
+	/**
+	 * Whether to index request mappings by the segments of their path patterns,
+	 * so that requests to patterned paths are only matched against the few
+	 * mappings that may apply rather than against all of them.
+	 * <p>By default this is set to "false".
+	 * @since 5.0.17
+	 * @see org.springframework.web.servlet.handler.AbstractHandlerMethodMapping#setUsePathIndex
+	 */
+	public PathMatchConfigurer setUsePathIndex(Boolean pathIndex) {
+		this.pathIndex = pathIndex;
+		return this;
+	}
+
+	/**
+	 * Set a {@link PathPatternParser} to parse request mapping patterns with,
+	 * so that requests are matched against pre-parsed
+	 * {@link org.springframework.web.util.pattern.PathPattern PathPatterns}
+	 * rather than through the {@link #setPathMatcher PathMatcher}. Suffix
+	 * pattern matching does not apply to parsed patterns.
+	 * <p>By default this is not set.
+	 * @since 5.0.17
+	 * @see org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping#setPatternParser
+	 */
+	public PathMatchConfigurer setPatternParser(PathPatternParser patternParser) {
+		this.patternParser = patternParser;
+		return this;
+	}
+
 
 	@Nullable
 	public Boolean isUseSuffixPatternMatch() {
@@ -136,4 +171,14 @@ public class PathMatchConfigurer {
 		return this.pathMatcher;
 	}
 
+	@Nullable
+	public Boolean isUsePathIndex() {
+		return this.pathIndex;
+	}
+
+	@Nullable
+	public PathPatternParser getPatternParser() {
+		return this.patternParser;
+	}
+
 }
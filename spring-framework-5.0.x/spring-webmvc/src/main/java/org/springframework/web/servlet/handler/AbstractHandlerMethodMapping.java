@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -93,6 +93,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 	private final MappingRegistry mappingRegistry = new MappingRegistry();
 
+	private boolean usePathIndex = false;
+
 
 	/**
 	 * Whether to detect handler methods in beans in ancestor ApplicationContexts.
@@ -125,6 +127,29 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		return this.namingStrategy;
 	}
 
+	/**
+	 * Whether to index mappings by the segments of their path patterns in a
+	 * prefix tree, so that lookups of patterned paths only match the few
+	 * mappings whose patterns may match, rather than all registered mappings.
+	 * Mappings are further partitioned by {@link #getMappingIndexKeys index keys}.
+	 * <p>The default is "false". Note that the index assumes '/'-separated,
+	 * case-sensitive and untrimmed path segments as with the default
+	 * {@link org.springframework.util.AntPathMatcher AntPathMatcher}.
+	 * @since 5.0.17
+	 */
+	public void setUsePathIndex(boolean usePathIndex) {
+		this.usePathIndex = usePathIndex;
+		this.mappingRegistry.setPathIndexEnabled(usePathIndex);
+	}
+
+	/**
+	 * Whether mappings are indexed by the segments of their path patterns.
+	 * @since 5.0.17
+	 */
+	public boolean isUsePathIndex() {
+		return this.usePathIndex;
+	}
+
 	/**
 	 * Return a (read-only) map with all mappings and HandlerMethod's.
 	 */
@@ -348,8 +373,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			addMatchingMappings(directPathMatches, matches, request);
 		}
 		if (matches.isEmpty()) {
-			// No choice but to go through all mappings...
-			addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, request);
+			// No choice but to go through all mappings, unless they are indexed...
+			addMatchingMappings(this.mappingRegistry.getCandidateMappings(lookupPath, request), matches, request);
 		}
 
 		if (!matches.isEmpty()) {
@@ -473,6 +498,34 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	 */
 	protected abstract Comparator<T> getMappingComparator(HttpServletRequest request);
 
+	/**
+	 * Return the keys under which the given mapping is indexed when the
+	 * {@link #setUsePathIndex path index} is used, e.g. the HTTP methods the
+	 * mapping can match: lookups only consider mappings indexed by the
+	 * {@link #getRequestIndexKey key of the request}.
+	 * <p>The default implementation returns an empty set, meaning that the
+	 * mapping is a candidate for any request.
+	 * @param mapping the mapping to index
+	 * @since 5.0.17
+	 */
+	protected Set<String> getMappingIndexKeys(T mapping) {
+		return Collections.emptySet();
+	}
+
+	/**
+	 * Return the index key of the given request when the
+	 * {@link #setUsePathIndex path index} is used.
+	 * <p>The default implementation returns {@code null}, meaning that
+	 * mappings indexed by any key are candidates for the request.
+	 * @param request the current request
+	 * @since 5.0.17
+	 * @see #getMappingIndexKeys
+	 */
+	@Nullable
+	protected String getRequestIndexKey(HttpServletRequest request) {
+		return null;
+	}
+
 
 	/**
 	 * A registry that maintains all mappings to handler methods, exposing methods
@@ -491,6 +544,9 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
 
+		@Nullable
+		private MappingPathIndex<T> pathIndex;
+
 		private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
 
 		/**
@@ -510,6 +566,18 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.urlLookup.get(urlPath);
 		}
 
+		/**
+		 * Return the mappings that may match the given lookup path: all mappings
+		 * unless the path index is enabled. Not thread-safe.
+		 * @see #acquireReadLock()
+		 */
+		public Collection<T> getCandidateMappings(String lookupPath, HttpServletRequest request) {
+			if (this.pathIndex == null) {
+				return this.mappingLookup.keySet();
+			}
+			return this.pathIndex.getCandidates(lookupPath, getRequestIndexKey(request));
+		}
+
 		/**
 		 * Return handler methods by mapping name. Thread-safe for concurrent use.
 		 */
@@ -539,6 +607,28 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			this.readWriteLock.readLock().unlock();
 		}
 
+		/**
+		 * Enable or disable the path index, indexing all registered mappings.
+		 */
+		public void setPathIndexEnabled(boolean enabled) {
+			this.readWriteLock.writeLock().lock();
+			try {
+				if (!enabled) {
+					this.pathIndex = null;
+				}
+				else if (this.pathIndex == null) {
+					MappingPathIndex<T> pathIndex = new MappingPathIndex<>();
+					for (T mapping : this.mappingLookup.keySet()) {
+						pathIndex.add(mapping, getMappingPathPatterns(mapping), getMappingIndexKeys(mapping));
+					}
+					this.pathIndex = pathIndex;
+				}
+			}
+			finally {
+				this.readWriteLock.writeLock().unlock();
+			}
+		}
+
 		public void register(T mapping, Object handler, Method method) {
 			this.readWriteLock.writeLock().lock();
 			try {
@@ -555,6 +645,10 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					this.urlLookup.add(url, mapping);
 				}
 
+				if (this.pathIndex != null) {
+					this.pathIndex.add(mapping, getMappingPathPatterns(mapping), getMappingIndexKeys(mapping));
+				}
+
 				String name = null;
 				if (getNamingStrategy() != null) {
 					name = getNamingStrategy().getName(handlerMethod, mapping);
@@ -642,6 +736,10 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					}
 				}
 
+				if (this.pathIndex != null) {
+					this.pathIndex.remove(definition.getMapping(), getMappingPathPatterns(definition.getMapping()));
+				}
+
 				removeMappingName(definition);
 
 				this.corsLookup.remove(definition.getHandlerMethod());
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.handler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * Prefix tree of mappings, indexed by the '/'-separated segments of their
+ * path patterns, returning the mappings whose patterns may match a given
+ * lookup path.
+ *
+ * <p>Literal pattern segments are indexed by value, while segments with
+ * wildcards or URI variables match any single path segment, and "**" as well
+ * as "{*var}" segments match any remaining path. Lookups also consider the
+ * trailing slash and suffix pattern variants of literal patterns, so the
+ * returned candidates are a superset of the matching mappings: they still
+ * have to be matched against the request.
+ *
+ * <p>Mappings may in addition be indexed by keys, such as HTTP methods,
+ * so that lookups for a given key skip mappings indexed by other keys only.
+ * Mappings without keys are candidates for any key.
+ *
+ * <p>Not thread-safe: see {@link AbstractHandlerMethodMapping.MappingRegistry}.
+ *
+ * @since 5.0.17
+ * @param <T> the mapping type
+ * @see AbstractHandlerMethodMapping#setUsePathIndex
+ */
+class MappingPathIndex<T> {
+
+	private static final String PATH_SEPARATOR = "/";
+
+
+	private final Node<T> root = new Node<>();
+
+	private int multiPatternMappingCount;
+
+
+	/**
+	 * Add a mapping to the index.
+	 * @param mapping the mapping to add
+	 * @param patterns the path patterns of the mapping, or an empty collection
+	 * if the mapping matches any path
+	 * @param keys the keys of the mapping, or an empty collection if the mapping
+	 * is a candidate for any key
+	 */
+	public void add(T mapping, Collection<String> patterns, Collection<String> keys) {
+		if (patterns.isEmpty()) {
+			this.root.getCatchAll().add(mapping, keys);
+			return;
+		}
+		for (String pattern : patterns) {
+			getBucket(pattern).add(mapping, keys);
+		}
+		if (patterns.size() > 1) {
+			this.multiPatternMappingCount++;
+		}
+	}
+
+	/**
+	 * Remove a mapping from the index.
+	 * @param mapping the mapping to remove
+	 * @param patterns the path patterns the mapping was added with
+	 */
+	public void remove(T mapping, Collection<String> patterns) {
+		if (patterns.isEmpty()) {
+			if (this.root.catchAll != null && this.root.catchAll.remove(mapping)) {
+				this.root.catchAll = null;
+			}
+			return;
+		}
+		for (String pattern : patterns) {
+			removeFrom(this.root, tokenize(pattern), 0, mapping);
+		}
+		if (patterns.size() > 1) {
+			this.multiPatternMappingCount--;
+		}
+	}
+
+	/**
+	 * Return the mappings that may match the given lookup path.
+	 * @param lookupPath the lookup path of the request
+	 * @param key the key of the request, or {@code null} to return the
+	 * candidates for any key
+	 * @return the candidate mappings, each of them once
+	 */
+	public List<T> getCandidates(String lookupPath, @Nullable String key) {
+		List<String> segments = new ArrayList<>();
+		int start = 0;
+		while (start < lookupPath.length()) {
+			int end = lookupPath.indexOf('/', start);
+			if (end == -1) {
+				end = lookupPath.length();
+			}
+			if (end > start) {
+				segments.add(lookupPath.substring(start, end));
+			}
+			start = end + 1;
+		}
+		boolean trailingSlash = lookupPath.endsWith(PATH_SEPARATOR);
+
+		List<T> candidates = new ArrayList<>();
+		collect(this.root, segments, 0, trailingSlash, key, candidates);
+		if (this.multiPatternMappingCount > 0 && candidates.size() > 1) {
+			Set<T> distinct = Collections.newSetFromMap(new IdentityHashMap<>(candidates.size()));
+			candidates.removeIf(candidate -> !distinct.add(candidate));
+		}
+		return candidates;
+	}
+
+
+	private Bucket<T> getBucket(String pattern) {
+		Node<T> node = this.root;
+		for (String segment : tokenize(pattern)) {
+			if (isCatchAllSegment(segment)) {
+				return node.getCatchAll();
+			}
+			node = (isWildcardSegment(segment) ? node.getWildcardChild() : node.getLiteralChild(segment));
+		}
+		return node.getTerminal();
+	}
+
+	private void collect(Node<T> node, List<String> segments, int index, boolean trailingSlash,
+			@Nullable String key, List<T> candidates) {
+
+		if (node.catchAll != null) {
+			node.catchAll.collect(key, candidates);
+		}
+		if (index == segments.size()) {
+			if (node.terminal != null) {
+				node.terminal.collect(key, candidates);
+			}
+			// A trailing "*" segment matches an empty last segment
+			if (trailingSlash && node.wildcardChild != null && node.wildcardChild.terminal != null) {
+				node.wildcardChild.terminal.collect(key, candidates);
+			}
+			return;
+		}
+		String segment = segments.get(index);
+		if (node.literalChildren != null) {
+			Node<T> child = node.literalChildren.get(segment);
+			if (child != null) {
+				collect(child, segments, index + 1, trailingSlash, key, candidates);
+			}
+			if (index == segments.size() - 1) {
+				// Suffix pattern match: "/users" matches "/users.json"
+				int dotIndex = segment.indexOf('.');
+				if (dotIndex > 0) {
+					child = node.literalChildren.get(segment.substring(0, dotIndex));
+					if (child != null && child.terminal != null) {
+						child.terminal.collect(key, candidates);
+					}
+				}
+			}
+		}
+		// Suffix pattern match of an empty last segment: "/" matches "/.json"
+		if (index == segments.size() - 1 && segment.startsWith(".") && node.terminal != null) {
+			node.terminal.collect(key, candidates);
+		}
+		if (node.wildcardChild != null) {
+			collect(node.wildcardChild, segments, index + 1, trailingSlash, key, candidates);
+		}
+	}
+
+	/**
+	 * Remove the given mapping from the node for the given pattern segments,
+	 * pruning nodes that become empty.
+	 * @return whether the given node is empty
+	 */
+	private boolean removeFrom(Node<T> node, String[] segments, int index, T mapping) {
+		if (index == segments.length) {
+			if (node.terminal != null && node.terminal.remove(mapping)) {
+				node.terminal = null;
+			}
+		}
+		else {
+			String segment = segments[index];
+			if (isCatchAllSegment(segment)) {
+				if (node.catchAll != null && node.catchAll.remove(mapping)) {
+					node.catchAll = null;
+				}
+			}
+			else if (isWildcardSegment(segment)) {
+				if (node.wildcardChild != null && removeFrom(node.wildcardChild, segments, index + 1, mapping)) {
+					node.wildcardChild = null;
+				}
+			}
+			else if (node.literalChildren != null) {
+				Node<T> child = node.literalChildren.get(segment);
+				if (child != null && removeFrom(child, segments, index + 1, mapping)) {
+					node.literalChildren.remove(segment);
+					if (node.literalChildren.isEmpty()) {
+						node.literalChildren = null;
+					}
+				}
+			}
+		}
+		return node.isEmpty();
+	}
+
+	private static String[] tokenize(String pattern) {
+		return StringUtils.tokenizeToStringArray(pattern, PATH_SEPARATOR, false, true);
+	}
+
+	private static boolean isCatchAllSegment(String segment) {
+		return (segment.equals("**") || segment.startsWith("{*"));
+	}
+
+	private static boolean isWildcardSegment(String segment) {
+		for (int i = 0; i < segment.length(); i++) {
+			char c = segment.charAt(i);
+			if (c == '*' || c == '?' || c == '{' || c == '}') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	/**
+	 * A node for a pattern segment.
+	 */
+	private static class Node<T> {
+
+		@Nullable
+		private Map<String, Node<T>> literalChildren;
+
+		@Nullable
+		private Node<T> wildcardChild;
+
+		/** Mappings whose patterns end at this node */
+		@Nullable
+		private Bucket<T> terminal;
+
+		/** Mappings whose patterns match any remaining path from this node */
+		@Nullable
+		private Bucket<T> catchAll;
+
+		public Node<T> getLiteralChild(String segment) {
+			if (this.literalChildren == null) {
+				this.literalChildren = new HashMap<>(4);
+			}
+			return this.literalChildren.computeIfAbsent(segment, key -> new Node<>());
+		}
+
+		public Node<T> getWildcardChild() {
+			if (this.wildcardChild == null) {
+				this.wildcardChild = new Node<>();
+			}
+			return this.wildcardChild;
+		}
+
+		public Bucket<T> getTerminal() {
+			if (this.terminal == null) {
+				this.terminal = new Bucket<>();
+			}
+			return this.terminal;
+		}
+
+		public Bucket<T> getCatchAll() {
+			if (this.catchAll == null) {
+				this.catchAll = new Bucket<>();
+			}
+			return this.catchAll;
+		}
+
+		public boolean isEmpty() {
+			return (this.literalChildren == null && this.wildcardChild == null &&
+					this.terminal == null && this.catchAll == null);
+		}
+	}
+
+
+	/**
+	 * The mappings of a node, partitioned by key.
+	 */
+	private static class Bucket<T> {
+
+		private final List<T> allMappings = new ArrayList<>(1);
+
+		private final List<T> anyKeyMappings = new ArrayList<>(1);
+
+		private final Map<String, List<T>> mappingsByKey = new HashMap<>(4);
+
+		public void add(T mapping, Collection<String> keys) {
+			this.allMappings.add(mapping);
+			if (keys.isEmpty()) {
+				this.anyKeyMappings.add(mapping);
+			}
+			else {
+				for (String key : keys) {
+					this.mappingsByKey.computeIfAbsent(key, k -> new ArrayList<>(1)).add(mapping);
+				}
+			}
+		}
+
+		/**
+		 * Remove the given mapping.
+		 * @return whether the bucket is empty
+		 */
+		public boolean remove(T mapping) {
+			this.allMappings.remove(mapping);
+			this.anyKeyMappings.remove(mapping);
+			this.mappingsByKey.values().removeIf(mappings -> {
+				mappings.remove(mapping);
+				return mappings.isEmpty();
+			});
+			return this.allMappings.isEmpty();
+		}
+
+		public void collect(@Nullable String key, List<T> candidates) {
+			if (key == null) {
+				candidates.addAll(this.allMappings);
+				return;
+			}
+			candidates.addAll(this.anyKeyMappings);
+			List<T> mappings = this.mappingsByKey.get(key);
+			if (mappings != null) {
+				candidates.addAll(mappings);
+			}
+		}
+	}
+
+}
@@ -27,16 +27,24 @@ import java.util.List;
 import java.util.Set;
 import javax.servlet.http.HttpServletRequest;
 
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.PathMatcher;
 import org.springframework.util.StringUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * A logical disjunction (' || ') request condition that matches a request
  * against a set of URL path patterns.
  *
+ * <p>Patterns are matched with a {@link PathMatcher} by default, or as
+ * {@link PathPattern PathPatterns} parsed once up front when created with a
+ * {@link PathPatternParser}, in which case requests are matched through
+ * their {@link UrlPathHelper#getLookupPathContainer parsed lookup path}.
+ *
  * @author Rossen Stoyanchev
  * @since 3.1
  */
@@ -54,6 +62,12 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 
 	private final List<String> fileExtensions = new ArrayList<>();
 
+	@Nullable
+	private final PathPatternParser patternParser;
+
+	/** Patterns parsed with the PathPatternParser, in the order of the pattern strings */
+	private final List<PathPattern> pathPatterns;
+
 
 	/**
 	 * Creates a new instance with the given URL patterns.
@@ -97,6 +111,27 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 				useTrailingSlashMatch, fileExtensions);
 	}
 
+	/**
+	 * Constructor with a {@link PathPatternParser} to parse the given patterns
+	 * with, so that requests are matched against pre-parsed {@link PathPattern
+	 * PathPatterns} rather than through the {@link PathMatcher}.
+	 * Each pattern that is not empty and does not start with "/" is prepended with "/".
+	 * <p>Note that suffix pattern matching is not supported with parsed patterns,
+	 * while trailing slash matching is controlled by the
+	 * {@link PathPatternParser#setMatchOptionalTrailingSeparator
+	 * matchOptionalTrailingSeparator} property of the parser.
+	 * @param patterns the URL patterns to use; if 0, the condition will match to every request.
+	 * @param urlPathHelper a {@link UrlPathHelper} for determining the lookup path for a request
+	 * @param pathMatcher a {@link PathMatcher} for operations other than matching, if any
+	 * @param patternParser the parser to parse the patterns with
+	 * @since 5.0.17
+	 */
+	public PatternsRequestCondition(String[] patterns, @Nullable UrlPathHelper urlPathHelper,
+			@Nullable PathMatcher pathMatcher, PathPatternParser patternParser) {
+
+		this(Arrays.asList(patterns), urlPathHelper, pathMatcher, false, false, null, patternParser);
+	}
+
 	/**
 	 * Private constructor accepting a collection of patterns.
 	 */
@@ -104,6 +139,17 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 			@Nullable PathMatcher pathMatcher, boolean useSuffixPatternMatch,
 			boolean useTrailingSlashMatch, @Nullable List<String> fileExtensions) {
 
+		this(patterns, urlPathHelper, pathMatcher, useSuffixPatternMatch, useTrailingSlashMatch,
+				fileExtensions, null);
+	}
+
+	/**
+	 * Private constructor accepting a collection of patterns and an optional parser.
+	 */
+	private PatternsRequestCondition(Collection<String> patterns, @Nullable UrlPathHelper urlPathHelper,
+			@Nullable PathMatcher pathMatcher, boolean useSuffixPatternMatch, boolean useTrailingSlashMatch,
+			@Nullable List<String> fileExtensions, @Nullable PathPatternParser patternParser) {
+
 		this.patterns = Collections.unmodifiableSet(prependLeadingSlash(patterns));
 		this.pathHelper = (urlPathHelper != null ? urlPathHelper : new UrlPathHelper());
 		this.pathMatcher = (pathMatcher != null ? pathMatcher : new AntPathMatcher());
@@ -118,6 +164,37 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 				this.fileExtensions.add(fileExtension);
 			}
 		}
+
+		this.patternParser = patternParser;
+		if (patternParser != null) {
+			List<PathPattern> pathPatterns = new ArrayList<>(this.patterns.size());
+			for (String pattern : this.patterns) {
+				pathPatterns.add(patternParser.parse(pattern));
+			}
+			this.pathPatterns = Collections.unmodifiableList(pathPatterns);
+		}
+		else {
+			this.pathPatterns = Collections.emptyList();
+		}
+	}
+
+	/**
+	 * Private constructor for a condition with the given matching patterns,
+	 * already parsed with the parser of the given original condition.
+	 */
+	private PatternsRequestCondition(PatternsRequestCondition original, List<PathPattern> matches) {
+		Set<String> patterns = new LinkedHashSet<>(matches.size());
+		for (PathPattern match : matches) {
+			patterns.add(match.getPatternString());
+		}
+		this.patterns = Collections.unmodifiableSet(patterns);
+		this.pathHelper = original.pathHelper;
+		this.pathMatcher = original.pathMatcher;
+		this.useSuffixPatternMatch = original.useSuffixPatternMatch;
+		this.useTrailingSlashMatch = original.useTrailingSlashMatch;
+		this.fileExtensions.addAll(original.fileExtensions);
+		this.patternParser = original.patternParser;
+		this.pathPatterns = Collections.unmodifiableList(matches);
 	}
 
 
@@ -136,6 +213,16 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		return this.patterns;
 	}
 
+	/**
+	 * Return the patterns as parsed with the {@link PathPatternParser}, in the
+	 * same order as {@link #getPatterns()}, or an empty list if the patterns
+	 * are matched through the {@link PathMatcher}.
+	 * @since 5.0.17
+	 */
+	public List<PathPattern> getPathPatterns() {
+		return this.pathPatterns;
+	}
+
 	@Override
 	protected Collection<String> getContent() {
 		return this.patterns;
@@ -151,7 +238,8 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 * the "other" instance as follows:
 	 * <ul>
 	 * <li>If there are patterns in both instances, combine the patterns in "this" with
-	 * the patterns in "other" using {@link PathMatcher#combine(String, String)}.
+	 * the patterns in "other" using {@link PathMatcher#combine(String, String)},
+	 * or {@link PathPattern#combine(PathPattern)} for parsed patterns.
 	 * <li>If only one instance has patterns, use them.
 	 * <li>If neither instance has patterns, use an empty String (i.e. "").
 	 * </ul>
@@ -159,7 +247,14 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	@Override
 	public PatternsRequestCondition combine(PatternsRequestCondition other) {
 		Set<String> result = new LinkedHashSet<>();
-		if (!this.patterns.isEmpty() && !other.patterns.isEmpty()) {
+		if (!this.pathPatterns.isEmpty() && !other.pathPatterns.isEmpty()) {
+			for (PathPattern pattern1 : this.pathPatterns) {
+				for (PathPattern pattern2 : other.pathPatterns) {
+					result.add(pattern1.combine(pattern2).getPatternString());
+				}
+			}
+		}
+		else if (!this.patterns.isEmpty() && !other.patterns.isEmpty()) {
 			for (String pattern1 : this.patterns) {
 				for (String pattern2 : other.patterns) {
 					result.add(this.pathMatcher.combine(pattern1, pattern2));
@@ -176,7 +271,7 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 			result.add("");
 		}
 		return new PatternsRequestCondition(result, this.pathHelper, this.pathMatcher,
-				this.useSuffixPatternMatch, this.useTrailingSlashMatch, this.fileExtensions);
+				this.useSuffixPatternMatch, this.useTrailingSlashMatch, this.fileExtensions, this.patternParser);
 	}
 
 	/**
@@ -201,6 +296,10 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		if (this.patterns.isEmpty()) {
 			return this;
 		}
+		if (this.patternParser != null) {
+			List<PathPattern> matches = getMatchingPathPatterns(this.pathHelper.getLookupPathContainer(request));
+			return (!matches.isEmpty() ? new PatternsRequestCondition(this, matches) : null);
+		}
 		String lookupPath = this.pathHelper.getLookupPathForRequest(request);
 		List<String> matches = getMatchingPatterns(lookupPath);
 		return (!matches.isEmpty() ?
@@ -218,6 +317,13 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 * @return a collection of matching patterns sorted with the closest match at the top
 	 */
 	public List<String> getMatchingPatterns(String lookupPath) {
+		if (this.patternParser != null) {
+			List<String> matches = new ArrayList<>();
+			for (PathPattern match : getMatchingPathPatterns(PathContainer.parsePath(lookupPath))) {
+				matches.add(match.getPatternString());
+			}
+			return matches;
+		}
 		List<String> matches = new ArrayList<>();
 		for (String pattern : this.patterns) {
 			String match = getMatchingPattern(pattern, lookupPath);
@@ -231,6 +337,25 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		return matches;
 	}
 
+	private List<PathPattern> getMatchingPathPatterns(PathContainer lookupPath) {
+		List<PathPattern> matches = null;
+		for (PathPattern pattern : this.pathPatterns) {
+			if (pattern.matches(lookupPath)) {
+				if (matches == null) {
+					matches = new ArrayList<>(this.pathPatterns.size());
+				}
+				matches.add(pattern);
+			}
+		}
+		if (matches == null) {
+			return Collections.emptyList();
+		}
+		if (matches.size() > 1) {
+			Collections.sort(matches);
+		}
+		return matches;
+	}
+
 	@Nullable
 	private String getMatchingPattern(String pattern, String lookupPath) {
 		if (pattern.equals(lookupPath)) {
@@ -265,7 +390,9 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	/**
 	 * Compare the two conditions based on the URL patterns they contain.
 	 * Patterns are compared one at a time, from top to bottom via
-	 * {@link PathMatcher#getPatternComparator(String)}. If all compared
+	 * {@link PathMatcher#getPatternComparator(String)}, or by
+	 * {@link PathPattern#SPECIFICITY_COMPARATOR specificity} for parsed
+	 * patterns. If all compared
 	 * patterns match equally, but one instance has more patterns, it is
 	 * considered a closer match.
 	 * <p>It is assumed that both instances have been obtained via
@@ -275,10 +402,16 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 */
 	@Override
 	public int compareTo(PatternsRequestCondition other, HttpServletRequest request) {
+		if (!this.pathPatterns.isEmpty() && !other.pathPatterns.isEmpty()) {
+			return compareTo(this.pathPatterns.iterator(), other.pathPatterns.iterator(),
+					PathPattern.SPECIFICITY_COMPARATOR);
+		}
 		String lookupPath = this.pathHelper.getLookupPathForRequest(request);
 		Comparator<String> patternComparator = this.pathMatcher.getPatternComparator(lookupPath);
-		Iterator<String> iterator = this.patterns.iterator();
-		Iterator<String> iteratorOther = other.patterns.iterator();
+		return compareTo(this.patterns.iterator(), other.patterns.iterator(), patternComparator);
+	}
+
+	private static <T> int compareTo(Iterator<T> iterator, Iterator<T> iteratorOther, Comparator<T> patternComparator) {
 		while (iterator.hasNext() && iteratorOther.hasNext()) {
 			int result = patternComparator.compare(iterator.next(), iteratorOther.next());
 			if (result != 0) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -32,6 +32,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
@@ -40,11 +41,13 @@ import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.UnsatisfiedServletRequestParameterException;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.cors.CorsUtils;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.handler.AbstractHandlerMethodMapping;
 import org.springframework.web.servlet.mvc.condition.NameValueExpression;
 import org.springframework.web.util.WebUtils;
+import org.springframework.web.util.pattern.PathPattern;
 
 /**
  * Abstract base class for classes for which {@link RequestMappingInfo} defines
@@ -101,6 +104,36 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 		return (info1, info2) -> info1.compareTo(info2, request);
 	}
 
+	/**
+	 * Index mappings by the HTTP methods they declare, including HEAD for
+	 * GET mappings. Mappings without declared methods match any method.
+	 */
+	@Override
+	protected Set<String> getMappingIndexKeys(RequestMappingInfo info) {
+		Set<RequestMethod> methods = info.getMethodsCondition().getMethods();
+		if (methods.isEmpty()) {
+			return Collections.emptySet();
+		}
+		Set<String> keys = new LinkedHashSet<>(methods.size() + 1);
+		for (RequestMethod method : methods) {
+			keys.add(method.name());
+		}
+		if (methods.contains(RequestMethod.GET)) {
+			keys.add(RequestMethod.HEAD.name());
+		}
+		return keys;
+	}
+
+	/**
+	 * Use the HTTP method of the request as index key, except for CORS
+	 * pre-flight requests which match the method they announce instead.
+	 */
+	@Override
+	@Nullable
+	protected String getRequestIndexKey(HttpServletRequest request) {
+		return (CorsUtils.isPreFlightRequest(request) ? null : request.getMethod());
+	}
+
 	/**
 	 * Expose URI template variables, matrix variables, and producible media types in the request.
 	 * @see HandlerMapping#URI_TEMPLATE_VARIABLES_ATTRIBUTE
@@ -111,28 +144,34 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 	protected void handleMatch(RequestMappingInfo info, String lookupPath, HttpServletRequest request) {
 		super.handleMatch(info, lookupPath, request);
 
-		String bestPattern;
-		Map<String, String> uriVariables;
-
-		Set<String> patterns = info.getPatternsCondition().getPatterns();
-		if (patterns.isEmpty()) {
-			bestPattern = lookupPath;
-			uriVariables = Collections.emptyMap();
+		List<PathPattern> pathPatterns = info.getPatternsCondition().getPathPatterns();
+		if (!pathPatterns.isEmpty()) {
+			handlePathPatternMatch(pathPatterns.get(0), request);
 		}
 		else {
-			bestPattern = patterns.iterator().next();
-			uriVariables = getPathMatcher().extractUriTemplateVariables(bestPattern, lookupPath);
-		}
+			String bestPattern;
+			Map<String, String> uriVariables;
+
+			Set<String> patterns = info.getPatternsCondition().getPatterns();
+			if (patterns.isEmpty()) {
+				bestPattern = lookupPath;
+				uriVariables = Collections.emptyMap();
+			}
+			else {
+				bestPattern = patterns.iterator().next();
+				uriVariables = getPathMatcher().extractUriTemplateVariables(bestPattern, lookupPath);
+			}
 
-		request.setAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE, bestPattern);
+			request.setAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE, bestPattern);
 
-		if (isMatrixVariableContentAvailable()) {
-			Map<String, MultiValueMap<String, String>> matrixVars = extractMatrixVariables(request, uriVariables);
-			request.setAttribute(HandlerMapping.MATRIX_VARIABLES_ATTRIBUTE, matrixVars);
-		}
+			if (isMatrixVariableContentAvailable()) {
+				Map<String, MultiValueMap<String, String>> matrixVars = extractMatrixVariables(request, uriVariables);
+				request.setAttribute(HandlerMapping.MATRIX_VARIABLES_ATTRIBUTE, matrixVars);
+			}
 
-		Map<String, String> decodedUriVariables = getUrlPathHelper().decodePathVariables(request, uriVariables);
-		request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, decodedUriVariables);
+			Map<String, String> decodedUriVariables = getUrlPathHelper().decodePathVariables(request, uriVariables);
+			request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, decodedUriVariables);
+		}
 
 		if (!info.getProducesCondition().getProducibleMediaTypes().isEmpty()) {
 			Set<MediaType> mediaTypes = info.getProducesCondition().getProducibleMediaTypes();
@@ -140,6 +179,27 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 		}
 	}
 
+	/**
+	 * Expose URI template and matrix variables as extracted by the best matching
+	 * {@link PathPattern} from the parsed lookup path, decoded by the latter.
+	 */
+	private void handlePathPatternMatch(PathPattern bestPattern, HttpServletRequest request) {
+		request.setAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE, bestPattern.getPatternString());
+
+		PathPattern.PathMatchInfo matchInfo =
+				bestPattern.matchAndExtract(getUrlPathHelper().getLookupPathContainer(request));
+		Map<String, String> uriVariables =
+				(matchInfo != null ? matchInfo.getUriVariables() : Collections.emptyMap());
+
+		if (isMatrixVariableContentAvailable()) {
+			Map<String, MultiValueMap<String, String>> matrixVars =
+					(matchInfo != null ? matchInfo.getMatrixVariables() : Collections.emptyMap());
+			request.setAttribute(HandlerMapping.MATRIX_VARIABLES_ATTRIBUTE, matrixVars);
+		}
+
+		request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, uriVariables);
+	}
+
 	private boolean isMatrixVariableContentAvailable() {
 		return !getUrlPathHelper().shouldRemoveSemicolonContent();
 	}
@@ -33,6 +33,7 @@ import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.MethodIntrospector;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.core.ReactiveAdapterRegistry;
@@ -84,6 +85,7 @@ import org.springframework.web.method.annotation.SessionAttributesHandler;
 import org.springframework.web.method.annotation.SessionStatusMethodArgumentResolver;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.HandlerMethodArgumentResolverComposite;
+import org.springframework.web.method.support.HandlerMethodInvocationPlan;
 import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
 import org.springframework.web.method.support.HandlerMethodReturnValueHandlerComposite;
 import org.springframework.web.method.support.InvocableHandlerMethod;
@@ -191,6 +193,8 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 	private final Map<ControllerAdviceBean, Set<Method>> modelAttributeAdviceCache = new LinkedHashMap<>();
 
+	private final Map<MethodClassKey, HandlerMethodInvocationPlan> invocationPlanCache = new ConcurrentHashMap<>(256);
+
 
 	public RequestMappingHandlerAdapter() {
 		StringHttpMessageConverter stringHttpMessageConverter = new StringHttpMessageConverter();
@@ -860,6 +864,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 			ServletInvocableHandlerMethod invocableMethod = createInvocableHandlerMethod(handlerMethod);
 			if (this.argumentResolvers != null) {
 				invocableMethod.setHandlerMethodArgumentResolvers(this.argumentResolvers);
+				invocableMethod.setInvocationPlan(getInvocationPlan(handlerMethod, this.argumentResolvers));
 			}
 			if (this.returnValueHandlers != null) {
 				invocableMethod.setHandlerMethodReturnValueHandlers(this.returnValueHandlers);
@@ -913,6 +918,22 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		return new ServletInvocableHandlerMethod(handlerMethod);
 	}
 
+	/**
+	 * Return the invocation plan for the given handler method, created on first
+	 * use and shared by all subsequent invocations of the same method.
+	 */
+	private HandlerMethodInvocationPlan getInvocationPlan(HandlerMethod handlerMethod,
+			HandlerMethodArgumentResolverComposite argumentResolvers) {
+
+		MethodClassKey cacheKey = new MethodClassKey(handlerMethod.getMethod(), handlerMethod.getBeanType());
+		HandlerMethodInvocationPlan plan = this.invocationPlanCache.get(cacheKey);
+		if (plan == null || plan.getArgumentResolvers() != argumentResolvers) {
+			plan = new HandlerMethodInvocationPlan(handlerMethod, argumentResolvers);
+			this.invocationPlanCache.put(cacheKey, plan);
+		}
+		return plan;
+	}
+
 	private ModelFactory getModelFactory(HandlerMethod handlerMethod, WebDataBinderFactory binderFactory) {
 		SessionAttributesHandler sessionAttrHandler = getSessionAttributesHandler(handlerMethod);
 		Class<?> handlerType = handlerMethod.getBeanType();
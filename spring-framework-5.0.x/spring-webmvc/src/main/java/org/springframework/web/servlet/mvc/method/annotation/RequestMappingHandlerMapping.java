@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -42,6 +42,7 @@ import org.springframework.web.servlet.mvc.condition.CompositeRequestCondition;
 import org.springframework.web.servlet.mvc.condition.RequestCondition;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfoHandlerMapping;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Creates {@link RequestMappingInfo} instances from type and method-level
@@ -62,6 +63,9 @@ public class RequestMappingHandlerMapping extends RequestMappingInfoHandlerMappi
 
 	private boolean useTrailingSlashMatch = true;
 
+	@Nullable
+	private PathPatternParser patternParser;
+
 	private ContentNegotiationManager contentNegotiationManager = new ContentNegotiationManager();
 
 	@Nullable
@@ -102,6 +106,33 @@ public class RequestMappingHandlerMapping extends RequestMappingInfoHandlerMappi
 		this.useTrailingSlashMatch = useTrailingSlashMatch;
 	}
 
+	/**
+	 * Set a {@link PathPatternParser} to parse the patterns of request mappings
+	 * with, so that requests are matched against pre-parsed
+	 * {@link org.springframework.web.util.pattern.PathPattern PathPatterns}
+	 * and a lookup path parsed once per request, rather than through the
+	 * {@link #setPathMatcher PathMatcher}.
+	 * <p>Note that suffix pattern matching does not apply to parsed patterns,
+	 * while trailing slash matching is controlled by the
+	 * {@link PathPatternParser#setMatchOptionalTrailingSeparator
+	 * matchOptionalTrailingSeparator} property of the parser.
+	 * <p>By default this is not set.
+	 * @since 5.0.17
+	 */
+	public void setPatternParser(@Nullable PathPatternParser patternParser) {
+		this.patternParser = patternParser;
+	}
+
+	/**
+	 * Return the {@link PathPatternParser} to parse request mapping patterns
+	 * with, if any.
+	 * @since 5.0.17
+	 */
+	@Nullable
+	public PathPatternParser getPatternParser() {
+		return this.patternParser;
+	}
+
 	/**
 	 * Set the {@link ContentNegotiationManager} to use to determine requested media types.
 	 * If not set, the default constructor is used.
@@ -128,6 +159,7 @@ public class RequestMappingHandlerMapping extends RequestMappingInfoHandlerMappi
 		this.config = new RequestMappingInfo.BuilderConfiguration();
 		this.config.setUrlPathHelper(getUrlPathHelper());
 		this.config.setPathMatcher(getPathMatcher());
+		this.config.setPatternParser(this.patternParser);
 		this.config.setSuffixPatternMatch(this.useSuffixPatternMatch);
 		this.config.setTrailingSlashMatch(this.useTrailingSlashMatch);
 		this.config.setRegisteredSuffixPatternMatch(this.useRegisteredSuffixPatternMatch);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,20 +16,36 @@
 
 package org.springframework.web.servlet.resource;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 import javax.servlet.http.HttpServletRequest;
 
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
 
 /**
  * A {@link org.springframework.web.servlet.resource.ResourceResolver} that
  * resolves resources from a {@link org.springframework.cache.Cache} or otherwise
  * delegates to the resolver chain and saves the result in the cache.
  *
+ * <p>The content of small resources may be cached as well, see
+ * {@link #setMaxCachedContentLength}.
+ *
  * @author Rossen Stoyanchev
  * @author Brian Clozel
  * @since 4.1
@@ -43,6 +59,10 @@ public class CachingResourceResolver extends AbstractResourceResolver {
 
 	private final Cache cache;
 
+	private int maxCachedContentLength = 0;
+
+	private final List<String> contentCodings = new ArrayList<>(EncodedResourceResolver.DEFAULT_CODINGS);
+
 
 	public CachingResourceResolver(Cache cache) {
 		Assert.notNull(cache, "Cache is required");
@@ -65,6 +85,52 @@ public class CachingResourceResolver extends AbstractResourceResolver {
 		return this.cache;
 	}
 
+	/**
+	 * Configure the supported content codings from the "Accept-Encoding"
+	 * header for which to cache resolved resources separately, e.g. as
+	 * selected by an {@link EncodedResourceResolver}.
+	 * <p>By default this is set to "br" and "gzip".
+	 * @param codings one or more supported content codings
+	 * @since 5.0.17
+	 */
+	public void setContentCodings(List<String> codings) {
+		Assert.notEmpty(codings, "At least one content coding expected");
+		this.contentCodings.clear();
+		this.contentCodings.addAll(codings);
+	}
+
+	/**
+	 * Return a read-only list with the supported content codings.
+	 * @since 5.0.17
+	 */
+	public List<String> getContentCodings() {
+		return Collections.unmodifiableList(this.contentCodings);
+	}
+
+	/**
+	 * Set the maximum content length of resolved resources whose content is to
+	 * be cached in memory as well, so that they are served without accessing
+	 * the underlying file or class path entry. Such resources expose an
+	 * {@code ETag} header computed once from their content, unless the resolved
+	 * resource is an {@link HttpResource} with an {@code ETag} header already.
+	 * <p>By default this is set to 0, i.e. only resource handles are cached.
+	 * Note that changes of cached content are not detected, so this is meant
+	 * for resources that do not change at runtime and for a bounded cache.
+	 * @since 5.0.17
+	 */
+	public void setMaxCachedContentLength(int maxCachedContentLength) {
+		this.maxCachedContentLength = maxCachedContentLength;
+	}
+
+	/**
+	 * Return the maximum content length of resolved resources whose content
+	 * is cached in memory as well.
+	 * @since 5.0.17
+	 */
+	public int getMaxCachedContentLength() {
+		return this.maxCachedContentLength;
+	}
+
 
 	@Override
 	protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, String requestPath,
@@ -82,6 +148,7 @@ public class CachingResourceResolver extends AbstractResourceResolver {
 
 		resource = chain.resolveResource(request, requestPath, locations);
 		if (resource != null) {
+			resource = loadContentIfApplicable(resource);
 			if (logger.isTraceEnabled()) {
 				logger.trace("Putting resolved resource in cache: " + resource);
 			}
@@ -91,18 +158,53 @@ public class CachingResourceResolver extends AbstractResourceResolver {
 		return resource;
 	}
 
+	/**
+	 * Return a resource holding the content of the given resource in memory,
+	 * if its content length does not exceed the configured maximum.
+	 */
+	private Resource loadContentIfApplicable(Resource resource) {
+		if (this.maxCachedContentLength <= 0 || resource instanceof CachedContentResource) {
+			return resource;
+		}
+		try {
+			long contentLength = resource.contentLength();
+			if (contentLength < 0 || contentLength > this.maxCachedContentLength || !resource.isReadable()) {
+				return resource;
+			}
+			return new CachedContentResource(resource);
+		}
+		catch (IOException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to load content of " + resource + ": caching resource only", ex);
+			}
+			return resource;
+		}
+	}
+
 	protected String computeKey(@Nullable HttpServletRequest request, String requestPath) {
 		StringBuilder key = new StringBuilder(RESOLVED_RESOURCE_CACHE_KEY_PREFIX);
 		key.append(requestPath);
 		if (request != null) {
-			String encoding = request.getHeader("Accept-Encoding");
-			if (encoding != null && encoding.contains("gzip")) {
-				key.append("+encoding=gzip");
+			String codingKey = getContentCodingKey(request);
+			if (StringUtils.hasText(codingKey)) {
+				key.append("+encoding=").append(codingKey);
 			}
 		}
 		return key.toString();
 	}
 
+	@Nullable
+	private String getContentCodingKey(HttpServletRequest request) {
+		String header = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+		if (!StringUtils.hasText(header)) {
+			return null;
+		}
+		Set<String> accepted = EncodedResourceResolver.getAcceptedCodings(header);
+		return this.contentCodings.stream()
+				.filter(accepted::contains)
+				.collect(Collectors.joining(","));
+	}
+
 	@Override
 	protected String resolveUrlPathInternal(String resourceUrlPath,
 			List<? extends Resource> locations, ResourceResolverChain chain) {
@@ -128,4 +230,72 @@ public class CachingResourceResolver extends AbstractResourceResolver {
 		return resolvedUrlPath;
 	}
 
+
+	/**
+	 * Resource holding the content of a resolved resource in memory, along
+	 * with its last-modified timestamp and HTTP response headers.
+	 */
+	private static class CachedContentResource extends ByteArrayResource implements HttpResource {
+
+		private final Resource original;
+
+		@Nullable
+		private final String filename;
+
+		private final long lastModified;
+
+		private final HttpHeaders responseHeaders;
+
+		public CachedContentResource(Resource original) throws IOException {
+			super(loadContent(original), "cached " + original.getDescription());
+			this.original = original;
+			this.filename = original.getFilename();
+			this.lastModified = original.lastModified();
+			this.responseHeaders = new HttpHeaders();
+			if (original instanceof HttpResource) {
+				this.responseHeaders.putAll(((HttpResource) original).getResponseHeaders());
+			}
+			if (this.responseHeaders.getETag() == null) {
+				this.responseHeaders.setETag("\"" + DigestUtils.md5DigestAsHex(getByteArray()) + "\"");
+			}
+		}
+
+		private static byte[] loadContent(Resource original) throws IOException {
+			try (InputStream in = original.getInputStream()) {
+				return StreamUtils.copyToByteArray(in);
+			}
+		}
+
+		@Override
+		public URL getURL() throws IOException {
+			return this.original.getURL();
+		}
+
+		@Override
+		public URI getURI() throws IOException {
+			return this.original.getURI();
+		}
+
+		@Override
+		public Resource createRelative(String relativePath) throws IOException {
+			return this.original.createRelative(relativePath);
+		}
+
+		@Override
+		@Nullable
+		public String getFilename() {
+			return this.filename;
+		}
+
+		@Override
+		public long lastModified() {
+			return this.lastModified;
+		}
+
+		@Override
+		public HttpHeaders getResponseHeaders() {
+			return this.responseHeaders;
+		}
+	}
+
 }
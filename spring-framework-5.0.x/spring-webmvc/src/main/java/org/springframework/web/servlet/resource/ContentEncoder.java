@@ -0,0 +1,47 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.resource;
+
+import java.io.IOException;
+
+/**
+ * Strategy to encode the content of resources with an HTTP content coding,
+ * used by an {@link EncodedResourceResolver} to compress resources on the fly.
+ *
+ * <p>Encoders for content codings not supported by the JDK, such as Brotli,
+ * may be plugged in on top of a third-party library.
+ *
+ * @since 5.0.17
+ * @see GzipContentEncoder
+ */
+public interface ContentEncoder {
+
+	/**
+	 * Return the content coding applied by this encoder, as used in the
+	 * "Accept-Encoding" and "Content-Encoding" headers, e.g. "gzip" or "br".
+	 */
+	String getContentCoding();
+
+	/**
+	 * Encode the given content.
+	 * @param content the content of a resource
+	 * @return the encoded content
+	 * @throws IOException in case of encoding errors
+	 */
+	byte[] encode(byte[] content) throws IOException;
+
+}
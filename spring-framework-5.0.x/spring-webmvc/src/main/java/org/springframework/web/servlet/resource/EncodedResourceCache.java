@@ -0,0 +1,129 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.resource;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Cache for the encoded content of resources, bounded by the total number of
+ * bytes it holds, beyond which the least recently used entries are evicted.
+ *
+ * <p>A single instance may be shared by several {@link EncodedResourceResolver
+ * EncodedResourceResolvers}. Cached content must not be modified.
+ *
+ * @since 5.0.17
+ * @see EncodedResourceResolver#setCache
+ */
+public class EncodedResourceCache {
+
+	/** Default maximum number of bytes held by the cache: 10 MB */
+	public static final long DEFAULT_MAX_SIZE = 10 * 1024 * 1024;
+
+
+	private final long maxSize;
+
+	private final Map<String, byte[]> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+	private long size;
+
+
+	/**
+	 * Create a new cache with the {@link #DEFAULT_MAX_SIZE default maximum size}.
+	 */
+	public EncodedResourceCache() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * Create a new cache with the given maximum size.
+	 * @param maxSize the maximum number of bytes to hold
+	 */
+	public EncodedResourceCache(long maxSize) {
+		Assert.isTrue(maxSize > 0, "Max size must be greater than 0");
+		this.maxSize = maxSize;
+	}
+
+
+	/**
+	 * Return the maximum number of bytes held by this cache.
+	 */
+	public long getMaxSize() {
+		return this.maxSize;
+	}
+
+	/**
+	 * Return the encoded content cached under the given key, if any.
+	 * @param key the key of the content, including the content coding and
+	 * the version of the original resource
+	 */
+	@Nullable
+	public byte[] get(String key) {
+		synchronized (this.entries) {
+			return this.entries.get(key);
+		}
+	}
+
+	/**
+	 * Cache the given encoded content under the given key, evicting the least
+	 * recently used entries as necessary. Content larger than the maximum size
+	 * of this cache is not cached.
+	 * @param key the key of the content
+	 * @param content the encoded content
+	 */
+	public void put(String key, byte[] content) {
+		if (content.length > this.maxSize) {
+			return;
+		}
+		synchronized (this.entries) {
+			byte[] previous = this.entries.put(key, content);
+			if (previous != null) {
+				this.size -= previous.length;
+			}
+			this.size += content.length;
+			Iterator<byte[]> it = this.entries.values().iterator();
+			while (this.size > this.maxSize && it.hasNext()) {
+				this.size -= it.next().length;
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * Return the number of bytes currently held by this cache.
+	 */
+	public long getSize() {
+		synchronized (this.entries) {
+			return this.size;
+		}
+	}
+
+	/**
+	 * Remove all cached content.
+	 */
+	public void clear() {
+		synchronized (this.entries) {
+			this.entries.clear();
+			this.size = 0;
+		}
+	}
+
+}
@@ -0,0 +1,531 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * A {@code ResourceResolver} that delegates to the chain to locate a resource
+ * and then selects an encoded variant of it based on the "Accept-Encoding"
+ * request header.
+ *
+ * <p>For each configured {@link #setContentCodings content coding} accepted by
+ * the client, in the configured order, the resolver first looks for a
+ * precompressed variant with the corresponding {@link #setExtensions extension},
+ * e.g. "styles.css.gz" for "styles.css". If there is none, and a
+ * {@link ContentEncoder} is registered for the content coding, resources with a
+ * {@link #setCompressibleMediaTypes compressible media type} are encoded on
+ * first access and kept in an {@link EncodedResourceCache}, keyed by the
+ * version of the original resource.
+ *
+ * <p>Resources for which an encoded variant may exist are returned with a
+ * "Vary: Accept-Encoding" response header, whether or not a variant is
+ * selected for the current request. When used along with a
+ * {@link CachingResourceResolver}, the latter must be configured with the same
+ * content codings so that variants are cached separately.
+ *
+ * @since 5.0.17
+ * @see GzipResourceResolver
+ */
+public class EncodedResourceResolver extends AbstractResourceResolver {
+
+	/**
+	 * The default content codings, in order of preference.
+	 */
+	public static final List<String> DEFAULT_CODINGS = Arrays.asList("br", "gzip");
+
+
+	private final List<String> contentCodings = new ArrayList<>(DEFAULT_CODINGS);
+
+	private final Map<String, String> extensions = new LinkedHashMap<>();
+
+	private final Map<String, ContentEncoder> encoders = new LinkedHashMap<>();
+
+	private final List<MediaType> compressibleMediaTypes = new ArrayList<>();
+
+	private EncodedResourceCache cache = new EncodedResourceCache();
+
+
+	public EncodedResourceResolver() {
+		this.extensions.put("br", ".br");
+		this.extensions.put("gzip", ".gz");
+		ContentEncoder gzip = new GzipContentEncoder();
+		this.encoders.put(gzip.getContentCoding(), gzip);
+		this.compressibleMediaTypes.add(MediaType.parseMediaType("text/*"));
+		this.compressibleMediaTypes.add(MediaType.parseMediaType("application/javascript"));
+		this.compressibleMediaTypes.add(MediaType.APPLICATION_JSON);
+		this.compressibleMediaTypes.add(MediaType.APPLICATION_XML);
+		this.compressibleMediaTypes.add(MediaType.parseMediaType("image/svg+xml"));
+	}
+
+
+	/**
+	 * Configure the supported content codings in order of preference. The first
+	 * coding accepted by the client, and for which a variant exists or can be
+	 * created, is selected.
+	 * <p>By default this is set to "br" and "gzip".
+	 * @param codings one or more supported content codings
+	 */
+	public void setContentCodings(List<String> codings) {
+		Assert.notEmpty(codings, "At least one content coding expected");
+		this.contentCodings.clear();
+		this.contentCodings.addAll(codings);
+	}
+
+	/**
+	 * Return a read-only list with the supported content codings.
+	 */
+	public List<String> getContentCodings() {
+		return Collections.unmodifiableList(this.contentCodings);
+	}
+
+	/**
+	 * Configure mappings from content codings to file extensions of
+	 * precompressed variants. A dot "." will be prepended in front of the
+	 * extension value if not present.
+	 * <p>By default this is configured with ["br" -> ".br"] and ["gzip" -> ".gz"].
+	 * @param extensions the extensions to use
+	 * @see #registerExtension(String, String)
+	 */
+	public void setExtensions(Map<String, String> extensions) {
+		extensions.forEach(this::registerExtension);
+	}
+
+	/**
+	 * Return a read-only map with coding-to-extension mappings.
+	 */
+	public Map<String, String> getExtensions() {
+		return Collections.unmodifiableMap(this.extensions);
+	}
+
+	/**
+	 * Java config friendly alternative to {@link #setExtensions(Map)}.
+	 * @param coding the content coding
+	 * @param extension the associated file extension
+	 */
+	public void registerExtension(String coding, String extension) {
+		this.extensions.put(coding, (extension.startsWith(".") ? extension : "." + extension));
+	}
+
+	/**
+	 * Register an encoder to create variants on the fly for the content coding
+	 * it applies, replacing any encoder previously registered for it. Encoders
+	 * for content codings that are not among the
+	 * {@link #setContentCodings supported codings} are not used.
+	 * <p>By default a {@link GzipContentEncoder} is registered.
+	 * @param encoder the encoder to register
+	 */
+	public void registerEncoder(ContentEncoder encoder) {
+		this.encoders.put(encoder.getContentCoding(), encoder);
+	}
+
+	/**
+	 * Return a read-only map with the registered encoders by content coding.
+	 */
+	public Map<String, ContentEncoder> getEncoders() {
+		return Collections.unmodifiableMap(this.encoders);
+	}
+
+	/**
+	 * Configure the media types of resources to encode on the fly.
+	 * <p>By default this is set to "text/*", "application/javascript",
+	 * "application/json", "application/xml" and "image/svg+xml".
+	 * @param mediaTypes the media types of compressible resources
+	 */
+	public void setCompressibleMediaTypes(List<MediaType> mediaTypes) {
+		this.compressibleMediaTypes.clear();
+		this.compressibleMediaTypes.addAll(mediaTypes);
+	}
+
+	/**
+	 * Return a read-only list with the media types of resources to encode
+	 * on the fly.
+	 */
+	public List<MediaType> getCompressibleMediaTypes() {
+		return Collections.unmodifiableList(this.compressibleMediaTypes);
+	}
+
+	/**
+	 * Configure the cache for content encoded on the fly, possibly shared with
+	 * other resolvers. Resources larger than the maximum size of the cache are
+	 * not encoded on the fly.
+	 * <p>By default an {@link EncodedResourceCache} with the
+	 * {@link EncodedResourceCache#DEFAULT_MAX_SIZE default maximum size} is used.
+	 * @param cache the cache to use
+	 */
+	public void setCache(EncodedResourceCache cache) {
+		Assert.notNull(cache, "EncodedResourceCache is required");
+		this.cache = cache;
+	}
+
+	/**
+	 * Return the cache for content encoded on the fly.
+	 */
+	public EncodedResourceCache getCache() {
+		return this.cache;
+	}
+
+
+	@Override
+	protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, String requestPath,
+			List<? extends Resource> locations, ResourceResolverChain chain) {
+
+		Resource resource = chain.resolveResource(request, requestPath, locations);
+		if (resource == null || request == null) {
+			return resource;
+		}
+
+		Set<String> acceptedCodings = getAcceptedCodings(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+		boolean variantsExist = isCompressible(resource);
+
+		for (String coding : this.contentCodings) {
+			Resource precompressed = getPrecompressed(resource, coding);
+			if (precompressed != null) {
+				if (acceptedCodings.contains(coding)) {
+					return new EncodedResource(resource, precompressed, coding);
+				}
+				variantsExist = true;
+			}
+			else if (acceptedCodings.contains(coding)) {
+				Resource encoded = encodeIfApplicable(resource, coding);
+				if (encoded != null) {
+					return new EncodedResource(resource, encoded, coding);
+				}
+			}
+		}
+
+		return (variantsExist ? new EncodedResource(resource, resource, null) : resource);
+	}
+
+	@Override
+	protected String resolveUrlPathInternal(String resourceUrlPath,
+			List<? extends Resource> locations, ResourceResolverChain chain) {
+
+		return chain.resolveUrlPath(resourceUrlPath, locations);
+	}
+
+	@Nullable
+	private Resource getPrecompressed(Resource resource, String coding) {
+		String extension = this.extensions.get(coding);
+		if (extension == null) {
+			return null;
+		}
+		try {
+			Resource precompressed = resource.createRelative(resource.getFilename() + extension);
+			return (precompressed.exists() ? precompressed : null);
+		}
+		catch (IOException ex) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("No " + coding + " resource for [" + resource.getFilename() + "]", ex);
+			}
+			return null;
+		}
+	}
+
+	private boolean isCompressible(Resource resource) {
+		String filename = resource.getFilename();
+		if (filename == null || this.encoders.isEmpty()) {
+			return false;
+		}
+		MediaType mediaType = MediaTypeFactory.getMediaType(filename).orElse(null);
+		if (mediaType == null) {
+			return false;
+		}
+		for (MediaType compressible : this.compressibleMediaTypes) {
+			if (compressible.includes(mediaType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Return a variant of the given resource encoded on the fly, or {@code null}
+	 * if not applicable or if encoding does not reduce its content length.
+	 */
+	@Nullable
+	private Resource encodeIfApplicable(Resource resource, String coding) {
+		ContentEncoder encoder = this.encoders.get(coding);
+		if (encoder == null || !isCompressible(resource)) {
+			return null;
+		}
+		try {
+			long contentLength = resource.contentLength();
+			if (contentLength < 0 || contentLength > this.cache.getMaxSize() || !resource.isReadable()) {
+				return null;
+			}
+			String key = coding + ":" + resource.getDescription() + ":" + getVersion(resource);
+			OnTheFlyEncodedResource encoded = new OnTheFlyEncodedResource(resource, encoder, this.cache, key);
+			return (encoded.contentLength() < contentLength ? encoded : null);
+		}
+		catch (IOException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to encode [" + resource.getFilename() + "] with " + coding, ex);
+			}
+			return null;
+		}
+	}
+
+	private static String getVersion(Resource resource) throws IOException {
+		if (resource instanceof HttpResource) {
+			String eTag = ((HttpResource) resource).getResponseHeaders().getETag();
+			if (eTag != null) {
+				return eTag;
+			}
+		}
+		return resource.lastModified() + "-" + resource.contentLength();
+	}
+
+	/**
+	 * Parse the content codings accepted by the client from the given
+	 * "Accept-Encoding" header value, ignoring codings with a quality value of 0.
+	 */
+	static Set<String> getAcceptedCodings(@Nullable String acceptEncoding) {
+		if (!StringUtils.hasText(acceptEncoding)) {
+			return Collections.emptySet();
+		}
+		Set<String> codings = new LinkedHashSet<>();
+		for (String token : StringUtils.tokenizeToStringArray(acceptEncoding, ",")) {
+			String[] parts = StringUtils.tokenizeToStringArray(token, ";");
+			if (parts.length == 0) {
+				continue;
+			}
+			boolean rejected = false;
+			for (int i = 1; i < parts.length; i++) {
+				String param = parts[i].replace(" ", "").toLowerCase(Locale.ENGLISH);
+				if (param.startsWith("q=") && param.substring(2).matches("0(\\.0*)?")) {
+					rejected = true;
+				}
+			}
+			if (!rejected) {
+				codings.add(parts[0].toLowerCase(Locale.ENGLISH));
+			}
+		}
+		return codings;
+	}
+
+
+	/**
+	 * Resource with content encoded on the fly, held in an
+	 * {@link EncodedResourceCache} and encoded again if evicted.
+	 */
+	private static final class OnTheFlyEncodedResource extends AbstractResource {
+
+		private final Resource original;
+
+		private final ContentEncoder encoder;
+
+		private final EncodedResourceCache cache;
+
+		private final String key;
+
+		public OnTheFlyEncodedResource(Resource original, ContentEncoder encoder,
+				EncodedResourceCache cache, String key) {
+
+			this.original = original;
+			this.encoder = encoder;
+			this.cache = cache;
+			this.key = key;
+		}
+
+		private byte[] getContent() throws IOException {
+			byte[] content = this.cache.get(this.key);
+			if (content == null) {
+				byte[] originalContent;
+				try (InputStream in = this.original.getInputStream()) {
+					originalContent = StreamUtils.copyToByteArray(in);
+				}
+				content = this.encoder.encode(originalContent);
+				this.cache.put(this.key, content);
+			}
+			return content;
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			return new ByteArrayInputStream(getContent());
+		}
+
+		@Override
+		public boolean exists() {
+			return this.original.exists();
+		}
+
+		@Override
+		public long contentLength() throws IOException {
+			return getContent().length;
+		}
+
+		@Override
+		public long lastModified() throws IOException {
+			return this.original.lastModified();
+		}
+
+		@Override
+		public Resource createRelative(String relativePath) throws IOException {
+			return this.original.createRelative(relativePath);
+		}
+
+		@Override
+		@Nullable
+		public String getFilename() {
+			return this.original.getFilename();
+		}
+
+		@Override
+		public String getDescription() {
+			return this.encoder.getContentCoding() + " encoded " + this.original.getDescription();
+		}
+	}
+
+
+	/**
+	 * An encoded {@link HttpResource}, or the original resource along with a
+	 * "Vary" header if no encoded variant is selected.
+	 */
+	static final class EncodedResource extends AbstractResource implements HttpResource {
+
+		private final Resource original;
+
+		private final Resource encoded;
+
+		@Nullable
+		private final String coding;
+
+		EncodedResource(Resource original, Resource encoded, @Nullable String coding) {
+			this.original = original;
+			this.encoded = encoded;
+			this.coding = coding;
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			return this.encoded.getInputStream();
+		}
+
+		@Override
+		public boolean exists() {
+			return this.encoded.exists();
+		}
+
+		@Override
+		public boolean isReadable() {
+			return this.encoded.isReadable();
+		}
+
+		@Override
+		public boolean isOpen() {
+			return this.encoded.isOpen();
+		}
+
+		@Override
+		public boolean isFile() {
+			return this.encoded.isFile();
+		}
+
+		@Override
+		public URL getURL() throws IOException {
+			return this.encoded.getURL();
+		}
+
+		@Override
+		public URI getURI() throws IOException {
+			return this.encoded.getURI();
+		}
+
+		@Override
+		public File getFile() throws IOException {
+			return this.encoded.getFile();
+		}
+
+		@Override
+		public long contentLength() throws IOException {
+			return this.encoded.contentLength();
+		}
+
+		@Override
+		public long lastModified() throws IOException {
+			return this.encoded.lastModified();
+		}
+
+		@Override
+		public Resource createRelative(String relativePath) throws IOException {
+			return this.encoded.createRelative(relativePath);
+		}
+
+		@Override
+		@Nullable
+		public String getFilename() {
+			return this.original.getFilename();
+		}
+
+		@Override
+		public String getDescription() {
+			return this.encoded.getDescription();
+		}
+
+		/**
+		 * Return the selected content coding, or {@code null} if this is the
+		 * original resource.
+		 */
+		@Nullable
+		public String getContentCoding() {
+			return this.coding;
+		}
+
+		@Override
+		public HttpHeaders getResponseHeaders() {
+			HttpHeaders headers = new HttpHeaders();
+			if (this.original instanceof HttpResource) {
+				headers.putAll(((HttpResource) this.original).getResponseHeaders());
+			}
+			if (this.coding != null) {
+				headers.set(HttpHeaders.CONTENT_ENCODING, this.coding);
+			}
+			if (headers.getVary().stream().noneMatch(HttpHeaders.ACCEPT_ENCODING::equalsIgnoreCase)) {
+				headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			}
+			return headers;
+		}
+	}
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.resource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@link ContentEncoder} for the "gzip" content coding, based on
+ * {@link GZIPOutputStream}.
+ *
+ * @since 5.0.17
+ */
+public class GzipContentEncoder implements ContentEncoder {
+
+	@Override
+	public String getContentCoding() {
+		return "gzip";
+	}
+
+	@Override
+	public byte[] encode(byte[] content) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream(content.length / 2 + 32);
+		try (GZIPOutputStream out = new GZIPOutputStream(bos)) {
+			out.write(content);
+		}
+		return bos.toByteArray();
+	}
+
+}
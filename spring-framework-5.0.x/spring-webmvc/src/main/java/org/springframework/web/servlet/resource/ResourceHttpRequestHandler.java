@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.servlet.ServletException;
+import javax.servlet.ServletResponseWrapper;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -36,10 +37,12 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.EmbeddedValueResolverAware;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.ResourceRegion;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpRange;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.converter.ResourceHttpMessageConverter;
 import org.springframework.http.converter.ResourceRegionHttpMessageConverter;
 import org.springframework.http.server.ServletServerHttpRequest;
@@ -84,6 +87,10 @@ import org.springframework.web.util.UrlPathHelper;
  * <p>This handler also properly evaluates the {@code Last-Modified} header
  * (if present) so that a {@code 304} status code will be returned as appropriate,
  * avoiding unnecessary overhead for resources that are already cached by the client.
+ * The same applies to the {@code ETag} header of {@link HttpResource HttpResources}.
+ *
+ * <p>Large file system resources may be handed over to the sendfile support of the
+ * Servlet container, where available: see {@link #setSendfileThreshold}.
  *
  * @author Keith Donald
  * @author Jeremy Grelle
@@ -100,6 +107,14 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 
 	private static final String URL_RESOURCE_CHARSET_PREFIX = "[charset=";
 
+	private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+
+	private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+
+	private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+
+	private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
 
 	private final List<String> locationValues = new ArrayList<>(4);
 
@@ -132,6 +147,8 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 	@Nullable
 	private StringValueResolver embeddedValueResolver;
 
+	private long sendfileThreshold = -1;
+
 
 	public ResourceHttpRequestHandler() {
 		super(HttpMethod.GET.name(), HttpMethod.HEAD.name());
@@ -303,6 +320,33 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		return this.urlPathHelper;
 	}
 
+	/**
+	 * Set the minimum size in bytes of file system resources to hand over to
+	 * the sendfile support of the Servlet container, which transfers the file
+	 * content to the connection without copying it through the JVM.
+	 * <p>This applies to responses with the full content or a single range,
+	 * as long as the container supports sendfile for the current request, as
+	 * indicated by Tomcat's {@code "org.apache.tomcat.sendfile.support"} request
+	 * attribute, and as long as the response is not wrapped (e.g. by a filter
+	 * that post-processes the content).
+	 * <p>By default this is set to -1, i.e. resources are always written through
+	 * the {@link #setResourceHttpMessageConverter ResourceHttpMessageConverter}.
+	 * Tomcat itself uses a threshold of 48 KB for its default servlet.
+	 * @since 5.0.17
+	 */
+	public void setSendfileThreshold(long sendfileThreshold) {
+		this.sendfileThreshold = sendfileThreshold;
+	}
+
+	/**
+	 * Return the minimum size in bytes of file system resources to hand over
+	 * to the sendfile support of the Servlet container.
+	 * @since 5.0.17
+	 */
+	public long getSendfileThreshold() {
+		return this.sendfileThreshold;
+	}
+
 	@Override
 	public void setEmbeddedValueResolver(StringValueResolver resolver) {
 		this.embeddedValueResolver = resolver;
@@ -452,7 +496,9 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		checkRequest(request);
 
 		// Header phase
-		if (new ServletWebRequest(request, response).checkNotModified(resource.lastModified())) {
+		String eTag = (resource instanceof HttpResource ?
+				((HttpResource) resource).getResponseHeaders().getETag() : null);
+		if (new ServletWebRequest(request, response).checkNotModified(eTag, resource.lastModified())) {
 			logger.trace("Resource not modified - returning 304");
 			return;
 		}
@@ -484,7 +530,13 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		if (request.getHeader(HttpHeaders.RANGE) == null) {
 			Assert.state(this.resourceHttpMessageConverter != null, "Not initialized");
 			setHeaders(response, resource, mediaType);
-			this.resourceHttpMessageConverter.write(resource, mediaType, outputMessage);
+			long length = resource.contentLength();
+			if (isSendfileApplicable(request, response, resource, length)) {
+				sendfile(request, response, resource, mediaType, 0, length);
+			}
+			else {
+				this.resourceHttpMessageConverter.write(resource, mediaType, outputMessage);
+			}
 		}
 		else {
 			Assert.state(this.resourceRegionHttpMessageConverter != null, "Not initialized");
@@ -492,9 +544,19 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 			ServletServerHttpRequest inputMessage = new ServletServerHttpRequest(request);
 			try {
 				List<HttpRange> httpRanges = inputMessage.getHeaders().getRange();
+				List<ResourceRegion> regions = HttpRange.toResourceRegions(httpRanges, resource);
 				response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
-				this.resourceRegionHttpMessageConverter.write(
-						HttpRange.toResourceRegions(httpRanges, resource), mediaType, outputMessage);
+				ResourceRegion region = (regions.size() == 1 ? regions.get(0) : null);
+				if (region != null && isSendfileApplicable(request, response, resource, region.getCount())) {
+					long start = region.getPosition();
+					long end = start + region.getCount();
+					response.setHeader("Content-Range",
+							"bytes " + start + '-' + (end - 1) + '/' + resource.contentLength());
+					sendfile(request, response, resource, mediaType, start, end);
+				}
+				else {
+					this.resourceRegionHttpMessageConverter.write(regions, mediaType, outputMessage);
+				}
 			}
 			catch (IllegalArgumentException ex) {
 				response.setHeader("Content-Range", "bytes */" + resource.contentLength());
@@ -503,6 +565,41 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		}
 	}
 
+	/**
+	 * Whether the content of the given resource, or of the given number of
+	 * bytes of it, is to be handed over to the sendfile support of the
+	 * Servlet container.
+	 */
+	private boolean isSendfileApplicable(HttpServletRequest request, HttpServletResponse response,
+			Resource resource, long count) throws IOException {
+
+		return (this.sendfileThreshold >= 0 && count >= this.sendfileThreshold &&
+				Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE)) &&
+				!(response instanceof ServletResponseWrapper) && resource.isFile());
+	}
+
+	/**
+	 * Let the Servlet container send the given range of the given file system
+	 * resource, after setting the remaining content headers of the response.
+	 * @param end the end of the range (exclusive)
+	 */
+	private void sendfile(HttpServletRequest request, HttpServletResponse response, Resource resource,
+			@Nullable MediaType mediaType, long start, long end) throws IOException {
+
+		if (mediaType == null) {
+			// Same default as the resource converters
+			mediaType = MediaTypeFactory.getMediaType(resource).orElse(MediaType.APPLICATION_OCTET_STREAM);
+		}
+		response.setContentType(mediaType.toString());
+		response.setContentLengthLong(end - start);
+		request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, resource.getFile().getCanonicalPath());
+		request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+		request.setAttribute(SENDFILE_END_ATTRIBUTE, end);
+		if (logger.isTraceEnabled()) {
+			logger.trace("Handing " + (end - start) + " bytes of " + resource + " over to sendfile");
+		}
+	}
+
 	@Nullable
 	protected Resource getResource(HttpServletRequest request) throws IOException {
 		String path = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
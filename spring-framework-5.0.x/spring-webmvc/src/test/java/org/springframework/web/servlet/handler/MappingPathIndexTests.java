@@ -0,0 +1,155 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.handler;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.util.AntPathMatcher;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link MappingPathIndex}.
+ *
+ * @since 5.0.17
+ */
+public class MappingPathIndexTests {
+
+	private final MappingPathIndex<String> index = new MappingPathIndex<>();
+
+
+	@Test
+	public void literalPattern() {
+		add("/orders");
+		add("/orders/all");
+		assertCandidates("/orders", "/orders");
+		assertCandidates("/orders/", "/orders");
+		assertCandidates("/orders/all", "/orders/all");
+		assertCandidates("/customers");
+	}
+
+	@Test
+	public void suffixPattern() {
+		add("/orders");
+		add("/");
+		assertCandidates("/orders.json", "/orders");
+		assertCandidates("/.json", "/");
+	}
+
+	@Test
+	public void wildcardSegments() {
+		add("/api/{tenant}/orders/{id}");
+		add("/api/*/customers/c?");
+		add("/api/{tenant}/orders/{id}.json");
+		assertCandidates("/api/acme/orders/42", "/api/{tenant}/orders/{id}", "/api/{tenant}/orders/{id}.json");
+		assertCandidates("/api/acme/customers/c1", "/api/*/customers/c?");
+		assertCandidates("/api/acme/invoices/42");
+	}
+
+	@Test
+	public void trailingWildcardWithTrailingSlash() {
+		add("/orders/*");
+		assertCandidates("/orders/", "/orders/*");
+		assertCandidates("/orders/42", "/orders/*");
+	}
+
+	@Test
+	public void catchAllSegments() {
+		add("/static/**");
+		add("/docs/**/index.html");
+		add("/files/{*path}");
+		assertCandidates("/static", "/static/**");
+		assertCandidates("/static/css/main.css", "/static/**");
+		assertCandidates("/docs/a/b/index.html", "/docs/**/index.html");
+		assertCandidates("/files/a/b", "/files/{*path}");
+		assertCandidates("/other");
+	}
+
+	@Test
+	public void noPatterns() {
+		this.index.add("any", Collections.emptySet(), Collections.emptySet());
+		add("/orders");
+		assertCandidates("/orders", "any", "/orders");
+		assertCandidates("/other", "any");
+		this.index.remove("any", Collections.emptySet());
+		assertCandidates("/other");
+	}
+
+	@Test
+	public void multiplePatterns() {
+		this.index.add("orders", Arrays.asList("/orders", "/orders/**", "/{entity}"), Collections.emptySet());
+		assertCandidates("/orders", "orders");
+	}
+
+	@Test
+	public void keys() {
+		this.index.add("get", Collections.singleton("/orders"), Arrays.asList("GET", "HEAD"));
+		this.index.add("post", Collections.singleton("/orders"), Collections.singleton("POST"));
+		this.index.add("any", Collections.singleton("/orders"), Collections.emptySet());
+		assertEquals(Arrays.asList("any", "get"), this.index.getCandidates("/orders", "HEAD"));
+		assertEquals(Arrays.asList("any", "post"), this.index.getCandidates("/orders", "POST"));
+		assertEquals(Collections.singletonList("any"), this.index.getCandidates("/orders", "DELETE"));
+		assertEquals(Arrays.asList("get", "post", "any"), this.index.getCandidates("/orders", null));
+	}
+
+	@Test
+	public void remove() {
+		add("/api/{tenant}/orders/{id}");
+		add("/api/{tenant}/orders");
+		add("/static/**");
+		this.index.remove("/api/{tenant}/orders/{id}", Collections.singleton("/api/{tenant}/orders/{id}"));
+		this.index.remove("/static/**", Collections.singleton("/static/**"));
+		assertCandidates("/api/acme/orders/42");
+		assertCandidates("/api/acme/orders", "/api/{tenant}/orders");
+		assertCandidates("/static/main.css");
+	}
+
+	@Test
+	public void candidatesIncludeAllAntPathMatches() {
+		List<String> patterns = Arrays.asList("/orders", "/orders/*", "/orders/{id}", "/orders/{id}/items",
+				"/orders/**", "/**/items", "/orders/**/items", "/*/{id}.json", "/orders/{id:\\d+}", "/o?ders/*");
+		List<String> paths = Arrays.asList("/", "/orders", "/orders/", "/orders/42", "/orders/42/items",
+				"/orders/42/items/", "/orders/42.json", "/orders/a/b/items", "/orders.json", "/customers/42.json");
+		patterns.forEach(this::add);
+
+		AntPathMatcher pathMatcher = new AntPathMatcher();
+		for (String path : paths) {
+			List<String> candidates = this.index.getCandidates(path, null);
+			for (String pattern : patterns) {
+				if (pathMatcher.match(pattern, path) || pathMatcher.match(pattern + ".*", path) ||
+						pathMatcher.match(pattern + "/", path)) {
+					assertTrue(pattern + " should be a candidate for " + path, candidates.contains(pattern));
+				}
+			}
+		}
+	}
+
+
+	private void add(String pattern) {
+		this.index.add(pattern, Collections.singleton(pattern), Collections.emptySet());
+	}
+
+	private void assertCandidates(String lookupPath, String... expected) {
+		assertEquals(new HashSet<>(Arrays.asList(expected)), new HashSet<>(this.index.getCandidates(lookupPath, null)));
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.web.servlet.mvc.condition;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import javax.servlet.http.HttpServletRequest;
@@ -23,6 +24,7 @@ import javax.servlet.http.HttpServletRequest;
 import org.junit.Test;
 
 import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.junit.Assert.*;
 
@@ -212,4 +214,53 @@ public class PatternsRequestConditionTests {
 		assertEquals(1, match1.compareTo(match2, request));
 	}
 
+	@Test
+	public void matchParsedPatterns() {
+		PatternsRequestCondition condition = parsedCondition("/foo/**", "/foo/{bar}", "/foo/bar");
+		PatternsRequestCondition match = condition.getMatchingCondition(new MockHttpServletRequest("GET", "/foo/bar"));
+
+		assertNotNull(match);
+		assertEquals(Arrays.asList("/foo/bar", "/foo/{bar}", "/foo/**"), new ArrayList<>(match.getPatterns()));
+		assertEquals(3, match.getPathPatterns().size());
+		assertEquals("/foo/bar", match.getPathPatterns().get(0).getPatternString());
+		assertNull(condition.getMatchingCondition(new MockHttpServletRequest("GET", "/bar")));
+	}
+
+	@Test
+	public void matchParsedPatternsWithEncodedPath() {
+		PatternsRequestCondition condition = parsedCondition("/foo/a b");
+		assertNotNull(condition.getMatchingCondition(new MockHttpServletRequest("GET", "/foo/a%20b")));
+	}
+
+	@Test
+	public void matchParsedPatternsTrailingSlashButNoSuffix() {
+		PatternsRequestCondition condition = parsedCondition("/foo");
+		assertNotNull(condition.getMatchingCondition(new MockHttpServletRequest("GET", "/foo/")));
+		assertNull(condition.getMatchingCondition(new MockHttpServletRequest("GET", "/foo.json")));
+	}
+
+	@Test
+	public void combineParsedPatterns() {
+		PatternsRequestCondition c1 = parsedCondition("/type1", "/type2");
+		PatternsRequestCondition c2 = parsedCondition("/method1", "/method2");
+		PatternsRequestCondition combined = c1.combine(c2);
+
+		assertEquals(parsedCondition("/type1/method1", "/type1/method2", "/type2/method1", "/type2/method2"), combined);
+		assertEquals(4, combined.getPathPatterns().size());
+	}
+
+	@Test
+	public void compareParsedPatternSpecificity() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo");
+		PatternsRequestCondition c1 = parsedCondition("/fo*").getMatchingCondition(request);
+		PatternsRequestCondition c2 = parsedCondition("/foo").getMatchingCondition(request);
+
+		assertEquals(1, c1.compareTo(c2, request));
+		assertEquals(-1, c2.compareTo(c1, request));
+	}
+
+	private PatternsRequestCondition parsedCondition(String... patterns) {
+		return new PatternsRequestCondition(patterns, null, null, new PathPatternParser());
+	}
+
 }
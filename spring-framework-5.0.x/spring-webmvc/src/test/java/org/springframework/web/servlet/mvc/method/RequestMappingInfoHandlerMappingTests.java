@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,6 +27,10 @@ import javax.servlet.http.HttpServletRequest;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
 
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.http.HttpHeaders;
@@ -58,6 +62,7 @@ import org.springframework.web.servlet.mvc.condition.PatternsRequestCondition;
 import org.springframework.web.servlet.mvc.condition.ProducesRequestCondition;
 import org.springframework.web.servlet.mvc.condition.RequestMethodsRequestCondition;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
@@ -68,8 +73,17 @@ import static org.junit.Assert.*;
  * @author Arjen Poutsma
  * @author Rossen Stoyanchev
  */
+@RunWith(Parameterized.class)
 public class RequestMappingInfoHandlerMappingTests {
 
+	@Parameter
+	public boolean usePathIndex;
+
+	@Parameters(name = "usePathIndex = {0}")
+	public static Object[] usePathIndex() {
+		return new Object[] {false, true};
+	}
+
 	private TestRequestMappingInfoHandlerMapping handlerMapping;
 
 	private HandlerMethod fooMethod;
@@ -91,6 +105,7 @@ public class RequestMappingInfoHandlerMappingTests {
 		this.emptyMethod = new HandlerMethod(testController, "empty");
 
 		this.handlerMapping = new TestRequestMappingInfoHandlerMapping();
+		this.handlerMapping.setUsePathIndex(this.usePathIndex);
 		this.handlerMapping.registerHandler(testController);
 		this.handlerMapping.setRemoveSemicolonContent(false);
 	}
@@ -286,6 +301,25 @@ public class RequestMappingInfoHandlerMappingTests {
 		assertEquals("a/b", uriVariables.get("identifier"));
 	}
 
+	@SuppressWarnings("unchecked")
+	@Test
+	public void handleMatchParsedPatternVariables() {
+		RequestMappingInfo.BuilderConfiguration config = new RequestMappingInfo.BuilderConfiguration();
+		config.setPatternParser(new PathPatternParser());
+		RequestMappingInfo key = RequestMappingInfo.paths("/{group}/{identifier}").options(config).build();
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/group/a%2Fb;year=2012");
+
+		this.handlerMapping.setRemoveSemicolonContent(false);
+		this.handlerMapping.handleMatch(key, "/group/a/b", request);
+
+		Map<String, String> uriVariables =
+				(Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+		assertEquals("group", uriVariables.get("group"));
+		assertEquals("a/b", uriVariables.get("identifier"));
+		assertEquals("2012", getMatrixVariables(request, "identifier").getFirst("year"));
+		assertEquals("/{group}/{identifier}", request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+	}
+
 	@Test
 	public void handleMatchBestMatchingPatternAttribute() {
 		RequestMappingInfo key = RequestMappingInfo.paths("/{path1}/2", "/**").build();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -32,6 +32,7 @@ import org.junit.Test;
 
 import org.springframework.core.annotation.AliasFor;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.test.MockHttpServletRequest;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.accept.PathExtensionContentNegotiationStrategy;
@@ -43,7 +44,10 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
@@ -128,6 +132,26 @@ public class RequestMappingHandlerMappingTests {
 				this.handlerMapping.useSuffixPatternMatch());
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void getHandlerWithPatternParser() throws Exception {
+		this.wac.registerSingleton("controller", PathPatternController.class);
+		this.wac.refresh();
+		this.handlerMapping.setPatternParser(new PathPatternParser());
+		this.handlerMapping.afterPropertiesSet();
+
+		RequestMappingInfo info = this.handlerMapping.getHandlerMethods().keySet().iterator().next();
+		assertEquals(1, info.getPatternsCondition().getPathPatterns().size());
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/owners/42/files/a/b.txt");
+		HandlerExecutionChain chain = this.handlerMapping.getHandler(request);
+		assertNotNull(chain);
+		Map<String, String> uriVariables =
+				(Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+		assertEquals("42", uriVariables.get("owner"));
+		assertEquals("/a/b.txt", uriVariables.get("path"));
+	}
+
 	@Test
 	public void resolveEmbeddedValuesInPatterns() {
 		this.handlerMapping.setEmbeddedValueResolver(
@@ -245,6 +269,15 @@ public class RequestMappingHandlerMappingTests {
 
 	}
 
+	@Controller
+	static class PathPatternController {
+
+		@GetMapping("/owners/{owner}/files/{*path}")
+		public void files() {
+		}
+	}
+
+
 	@RequestMapping(method = RequestMethod.POST,
 			produces = MediaType.APPLICATION_JSON_VALUE,
 			consumes = MediaType.APPLICATION_JSON_VALUE)
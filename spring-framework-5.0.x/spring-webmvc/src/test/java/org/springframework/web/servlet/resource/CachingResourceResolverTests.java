@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,9 @@
 
 package org.springframework.web.servlet.resource;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Before;
@@ -28,6 +30,7 @@ import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.util.FileCopyUtils;
 
 import static org.junit.Assert.*;
 
@@ -147,4 +150,67 @@ public class CachingResourceResolverTests {
 		assertSame(gzResource, this.chain.resolveResource(request, "bar.css", this.locations));
 	}
 
+	@Test
+	public void resolveResourceContentCodingsInCacheKey() {
+		String file = "bar.css";
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", file);
+		request.addHeader("Accept-Encoding", "gzip, deflate, br;q=0.9, identity");
+		Resource expected = this.chain.resolveResource(request, file, this.locations);
+		String cacheKey = CachingResourceResolver.RESOLVED_RESOURCE_CACHE_KEY_PREFIX + file + "+encoding=br,gzip";
+		assertEquals(expected, this.cache.get(cacheKey).get());
+
+		request = new MockHttpServletRequest("GET", file);
+		request.addHeader("Accept-Encoding", "br;q=0, deflate");
+		expected = this.chain.resolveResource(request, file, this.locations);
+		cacheKey = CachingResourceResolver.RESOLVED_RESOURCE_CACHE_KEY_PREFIX + file;
+		assertEquals(expected, this.cache.get(cacheKey).get());
+	}
+
+	@Test
+	public void resolveResourceWithCachedContent() throws IOException {
+		CachingResourceResolver cachingResolver = new CachingResourceResolver(this.cache);
+		cachingResolver.setMaxCachedContentLength(1024);
+		ResourceResolverChain chain = new DefaultResourceResolverChain(
+				Arrays.asList(cachingResolver, new PathResourceResolver()));
+
+		Resource original = new ClassPathResource("test/bar.css", getClass());
+		Resource actual = chain.resolveResource(null, "bar.css", this.locations);
+
+		assertNotEquals(original, actual);
+		assertEquals("bar.css", actual.getFilename());
+		assertEquals(original.lastModified(), actual.lastModified());
+		assertArrayEquals(FileCopyUtils.copyToByteArray(original.getInputStream()),
+				FileCopyUtils.copyToByteArray(actual.getInputStream()));
+		assertTrue(actual instanceof HttpResource);
+		assertNotNull(((HttpResource) actual).getResponseHeaders().getETag());
+		assertSame(actual, chain.resolveResource(null, "bar.css", this.locations));
+	}
+
+	@Test
+	public void resolveResourceRelativeToCachedContent() throws IOException {
+		CachingResourceResolver cachingResolver = new CachingResourceResolver(this.cache);
+		cachingResolver.setMaxCachedContentLength(1024);
+		ResourceResolverChain chain = new DefaultResourceResolverChain(
+				Arrays.asList(cachingResolver, new PathResourceResolver()));
+
+		Resource original = new ClassPathResource("test/bar.css", getClass());
+		Resource actual = chain.resolveResource(null, "bar.css", this.locations);
+
+		assertEquals(original.getURL(), actual.getURL());
+		assertEquals(original.getURI(), actual.getURI());
+		assertEquals(original.createRelative("foo.css"), actual.createRelative("foo.css"));
+	}
+
+	@Test
+	public void resolveResourceWithCachedContentTooLarge() {
+		CachingResourceResolver cachingResolver = new CachingResourceResolver(this.cache);
+		cachingResolver.setMaxCachedContentLength(1);
+		ResourceResolverChain chain = new DefaultResourceResolverChain(
+				Arrays.asList(cachingResolver, new PathResourceResolver()));
+
+		Resource expected = new ClassPathResource("test/bar.css", getClass());
+		assertEquals(expected, chain.resolveResource(null, "bar.css", this.locations));
+	}
+
 }
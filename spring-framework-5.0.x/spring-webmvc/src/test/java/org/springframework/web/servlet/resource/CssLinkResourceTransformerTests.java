@@ -29,6 +29,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.mock.web.test.MockHttpServletRequest;
@@ -97,6 +98,46 @@ public class CssLinkResourceTransformerTests {
 		assertEquals(expected, result);
 	}
 
+	@Test
+	public void transformWithCachedContent() throws Exception {
+		CachingResourceResolver cachingResolver = new CachingResourceResolver(new ConcurrentMapCache("resourceCache"));
+		cachingResolver.setMaxCachedContentLength(1024);
+		PathResourceResolver pathResolver = new PathResourceResolver();
+		List<ResourceResolver> resolvers = Arrays.asList(cachingResolver, pathResolver);
+
+		ResourceUrlProvider resourceUrlProvider = new ResourceUrlProvider();
+		ResourceHttpRequestHandler resourceHandler = new ResourceHttpRequestHandler();
+		resourceHandler.setResourceResolvers(resolvers);
+		resourceHandler.setLocations(Collections.singletonList(new ClassPathResource("test/", getClass())));
+		resourceUrlProvider.setHandlerMap(Collections.singletonMap("/static/**", resourceHandler));
+
+		CssLinkResourceTransformer cssLinkResourceTransformer = new CssLinkResourceTransformer();
+		cssLinkResourceTransformer.setResourceUrlProvider(resourceUrlProvider);
+		ResourceResolverChain resolverChain = new DefaultResourceResolverChain(resolvers);
+		ResourceTransformerChain transformerChain = new DefaultResourceTransformerChain(
+				resolverChain, Collections.singletonList(cssLinkResourceTransformer));
+
+		this.request = new MockHttpServletRequest("GET", "/static/main.css");
+		List<Resource> locations = Collections.singletonList(new ClassPathResource("test/", getClass()));
+		Resource css = resolverChain.resolveResource(this.request, "main.css", locations);
+		assertNotNull(css);
+		assertEquals(new ClassPathResource("test/main.css", getClass()).getURL(), css.getURL());
+		assertTrue(css.createRelative("bar.css").exists());
+
+		TransformedResource actual = (TransformedResource) transformerChain.transform(this.request, css);
+		String expected = "\n" +
+				"@import url(\"/static/bar.css?#iefix\");\n" +
+				"@import url('/static/bar.css#bla-normal');\n" +
+				"@import url(/static/bar.css);\n\n" +
+				"@import \"/static/foo.css\";\n" +
+				"@import '/static/foo.css';\n\n" +
+				"body { background: url(\"/static/images/image.png?#iefix\") }\n";
+
+		String result = new String(actual.getByteArray(), StandardCharsets.UTF_8);
+		result = StringUtils.deleteAny(result, "\r");
+		assertEquals(expected, result);
+	}
+
 	@Test
 	public void transformNoLinks() throws Exception {
 		this.request = new MockHttpServletRequest("GET", "/static/foo.css");
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.resource;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link EncodedResourceCache}.
+ */
+public class EncodedResourceCacheTests {
+
+	private final EncodedResourceCache cache = new EncodedResourceCache(10);
+
+
+	@Test
+	public void putAndGet() {
+		byte[] content = new byte[4];
+		this.cache.put("a", content);
+
+		assertSame(content, this.cache.get("a"));
+		assertNull(this.cache.get("b"));
+		assertEquals(4, this.cache.getSize());
+	}
+
+	@Test
+	public void replaceEntry() {
+		this.cache.put("a", new byte[4]);
+		this.cache.put("a", new byte[6]);
+
+		assertEquals(6, this.cache.get("a").length);
+		assertEquals(6, this.cache.getSize());
+	}
+
+	@Test
+	public void evictLeastRecentlyUsed() {
+		this.cache.put("a", new byte[4]);
+		this.cache.put("b", new byte[4]);
+		this.cache.get("a");
+		this.cache.put("c", new byte[4]);
+
+		assertNotNull(this.cache.get("a"));
+		assertNull(this.cache.get("b"));
+		assertNotNull(this.cache.get("c"));
+		assertEquals(8, this.cache.getSize());
+	}
+
+	@Test
+	public void contentLargerThanMaxSizeIsNotCached() {
+		this.cache.put("a", new byte[4]);
+		this.cache.put("b", new byte[11]);
+
+		assertNotNull(this.cache.get("a"));
+		assertNull(this.cache.get("b"));
+		assertEquals(4, this.cache.getSize());
+	}
+
+	@Test
+	public void clear() {
+		this.cache.put("a", new byte[4]);
+		this.cache.clear();
+
+		assertNull(this.cache.get("a"));
+		assertEquals(0, this.cache.getSize());
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,11 +22,13 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
 
 import org.hamcrest.Matchers;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
@@ -474,6 +476,20 @@ public class ResourceHttpRequestHandlerTests {
 		assertEquals(HttpServletResponse.SC_NOT_MODIFIED, this.response.getStatus());
 	}
 
+	@Test
+	public void notModifiedWithETag() throws Exception {
+		VersionResourceResolver versionResolver = new VersionResourceResolver()
+				.addFixedVersionStrategy("versionString", "/**");
+		this.handler.setResourceResolvers(Arrays.asList(versionResolver, new PathResourceResolver()));
+		this.handler.afterPropertiesSet();
+
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "versionString/foo.css");
+		this.request.addHeader("If-None-Match", "\"versionString\"");
+		this.handler.handleRequest(this.request, this.response);
+		assertEquals(HttpServletResponse.SC_NOT_MODIFIED, this.response.getStatus());
+		assertEquals(0, this.response.getContentAsByteArray().length);
+	}
+
 	@Test
 	public void modified() throws Exception {
 		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.css");
@@ -650,6 +666,89 @@ public class ResourceHttpRequestHandlerTests {
 		assertEquals("t.", ranges[11]);
 	}
 
+	@Test
+	public void sendfile() throws Exception {
+		this.handler.setSendfileThreshold(10);
+		this.request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.css");
+		this.handler.handleRequest(this.request, this.response);
+
+		assertEquals(200, this.response.getStatus());
+		assertEquals("text/css", this.response.getContentType());
+		assertEquals(17, this.response.getContentLength());
+		assertEquals(new ClassPathResource("test/foo.css", getClass()).getFile().getCanonicalPath(),
+				this.request.getAttribute("org.apache.tomcat.sendfile.filename"));
+		assertEquals(0L, this.request.getAttribute("org.apache.tomcat.sendfile.start"));
+		assertEquals(17L, this.request.getAttribute("org.apache.tomcat.sendfile.end"));
+		assertEquals(0, this.response.getContentAsByteArray().length);
+	}
+
+	@Test
+	public void sendfileByteRange() throws Exception {
+		this.handler.setSendfileThreshold(0);
+		this.request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		this.request.addHeader("Range", "bytes=2-5");
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.txt");
+		this.handler.handleRequest(this.request, this.response);
+
+		assertEquals(206, this.response.getStatus());
+		assertEquals("text/plain", this.response.getContentType());
+		assertEquals(4, this.response.getContentLength());
+		assertEquals("bytes 2-5/10", this.response.getHeader("Content-Range"));
+		assertEquals(2L, this.request.getAttribute("org.apache.tomcat.sendfile.start"));
+		assertEquals(6L, this.request.getAttribute("org.apache.tomcat.sendfile.end"));
+		assertEquals(0, this.response.getContentAsByteArray().length);
+	}
+
+	@Test
+	public void sendfileNotApplicable() throws Exception {
+		this.handler.setSendfileThreshold(10);
+		this.request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.txt");
+		this.handler.handleRequest(this.request, new HttpServletResponseWrapper(this.response));
+		assertEquals("Some text.", this.response.getContentAsString());
+
+		this.response = new MockHttpServletResponse();
+		this.handler.setSendfileThreshold(11);
+		this.handler.handleRequest(this.request, this.response);
+		assertEquals("Some text.", this.response.getContentAsString());
+		assertNull(this.request.getAttribute("org.apache.tomcat.sendfile.filename"));
+	}
+
+	@Test
+	public void getResourceWithCachedContent() throws Exception {
+		CachingResourceResolver cachingResolver = new CachingResourceResolver(new ConcurrentMapCache("resources"));
+		cachingResolver.setMaxCachedContentLength(1024);
+		this.handler.setResourceResolvers(Arrays.asList(cachingResolver, new PathResourceResolver()));
+		this.handler.setSendfileThreshold(0);
+		this.handler.afterPropertiesSet();
+
+		this.request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.css");
+		this.handler.handleRequest(this.request, this.response);
+
+		assertEquals("text/css", this.response.getContentType());
+		assertEquals(17, this.response.getContentLength());
+		assertEquals("h1 { color:red; }", this.response.getContentAsString());
+		String eTag = this.response.getHeader("ETag");
+		assertNotNull(eTag);
+
+		this.request = new MockHttpServletRequest("GET", "");
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.css");
+		this.request.addHeader("If-None-Match", eTag);
+		this.response = new MockHttpServletResponse();
+		this.handler.handleRequest(this.request, this.response);
+		assertEquals(HttpServletResponse.SC_NOT_MODIFIED, this.response.getStatus());
+
+		this.request = new MockHttpServletRequest("GET", "");
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.css");
+		this.request.addHeader("Range", "bytes=0-1");
+		this.response = new MockHttpServletResponse();
+		this.handler.handleRequest(this.request, this.response);
+		assertEquals(206, this.response.getStatus());
+		assertEquals("h1", this.response.getContentAsString());
+	}
+
 	@Test  // SPR-14005
 	public void doOverwriteExistingCacheControlHeaders() throws Exception {
 		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.css");